@@ -0,0 +1,476 @@
+/*
+ * File: BackEndBenchmarks.java
+ * Date: 10/18/26
+ */
+
+package bantam.bench;
+
+import bantam.ast.Program;
+import bantam.cfg.BasicBlock;
+import bantam.cfg.BinaryAddInst;
+import bantam.cfg.BinaryMulInst;
+import bantam.cfg.IfInst;
+import bantam.cfg.ReturnInst;
+import bantam.codegenmips.MipsCodeGenerator;
+import bantam.codegenmips.MipsSupport;
+import bantam.codegenx86.X86CodeGenerator;
+import bantam.codegenx86.X86Support;
+import bantam.opt.Optimizer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.AssemblyEmitter;
+import bantam.util.ClassTreeNode;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * The <tt>BackEndBenchmarks</tt> class benchmarks the middle and back end of
+ * the compiler: building control flow graphs (<tt>BasicBlock</tt>),
+ * <tt>BasicBlock.getOrderedBlocks</tt> and <tt>printAll</tt>, the
+ * <tt>Optimizer</tt> at each level, the code generators, and assembly
+ * emission through <tt>MipsSupport</tt> and <tt>X86Support</tt>.
+ * <p/>
+ * The optimizer and code generator benchmarks run on a program generated by
+ * <tt>ProgramGenerator</tt>, parsed and analyzed outside the measured
+ * operations, so they don't include front end costs.  The control flow graph benchmarks use synthetic
+ * graphs made of if-else diamonds and while loops.  Assembly is written to a
+ * stream that discards it, so only the cost of formatting instructions is
+ * measured.
+ * <p/>
+ * Usage: <tt>java bantam.bench.BackEndBenchmarks [runner options]</tt>
+ * (see <tt>BenchmarkRunner</tt>).
+ */
+public class BackEndBenchmarks {
+    /**
+     * Sizes (number of if-else/while statements) of the synthetic control flow graphs
+     */
+    private static final int[] CFG_SIZES = {100, 1000};
+    /**
+     * Number of classes of the generated program given to the optimizer and code generators
+     */
+    private static final int PROGRAM_SIZE = 1000;
+    /**
+     * Number of instructions emitted by one assembly emission operation
+     */
+    private static final int EMIT_SIZE = 1000;
+    /**
+     * Number of instructions written by one assembly file operation
+     * (about the size of the code for a large generated program)
+     */
+    private static final int FILE_EMIT_SIZE = 200000;
+
+    /**
+     * Run the back end benchmarks
+     *
+     * @param args runner options
+     */
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner(args);
+        if (runner.getOtherArgs().size() > 0) {
+            System.err.println("Usage error: unknown option " + runner.getOtherArgs().get(0));
+            System.exit(1);
+        }
+
+        List<Benchmark> benchmarks = new Vector<Benchmark>();
+        for (int size : CFG_SIZES) {
+            benchmarks.add(cfgBuildBenchmark(size));
+            benchmarks.add(cfgOrderBenchmark(size));
+            benchmarks.add(cfgPrintBenchmark(size));
+        }
+        Corpus program = ProgramGenerator.program(PROGRAM_SIZE, false);
+        for (int level = 1; level <= 4; level++) {
+            benchmarks.add(optimizerBenchmark(program, level));
+        }
+        benchmarks.add(codeGeneratorBenchmark(program, "mips"));
+        benchmarks.add(codeGeneratorBenchmark(program, "x86"));
+        benchmarks.add(mipsEmitBenchmark());
+        benchmarks.add(x86EmitBenchmark());
+        for (String target : new String[]{"mips", "x86"}) {
+            for (String stream : new String[]{"printstream", "emitter", "emitter-bg"}) {
+                benchmarks.add(emitFileBenchmark(target, stream));
+            }
+        }
+
+        runner.run(benchmarks);
+    }
+
+    /**
+     * Benchmark building a control flow graph
+     *
+     * @param size number of if-else/while statements in the graph
+     * @return the benchmark
+     */
+    static Benchmark cfgBuildBenchmark(final int size) {
+        return new Benchmark("cfg.build:" + size) {
+            public void setup() {
+                setUnits("blocks", countBlocks(buildCFG(size)));
+            }
+
+            public Object run() {
+                return buildCFG(size);
+            }
+        };
+    }
+
+    /**
+     * Benchmark ordering the blocks of a control flow graph (blocks are
+     * ordered once per graph, so a fresh graph is built before each operation)
+     *
+     * @param size number of if-else/while statements in the graph
+     * @return the benchmark
+     */
+    static Benchmark cfgOrderBenchmark(final int size) {
+        return new Benchmark("cfg.getOrderedBlocks:" + size) {
+            private BasicBlock entrance;
+
+            public void setup() {
+                setUnits("blocks", countBlocks(buildCFG(size)));
+                setPerOperationSetup();
+            }
+
+            public void prepare() {
+                entrance = buildCFG(size);
+            }
+
+            public Object run() {
+                return countBlocks(entrance);
+            }
+        };
+    }
+
+    /**
+     * Benchmark printing a control flow graph (to a stream that discards the
+     * output); the blocks are ordered once in setup
+     *
+     * @param size number of if-else/while statements in the graph
+     * @return the benchmark
+     */
+    static Benchmark cfgPrintBenchmark(final int size) {
+        return new Benchmark("cfg.printAll:" + size) {
+            private PrintStream discard = discardStream();
+            private BasicBlock entrance;
+
+            public void setup() {
+                entrance = buildCFG(size);
+                setUnits("blocks", countBlocks(entrance));
+            }
+
+            public Object run() {
+                PrintStream saved = System.out;
+                System.setOut(discard);
+                try {
+                    entrance.printAll();
+                } finally {
+                    System.setOut(saved);
+                }
+                return entrance;
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>Optimizer.optimize</tt> at an optimization level (the
+     * optimizer modifies the tree it's given, so a freshly analyzed class
+     * hierarchy tree is built before each operation)
+     *
+     * @param input program to optimize
+     * @param level optimization level (1-4)
+     * @return the benchmark
+     */
+    static Benchmark optimizerBenchmark(final Corpus input, final int level) {
+        return new Benchmark("opt.optimize:O" + level + ":" + input.getName()) {
+            private ClassTreeNode classTree;
+
+            public void setup() {
+                setPerOperationSetup();
+            }
+
+            public void prepare() throws Exception {
+                classTree = analyze(input);
+            }
+
+            public Object run() {
+                new Optimizer(classTree, level, false).optimize();
+                return classTree;
+            }
+        };
+    }
+
+    /**
+     * Benchmark a code generator (over a class hierarchy tree analyzed in setup,
+     * writing to a stream that discards the output)
+     *
+     * @param input  program to generate code for
+     * @param target target architecture ("mips" or "x86")
+     * @return the benchmark
+     */
+    static Benchmark codeGeneratorBenchmark(final Corpus input, final String target) {
+        return new Benchmark("codegen." + target + ":" + input.getName()) {
+            private ClassTreeNode classTree;
+            private PrintStream discard = discardStream();
+
+            public void setup() throws Exception {
+                classTree = analyze(input);
+            }
+
+            public Object run() {
+                if (target.equals("mips")) {
+                    new MipsCodeGenerator(classTree, discard, false, false, false).generate();
+                }
+                else {
+                    new X86CodeGenerator(classTree, discard, false, false, false).generate();
+                }
+                return classTree;
+            }
+        };
+    }
+
+    /**
+     * Benchmark emitting MIPS assembly through <tt>MipsSupport</tt>
+     *
+     * @return the benchmark
+     */
+    static Benchmark mipsEmitBenchmark() {
+        return new Benchmark("emit.mips") {
+            private MipsSupport support = new MipsSupport(discardStream());
+
+            public void setup() {
+                setUnits("insns", EMIT_SIZE);
+            }
+
+            public Object run() {
+                emitMips(support, EMIT_SIZE);
+                return support;
+            }
+        };
+    }
+
+    /**
+     * Benchmark emitting x86 assembly through <tt>X86Support</tt>
+     *
+     * @return the benchmark
+     */
+    static Benchmark x86EmitBenchmark() {
+        return new Benchmark("emit.x86") {
+            private X86Support support = new X86Support(discardStream());
+
+            public void setup() {
+                setUnits("insns", EMIT_SIZE);
+            }
+
+            public Object run() {
+                emitX86(support, EMIT_SIZE);
+                return support;
+            }
+        };
+    }
+
+    /**
+     * Benchmark writing a large assembly file (one operation creates the file,
+     * emits <tt>FILE_EMIT_SIZE</tt> instructions and closes it)
+     *
+     * @param target target architecture ("mips" or "x86")
+     * @param stream kind of output stream: "printstream" (a <tt>PrintStream</tt>
+     *               over a <tt>FileOutputStream</tt>), "emitter" (an
+     *               <tt>AssemblyEmitter</tt>) or "emitter-bg" (an
+     *               <tt>AssemblyEmitter</tt> with a background writer thread)
+     * @return the benchmark
+     */
+    static Benchmark emitFileBenchmark(final String target, final String stream) {
+        return new Benchmark("emit." + target + ".file:" + stream) {
+            private File file;
+
+            public void setup() throws Exception {
+                file = File.createTempFile("bantam", ".s");
+                file.deleteOnExit();
+                run();
+                setUnits("bytes", file.length());
+            }
+
+            public Object run() throws Exception {
+                PrintStream out;
+                if (stream.equals("printstream")) {
+                    out = new PrintStream(new FileOutputStream(file));
+                }
+                else {
+                    out = new AssemblyEmitter(file.getPath(), stream.equals("emitter-bg"));
+                }
+                if (target.equals("mips")) {
+                    emitMips(new MipsSupport(out), FILE_EMIT_SIZE);
+                }
+                else {
+                    emitX86(new X86Support(out), FILE_EMIT_SIZE);
+                }
+                out.close();
+                return out;
+            }
+        };
+    }
+
+    /**
+     * Emit MIPS instructions (a loop body of 10 typical instructions)
+     *
+     * @param support MIPS assembly support object
+     * @param n       number of instructions
+     */
+    private static void emitMips(MipsSupport support, int n) {
+        String t0 = support.getT0Reg();
+        String t1 = support.getT1Reg();
+        String fp = support.getFPReg();
+        for (int i = 0; i < n / 10; i++) {
+            String label = support.getLabel();
+            support.genLabel(label);
+            support.genLoadWord(t0, -4 * (i % 8 + 1), fp);
+            support.genLoadImm(t1, i);
+            support.genAdd(t0, t0, t1);
+            support.genMul(t1, t0, 4);
+            support.genStoreWord(t1, -4 * (i % 8 + 1), fp);
+            support.genCondBeq(t0, t1, label);
+            support.genMove(t1, t0);
+            support.genDirCall("String.equals");
+            support.genUncondBr(label);
+        }
+    }
+
+    /**
+     * Emit x86 instructions (a loop body of 10 typical instructions)
+     *
+     * @param support x86 assembly support object
+     * @param n       number of instructions
+     */
+    private static void emitX86(X86Support support, int n) {
+        String eax = support.getEAXReg();
+        String ebx = support.getEBXReg();
+        String fp = support.getFPReg();
+        for (int i = 0; i < n / 10; i++) {
+            String label = support.getLabel();
+            support.genLabel(label);
+            support.genMove(-4 * (i % 8 + 1), fp, eax);
+            support.genMove(i, ebx);
+            support.genAdd(ebx, eax);
+            support.genPush(eax);
+            support.genPop(ebx);
+            support.genMove(ebx, -4 * (i % 8 + 1), fp);
+            support.genCondBeq(eax, ebx, label);
+            support.genDirCall("String.equals");
+            support.genUncondBr(label);
+        }
+    }
+
+    /**
+     * Parse and analyze a program
+     *
+     * @param input source files of the program
+     * @return root of the class hierarchy tree
+     * @throws Exception if the program couldn't be parsed or analyzed
+     */
+    static ClassTreeNode analyze(Corpus input) throws Exception {
+        Program program = (Program) new Parser(input.newLexer()).parse().value;
+        return new SemanticAnalyzer(program, false).analyze();
+    }
+
+    /**
+     * Build a synthetic control flow graph: a sequence of statements, alternately
+     * an if-else diamond and a while loop, followed by a return block
+     *
+     * @param size number of statements
+     * @return entrance block of the graph
+     */
+    static BasicBlock buildCFG(int size) {
+        BasicBlock entrance = new BasicBlock(1, 0, 0);
+        addArith(entrance);
+        BasicBlock current = entrance;
+        for (int i = 0; i < size; i++) {
+            BasicBlock pred = new BasicBlock(i, i % 2, i % 2 == 0 ? 1 : 0);
+            link(current, pred);
+            addArith(pred);
+            BasicBlock join = new BasicBlock(i, 0, 0);
+            if (i % 2 == 0) {
+                // if-else diamond
+                BasicBlock thenBlock = new BasicBlock(i, 0, 1);
+                BasicBlock elseBlock = new BasicBlock(i, 0, 1);
+                pred.addInst(new IfInst(IfInst.LT, "x@l", "y@l", thenBlock, elseBlock));
+                link(pred, thenBlock);
+                link(pred, elseBlock);
+                addArith(thenBlock);
+                addArith(elseBlock);
+                link(thenBlock, join);
+                link(elseBlock, join);
+            }
+            else {
+                // while loop (the predicate is part of the loop)
+                BasicBlock body = new BasicBlock(i, 1, 0);
+                pred.addInst(new IfInst(IfInst.LT, "x@l", "y@l", body, join));
+                link(pred, body);
+                link(pred, join);
+                addArith(body);
+                link(body, pred);
+            }
+            current = join;
+        }
+        BasicBlock exit = new BasicBlock(size, 0, 0);
+        exit.addInst(new ReturnInst("x@l"));
+        link(current, exit);
+        return entrance;
+    }
+
+    /**
+     * Add a few arithmetic instructions to a block
+     *
+     * @param block the block
+     */
+    private static void addArith(BasicBlock block) {
+        block.addInst(new BinaryAddInst("x@l", "x@l", "1"));
+        block.addInst(new BinaryMulInst("y@l", "x@l", "y@l"));
+        block.addInst(new BinaryAddInst("y@l", "y@l", "x@l"));
+    }
+
+    /**
+     * Add an edge between two blocks
+     *
+     * @param from source block
+     * @param to   target block
+     */
+    private static void link(BasicBlock from, BasicBlock to) {
+        from.addOutEdge(to);
+        to.addInEdge(from);
+    }
+
+    /**
+     * Count the blocks of a control flow graph (orders the blocks)
+     *
+     * @param entrance entrance block of the graph
+     * @return number of blocks
+     */
+    static int countBlocks(BasicBlock entrance) {
+        int cnt = 0;
+        Iterator<BasicBlock> iter = entrance.getOrderedBlocks();
+        while (iter.hasNext()) {
+            iter.next();
+            cnt++;
+        }
+        return cnt;
+    }
+
+    /**
+     * Create a (buffered) print stream that discards everything written to it
+     *
+     * @return the print stream
+     */
+    static PrintStream discardStream() {
+        return new PrintStream(new BufferedOutputStream(new OutputStream() {
+            public void write(int b) {
+            }
+
+            public void write(byte[] b, int off, int len) {
+            }
+        }, 8192));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * File: Benchmark.java
+ * Date: 10/18/26
+ */
+
+package bantam.bench;
+
+/**
+ * The abstract <tt>Benchmark</tt> class represents a single benchmark run by
+ * the <tt>BenchmarkRunner</tt>.  A benchmark prepares its input in
+ * <tt>setup</tt> (which is not measured) and performs one operation each time
+ * <tt>run</tt> is called.  A benchmark whose <tt>setup</tt> (or first
+ * operation) throws is reported as skipped, which is how benchmarks of
+ * phases that haven't been implemented yet show up.
+ * <p/>
+ * A benchmark whose operation consumes its input (e.g., modifies it) can
+ * prepare a fresh input before every operation in <tt>prepare</tt>, which
+ * is not measured either.
+ *
+ * @see BenchmarkRunner
+ */
+public abstract class Benchmark {
+    /**
+     * Name of the benchmark (e.g., "lexer.nextToken:corpus")
+     */
+    private String name;
+    /**
+     * Name of the work units an operation processes (null if not reported)
+     */
+    private String unitName;
+    /**
+     * Number of work units processed by one operation
+     */
+    private long unitsPerOp = 0;
+    /**
+     * Boolean indicating whether prepare must be called before every operation
+     */
+    private boolean perOperationSetup = false;
+
+    /**
+     * Benchmark constructor
+     *
+     * @param name name of the benchmark
+     */
+    protected Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the name of the benchmark
+     *
+     * @return benchmark name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the name of the work units an operation processes
+     *
+     * @return unit name (e.g., "tokens"), null if not reported
+     */
+    public String getUnitName() {
+        return unitName;
+    }
+
+    /**
+     * Get the number of work units processed by one operation
+     *
+     * @return units per operation
+     */
+    public long getUnitsPerOp() {
+        return unitsPerOp;
+    }
+
+    /**
+     * Set the work units processed by one operation, so that the runner
+     * also reports units per second (e.g., tokens per second)
+     *
+     * @param unitName   name of the units
+     * @param unitsPerOp number of units processed by one operation
+     */
+    protected void setUnits(String unitName, long unitsPerOp) {
+        this.unitName = unitName;
+        this.unitsPerOp = unitsPerOp;
+    }
+
+    /**
+     * Does <tt>prepare</tt> have to be called before every operation?
+     *
+     * @return true if the benchmark needs per-operation setup
+     */
+    public boolean hasPerOperationSetup() {
+        return perOperationSetup;
+    }
+
+    /**
+     * Make the runner call <tt>prepare</tt> before every operation (and time
+     * each operation separately)
+     */
+    protected void setPerOperationSetup() {
+        perOperationSetup = true;
+    }
+
+    /**
+     * Prepare the input of the next operation (not measured; only called
+     * if <tt>setPerOperationSetup</tt> was called)
+     *
+     * @throws Exception if the input can't be prepared
+     */
+    public void prepare() throws Exception {
+    }
+
+    /**
+     * Prepare the benchmark input (not measured)
+     *
+     * @throws Exception if the benchmark can't be run
+     */
+    public void setup() throws Exception {
+    }
+
+    /**
+     * Perform one operation
+     *
+     * @return result of the operation (consumed by the runner, so the work
+     *         can't be optimized away)
+     * @throws Exception if the operation failed
+     */
+    public abstract Object run() throws Exception;
+}
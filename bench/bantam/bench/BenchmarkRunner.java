@@ -0,0 +1,252 @@
+/*
+ * File: BenchmarkRunner.java
+ * Date: 10/18/26
+ */
+
+package bantam.bench;
+
+import bantam.util.CompilationException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Vector;
+import java.util.regex.Pattern;
+
+/**
+ * The <tt>BenchmarkRunner</tt> class runs benchmarks and reports, for each
+ * benchmark, the throughput (operations per second, and work units per
+ * second if the benchmark reports units) and the allocation (bytes per
+ * operation and MB per second, measured with <tt>ThreadMXBean</tt>).
+ * <p/>
+ * Each benchmark is run for a number of warmup iterations (not reported)
+ * followed by a number of measured iterations of a fixed duration; the score
+ * is the mean over the measured iterations, with its standard deviation.
+ * For benchmarks with per-operation setup only the operations themselves are
+ * timed (so the score is the inverse of the mean operation time).
+ * The runner understands the following options (all other arguments are
+ * left for the benchmark suite):
+ * <ul>
+ * <li> <tt>-wi &lt;n&gt;</tt> number of warmup iterations (default 3)
+ * <li> <tt>-i &lt;n&gt;</tt> number of measured iterations (default 5)
+ * <li> <tt>-t &lt;ms&gt;</tt> duration of an iteration in ms (default 1000)
+ * <li> <tt>-f &lt;regex&gt;</tt> only run benchmarks whose name matches
+ * </ul>
+ */
+public class BenchmarkRunner {
+    /**
+     * Number of warmup iterations
+     */
+    private int warmupIterations = 3;
+    /**
+     * Number of measured iterations
+     */
+    private int iterations = 5;
+    /**
+     * Duration of an iteration in ms
+     */
+    private long iterationMs = 1000;
+    /**
+     * Only benchmarks whose name matches this pattern are run (null means all)
+     */
+    private Pattern filter = null;
+    /**
+     * Arguments not understood by the runner
+     */
+    private Vector<String> otherArgs = new Vector<String>();
+    /**
+     * Bean used to measure allocation
+     */
+    private ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    /**
+     * Results are stored here, so the benchmarked work can't be optimized away
+     */
+    private static volatile Object sink;
+
+    /**
+     * BenchmarkRunner constructor
+     *
+     * @param args command-line arguments (runner options and suite options)
+     */
+    public BenchmarkRunner(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-wi") && i + 1 < args.length) {
+                warmupIterations = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("-i") && i + 1 < args.length) {
+                iterations = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("-t") && i + 1 < args.length) {
+                iterationMs = Long.parseLong(args[++i]);
+            }
+            else if (args[i].equals("-f") && i + 1 < args.length) {
+                filter = Pattern.compile(args[++i]);
+            }
+            else {
+                otherArgs.add(args[i]);
+            }
+        }
+    }
+
+    /**
+     * Get the arguments not understood by the runner
+     *
+     * @return list of the suite's arguments
+     */
+    public Vector<String> getOtherArgs() {
+        return otherArgs;
+    }
+
+    /**
+     * Run benchmarks and print the results
+     *
+     * @param benchmarks list of benchmarks
+     */
+    public void run(List<Benchmark> benchmarks) {
+        System.out.println("# warmup: " + warmupIterations + " x " + iterationMs +
+                " ms, measurement: " + iterations + " x " + iterationMs + " ms");
+        System.out.println(String.format("%-44s %24s %12s %12s  %s",
+                "Benchmark", "ops/s", "B/op", "alloc MB/s", "units/s"));
+        for (Benchmark benchmark : benchmarks) {
+            if (filter == null || filter.matcher(benchmark.getName()).find()) {
+                run(benchmark);
+            }
+        }
+    }
+
+    /**
+     * Run a single benchmark and print its result
+     *
+     * @param benchmark the benchmark
+     */
+    private void run(Benchmark benchmark) {
+        double[] opsPerSec = new double[iterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        long totalNs = 0;
+        try {
+            benchmark.setup();
+            for (int i = 0; i < warmupIterations; i++) {
+                iterate(benchmark, null);
+            }
+            for (int i = 0; i < iterations; i++) {
+                long[] measured = new long[3];
+                iterate(benchmark, measured);
+                opsPerSec[i] = measured[0] * 1e9 / measured[1];
+                totalOps += measured[0];
+                totalNs += measured[1];
+                totalBytes += measured[2];
+            }
+        } catch (Throwable e) {
+            String reason = e.getMessage() != null ? e.getMessage() : e.toString();
+            if (e instanceof CompilationException &&
+                    ((CompilationException) e).getErrors().size() > 0) {
+                reason = ((CompilationException) e).getErrors().get(0);
+            }
+            System.out.println(String.format("%-44s SKIPPED (%s)", benchmark.getName(), reason));
+            return;
+        }
+
+        // mean and standard deviation of the throughput
+        double mean = 0;
+        for (double score : opsPerSec) {
+            mean += score;
+        }
+        mean /= iterations;
+        double variance = 0;
+        for (double score : opsPerSec) {
+            variance += (score - mean) * (score - mean);
+        }
+        double sd = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+
+        String alloc = totalBytes < 0 ? String.format("%12s %12s", "n/a", "n/a") :
+                String.format("%12.0f %12.2f", (double) totalBytes / totalOps,
+                        totalBytes * 1e9 / totalNs / (1024 * 1024));
+        String units = benchmark.getUnitName() == null ? "" :
+                String.format("%.1f %s/s", mean * benchmark.getUnitsPerOp(),
+                        benchmark.getUnitName());
+        System.out.println(String.format("%-44s %12.1f +- %9.1f %s  %s",
+                benchmark.getName(), mean, sd, alloc, units));
+    }
+
+    /**
+     * Run one iteration of a benchmark
+     *
+     * @param benchmark the benchmark
+     * @param measured  if not null, filled in with the number of operations,
+     *                  the elapsed ns and the allocated bytes (-1 if not supported)
+     * @throws Exception if an operation failed
+     */
+    private void iterate(Benchmark benchmark, long[] measured) throws Exception {
+        if (benchmark.hasPerOperationSetup()) {
+            iterateWithSetup(benchmark, measured);
+            return;
+        }
+
+        long ops = 0;
+        long startBytes = allocatedBytes();
+        long start = System.nanoTime();
+        long deadline = start + iterationMs * 1000000;
+        long now;
+        do {
+            sink = benchmark.run();
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long endBytes = allocatedBytes();
+
+        if (measured != null) {
+            measured[0] = ops;
+            measured[1] = now - start;
+            measured[2] = startBytes < 0 || endBytes < 0 ? -1 : endBytes - startBytes;
+        }
+    }
+
+    /**
+     * Run one iteration of a benchmark that prepares the input of each
+     * operation (each operation is timed separately, excluding the setup)
+     *
+     * @param benchmark the benchmark
+     * @param measured  if not null, filled in with the number of operations,
+     *                  the measured ns and the allocated bytes (-1 if not supported)
+     * @throws Exception if an operation failed
+     */
+    private void iterateWithSetup(Benchmark benchmark, long[] measured) throws Exception {
+        long ops = 0;
+        long ns = 0;
+        long bytes = 0;
+        long deadline = System.nanoTime() + iterationMs * 1000000;
+        do {
+            benchmark.prepare();
+            long startBytes = allocatedBytes();
+            long start = System.nanoTime();
+            sink = benchmark.run();
+            ns += System.nanoTime() - start;
+            long endBytes = allocatedBytes();
+            bytes = bytes < 0 || startBytes < 0 ? -1 : bytes + endBytes - startBytes;
+            ops++;
+        } while (System.nanoTime() < deadline);
+
+        if (measured != null) {
+            measured[0] = ops;
+            measured[1] = ns;
+            measured[2] = bytes;
+        }
+    }
+
+    /**
+     * Get the number of bytes allocated by the current thread
+     *
+     * @return allocated bytes (-1 if not supported)
+     */
+    private long allocatedBytes() {
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * File: Corpus.java
+ * Date: 10/18/26
+ */
+
+package bantam.bench;
+
+import bantam.lexer.FastLexer;
+import bantam.lexer.Lexer;
+import bantam.lexer.TokenBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Vector;
+
+/**
+ * The <tt>Corpus</tt> class holds a benchmark input: one or more Bantam
+ * source files kept in memory, so the benchmarks don't measure disk I/O.
+ */
+public class Corpus {
+    /**
+     * Name of the input (used in benchmark names)
+     */
+    private String name;
+    /**
+     * Names of the source files
+     */
+    private String[] filenames;
+    /**
+     * Program text of each source file
+     */
+    private String[] sources;
+
+    /**
+     * Corpus constructor
+     *
+     * @param name      name of the input
+     * @param filenames names of the source files
+     * @param sources   program text of each source file
+     */
+    public Corpus(String name, String[] filenames, String[] sources) {
+        this.name = name;
+        this.filenames = filenames;
+        this.sources = sources;
+    }
+
+    /**
+     * Load every <tt>.btm</tt> file of a directory (e.g., <tt>testfiles</tt>)
+     *
+     * @param name name of the input
+     * @param dir  directory holding the source files
+     * @return the corpus (sorted by file name)
+     * @throws IOException if a file can't be read
+     */
+    public static Corpus load(String name, String dir) throws IOException {
+        File[] files = new File(dir).listFiles();
+        if (files == null) {
+            throw new IOException("can't read directory '" + dir + "'");
+        }
+        Arrays.sort(files);
+        Vector<String> filenames = new Vector<String>();
+        Vector<String> sources = new Vector<String>();
+        for (File file : files) {
+            if (file.getName().endsWith(".btm")) {
+                filenames.add(file.getPath());
+                sources.add(new String(Files.readAllBytes(file.toPath())));
+            }
+        }
+        return new Corpus(name, filenames.toArray(new String[filenames.size()]),
+                sources.toArray(new String[sources.size()]));
+    }
+
+    /**
+     * Get the name of the input
+     *
+     * @return input name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the names of the source files
+     *
+     * @return array of file names
+     */
+    public String[] getFilenames() {
+        return filenames;
+    }
+
+    /**
+     * Get the program text of the source files
+     *
+     * @return array of program texts
+     */
+    public String[] getSources() {
+        return sources;
+    }
+
+    /**
+     * Get the number of source files
+     *
+     * @return number of files
+     */
+    public int size() {
+        return filenames.length;
+    }
+
+    /**
+     * Get the total number of source lines
+     *
+     * @return number of lines
+     */
+    public long getNumLines() {
+        long cnt = 0;
+        for (String source : sources) {
+            for (int i = 0; i < source.length(); i++) {
+                if (source.charAt(i) == '\n') {
+                    cnt++;
+                }
+            }
+        }
+        return cnt;
+    }
+
+    /**
+     * Create a lexer over the (in-memory) source files
+     *
+     * @return new lexer
+     */
+    public Lexer newLexer() {
+        return new Lexer(filenames, newReaders(), false);
+    }
+
+    /**
+     * Create a hand-written scanner over the (in-memory) source files
+     *
+     * @return new scanner
+     */
+    public FastLexer newFastLexer() {
+        return new FastLexer(filenames, newReaders(), false);
+    }
+
+    /**
+     * Scan the (in-memory) source files into a token buffer
+     *
+     * @return new token buffer
+     * @throws IOException if a source can't be read
+     */
+    public TokenBuffer newTokenBuffer() throws IOException {
+        return new TokenBuffer(filenames, newReaders());
+    }
+
+    /**
+     * Create a reader for each source file
+     *
+     * @return list of readers
+     */
+    private Reader[] newReaders() {
+        Reader[] readers = new Reader[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            readers[i] = new StringReader(sources[i]);
+        }
+        return readers;
+    }
+
+    /**
+     * Keep only the source files accepted by a filter
+     *
+     * @param name   name of the new corpus
+     * @param filter filter applied to each file (as a single-file corpus)
+     * @return corpus of the accepted files
+     */
+    public Corpus select(String name, Filter filter) {
+        Vector<String> keptFilenames = new Vector<String>();
+        Vector<String> keptSources = new Vector<String>();
+        for (int i = 0; i < filenames.length; i++) {
+            Corpus file = new Corpus(filenames[i], new String[]{filenames[i]},
+                    new String[]{sources[i]});
+            if (filter.accept(file)) {
+                keptFilenames.add(filenames[i]);
+                keptSources.add(sources[i]);
+            }
+        }
+        return new Corpus(name, keptFilenames.toArray(new String[keptFilenames.size()]),
+                keptSources.toArray(new String[keptSources.size()]));
+    }
+
+    /**
+     * Filter used to select source files
+     */
+    public interface Filter {
+        /**
+         * Decide whether to keep a source file
+         *
+         * @param file the source file (as a single-file corpus)
+         * @return true if the file is kept
+         */
+        boolean accept(Corpus file);
+    }
+}
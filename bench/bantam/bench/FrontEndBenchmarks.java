@@ -0,0 +1,589 @@
+/*
+ * File: FrontEndBenchmarks.java
+ * Date: 10/18/26
+ */
+
+package bantam.bench;
+
+import bantam.ast.ASTFile;
+import bantam.ast.ASTNode;
+import bantam.ast.FlatAST;
+import bantam.ast.Program;
+import bantam.lexer.BantamScanner;
+import bantam.lexer.PipelinedScanner;
+import bantam.lexer.TokenBuffer;
+import bantam.parser.ParallelClassParser;
+import bantam.parser.Parser;
+import bantam.parser.RDParser;
+import bantam.parser.TokenIds;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.SymbolTable;
+import bantam.visitor.NodeCountVisitor;
+import bantam.visitor.TrimVisitor;
+
+import java.io.File;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * The <tt>FrontEndBenchmarks</tt> class benchmarks the compiler front end:
+ * <tt>Lexer.next_token</tt> (and <tt>FastLexer.next_token</tt>), <tt>Parser.parse</tt>
+ * (and <tt>RDParser.parse</tt>), <tt>ASTFile.read</tt> (compared with
+ * re-parsing the source), <tt>SemanticAnalyzer.analyze</tt> and the
+ * <tt>SymbolTable</tt> operations.
+ * The lexer, parser and semantic analyzer are run over the
+ * <tt>testfiles</tt> corpus (only the files the phase accepts) and over
+ * large programs generated by <tt>ProgramGenerator</tt>.
+ * <p/>
+ * Usage: <tt>java bantam.bench.FrontEndBenchmarks [runner options]
+ * [-corpus &lt;dir&gt;]</tt> (see <tt>BenchmarkRunner</tt> for the runner
+ * options; the corpus directory defaults to <tt>testfiles</tt>).
+ */
+public class FrontEndBenchmarks {
+    /**
+     * Sizes (number of classes) of the generated programs
+     */
+    private static final int[] SYNTHETIC_SIZES = {1000, 10000};
+
+    /**
+     * Size (number of classes) of the large program the parser alone is
+     * benchmarked on
+     */
+    private static final int LARGE_SIZE = 100000;
+
+    /**
+     * Run the front end benchmarks
+     *
+     * @param args runner options and suite options
+     * @throws Exception if the corpus can't be loaded
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner(args);
+        String corpusDir = "testfiles";
+        Vector<String> options = runner.getOtherArgs();
+        for (int i = 0; i < options.size(); i++) {
+            if (options.get(i).equals("-corpus") && i + 1 < options.size()) {
+                corpusDir = options.get(++i);
+            }
+            else {
+                System.err.println("Usage error: unknown option " + options.get(i));
+                System.exit(1);
+            }
+        }
+
+        // inputs
+        Corpus corpus = Corpus.load("corpus", corpusDir);
+        Corpus lexable = corpus.select("corpus", new Corpus.Filter() {
+            public boolean accept(Corpus file) {
+                return lexes(file);
+            }
+        });
+        Corpus parsable = corpus.select("corpus", new Corpus.Filter() {
+            public boolean accept(Corpus file) {
+                return parses(file);
+            }
+        });
+        System.out.println("# corpus " + corpusDir + ": " + corpus.size() + " files, " +
+                lexable.size() + " accepted by the lexer, " +
+                parsable.size() + " accepted by the parser");
+
+        // the parser only accepts class declarations so far, so the parser and
+        // semantic analyzer run over empty classes; the lexer also runs over
+        // complete programs (restricted to the tokens it supports)
+        Vector<Corpus> synthetic = new Vector<Corpus>();
+        Vector<Corpus> programs = new Vector<Corpus>();
+        for (int size : SYNTHETIC_SIZES) {
+            synthetic.add(ProgramGenerator.emptyClasses(size));
+            programs.add(ProgramGenerator.program(size, true));
+        }
+
+        // heap taken by the ASTs of the complete programs
+        for (Corpus input : programs) {
+            printAstHeap(input);
+        }
+
+        // benchmarks
+        List<Benchmark> benchmarks = new Vector<Benchmark>();
+        benchmarks.add(lexerBenchmark(lexable));
+        benchmarks.add(fastLexerBenchmark(lexable));
+        benchmarks.add(tokenBufferBenchmark(lexable));
+        for (Corpus input : synthetic) {
+            benchmarks.add(lexerBenchmark(input));
+            benchmarks.add(fastLexerBenchmark(input));
+            benchmarks.add(tokenBufferBenchmark(input));
+        }
+        for (Corpus input : programs) {
+            benchmarks.add(lexerBenchmark(input));
+            benchmarks.add(fastLexerBenchmark(input));
+        }
+        benchmarks.add(parserBenchmark(parsable));
+        benchmarks.add(rdParserBenchmark(parsable));
+        for (Corpus input : synthetic) {
+            benchmarks.add(parserBenchmark(input));
+            benchmarks.add(rdParserBenchmark(input));
+        }
+        Corpus large = ProgramGenerator.emptyClasses(LARGE_SIZE);
+        for (Corpus input : synthetic) {
+            benchmarks.add(bufferedParserBenchmark(input));
+            benchmarks.add(bufferedRDParserBenchmark(input));
+        }
+        benchmarks.add(bufferedParserBenchmark(large));
+        benchmarks.add(bufferedRDParserBenchmark(large));
+        benchmarks.add(classParallelParserBenchmark(large, false));
+        benchmarks.add(classParallelParserBenchmark(large, true));
+        // lexing on a thread of its own pays off on large inputs
+        benchmarks.add(parserBenchmark(large));
+        benchmarks.add(pipelinedParserBenchmark(large));
+        // only the recursive-descent parser accepts complete programs
+        for (Corpus input : programs) {
+            benchmarks.add(bufferedRDParserBenchmark(input));
+            benchmarks.add(classParallelParserBenchmark(input, true));
+        }
+        // loading a pre-parsed AST file instead of re-parsing the source
+        for (Corpus input : programs) {
+            benchmarks.add(rdParserBenchmark(input));
+            benchmarks.add(astFileBenchmark(input, false));
+            benchmarks.add(astFileBenchmark(input, true));
+        }
+        benchmarks.add(semanticAnalyzerBenchmark(parsable));
+        for (Corpus input : synthetic) {
+            benchmarks.add(semanticAnalyzerBenchmark(input));
+        }
+        benchmarks.add(lookupBenchmark());
+        benchmarks.add(scopeBenchmark());
+
+        runner.run(benchmarks);
+    }
+
+    /**
+     * Benchmark <tt>Lexer.next_token</tt> (one operation lexes the whole input)
+     *
+     * @param input source files to lex
+     * @return the benchmark
+     */
+    static Benchmark lexerBenchmark(final Corpus input) {
+        return new Benchmark("lexer.nextToken:" + input.getName()) {
+            public void setup() throws Exception {
+                requireFiles(input);
+                setUnits("tokens", countTokens(input));
+            }
+
+            public Object run() throws Exception {
+                return countTokens(input);
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>FastLexer.next_token</tt>, the hand-written scanner
+     * (one operation lexes the whole input)
+     *
+     * @param input source files to lex
+     * @return the benchmark
+     */
+    static Benchmark fastLexerBenchmark(final Corpus input) {
+        return new Benchmark("lexer.nextToken.fast:" + input.getName()) {
+            public void setup() throws Exception {
+                requireFiles(input);
+                setUnits("tokens", countTokens(input.newFastLexer()));
+            }
+
+            public Object run() throws Exception {
+                return countTokens(input.newFastLexer());
+            }
+        };
+    }
+
+    /**
+     * Benchmark scanning into a <tt>TokenBuffer</tt> (one operation lexes the
+     * whole input into a new buffer)
+     *
+     * @param input source files to lex
+     * @return the benchmark
+     */
+    static Benchmark tokenBufferBenchmark(final Corpus input) {
+        return new Benchmark("lexer.tokenBuffer:" + input.getName()) {
+            public void setup() throws Exception {
+                requireFiles(input);
+                setUnits("tokens", input.newTokenBuffer().getSize() - 1);
+            }
+
+            public Object run() throws Exception {
+                return input.newTokenBuffer();
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>Parser.parse</tt> (including lexing, since the parser pulls
+     * tokens from the lexer as it parses)
+     *
+     * @param input source files to parse
+     * @return the benchmark
+     */
+    static Benchmark parserBenchmark(final Corpus input) {
+        return new Benchmark("parser.parse:" + input.getName()) {
+            public void setup() throws Exception {
+                requireFiles(input);
+                setUnits("lines", input.getNumLines());
+            }
+
+            public Object run() throws Exception {
+                return new Parser(input.newLexer()).parse().value;
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>Parser.parse</tt> alone, reading the tokens from a token
+     * buffer filled in setup
+     *
+     * @param input source files to parse
+     * @return the benchmark
+     */
+    static Benchmark bufferedParserBenchmark(final Corpus input) {
+        return new Benchmark("parser.parse.buffered:" + input.getName()) {
+            private TokenBuffer tokens;
+
+            public void setup() throws Exception {
+                requireFiles(input);
+                tokens = input.newTokenBuffer();
+                setUnits("tokens", tokens.getSize() - 1);
+            }
+
+            public Object run() throws Exception {
+                return new Parser(tokens.newScanner()).parse().value;
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>Parser.parse</tt> with the lexer running ahead of the
+     * parser on a thread of its own (through a <tt>PipelinedScanner</tt>)
+     *
+     * @param input source files to parse
+     * @return the benchmark
+     */
+    static Benchmark pipelinedParserBenchmark(final Corpus input) {
+        return new Benchmark("parser.parse.pipelined:" + input.getName()) {
+            public void setup() throws Exception {
+                requireFiles(input);
+                setUnits("lines", input.getNumLines());
+            }
+
+            public Object run() throws Exception {
+                PipelinedScanner scanner = new PipelinedScanner(input.newLexer());
+                try {
+                    return new Parser(scanner).parse().value;
+                } finally {
+                    scanner.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>RDParser.parse</tt> (including lexing, since the parser
+     * pulls tokens from the lexer as it parses)
+     *
+     * @param input source files to parse
+     * @return the benchmark
+     */
+    static Benchmark rdParserBenchmark(final Corpus input) {
+        return new Benchmark("parser.parse.rd:" + input.getName()) {
+            public void setup() throws Exception {
+                requireFiles(input);
+                setUnits("lines", input.getNumLines());
+            }
+
+            public Object run() throws Exception {
+                return new RDParser(input.newLexer()).parse();
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>RDParser.parse</tt> alone, reading the tokens from a
+     * token buffer filled in setup
+     *
+     * @param input source files to parse
+     * @return the benchmark
+     */
+    static Benchmark bufferedRDParserBenchmark(final Corpus input) {
+        return new Benchmark("parser.parse.rd.buffered:" + input.getName()) {
+            private TokenBuffer tokens;
+
+            public void setup() throws Exception {
+                requireFiles(input);
+                tokens = input.newTokenBuffer();
+                setUnits("tokens", tokens.getSize() - 1);
+            }
+
+            public Object run() throws Exception {
+                return new RDParser(tokens.newScanner()).parse();
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>ParallelClassParser.parse</tt> (on the common fork-join
+     * pool), reading the tokens from a token buffer filled in setup
+     *
+     * @param input            source files to parse
+     * @param recursiveDescent boolean indicating whether the classes are
+     *                         parsed by the recursive-descent parser
+     * @return the benchmark
+     */
+    static Benchmark classParallelParserBenchmark(final Corpus input,
+                                                  final boolean recursiveDescent) {
+        return new Benchmark("parser.parse" + (recursiveDescent ? ".rd" : "") +
+                ".classParallel:" + input.getName()) {
+            private TokenBuffer tokens;
+
+            public void setup() throws Exception {
+                requireFiles(input);
+                tokens = input.newTokenBuffer();
+                setUnits("tokens", tokens.getSize() - 1);
+            }
+
+            public Object run() throws Exception {
+                return new ParallelClassParser(tokens, recursiveDescent).parse();
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>ASTFile.read</tt> on an AST file written in setup (from
+     * the AST built by the recursive-descent parser), with or without
+     * decoding the method bodies
+     *
+     * @param input  source files the AST file is written from
+     * @param bodies boolean indicating whether the method bodies are decoded
+     *               too (by counting the nodes of the AST)
+     * @return the benchmark
+     */
+    static Benchmark astFileBenchmark(final Corpus input, final boolean bodies) {
+        return new Benchmark("astfile.read" + (bodies ? ".bodies" : "") + ":" +
+                input.getName()) {
+            private File file;
+
+            public void setup() throws Exception {
+                requireFiles(input);
+                file = File.createTempFile("bench", ".ast");
+                file.deleteOnExit();
+                ASTFile.write(new RDParser(input.newTokenBuffer().newScanner()).parse(), file);
+                setUnits("lines", input.getNumLines());
+            }
+
+            public Object run() throws Exception {
+                ASTNode root = ASTFile.read(file);
+                if (bodies) {
+                    return new NodeCountVisitor().count(root);
+                }
+                return root;
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>SemanticAnalyzer.analyze</tt> (over an AST built in setup)
+     *
+     * @param input source files to analyze
+     * @return the benchmark
+     */
+    static Benchmark semanticAnalyzerBenchmark(final Corpus input) {
+        return new Benchmark("semant.analyze:" + input.getName()) {
+            private Program program;
+
+            public void setup() throws Exception {
+                requireFiles(input);
+                program = (Program) new Parser(input.newLexer()).parse().value;
+                setUnits("lines", input.getNumLines());
+            }
+
+            public Object run() throws Exception {
+                return new SemanticAnalyzer(program, false).analyze();
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>SymbolTable.lookup</tt> on a table with 10 nested scopes of
+     * 50 symbols each (looks up every symbol plus 50 missing ones)
+     *
+     * @return the benchmark
+     */
+    static Benchmark lookupBenchmark() {
+        return new Benchmark("symtab.lookup") {
+            private SymbolTable table;
+            private String[] names;
+
+            public void setup() {
+                table = new SymbolTable();
+                names = new String[550];
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = "sym" + i;
+                }
+                for (int scope = 0; scope < 10; scope++) {
+                    table.enterScope();
+                    for (int i = 0; i < 50; i++) {
+                        table.add(names[scope * 50 + i], "int");
+                    }
+                }
+                setUnits("lookups", names.length);
+            }
+
+            public Object run() {
+                int found = 0;
+                for (String name : names) {
+                    if (table.lookup(name) != null) {
+                        found++;
+                    }
+                }
+                return found;
+            }
+        };
+    }
+
+    /**
+     * Benchmark <tt>SymbolTable.enterScope</tt>/<tt>exitScope</tt> (one
+     * operation enters 10 nested scopes, adding 5 symbols to each, and exits them)
+     *
+     * @return the benchmark
+     */
+    static Benchmark scopeBenchmark() {
+        return new Benchmark("symtab.enterExitScope") {
+            private SymbolTable table;
+
+            public void setup() {
+                table = new SymbolTable();
+                table.enterScope();
+                setUnits("scopes", 10);
+            }
+
+            public Object run() {
+                for (int scope = 0; scope < 10; scope++) {
+                    table.enterScope();
+                    for (int i = 0; i < 5; i++) {
+                        table.add("v" + i, "int");
+                    }
+                }
+                int size = table.getSize();
+                for (int scope = 0; scope < 10; scope++) {
+                    table.exitScope();
+                }
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Print the number of nodes of the AST of an input and the heap it takes
+     * per node (once parsed by the recursive-descent parser and trimmed), as
+     * objects and as a flat AST, and the size of the AST file written from it
+     * compared with the size of the source
+     *
+     * @param input source files to parse
+     * @throws Exception if parsing failed
+     */
+    static void printAstHeap(Corpus input) throws Exception {
+        TokenBuffer tokens = input.newTokenBuffer();
+        long before = usedHeap();
+        Program program = new RDParser(tokens.newScanner()).parse();
+        new TrimVisitor().trim(program);
+        long bytes = usedHeap() - before;
+        int numNodes = new NodeCountVisitor().count(program);
+        FlatAST flat = FlatAST.fromAST(program);
+        flat.trimToSize();
+        System.out.println("# ast " + input.getName() + ": " + numNodes + " nodes, " +
+                bytes / numNodes + " bytes per node (flat: " +
+                flat.getNumBytes() / numNodes + " bytes per node)");
+        long sourceBytes = 0;
+        for (String source : input.getSources()) {
+            sourceBytes += source.getBytes("UTF-8").length;
+        }
+        System.out.println("# ast file " + input.getName() + ": " +
+                ASTFile.encode(program).length + " bytes (source: " + sourceBytes + " bytes)");
+    }
+
+    /**
+     * Get the heap taken by the reachable objects
+     *
+     * @return number of bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Lex an input
+     *
+     * @param input source files to lex
+     * @return number of tokens (not counting the EOF token)
+     * @throws Exception if lexing failed
+     */
+    static long countTokens(Corpus input) throws Exception {
+        return countTokens(input.newLexer());
+    }
+
+    /**
+     * Lex an input with a given scanner
+     *
+     * @param lexer scanner over the source files
+     * @return number of tokens (not counting the EOF token)
+     * @throws Exception if lexing failed
+     */
+    static long countTokens(BantamScanner lexer) throws Exception {
+        long cnt = 0;
+        while (lexer.next_token().sym != TokenIds.EOF) {
+            cnt++;
+        }
+        return cnt;
+    }
+
+    /**
+     * Check that an input has source files
+     *
+     * @param input source files
+     * @throws IllegalStateException if there are none
+     */
+    static void requireFiles(Corpus input) {
+        if (input.size() == 0) {
+            throw new IllegalStateException("no input files accepted");
+        }
+    }
+
+    /**
+     * Does the lexer accept a source file?
+     *
+     * @param file the source file
+     * @return true if the file lexes without errors
+     */
+    private static boolean lexes(Corpus file) {
+        try {
+            countTokens(file);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Does the parser accept a source file?
+     *
+     * @param file the source file
+     * @return true if the file parses without errors
+     */
+    private static boolean parses(Corpus file) {
+        try {
+            new Parser(file.newLexer()).parse();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,777 @@
+/*
+ * File: ProgramGenerator.java
+ * Date: 10/18/26
+ */
+
+package bantam.bench;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+import java.util.Vector;
+
+/**
+ * The <tt>ProgramGenerator</tt> class generates valid Bantam Java programs of
+ * any size, for benchmarking and scale testing.  The shape of the program is
+ * controlled by the following parameters:
+ * <ul>
+ * <li> the number of classes and source files,
+ * <li> the inheritance depth and fan-out (classes form complete trees of the
+ * given depth, in which every class has up to fan-out subclasses),
+ * <li> the number of fields and methods per class,
+ * <li> the number of statements per block and the statement nesting depth
+ * (if-else and while statements nest blocks),
+ * <li> the expression length (number of operands), and
+ * <li> whether arrays and string constants are used.
+ * </ul>
+ * Generation is deterministic for a given seed.  Every method has the same
+ * signature (so subclass methods override inherited ones) and method
+ * <tt>m<i>k</i></tt> only calls methods <tt>m<i>j</i></tt> with
+ * <i>j</i> &lt; <i>k</i>, and every loop is bounded, so generated programs
+ * terminate.  The <tt>Main</tt> class (which can be left out) extends the
+ * last generated class and calls its last method.
+ * <p/>
+ * Identifiers never contain the digit 0 (which the lexer doesn't allow in
+ * identifiers).  In lex-safe mode the generator also avoids the tokens the
+ * lexer doesn't support yet (<tt>. , ! &amp;&amp; ||</tt>): methods have no
+ * parameters and there are no method calls on objects.
+ * <p/>
+ * Usage: <tt>java bantam.bench.ProgramGenerator [-classes n] [-files n]
+ * [-depth n] [-fanout n] [-fields n] [-methods n] [-stmts n] [-nesting n]
+ * [-exprlen n] [-arrays] [-strings] [-lexsafe] [-nomain] [-seed n] -o &lt;dir&gt;</tt>
+ * (writes <tt>Gen1.btm</tt>, <tt>Gen2.btm</tt>, ... into the directory).
+ */
+public class ProgramGenerator {
+    /**
+     * Number of classes (not counting Main)
+     */
+    private int numClasses = 100;
+    /**
+     * Number of source files
+     */
+    private int numFiles = 1;
+    /**
+     * Inheritance depth (number of levels of each class tree)
+     */
+    private int depth = 4;
+    /**
+     * Maximum number of subclasses of a class
+     */
+    private int fanOut = 3;
+    /**
+     * Number of fields per class
+     */
+    private int fieldsPerClass = 2;
+    /**
+     * Number of methods per class
+     */
+    private int methodsPerClass = 3;
+    /**
+     * Number of statements per block
+     */
+    private int stmtsPerBlock = 4;
+    /**
+     * Maximum nesting depth of statements
+     */
+    private int nestingDepth = 2;
+    /**
+     * Number of operands in an expression
+     */
+    private int exprLength = 3;
+    /**
+     * Boolean indicating whether arrays are used
+     */
+    private boolean useArrays = false;
+    /**
+     * Boolean indicating whether string constants are used
+     */
+    private boolean useStrings = false;
+    /**
+     * Boolean indicating whether only tokens supported by the lexer are used
+     */
+    private boolean lexSafe = false;
+    /**
+     * Boolean indicating whether the Main class is generated
+     */
+    private boolean generateMain = true;
+    /**
+     * Seed of the random number generator
+     */
+    private long seed = 461;
+
+    /**
+     * Random number generator (reset for each program)
+     */
+    private Random random;
+    /**
+     * Output buffer of the class being generated
+     */
+    private StringBuilder out;
+    /**
+     * Int fields of the class being generated
+     */
+    private Vector<String> intFields;
+    /**
+     * Counter used to name local variables (reset for each method)
+     */
+    private int varCnt;
+    /**
+     * Scopes of the int variables that can be read (innermost last)
+     */
+    private Vector<Vector<String>> readable;
+    /**
+     * Scopes of the int variables that can be assigned (innermost last)
+     */
+    private Vector<Vector<String>> writable;
+    /**
+     * Scopes of the array variables (innermost last)
+     */
+    private Vector<Vector<String>> arrays;
+    /**
+     * Scopes of the string variables (innermost last)
+     */
+    private Vector<Vector<String>> strings;
+    /**
+     * Number of the method being generated (it may call methods with a lower number)
+     */
+    private int currMethod;
+
+    /**
+     * Set the number of classes (not counting Main)
+     *
+     * @param numClasses number of classes
+     */
+    public void setNumClasses(int numClasses) {
+        this.numClasses = numClasses;
+    }
+
+    /**
+     * Set the number of source files
+     *
+     * @param numFiles number of files
+     */
+    public void setNumFiles(int numFiles) {
+        this.numFiles = numFiles;
+    }
+
+    /**
+     * Set the inheritance depth
+     *
+     * @param depth number of levels of each class tree
+     */
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Set the inheritance fan-out
+     *
+     * @param fanOut maximum number of subclasses of a class
+     */
+    public void setFanOut(int fanOut) {
+        this.fanOut = fanOut;
+    }
+
+    /**
+     * Set the number of fields per class
+     *
+     * @param fieldsPerClass number of fields
+     */
+    public void setFieldsPerClass(int fieldsPerClass) {
+        this.fieldsPerClass = fieldsPerClass;
+    }
+
+    /**
+     * Set the number of methods per class
+     *
+     * @param methodsPerClass number of methods
+     */
+    public void setMethodsPerClass(int methodsPerClass) {
+        this.methodsPerClass = methodsPerClass;
+    }
+
+    /**
+     * Set the number of statements per block
+     *
+     * @param stmtsPerBlock number of statements
+     */
+    public void setStmtsPerBlock(int stmtsPerBlock) {
+        this.stmtsPerBlock = stmtsPerBlock;
+    }
+
+    /**
+     * Set the maximum nesting depth of statements
+     *
+     * @param nestingDepth nesting depth (0 means no if-else or while statements)
+     */
+    public void setNestingDepth(int nestingDepth) {
+        this.nestingDepth = nestingDepth;
+    }
+
+    /**
+     * Set the expression length
+     *
+     * @param exprLength number of operands in an expression
+     */
+    public void setExprLength(int exprLength) {
+        this.exprLength = exprLength;
+    }
+
+    /**
+     * Set whether arrays are used
+     *
+     * @param useArrays boolean indicating whether arrays are used
+     */
+    public void setUseArrays(boolean useArrays) {
+        this.useArrays = useArrays;
+    }
+
+    /**
+     * Set whether string constants are used
+     *
+     * @param useStrings boolean indicating whether string constants are used
+     */
+    public void setUseStrings(boolean useStrings) {
+        this.useStrings = useStrings;
+    }
+
+    /**
+     * Set whether only tokens supported by the lexer are used
+     *
+     * @param lexSafe boolean indicating whether lex-safe mode is on
+     */
+    public void setLexSafe(boolean lexSafe) {
+        this.lexSafe = lexSafe;
+    }
+
+    /**
+     * Set whether the Main class is generated
+     *
+     * @param generateMain boolean indicating whether Main is generated
+     */
+    public void setGenerateMain(boolean generateMain) {
+        this.generateMain = generateMain;
+    }
+
+    /**
+     * Set the seed of the random number generator
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Generate a program
+     *
+     * @param name name of the program (used as the corpus name)
+     * @return the program (classes are spread round-robin over the files;
+     *         Main is in the last file)
+     */
+    public Corpus generate(String name) {
+        random = new Random(seed);
+        StringBuilder[] files = new StringBuilder[numFiles];
+        for (int i = 0; i < numFiles; i++) {
+            files[i] = new StringBuilder();
+        }
+
+        for (int i = 0; i < numClasses; i++) {
+            out = files[i % numFiles];
+            genClass(i);
+        }
+        if (generateMain) {
+            out = files[numFiles - 1];
+            genMain();
+        }
+
+        String[] filenames = new String[numFiles];
+        String[] sources = new String[numFiles];
+        for (int i = 0; i < numFiles; i++) {
+            filenames[i] = id("Gen", i) + ".btm";
+            sources[i] = files[i].toString();
+        }
+        return new Corpus(name, filenames, sources);
+    }
+
+    /**
+     * Generate a program made of empty classes (only class declarations,
+     * without Main), spread over 10 files
+     *
+     * @param numClasses number of classes
+     * @return the program, named "classes-<i>numClasses</i>"
+     */
+    public static Corpus emptyClasses(int numClasses) {
+        ProgramGenerator generator = new ProgramGenerator();
+        generator.setNumClasses(numClasses);
+        generator.setNumFiles(10);
+        generator.setFieldsPerClass(0);
+        generator.setMethodsPerClass(0);
+        generator.setGenerateMain(false);
+        return generator.generate("classes-" + numClasses);
+    }
+
+    /**
+     * Generate a complete program (with the default shape, arrays and string
+     * constants), spread over 10 files
+     *
+     * @param numClasses number of classes
+     * @param lexSafe    boolean indicating whether only tokens supported by
+     *                   the lexer are used
+     * @return the program, named "program-<i>numClasses</i>"
+     */
+    public static Corpus program(int numClasses, boolean lexSafe) {
+        ProgramGenerator generator = new ProgramGenerator();
+        generator.setNumClasses(numClasses);
+        generator.setNumFiles(10);
+        generator.setUseArrays(true);
+        generator.setUseStrings(true);
+        generator.setLexSafe(lexSafe);
+        return generator.generate("program-" + numClasses);
+    }
+
+    /**
+     * Get the name of a generated class
+     *
+     * @param i number of the class
+     * @return class name
+     */
+    public static String className(int i) {
+        return id("C", i);
+    }
+
+    /**
+     * Build an identifier from a prefix and a number (the number is written
+     * with the digits 1-9, since the lexer doesn't allow 0 in identifiers)
+     *
+     * @param prefix prefix of the identifier
+     * @param i      number (non-negative)
+     * @return the identifier
+     */
+    public static String id(String prefix, int i) {
+        StringBuilder digits = new StringBuilder();
+        for (i++; i > 0; i = (i - 1) / 9) {
+            digits.append((char) ('1' + (i - 1) % 9));
+        }
+        return prefix + digits.reverse();
+    }
+
+    /**
+     * Get the number of the superclass of a class (classes form complete
+     * trees with <tt>depth</tt> levels and <tt>fanOut</tt> subclasses per class)
+     *
+     * @param i number of the class
+     * @return number of the superclass (-1 if the superclass is Object)
+     */
+    private int parentOf(int i) {
+        int treeSize = 0;
+        for (int level = 0, width = 1; level < depth; level++, width *= fanOut) {
+            treeSize += width;
+        }
+        int local = i % treeSize;
+        if (local == 0) {
+            return -1;
+        }
+        return i - local + (local - 1) / fanOut;
+    }
+
+    /**
+     * Generate a class
+     *
+     * @param i number of the class
+     */
+    private void genClass(int i) {
+        int parent = parentOf(i);
+        out.append("class ").append(className(i));
+        if (parent >= 0) {
+            out.append(" extends ").append(className(parent));
+        }
+        out.append(" {\n");
+
+        intFields = new Vector<String>();
+        for (int f = 0; f < fieldsPerClass; f++) {
+            String field = id("f" + className(i) + "_", f);
+            if (useStrings && f % 2 == 1) {
+                out.append("    String ").append(field).append(" = ")
+                        .append(stringConst()).append(";\n");
+            }
+            else {
+                out.append("    int ").append(field).append(" = ")
+                        .append(random.nextInt(100)).append(";\n");
+                intFields.add(field);
+            }
+        }
+
+        for (int m = 0; m < methodsPerClass; m++) {
+            genMethod(m);
+        }
+        out.append("}\n\n");
+    }
+
+    /**
+     * Generate the Main class
+     */
+    private void genMain() {
+        out.append("class Main");
+        if (numClasses > 0) {
+            out.append(" extends ").append(className(numClasses - 1));
+        }
+        out.append(" {\n    void main() {\n");
+        if (numClasses > 0 && methodsPerClass > 0) {
+            out.append("        int r = ").append(call(methodsPerClass - 1)).append(";\n");
+        }
+        out.append("        return;\n    }\n}\n");
+    }
+
+    /**
+     * Generate a method
+     *
+     * @param m number of the method
+     */
+    private void genMethod(int m) {
+        currMethod = m;
+        varCnt = 0;
+        readable = new Vector<Vector<String>>();
+        writable = new Vector<Vector<String>>();
+        arrays = new Vector<Vector<String>>();
+        strings = new Vector<Vector<String>>();
+        enterScope();
+        for (String field : intFields) {
+            declare(field, true);
+        }
+        out.append("\n    int ").append(id("m", m));
+        if (lexSafe) {
+            out.append("() {\n");
+        }
+        else {
+            out.append("(int a, int b) {\n");
+            declare("a", true);
+            declare("b", true);
+        }
+
+        genBlock(0, "        ");
+        out.append("        return ").append(expr()).append(";\n    }\n");
+    }
+
+    /**
+     * Generate the statements of a block
+     *
+     * @param level  nesting level of the block
+     * @param indent indentation of the statements
+     */
+    private void genBlock(int level, String indent) {
+        for (int s = 0; s < stmtsPerBlock; s++) {
+            int kind = random.nextInt(level < nestingDepth ? 6 : 4);
+            if (kind == 0 || readable.lastElement().isEmpty()) {
+                genDecl(indent);
+            }
+            else if (kind == 1 && useArrays) {
+                genArrayStmt(indent);
+            }
+            else if (kind == 2 && useStrings) {
+                genStringStmt(indent);
+            }
+            else if (kind == 4) {
+                genIf(level, indent);
+            }
+            else if (kind == 5) {
+                genWhile(level, indent);
+            }
+            else {
+                out.append(indent).append(pick(writable)).append(" = ")
+                        .append(expr()).append(";\n");
+            }
+        }
+    }
+
+    /**
+     * Generate a local variable declaration
+     *
+     * @param indent indentation of the statement
+     */
+    private void genDecl(String indent) {
+        String var = id("v", varCnt++);
+        out.append(indent).append("int ").append(var).append(" = ").append(expr()).append(";\n");
+        declare(var, true);
+    }
+
+    /**
+     * Generate an array declaration or an array element assignment
+     *
+     * @param indent indentation of the statement
+     */
+    private void genArrayStmt(String indent) {
+        if (pick(arrays) == null) {
+            String var = id("v", varCnt++);
+            out.append(indent).append("int[] ").append(var).append(" = new int[")
+                    .append(10 + random.nextInt(10)).append("];\n");
+            arrays.lastElement().add(var);
+        }
+        else {
+            out.append(indent).append(pick(arrays)).append("[").append(random.nextInt(10))
+                    .append("] = ").append(expr()).append(";\n");
+        }
+    }
+
+    /**
+     * Generate a string declaration or assignment
+     *
+     * @param indent indentation of the statement
+     */
+    private void genStringStmt(String indent) {
+        if (pick(strings) == null) {
+            String var = id("v", varCnt++);
+            out.append(indent).append("String ").append(var).append(" = ")
+                    .append(stringConst()).append(";\n");
+            strings.lastElement().add(var);
+        }
+        else {
+            out.append(indent).append(pick(strings)).append(" = ")
+                    .append(stringConst()).append(";\n");
+        }
+    }
+
+    /**
+     * Generate an if-else statement
+     *
+     * @param level  nesting level of the statement
+     * @param indent indentation of the statement
+     */
+    private void genIf(int level, String indent) {
+        out.append(indent).append("if (").append(cond()).append(") {\n");
+        enterScope();
+        genBlock(level + 1, indent + "    ");
+        exitScope();
+        out.append(indent).append("}\n").append(indent).append("else {\n");
+        enterScope();
+        genBlock(level + 1, indent + "    ");
+        exitScope();
+        out.append(indent).append("}\n");
+    }
+
+    /**
+     * Generate a (bounded) while loop
+     *
+     * @param level  nesting level of the statement
+     * @param indent indentation of the statement
+     */
+    private void genWhile(int level, String indent) {
+        // the loop counter can be read but not assigned in the body
+        String counter = id("v", varCnt++);
+        out.append(indent).append("int ").append(counter).append(" = 0;\n");
+        declare(counter, false);
+        out.append(indent).append("while (").append(counter).append(" < ")
+                .append(1 + random.nextInt(10)).append(") {\n");
+        enterScope();
+        genBlock(level + 1, indent + "    ");
+        exitScope();
+        out.append(indent).append("    ").append(counter).append(" = ")
+                .append(counter).append(" + 1;\n");
+        out.append(indent).append("}\n");
+    }
+
+    /**
+     * Generate an int expression with <tt>exprLength</tt> operands
+     *
+     * @return the expression
+     */
+    private String expr() {
+        StringBuilder expr = new StringBuilder(operand());
+        for (int i = 1; i < exprLength; i++) {
+            expr.append(" ").append("+-*".charAt(random.nextInt(3))).append(" ").append(operand());
+            if (random.nextInt(4) == 0 && i < exprLength - 1) {
+                expr.insert(0, "(").append(")");
+            }
+        }
+        return expr.toString();
+    }
+
+    /**
+     * Generate an operand of an int expression
+     *
+     * @return the operand
+     */
+    private String operand() {
+        int kind = random.nextInt(6);
+        if (kind == 0 && currMethod > 0) {
+            return call(random.nextInt(currMethod));
+        }
+        if (kind == 1 && useArrays && pick(arrays) != null) {
+            return pick(arrays) + "[" + random.nextInt(10) + "]";
+        }
+        if (kind == 2 && useStrings && !lexSafe && pick(strings) != null) {
+            return pick(strings) + ".length()";
+        }
+        if (kind >= 3 && pick(readable) != null) {
+            return pick(readable);
+        }
+        return Integer.toString(1 + random.nextInt(99));
+    }
+
+    /**
+     * Generate a call of a method
+     *
+     * @param m number of the method
+     * @return the call
+     */
+    private String call(int m) {
+        if (lexSafe) {
+            return id("m", m) + "()";
+        }
+        return id("m", m) + "(" + (1 + random.nextInt(9)) + ", " + (1 + random.nextInt(9)) + ")";
+    }
+
+    /**
+     * Generate a boolean condition
+     *
+     * @return the condition
+     */
+    private String cond() {
+        String cond = operand() + " " + new String[]{"<", "<=", ">", ">=", "==", "!="}[random.nextInt(lexSafe ? 5 : 6)] +
+                " " + operand();
+        if (!lexSafe && random.nextInt(3) == 0) {
+            cond = "(" + cond + ") " + (random.nextBoolean() ? "&&" : "||") + " !(" +
+                    operand() + " < " + operand() + ")";
+        }
+        return cond;
+    }
+
+    /**
+     * Generate a string constant
+     *
+     * @return the constant (with the quotes)
+     */
+    private String stringConst() {
+        StringBuilder s = new StringBuilder("\"");
+        int len = 1 + random.nextInt(20);
+        for (int i = 0; i < len; i++) {
+            s.append((char) ('a' + random.nextInt(26)));
+        }
+        return s.append("\"").toString();
+    }
+
+    /**
+     * Enter a new scope of local variables
+     */
+    private void enterScope() {
+        readable.add(new Vector<String>());
+        writable.add(new Vector<String>());
+        arrays.add(new Vector<String>());
+        strings.add(new Vector<String>());
+    }
+
+    /**
+     * Exit the innermost scope of local variables
+     */
+    private void exitScope() {
+        readable.removeElementAt(readable.size() - 1);
+        writable.removeElementAt(writable.size() - 1);
+        arrays.removeElementAt(arrays.size() - 1);
+        strings.removeElementAt(strings.size() - 1);
+    }
+
+    /**
+     * Declare an int variable in the innermost scope
+     *
+     * @param var      name of the variable
+     * @param writable boolean indicating whether the variable can be assigned
+     */
+    private void declare(String var, boolean writable) {
+        readable.lastElement().add(var);
+        if (writable) {
+            this.writable.lastElement().add(var);
+        }
+    }
+
+    /**
+     * Pick a random variable from a list of scopes
+     *
+     * @param scopes list of scopes
+     * @return variable name (null if there are none)
+     */
+    private String pick(Vector<Vector<String>> scopes) {
+        int cnt = 0;
+        for (Vector<String> scope : scopes) {
+            cnt += scope.size();
+        }
+        if (cnt == 0) {
+            return null;
+        }
+        int n = random.nextInt(cnt);
+        for (Vector<String> scope : scopes) {
+            if (n < scope.size()) {
+                return scope.elementAt(n);
+            }
+            n -= scope.size();
+        }
+        return null;
+    }
+
+    /**
+     * Generate a program and write it to a directory
+     *
+     * @param args generator options (see the class description)
+     * @throws IOException if a file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        ProgramGenerator generator = new ProgramGenerator();
+        String dir = null;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("-arrays")) {
+                generator.setUseArrays(true);
+            }
+            else if (arg.equals("-strings")) {
+                generator.setUseStrings(true);
+            }
+            else if (arg.equals("-lexsafe")) {
+                generator.setLexSafe(true);
+            }
+            else if (arg.equals("-nomain")) {
+                generator.setGenerateMain(false);
+            }
+            else if (i + 1 < args.length && arg.equals("-o")) {
+                dir = args[++i];
+            }
+            else if (i + 1 < args.length && arg.equals("-seed")) {
+                generator.setSeed(Long.parseLong(args[++i]));
+            }
+            else if (i + 1 < args.length && arg.startsWith("-")) {
+                int n = Integer.parseInt(args[++i]);
+                if (arg.equals("-classes")) generator.setNumClasses(n);
+                else if (arg.equals("-files")) generator.setNumFiles(n);
+                else if (arg.equals("-depth")) generator.setDepth(n);
+                else if (arg.equals("-fanout")) generator.setFanOut(n);
+                else if (arg.equals("-fields")) generator.setFieldsPerClass(n);
+                else if (arg.equals("-methods")) generator.setMethodsPerClass(n);
+                else if (arg.equals("-stmts")) generator.setStmtsPerBlock(n);
+                else if (arg.equals("-nesting")) generator.setNestingDepth(n);
+                else if (arg.equals("-exprlen")) generator.setExprLength(n);
+                else dir = null;
+            }
+            else {
+                dir = null;
+                break;
+            }
+        }
+        if (dir == null) {
+            System.err.println("Usage: ProgramGenerator [-classes n] [-files n] [-depth n] " +
+                    "[-fanout n] [-fields n] [-methods n]");
+            System.err.println("                        [-stmts n] [-nesting n] [-exprlen n] " +
+                    "[-arrays] [-strings] [-lexsafe] [-nomain] [-seed n]");
+            System.err.println("                        -o <dir>");
+            System.exit(1);
+        }
+
+        Corpus program = generator.generate("generated");
+        new File(dir).mkdirs();
+        for (int i = 0; i < program.size(); i++) {
+            FileWriter writer = new FileWriter(new File(dir, program.getFilenames()[i]));
+            writer.write(program.getSources()[i]);
+            writer.close();
+        }
+        System.out.println("Wrote " + program.size() + " file(s), " + program.getNumLines() +
+                " lines, to " + dir);
+    }
+}
@@ -56,6 +56,11 @@ import java.io.*;
  *   <dt> -noscanner
  *   <dd> don't refer to java_cup.runtime.Scanner in the parser
  *        (for compatibility with old runtimes)
+ *   <dt> -binarytables
+ *   <dd> write the parse tables to a binary resource (named after the
+ *        parser class, with a .tables extension) that the parser loads
+ *        when its class is initialized, instead of encoding them as
+ *        strings in the parser class
  *   <dt> -version
  *   <dd> print version information for JavaCUP and halt.
  *   </dl>
@@ -110,6 +115,10 @@ public class Main {
    *  java_cup.runtime.Scanner for compatibility with old runtimes? */
   protected static boolean suppress_scanner = false;
 
+  /** User option -- should the parse tables be written to a binary 
+   *  resource rather than into the parser class? */
+  protected static boolean binary_tables = false;
+
   /*----------------------------------------------------------------------*/
   /* Timing data (not all of these time intervals are mutually exclusive) */
   /*----------------------------------------------------------------------*/
@@ -251,6 +260,7 @@ public class Main {
 "    -nosummary     don't print the usual summary of parse states, etc.\n" +
 "    -nopositions   don't propagate the left and right token position values\n" +
 "    -noscanner     don't refer to java_cup.runtime.Scanner\n" +
+"    -binarytables  write the parse tables to a binary resource file\n" +
 "    -progress      print messages to indicate progress of the system\n" +
 "    -time          print time usage summary\n" +
 "    -dump_grammar  produce a human readable dump of the symbols and grammar\n"+
@@ -342,6 +352,7 @@ public class Main {
 	  else if (argv[i].equals("-interface"))    sym_interface = true;
 	  /* CSA 23-Jul-1999 */
 	  else if (argv[i].equals("-noscanner"))    suppress_scanner = true;
+	  else if (argv[i].equals("-binarytables")) binary_tables = true;
 	  /* CSA 23-Jul-1999 */
 	  else if (argv[i].equals("-version")) {
 	      System.out.println(version.title_str);
@@ -378,6 +389,9 @@ public class Main {
   /** Output file for the symbol constant class. */
   protected static PrintWriter symbol_class_file;
 
+  /** Output file for the parse tables (with -binarytables only). */
+  protected static DataOutputStream tables_file;
+
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Open various files used by the system. */
@@ -409,6 +423,20 @@ public class Main {
 	System.err.println("Can't open \"" + out_name + "\" for output");
 	System.exit(4);
       }
+
+      /* parse tables resource */
+      if (binary_tables)
+	{
+	  out_name = emit.parser_class_name + ".tables";
+	  fil = new File(out_name);
+	  try {
+	    tables_file = new DataOutputStream(
+		 new BufferedOutputStream(new FileOutputStream(fil), 4096));
+	  } catch(Exception e) {
+	    System.err.println("Can't open \"" + out_name + "\" for output");
+	    System.exit(3);
+	  }
+	}
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -419,6 +447,7 @@ public class Main {
       if (input_file != null) input_file.close();
       if (parser_class_file != null) parser_class_file.close();
       if (symbol_class_file != null) symbol_class_file.close();
+      if (tables_file != null) tables_file.close();
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -586,12 +615,15 @@ public class Main {
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Call the emit routines necessary to write out the generated parser. */
-  protected static void emit_parser() throws internal_error
+  protected static void emit_parser() throws internal_error, IOException
     {
       emit.symbols(symbol_class_file, include_non_terms, sym_interface);
+      emit.binary_tables = binary_tables;
       emit.parser(parser_class_file, action_table, reduce_table, 
 		  start_state.index(), emit.start_production, opt_compact_red,
 		  suppress_scanner);
+      if (binary_tables)
+	emit.tables(tables_file);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -656,8 +688,13 @@ public class Main {
 
       /* code location */
       if (output_produced)
-	System.err.println("  Code written to \"" + emit.parser_class_name + 
+	{
+	  System.err.println("  Code written to \"" + emit.parser_class_name + 
 	        ".java\", and \"" + emit.symbol_const_class_name + ".java\".");
+	  if (binary_tables)
+	    System.err.println("  Parse tables written to \"" + 
+		  emit.parser_class_name + ".tables\".");
+	}
       else
 	System.err.println("  No code produced.");
 
@@ -1,10 +1,16 @@
 package java_cup;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Stack;
+import java.util.Vector;
 import java.util.Enumeration;
 import java.util.Date;
 
+import java_cup.runtime.packed_table;
+
 /** 
  * This class handles emitting generated code for the resulting parser.
  * The various parse tables must be constructed, etc. before calling any 
@@ -57,6 +63,7 @@ import java.util.Date;
 /* Major externally callable routines here include:
      symbols               - emit the symbol constant class 
      parser                - emit the parser class
+     tables                - write the parse tables resource (-binarytables)
 
    In addition the following major internal routines are provided:
      emit_package          - emit a package declaration
@@ -64,6 +71,8 @@ import java.util.Date;
      emit_production_table - emit declaration and init for the production table
      do_action_table       - emit declaration and init for the action table
      do_reduce_table       - emit declaration and init for the reduce-goto table
+     do_packed_table       - emit declaration and init for a packed table
+     do_table_init         - emit the initializer of a table
 
    Finally, this class uses a number of public instance variables to communicate
    optional parameters and flags used to control how code is generated,
@@ -168,6 +177,18 @@ public class emit {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** Do we write the parse tables to a binary resource (see tables()) 
+   *  rather than as strings in the parser class? */
+  public static boolean binary_tables = false;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Tables to write to the binary resource, in the order the parser 
+   *  class refers to them. */
+  protected static Vector table_list = new Vector();
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Count of the number on non-reduced productions found. */
   public static int not_reduced = 0;
 
@@ -347,7 +368,7 @@ public class emit {
 		     pre("do_action") + "(");
       out.println("    int                        " + pre("act_num,"));
       out.println("    java_cup.runtime.lr_parser " + pre("parser,"));
-      out.println("    java.util.Stack            " + pre("stack,"));
+      out.println("    java_cup.runtime.Symbol[]  " + pre("stack,"));
       out.println("    int                        " + pre("top)"));
       out.println("    throws java.lang.Exception");
       out.println("    {");
@@ -401,12 +422,12 @@ public class emit {
 	    out.println("              " + "// propagate RESULT from " +
 			s.name());
 	    out.println("              " + "if ( " +
-	      "((java_cup.runtime.Symbol) " + emit.pre("stack") + ".elementAt("
-              + emit.pre("top") + "-" + index + ")).value != null )");
+	      emit.pre("stack") + "["
+              + emit.pre("top") + "-" + index + "].value != null )");
 	    out.println("                " + "RESULT = " +
 	      "(" + prod.lhs().the_symbol().stack_type() + ") " +
-	      "((java_cup.runtime.Symbol) " + emit.pre("stack") + ".elementAt("
-              + emit.pre("top") + "-" + index + ")).value;");
+	      emit.pre("stack") + "["
+              + emit.pre("top") + "-" + index + "].value;");
 	  }
 
         /* if there is an action string, emit it */
@@ -424,14 +445,14 @@ public class emit {
 	    int loffset;
 	    String leftstring, rightstring;
 	    int roffset = 0;
-	    rightstring = "((java_cup.runtime.Symbol)" + emit.pre("stack") + ".elementAt(" + 
-	      emit.pre("top") + "-" + roffset + ")).right";	  
+	    rightstring = emit.pre("stack") + "[" + 
+	      emit.pre("top") + "-" + roffset + "].right";	  
 	    if (prod.rhs_length() == 0) 
 	      leftstring = rightstring;
 	    else {
 	      loffset = prod.rhs_length() - 1;
-	      leftstring = "((java_cup.runtime.Symbol)" + emit.pre("stack") + ".elementAt(" + 
-		emit.pre("top") + "-" + loffset + ")).left";	  
+	      leftstring = emit.pre("stack") + "[" + 
+		emit.pre("top") + "-" + loffset + "].left";	  
 	    }
 	    out.println("              " + pre("result") + " = new java_cup.runtime.Symbol(" + 
 			prod.lhs().the_symbol().index() + "/*" +
@@ -511,9 +532,7 @@ public class emit {
       out.println();
       out.println("  /** Production table. */");
       out.println("  protected static final short _production_table[][] = ");
-      out.print  ("    unpackFromStrings(");
-      do_table_as_string(out, prod_table);
-      out.println(");");
+      do_table_init(out, prod_table);
 
       /* do the public accessor method */
       out.println();
@@ -618,15 +637,16 @@ public class emit {
       out.println();
       out.println("  /** Parse-action table. */");
       out.println("  protected static final short[][] _action_table = "); 
-      out.print  ("    unpackFromStrings(");
-      do_table_as_string(out, action_table);
-      out.println(");");
+      do_table_init(out, action_table);
 
       /* do the public accessor method */
       out.println();
       out.println("  /** Access to parse-action table. */");
       out.println("  public short[][] action_table() {return _action_table;}");
 
+      /* the same table compressed by row displacement */
+      do_packed_table(out, action_table, "action_table", "parse-action table");
+
       action_table_time = System.currentTimeMillis() - start_time;
     }
 
@@ -680,19 +700,109 @@ public class emit {
       out.println();
       out.println("  /** <code>reduce_goto</code> table. */");
       out.println("  protected static final short[][] _reduce_table = "); 
-      out.print  ("    unpackFromStrings(");
-      do_table_as_string(out, reduce_goto_table);
-      out.println(");");
+      do_table_init(out, reduce_goto_table);
 
       /* do the public accessor method */
       out.println();
       out.println("  /** Access to <code>reduce_goto</code> table. */");
       out.println("  public short[][] reduce_table() {return _reduce_table;}");
+
+      /* the same table compressed by row displacement */
+      do_packed_table(out, reduce_goto_table, "reduce_table",
+		      "<code>reduce_goto</code> table");
       out.println();
 
       goto_table_time = System.currentTimeMillis() - start_time;
     }
 
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Emit a table compressed by row displacement (see 
+   *  java_cup.runtime.packed_table), with its accessor method.
+   * @param out         stream to produce output on.
+   * @param table       the rows of the table.
+   * @param name        name of the accessor of the rows of the table.
+   * @param description description of the table for the comments.
+   */
+  protected static void do_packed_table(
+    PrintWriter out, 
+    short[][]   table,
+    String      name,
+    String      description)
+    {
+      out.println();
+      out.println("  /** Packed " + description + ". */");
+      out.println("  protected static final short[][] _packed_" + name + " = ");
+      do_table_init(out, new packed_table(table).encode());
+
+      out.println();
+      out.println("  /** Access to packed " + description + ". */");
+      out.println("  public short[][] packed_" + name + "() " +
+		  "{return _packed_" + name + ";}");
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Emit the initializer of a table: the table encoded as strings, or the
+   *  table of the binary resource it is written to.
+   * @param out   stream to produce output on.
+   * @param table the table.
+   */
+  protected static void do_table_init(PrintWriter out, short[][] table)
+    {
+      if (binary_tables)
+	{
+	  out.println("    " + pre("tables") + "[" + table_list.size() + "];");
+	  table_list.addElement(table);
+	}
+      else
+	{
+	  out.print  ("    unpackFromStrings(");
+	  do_table_as_string(out, table);
+	  out.println(");");
+	}
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Write the tables of the parser to the binary resource (emitted with
+   *  -binarytables, after the parser).  The resource holds a magic number,
+   *  the length of the rest of the resource, and then the number of 
+   *  tables followed by each table: its number of rows, and for each row
+   *  its length (-1 for a null row) and its entries.  All values are
+   *  big-endian (see lr_parser.loadFromResource()).
+   * @param out stream to produce output on.
+   */
+  public static void tables(DataOutputStream out) throws IOException
+    {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream data = new DataOutputStream(bytes);
+      data.writeInt(table_list.size());
+      for (int t = 0; t < table_list.size(); t++)
+	{
+	  short[][] table = (short[][])table_list.elementAt(t);
+	  data.writeInt(table.length);
+	  for (int i = 0; i < table.length; i++)
+	    {
+	      if (table[i] == null)
+		{
+		  data.writeInt(-1);
+		  continue;
+		}
+	      data.writeInt(table[i].length);
+	      for (int j = 0; j < table[i].length; j++)
+		data.writeShort(table[i][j]);
+	    }
+	}
+      data.flush();
+
+      out.writeInt(java_cup.runtime.lr_parser.TABLES_MAGIC);
+      out.writeInt(bytes.size());
+      bytes.writeTo(out);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   // print a string array encoding the given short[][] array.
   protected static void do_table_as_string(PrintWriter out, short[][] sa) {
     out.println("new String[] {");
@@ -800,6 +910,18 @@ public class emit {
 		      "(java_cup.runtime.Scanner s) {super(s);}");
       }
 
+      /* the tables resource, loaded before the tables are initialized */
+      if (binary_tables)
+	{
+	  out.println();
+	  out.println("  /** Parse tables, loaded from the " + parser_class_name +
+		      ".tables resource. */");
+	  out.println("  protected static final short[][][] " + pre("tables") +
+		      " = ");
+	  out.println("    loadFromResource(" + parser_class_name + ".class, \"" +
+		      parser_class_name + ".tables\");");
+	}
+
       /* emit the various tables */
       emit_production_table(out);
       do_action_table(out, action_table, compact_reduces);
@@ -823,7 +945,7 @@ public class emit {
       out.println("  public java_cup.runtime.Symbol do_action(");
       out.println("    int                        act_num,");
       out.println("    java_cup.runtime.lr_parser parser,");
-      out.println("    java.util.Stack            stack,");
+      out.println("    java_cup.runtime.Symbol[]  stack,");
       out.println("    int                        top)");
       out.println("    throws java.lang.Exception");
       out.println("  {");
@@ -1,7 +1,15 @@
 				    
 package java_cup.runtime;
 
-import java.util.Stack;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.Arrays;
 
 /** This class implements a skeleton table driven LR parser.  In general,
  *  LR parsers are a form of bottom up shift-reduce parsers.  Shift-reduce
@@ -15,8 +23,9 @@ import java.util.Stack;
  *  To control the decision of whether to shift or reduce at any given point, 
  *  the parser uses a state machine (the "viable prefix recognition machine" 
  *  built by the parser generator).  The current state of the machine is placed
- *  on top of the parse stack (stored as part of a Symbol object representing
- *  a terminal or non terminal).  The parse action table is consulted 
+ *  on top of the parse stack (stored in an array of states parallel to the 
+ *  array of Symbol objects representing terminals and non terminals, and 
+ *  also recorded in the Symbol).  The parse action table is consulted 
  *  (using the current state and the current lookahead Symbol as indexes) to 
  *  determine whether to shift or to reduce.  When the parser shifts, it 
  *  changes to a new state by pushing a new Symbol (containing a new state) 
@@ -53,6 +62,10 @@ import java.util.Stack;
  *  <dd> Provides a reference to the parse action table.
  *  <dt> short[][] reduce_table()
  *  <dd> Provides a reference to the reduce-goto table.
+ *  <dt> short[][] packed_action_table(), short[][] packed_reduce_table()
+ *  <dd> Provide the same two tables compressed by row displacement (see
+ *       packed_table).  These are optional: if they are not supplied, the
+ *       tables are packed when parsing starts.
  *  <dt> int start_state()      
  *  <dd> Indicates the index of the start state.
  *  <dt> int start_production() 
@@ -108,6 +121,7 @@ import java.util.Stack;
  * @see     java_cup.runtime.Symbol
  * @see     java_cup.runtime.Symbol
  * @see     java_cup.runtime.virtual_parse_stack
+ * @see     java_cup.runtime.packed_table
  * @version last updated: 7/3/96
  * @author  Frank Flannery
  */
@@ -196,6 +210,26 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** The action table compressed by row displacement, as encoded by 
+   *  packed_table.encode() (supplied by generated subclass, or null if the
+   *  table is to be packed from action_table() when parsing starts).
+   *
+   * @see java_cup.runtime.packed_table
+   */
+  public short[][] packed_action_table() {return null;}
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The reduce-goto table compressed by row displacement, as encoded by 
+   *  packed_table.encode() (supplied by generated subclass, or null if the
+   *  table is to be packed from reduce_table() when parsing starts).
+   *
+   * @see java_cup.runtime.packed_table
+   */
+  public short[][] packed_reduce_table() {return null;}
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** The index of the start state (supplied by generated subclass). */
   public abstract int start_state();
 
@@ -247,8 +281,19 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** The parse stack itself. */
-  protected Stack stack = new Stack();
+  /** The parse stack itself: the state of each element (indexed from 0 at
+   *  the bottom to tos at the top).  The states are kept apart from the
+   *  Symbols so the parse loop finds the current state without going
+   *  through the Symbol on top of the stack, and both stacks are plain
+   *  (unsynchronized) arrays that grow by doubling.
+   */
+  protected int[] state_stack = new int[INITIAL_STACK_SIZE];
+
+  /** The Symbols of the parse stack (parallel to state_stack). */
+  protected Symbol[] sym_stack = new Symbol[INITIAL_STACK_SIZE];
+
+  /** Initial capacity of the parse stack. */
+  protected static final int INITIAL_STACK_SIZE = 128;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
@@ -267,6 +312,16 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** The action table compressed for constant time lookups. */
+  protected packed_table action_packed;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The reduce-goto table compressed for constant time lookups. */
+  protected packed_table reduce_packed;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** This is the scanner object used by the default implementation
    *  of scan() to get Symbols.  To avoid name conflicts with existing
    *  code, this field is private. [CSA/davidm] */
@@ -292,13 +347,13 @@ public abstract class lr_parser {
    *
    * @param act_num   the internal index of the action to be performed.
    * @param parser    the parser object we are acting for.
-   * @param stack     the parse stack of that object.
+   * @param stack     the Symbols of the parse stack of that object.
    * @param top       the index of the top element of the parse stack.
    */
   public abstract Symbol do_action(
     int       act_num, 
     lr_parser parser, 
-    Stack     stack, 
+    Symbol[]  stack, 
     int       top) 
     throws java.lang.Exception;
 
@@ -411,92 +466,32 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Fetch an action from the action table.  The table is broken up into
-   *  rows, one per state (rows are indexed directly by state number).  
-   *  Within each row, a list of index, value pairs are given (as sequential
-   *  entries in the table), and the list is terminated by a default entry 
-   *  (denoted with a Symbol index of -1).  To find the proper entry in a row 
-   *  we do a linear or binary search (depending on the size of the row).  
+  /** Fetch an action from the action table.  The table is compressed by 
+   *  row displacement (see packed_table), so the entry for a state and a
+   *  Symbol is found with a single probe: if the state owns the entry at 
+   *  the base of its row plus the Symbol index, that is the action, 
+   *  otherwise the default of the row is.
    *
    * @param state the state index of the action being accessed.
    * @param sym   the Symbol index of the action being accessed.
    */
   protected final short get_action(int state, int sym)
     {
-      short tag;
-      int first, last, probe;
-      short[] row = action_tab[state];
-
-      /* linear search if we are < 10 entries */
-      if (row.length < 20)
-        for (probe = 0; probe < row.length; probe++)
-	  {
-	    /* is this entry labeled with our Symbol or the default? */
-	    tag = row[probe++];
-	    if (tag == sym || tag == -1)
-	      {
-	        /* return the next entry */
-	        return row[probe];
-	      }
-	  }
-      /* otherwise binary search */
-      else
-	{
-	  first = 0; 
-	  last = (row.length-1)/2 - 1;  /* leave out trailing default entry */
-	  while (first <= last)
-	    {
-	      probe = (first+last)/2;
-	      if (sym == row[probe*2])
-		return row[probe*2+1];
-	      else if (sym > row[probe*2])
-		first = probe+1;
-	      else
-	        last = probe-1;
-	    }
-
-	  /* not found, use the default at the end */
-	  return row[row.length-1];
-	}
-
-      /* shouldn't happened, but if we run off the end we return the 
-	 default (error == 0) */
-      return 0;
+      return (short)action_packed.get(state, sym);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Fetch a state from the reduce-goto table.  The table is broken up into
-   *  rows, one per state (rows are indexed directly by state number).  
-   *  Within each row, a list of index, value pairs are given (as sequential
-   *  entries in the table), and the list is terminated by a default entry 
-   *  (denoted with a Symbol index of -1).  To find the proper entry in a row 
-   *  we do a linear search.  
+  /** Fetch a state from the reduce-goto table.  The table is compressed
+   *  by row displacement like the action table (see get_action()), and 
+   *  the default of every row is -1.
    *
    * @param state the state index of the entry being accessed.
    * @param sym   the Symbol index of the entry being accessed.
    */
   protected final short get_reduce(int state, int sym)
     {
-      short tag;
-      short[] row = reduce_tab[state];
-
-      /* if we have a null row we go with the default */
-      if (row == null)
-        return -1;
-
-      for (int probe = 0; probe < row.length; probe++)
-	{
-	  /* is this entry labeled with our Symbol or the default? */
-	  tag = row[probe++];
-	  if (tag == sym || tag == -1)
-	    {
-	      /* return the next entry */
-	      return row[probe];
-	    }
-	}
-      /* if we run off the end we return the default (error == -1) */
-      return -1;
+      return (short)reduce_packed.get(state, sym);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -523,6 +518,8 @@ public abstract class lr_parser {
       production_tab = production_table();
       action_tab     = action_table();
       reduce_tab     = reduce_table();
+      action_packed  = packed_table.get(packed_action_table(), action_tab);
+      reduce_packed  = packed_table.get(packed_reduce_table(), reduce_tab);
 
       /* initialize the action encapsulation object */
       init_actions();
@@ -534,9 +531,8 @@ public abstract class lr_parser {
       cur_token = scan(); 
 
       /* push dummy Symbol with start state to get us underway */
-      stack.removeAllElements();
-      stack.push(new Symbol(0, start_state()));
-      tos = 0;
+      pop_stack(tos + 1);
+      push_stack(new Symbol(0, start_state()), start_state());
 
       /* continue until we are told to stop */
       for (_done_parsing = false; !_done_parsing; )
@@ -548,16 +544,13 @@ public abstract class lr_parser {
 	  /* current state is always on the top of the stack */
 
 	  /* look up action out of the current state with the current input */
-	  act = get_action(((Symbol)stack.peek()).parse_state, cur_token.sym);
+	  act = get_action(state_stack[tos], cur_token.sym);
 
 	  /* decode the action -- > 0 encodes shift */
 	  if (act > 0)
 	    {
 	      /* shift to the encoded state by pushing it on the stack */
-	      cur_token.parse_state = act-1;
-	      cur_token.used_by_parser = true;
-	      stack.push(cur_token);
-	      tos++;
+	      push_stack(cur_token, act-1);
 
 	      /* advance to the next Symbol */
 	      cur_token = scan();
@@ -566,27 +559,20 @@ public abstract class lr_parser {
 	  else if (act < 0)
 	    {
 	      /* perform the action for the reduce */
-	      lhs_sym = do_action((-act)-1, this, stack, tos);
+	      lhs_sym = do_action((-act)-1, this, sym_stack, tos);
 
 	      /* look up information about the production */
 	      lhs_sym_num = production_tab[(-act)-1][0];
 	      handle_size = production_tab[(-act)-1][1];
 
 	      /* pop the handle off the stack */
-	      for (int i = 0; i < handle_size; i++)
-		{
-		  stack.pop();
-		  tos--;
-		}
+	      pop_stack(handle_size);
 	      
 	      /* look up the state to go to from the one popped back to */
-	      act = get_reduce(((Symbol)stack.peek()).parse_state, lhs_sym_num);
+	      act = get_reduce(state_stack[tos], lhs_sym_num);
 
 	      /* shift to that state */
-	      lhs_sym.parse_state = act;
-	      lhs_sym.used_by_parser = true;
-	      stack.push(lhs_sym);
-	      tos++;
+	      push_stack(lhs_sym, act);
 	    }
 	  /* finally if the entry is zero, we have an error */
 	  else if (act == 0)
@@ -603,7 +589,7 @@ public abstract class lr_parser {
 		  /* just in case that wasn't fatal enough, end parse */
 		  done_parsing();
 		} else {
-		  lhs_sym = (Symbol)stack.peek();
+		  lhs_sym = sym_stack[tos];
 		}
 	    }
 	}
@@ -612,6 +598,40 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** Push a Symbol onto the parse stack, in the given state (the stack 
+   *  grows if it is full).
+   *
+   * @param sym   the Symbol to push.
+   * @param state the state the parser goes to.
+   */
+  protected final void push_stack(Symbol sym, int state)
+    {
+      if (++tos == state_stack.length)
+	{
+	  state_stack = Arrays.copyOf(state_stack, 2 * tos);
+	  sym_stack   = Arrays.copyOf(sym_stack, 2 * tos);
+	}
+      sym.parse_state = state;
+      sym.used_by_parser = true;
+      state_stack[tos] = state;
+      sym_stack[tos] = sym;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Pop elements off the parse stack (dropping the references to their
+   *  Symbols).
+   *
+   * @param count the number of elements to pop.
+   */
+  protected final void pop_stack(int count)
+    {
+      for (; count > 0; count--)
+	sym_stack[tos--] = null;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Write a debugging message to System.err for the debugging version 
    *  of the parser. 
    *
@@ -627,19 +647,13 @@ public abstract class lr_parser {
   /** Dump the parse stack for debugging purposes. */
   public void dump_stack()
     {
-      if (stack == null)
-	{
-	  debug_message("# Stack dump requested, but stack is null");
-	  return;
-	}
-
       debug_message("============ Parse Stack Dump ============");
 
       /* dump the stack */
-      for (int i=0; i<stack.size(); i++)
+      for (int i=0; i<=tos; i++)
 	{
-	  debug_message("Symbol: " + ((Symbol)stack.elementAt(i)).sym +
-			" State: " + ((Symbol)stack.elementAt(i)).parse_state);
+	  debug_message("Symbol: " + sym_stack[i].sym +
+			" State: " + state_stack[i]);
 	}
       debug_message("==========================================");
     }
@@ -676,10 +690,9 @@ public abstract class lr_parser {
    */
   public void debug_stack() {
       StringBuffer sb=new StringBuffer("## STACK:");
-      for (int i=0; i<stack.size(); i++) {
-	  Symbol s = (Symbol) stack.elementAt(i);
-	  sb.append(" <state "+s.parse_state+", sym "+s.sym+">");
-	  if ((i%3)==2 || (i==(stack.size()-1))) {
+      for (int i=0; i<=tos; i++) {
+	  sb.append(" <state "+state_stack[i]+", sym "+sym_stack[i].sym+">");
+	  if ((i%3)==2 || (i==tos)) {
 	      debug_message(sb.toString());
 	      sb = new StringBuffer("         ");
 	  }
@@ -709,6 +722,8 @@ public abstract class lr_parser {
       production_tab = production_table();
       action_tab     = action_table();
       reduce_tab     = reduce_table();
+      action_packed  = packed_table.get(packed_action_table(), action_tab);
+      reduce_packed  = packed_table.get(packed_reduce_table(), reduce_tab);
 
       debug_message("# Initializing parser");
 
@@ -724,9 +739,8 @@ public abstract class lr_parser {
       debug_message("# Current Symbol is #" + cur_token.sym);
 
       /* push dummy Symbol with start state to get us underway */
-      stack.removeAllElements();
-      stack.push(new Symbol(0, start_state()));
-      tos = 0;
+      pop_stack(tos + 1);
+      push_stack(new Symbol(0, start_state()), start_state());
 
       /* continue until we are told to stop */
       for (_done_parsing = false; !_done_parsing; )
@@ -739,17 +753,14 @@ public abstract class lr_parser {
 	  //debug_stack();
 
 	  /* look up action out of the current state with the current input */
-	  act = get_action(((Symbol)stack.peek()).parse_state, cur_token.sym);
+	  act = get_action(state_stack[tos], cur_token.sym);
 
 	  /* decode the action -- > 0 encodes shift */
 	  if (act > 0)
 	    {
 	      /* shift to the encoded state by pushing it on the stack */
-	      cur_token.parse_state = act-1;
-	      cur_token.used_by_parser = true;
+	      push_stack(cur_token, act-1);
 	      debug_shift(cur_token);
-	      stack.push(cur_token);
-	      tos++;
 
 	      /* advance to the next Symbol */
 	      cur_token = scan();
@@ -759,7 +770,7 @@ public abstract class lr_parser {
 	  else if (act < 0)
 	    {
 	      /* perform the action for the reduce */
-	      lhs_sym = do_action((-act)-1, this, stack, tos);
+	      lhs_sym = do_action((-act)-1, this, sym_stack, tos);
 
 	      /* look up information about the production */
 	      lhs_sym_num = production_tab[(-act)-1][0];
@@ -768,23 +779,16 @@ public abstract class lr_parser {
 	      debug_reduce((-act)-1, lhs_sym_num, handle_size);
 
 	      /* pop the handle off the stack */
-	      for (int i = 0; i < handle_size; i++)
-		{
-		  stack.pop();
-		  tos--;
-		}
+	      pop_stack(handle_size);
 	      
 	      /* look up the state to go to from the one popped back to */
-	      act = get_reduce(((Symbol)stack.peek()).parse_state, lhs_sym_num);
+	      act = get_reduce(state_stack[tos], lhs_sym_num);
 	      debug_message("# Reduce rule: top state " +
-			     ((Symbol)stack.peek()).parse_state +
+			     state_stack[tos] +
 			     ", lhs sym " + lhs_sym_num + " -> state " + act); 
 
 	      /* shift to that state */
-	      lhs_sym.parse_state = act;
-	      lhs_sym.used_by_parser = true;
-	      stack.push(lhs_sym);
-	      tos++;
+	      push_stack(lhs_sym, act);
 
 	      debug_message("# Goto state #" + act);
 	    }
@@ -803,7 +807,7 @@ public abstract class lr_parser {
 		  /* just in case that wasn't fatal enough, end parse */
 		  done_parsing();
 		} else {
-		  lhs_sym = (Symbol)stack.peek();
+		  lhs_sym = sym_stack[tos];
 		}
 	    }
 	}
@@ -898,7 +902,7 @@ public abstract class lr_parser {
   protected boolean shift_under_error()
     {
       /* is there a shift under error Symbol */
-      return get_action(((Symbol)stack.peek()).parse_state, error_sym()) > 0;
+      return get_action(state_stack[tos], error_sym()) > 0;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -918,8 +922,8 @@ public abstract class lr_parser {
       if (debug) debug_message("# Finding recovery state on stack");
 
       /* Remember the right-position of the top symbol on the stack */
-      int right_pos = ((Symbol)stack.peek()).right;
-      int left_pos  = ((Symbol)stack.peek()).left;
+      int right_pos = sym_stack[tos].right;
+      int left_pos  = sym_stack[tos].left;
 
       /* pop down until we can shift under error Symbol */
       while (!shift_under_error())
@@ -927,12 +931,12 @@ public abstract class lr_parser {
 	  /* pop the stack */
 	  if (debug) 
 	    debug_message("# Pop stack by one, state was # " +
-	                  ((Symbol)stack.peek()).parse_state);
-          left_pos = ((Symbol)stack.pop()).left;	
-	  tos--;
+	                  state_stack[tos]);
+          left_pos = sym_stack[tos].left;
+	  pop_stack(1);
 
 	  /* if we have hit bottom, we fail */
-	  if (stack.empty()) 
+	  if (tos < 0) 
 	    {
 	      if (debug) debug_message("# No recovery state found on stack");
 	      return false;
@@ -940,20 +944,17 @@ public abstract class lr_parser {
 	}
 
       /* state on top of the stack can shift under error, find the shift */
-      act = get_action(((Symbol)stack.peek()).parse_state, error_sym());
+      act = get_action(state_stack[tos], error_sym());
       if (debug) 
 	{
 	  debug_message("# Recover state found (#" + 
-			((Symbol)stack.peek()).parse_state + ")");
+			state_stack[tos] + ")");
 	  debug_message("# Shifting on error to state #" + (act-1));
 	}
 
       /* build and shift a special error Symbol */
       error_token = new Symbol(error_sym(), left_pos, right_pos);
-      error_token.parse_state = act-1;
-      error_token.used_by_parser = true;
-      stack.push(error_token);
-      tos++;
+      push_stack(error_token, act-1);
 
       return true;
     }
@@ -1047,7 +1048,7 @@ public abstract class lr_parser {
       short lhs, rhs_size;
 
       /* create a virtual stack from the real parse stack */
-      virtual_parse_stack vstack = new virtual_parse_stack(stack);
+      virtual_parse_stack vstack = new virtual_parse_stack(state_stack, tos + 1);
 
       /* parse until we fail or get past the lookahead input */
       for (;;)
@@ -1131,7 +1132,7 @@ public abstract class lr_parser {
 	  debug_message("# Reparsing saved input with actions");
 	  debug_message("# Current Symbol is #" + cur_err_token().sym);
 	  debug_message("# Current state is #" + 
-			((Symbol)stack.peek()).parse_state);
+			state_stack[tos]);
 	}
 
       /* continue until we accept or have read all lookahead input */
@@ -1141,17 +1142,14 @@ public abstract class lr_parser {
 
 	  /* look up action out of the current state with the current input */
 	  act = 
-	    get_action(((Symbol)stack.peek()).parse_state, cur_err_token().sym);
+	    get_action(state_stack[tos], cur_err_token().sym);
 
 	  /* decode the action -- > 0 encodes shift */
 	  if (act > 0)
 	    {
 	      /* shift to the encoded state by pushing it on the stack */
-	      cur_err_token().parse_state = act-1;
-	      cur_err_token().used_by_parser = true;
+	      push_stack(cur_err_token(), act-1);
 	      if (debug) debug_shift(cur_err_token());
-	      stack.push(cur_err_token());
-	      tos++;
 
 	      /* advance to the next Symbol, if there is none, we are done */
 	      if (!advance_lookahead()) 
@@ -1175,7 +1173,7 @@ public abstract class lr_parser {
 	  else if (act < 0)
 	    {
 	      /* perform the action for the reduce */
-	      lhs_sym = do_action((-act)-1, this, stack, tos);
+	      lhs_sym = do_action((-act)-1, this, sym_stack, tos);
 
 	      /* look up information about the production */
 	      lhs_sym_num = production_tab[(-act)-1][0];
@@ -1184,20 +1182,13 @@ public abstract class lr_parser {
 	      if (debug) debug_reduce((-act)-1, lhs_sym_num, handle_size);
 
 	      /* pop the handle off the stack */
-	      for (int i = 0; i < handle_size; i++)
-		{
-		  stack.pop();
-		  tos--;
-		}
+	      pop_stack(handle_size);
 	      
 	      /* look up the state to go to from the one popped back to */
-	      act = get_reduce(((Symbol)stack.peek()).parse_state, lhs_sym_num);
+	      act = get_reduce(state_stack[tos], lhs_sym_num);
 
 	      /* shift to that state */
-	      lhs_sym.parse_state = act;
-	      lhs_sym.used_by_parser = true;
-	      stack.push(lhs_sym);
-	      tos++;
+	      push_stack(lhs_sym, act);
 	       
 	      if (debug) debug_message("# Goto state #" + act);
 
@@ -1216,6 +1207,119 @@ public abstract class lr_parser {
 
   /*-----------------------------------------------------------*/
 
+  /** Magic number at the start of a parse tables resource ("CUPT"). */
+  public static final int TABLES_MAGIC = 0x43555054;
+
+  /** Utility function: loads the parse tables written to a resource by the
+   *  parser generator (with -binarytables, see java_cup.emit.tables()).  The
+   *  resource is read in one bulk read, and the rows are then copied out of
+   *  the bytes, rather than decoded character by character from the 
+   *  constant strings of the class as in unpackFromStrings().  The tables
+   *  are loaded by the static initializer of the generated parser class, so
+   *  all its instances share them.  A missing, truncated or corrupt resource
+   *  is reported by an Error naming the resource (which reaches the users
+   *  of the parser as the cause of an ExceptionInInitializerError).
+   *
+   * @param cls  the generated parser class (the resource is looked up 
+   *             relative to it).
+   * @param name the name of the resource.
+   */
+  protected static short[][][] loadFromResource(Class cls, String name)
+    {
+      byte[] bytes;
+      try {
+	DataInputStream data = new DataInputStream(open_resource(cls, name));
+	try {
+	  if (data.readInt() != TABLES_MAGIC)
+	    throw new Error("\"" + name + "\" is not a parse tables resource");
+	  int length = data.readInt();
+	  if (length < 0)
+	    throw new Error("Corrupt parse tables \"" + name + "\"");
+	  bytes = new byte[length];
+	  data.readFully(bytes);
+	} finally {
+	  data.close();
+	}
+      } catch (IOException e) {
+	throw new Error("Can't read parse tables \"" + name + "\": " + e);
+      }
+
+      /* the values are big-endian ints (counts) and shorts (entries); a
+	 count that doesn't match the bytes makes the copy run off the end */
+      try {
+	int pos = 0;
+	short[][][] result = new short[read_int(bytes, pos)][][];
+	pos += 4;
+	for (int t = 0; t < result.length; t++)
+	  {
+	    result[t] = new short[read_int(bytes, pos)][];
+	    pos += 4;
+	    for (int i = 0; i < result[t].length; i++)
+	      {
+		int length = read_int(bytes, pos);
+		pos += 4;
+		if (length < 0) continue;
+		short[] row = result[t][i] = new short[length];
+		for (int j = 0; j < length; j++, pos += 2)
+		  row[j] = (short)((bytes[pos] << 8) | (bytes[pos+1] & 0xFF));
+	      }
+	  }
+	if (pos != bytes.length)
+	  throw new Error("Corrupt parse tables \"" + name + "\"");
+	return result;
+      } catch (RuntimeException e) {
+	throw new Error("Corrupt parse tables \"" + name + "\": " + e);
+      }
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Open a resource of a class.  When the class was loaded from a 
+   *  directory, the resource is opened as a file: the first resource 
+   *  lookup through the class loader costs several milliseconds (setting 
+   *  up the URL handlers), more than reading the tables themselves.
+   *
+   * @param cls  the class.
+   * @param name the name of the resource (relative to the class).
+   */
+  protected static InputStream open_resource(Class cls, String name)
+    throws IOException
+    {
+      try {
+	CodeSource source = cls.getProtectionDomain().getCodeSource();
+	if (source != null && source.getLocation() != null &&
+	    "file".equals(source.getLocation().getProtocol()))
+	  {
+	    String pkg = cls.getName();
+	    pkg = pkg.substring(0, pkg.lastIndexOf('.') + 1);
+	    File file = new File(new File(source.getLocation().toURI()),
+				 pkg.replace('.', File.separatorChar) + name);
+	    if (file.isFile())
+	      return new FileInputStream(file);
+	  }
+      } catch (SecurityException e) {
+	/* fall back on the class loader */
+      } catch (URISyntaxException e) {
+	/* fall back on the class loader */
+      }
+
+      InputStream in = cls.getResourceAsStream(name);
+      if (in == null)
+	throw new FileNotFoundException("resource not found");
+      return in;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Read a big-endian int from an array of bytes. */
+  private static int read_int(byte[] bytes, int pos)
+    {
+      return (bytes[pos] << 24) | ((bytes[pos+1] & 0xFF) << 16) |
+	     ((bytes[pos+2] & 0xFF) << 8) | (bytes[pos+3] & 0xFF);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Utility function: unpacks parse tables from strings */
   protected static short[][] unpackFromStrings(String[] sa)
     {
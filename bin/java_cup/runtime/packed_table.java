@@ -0,0 +1,264 @@
+package java_cup.runtime;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Hashtable;
+
+/** This class implements a parse table (the action table or the reduce-goto
+ *  table) compressed by row displacement, so that an entry is found in
+ *  constant time rather than by searching the row of the state.  The
+ *  explicit entries of all the rows are overlaid in one pair of arrays:
+ *  the entry for a state and a symbol is at index base[state]+symbol,
+ *  where the base of each row is chosen (first fit, densest rows first) so
+ *  that no two rows use the same index.  A check array records which state
+ *  owns each index, and entries not owned by the state are the default of
+ *  the row (a reduce or an error for the action table, -1 for the
+ *  reduce-goto table).<p>
+ *
+ *  The tables are built from the rows supplied by the generated parser
+ *  (index, value pairs ending with a default entry tagged -1, see
+ *  lr_parser.action_table()).  The parser generator also emits them
+ *  already packed (see encode()), in which case they are just unpacked.
+ *
+ * @see     java_cup.runtime.lr_parser#get_action
+ * @see     java_cup.runtime.lr_parser#get_reduce
+ */
+
+public class packed_table {
+
+  /*-----------------------------------------------------------*/
+  /*--- Constructor(s) ----------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Constructor that packs a table given as rows of index, value pairs.
+   *
+   * @param rows the rows of the table, one per state.
+   */
+  public packed_table(short[][] rows)
+    {
+      int num_states = rows.length;
+      base     = new int[num_states];
+      defaults = new int[num_states];
+
+      /* find the size of each row (without the default entry) and the
+	 largest symbol index */
+      int[] sizes = new int[num_states];
+      int max_sym = 0;
+      for (int s = 0; s < num_states; s++)
+	{
+	  short[] row = rows[s];
+	  defaults[s] = -1;
+	  if (row == null) continue;
+	  for (int i = 0; i+1 < row.length; i += 2)
+	    {
+	      if (row[i] == -1)
+		{
+		  defaults[s] = row[i+1];
+		  break;
+		}
+	      sizes[s]++;
+	      if (row[i] > max_sym) max_sym = row[i];
+	    }
+	}
+
+      /* place the densest rows first (they are the hardest to fit) */
+      Integer[] order = new Integer[num_states];
+      for (int s = 0; s < num_states; s++)
+	order[s] = new Integer(s);
+      final int[] row_sizes = sizes;
+      Arrays.sort(order, new Comparator() {
+	public int compare(Object a, Object b) {
+	  return row_sizes[((Integer)b).intValue()] -
+		 row_sizes[((Integer)a).intValue()];
+	}
+      });
+
+      /* overlay the rows, each at the first base where it fits */
+      check = new int[max_sym + 1];
+      value = new int[max_sym + 1];
+      Arrays.fill(check, -1);
+      int first_free = 0;
+      for (int k = 0; k < num_states; k++)
+	{
+	  int s = order[k].intValue();
+	  short[] row = rows[s];
+	  if (sizes[s] == 0) continue;
+
+	  /* skip the indices that are already taken */
+	  while (first_free < check.length && check[first_free] != -1)
+	    first_free++;
+
+	  /* try the bases for which the first entry lands on a free index */
+	  int b;
+	  for (b = Math.max(0, first_free - row[0]); !fits(row, sizes[s], b); b++)
+	    ;
+	  base[s] = b;
+
+	  /* grow the arrays to hold the last entry of the row */
+	  int last = b + row[2*(sizes[s]-1)];
+	  if (last >= check.length)
+	    {
+	      int old_length = check.length;
+	      int new_length = Math.max(last + 1, 2 * old_length);
+	      check = Arrays.copyOf(check, new_length);
+	      value = Arrays.copyOf(value, new_length);
+	      Arrays.fill(check, old_length, new_length, -1);
+	    }
+
+	  /* fill in the entries */
+	  for (int i = 0; i < 2*sizes[s]; i += 2)
+	    {
+	      check[b + row[i]] = s;
+	      value[b + row[i]] = row[i+1];
+	    }
+	}
+
+      /* trim the unused end of the arrays */
+      int length = check.length;
+      while (length > 0 && check[length-1] == -1)
+	length--;
+      check = Arrays.copyOf(check, length);
+      value = Arrays.copyOf(value, length);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Constructor for tables filled in by decode(). */
+  protected packed_table()
+    {
+    }
+
+  /*-----------------------------------------------------------*/
+  /*--- (Access to) Instance Variables ------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Index of the first entry of each row (indexed by state). */
+  protected int[] base;
+
+  /** Default entry of each row (indexed by state). */
+  protected int[] defaults;
+
+  /** State owning each entry (-1 for unused entries). */
+  protected int[] check;
+
+  /** Value of each entry. */
+  protected int[] value;
+
+  /** Tables already unpacked or packed, keyed by the (static) table of the
+   *  generated parser they were made from. */
+  protected static Hashtable cache = new Hashtable();
+
+  /*-----------------------------------------------------------*/
+  /*--- General Methods ---------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Get the packed form of the tables of a generated parser, reusing the
+   *  one made for an earlier parse.
+   *
+   * @param encoded the table as encoded by the parser generator (null if
+   *                the generated parser doesn't supply it).
+   * @param rows    the rows of the table.
+   */
+  public static packed_table get(short[][] encoded, short[][] rows)
+    {
+      Object key = encoded != null ? encoded : rows;
+      packed_table result = (packed_table)cache.get(key);
+      if (result == null)
+	{
+	  result = encoded != null ? decode(encoded) : new packed_table(rows);
+	  cache.put(key, result);
+	}
+      return result;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Fetch an entry of the table.
+   *
+   * @param state the state (row) of the entry.
+   * @param sym   the Symbol index (column) of the entry.
+   */
+  public final int get(int state, int sym)
+    {
+      int index = base[state] + sym;
+      if (sym >= 0 && index < check.length && check[index] == state)
+	return value[index];
+      return defaults[state];
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Decode a table encoded by encode().
+   *
+   * @param encoded the encoded table.
+   */
+  public static packed_table decode(short[][] encoded)
+    {
+      packed_table result = new packed_table();
+      result.base     = to_ints(encoded[0]);
+      result.defaults = to_ints(encoded[1]);
+      result.check    = to_ints(encoded[2]);
+      result.value    = to_ints(encoded[3]);
+      return result;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Encode the table for the parser generator (four rows: the bases, the
+   *  defaults, the check entries and the values).
+   */
+  public short[][] encode()
+    {
+      return new short[][] {to_shorts(base), to_shorts(defaults),
+			    to_shorts(check), to_shorts(value)};
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Can a row be placed at a given base?
+   *
+   * @param row  the row (index, value pairs).
+   * @param size the number of entries of the row (without the default).
+   * @param b    the base.
+   */
+  protected boolean fits(short[] row, int size, int b)
+    {
+      for (int i = 0; i < 2*size; i += 2)
+	{
+	  int index = b + row[i];
+	  if (index < check.length && check[index] != -1)
+	    return false;
+	}
+      return true;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Widen an array of shorts. */
+  protected static int[] to_ints(short[] a)
+    {
+      int[] result = new int[a.length];
+      for (int i = 0; i < a.length; i++)
+	result[i] = a[i];
+      return result;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Narrow an array of ints (which must fit in shorts). */
+  protected static short[] to_shorts(int[] a)
+    {
+      short[] result = new short[a.length];
+      for (int i = 0; i < a.length; i++)
+	{
+	  if (a[i] != (short)a[i])
+	    throw new IllegalStateException(
+	      "Packed parse table too large to encode");
+	  result[i] = (short)a[i];
+	}
+      return result;
+    }
+
+  /*-----------------------------------------------------------*/
+
+}
@@ -1,7 +1,6 @@
-
 package java_cup.runtime;
 
-import java.util.Stack;
+import java.util.Arrays;
 
 /** This class implements a temporary or "virtual" parse stack that 
  *  replaces the top portion of the actual parse stack (the part that 
@@ -24,17 +23,25 @@ public class virtual_parse_stack {
   /*--- Constructor(s) ----------------------------------------*/
   /*-----------------------------------------------------------*/
 
-  /** Constructor to build a virtual stack out of a real stack. */
-  public virtual_parse_stack(Stack shadowing_stack) throws java.lang.Exception
+  /** Constructor to build a virtual stack out of the states of a real
+   *  stack.
+   *
+   * @param shadowing_states the states of the real stack (bottom first).
+   * @param shadowing_size   the number of elements of the real stack.
+   */
+  public virtual_parse_stack(int[] shadowing_states, int shadowing_size)
+    throws java.lang.Exception
     {
       /* sanity check */
-      if (shadowing_stack == null)
+      if (shadowing_states == null)
 	throw new Exception(
 	  "Internal parser error: attempt to create null virtual stack");
 
       /* set up our internals */
-      real_stack = shadowing_stack;
-      vstack     = new Stack();
+      real_stack = shadowing_states;
+      real_size  = shadowing_size;
+      vstack     = new int[16];
+      vtop       = -1;
       real_next  = 0;
 
       /* get one element onto the virtual portion of the stack */
@@ -45,11 +52,14 @@ public class virtual_parse_stack {
   /*--- (Access to) Instance Variables ------------------------*/
   /*-----------------------------------------------------------*/
        
-  /** The real stack that we shadow.  This is accessed when we move off
-   *  the bottom of the virtual portion of the stack, but is always left
-   *  unmodified.
+  /** The states of the real stack that we shadow.  This is accessed when we
+   *  move off the bottom of the virtual portion of the stack, but is always
+   *  left unmodified.
    */
-  protected Stack real_stack;
+  protected int[] real_stack;
+
+  /** The number of elements of the real stack. */
+  protected int real_size;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
@@ -61,13 +71,16 @@ public class virtual_parse_stack {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** The virtual top portion of the stack.  This stack contains Integer
-   *  objects with state numbers.  This stack shadows the top portion
-   *  of the real stack within the area that has been modified (via operations
-   *  on the virtual stack).  When this portion of the stack becomes empty we 
-   *  transfer elements from the underlying stack onto this stack. 
+  /** The virtual top portion of the stack.  This stack contains state 
+   *  numbers.  This stack shadows the top portion of the real stack within
+   *  the area that has been modified (via operations on the virtual stack).
+   *  When this portion of the stack becomes empty we transfer elements from
+   *  the underlying stack onto this stack. 
    */
-  protected Stack vstack;
+  protected int[] vstack;
+
+  /** Index of the top of the virtual stack (-1 when it is empty). */
+  protected int vtop;
 
   /*-----------------------------------------------------------*/
   /*--- General Methods ---------------------------------------*/
@@ -78,19 +91,15 @@ public class virtual_parse_stack {
    */
   protected void get_from_real()
     {
-      Symbol stack_sym;
-
       /* don't transfer if the real stack is empty */
-      if (real_next >= real_stack.size()) return;
+      if (real_next >= real_size) return;
 
-      /* get a copy of the first Symbol we have not transfered */
-      stack_sym = (Symbol)real_stack.elementAt(real_stack.size()-1-real_next);
+      /* put the state number of the first element we have not transfered
+	 onto the virtual stack */
+      push(real_stack[real_size-1-real_next]);
 
       /* record the transfer */
       real_next++;
-
-      /* put the state number from the Symbol onto the virtual stack */
-      vstack.push(new Integer(stack_sym.parse_state));
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -100,7 +109,7 @@ public class virtual_parse_stack {
     {
       /* if vstack is empty then we were unable to transfer onto it and 
 	 the whole thing is empty. */
-      return vstack.empty();
+      return vtop < 0;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -108,11 +117,11 @@ public class virtual_parse_stack {
   /** Return value on the top of the stack (without popping it). */
   public int top() throws java.lang.Exception
     {
-      if (vstack.empty())
+      if (vtop < 0)
 	throw new Exception(
 		  "Internal parser error: top() called on empty virtual stack");
 
-      return ((Integer)vstack.peek()).intValue();
+      return vstack[vtop];
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -120,15 +129,15 @@ public class virtual_parse_stack {
   /** Pop the stack. */
   public void pop() throws java.lang.Exception
     {
-      if (vstack.empty())
+      if (vtop < 0)
 	throw new Exception(
 		  "Internal parser error: pop from empty virtual stack");
 
       /* pop it */
-      vstack.pop();
+      vtop--;
 
       /* if we are now empty transfer an element (if there is one) */
-      if (vstack.empty())
+      if (vtop < 0)
         get_from_real();
     }
 
@@ -137,7 +146,9 @@ public class virtual_parse_stack {
   /** Push a state number onto the stack. */
   public void push(int state_num)
     {
-      vstack.push(new Integer(state_num));
+      if (++vtop == vstack.length)
+	vstack = Arrays.copyOf(vstack, 2 * vtop);
+      vstack[vtop] = state_num;
     }
 
   /*-----------------------------------------------------------*/
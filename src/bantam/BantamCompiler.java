@@ -0,0 +1,165 @@
+/*
+ * File: BantamCompiler.java
+ * Date: 10/18/26
+ */
+
+package bantam;
+
+import bantam.ast.Program;
+import bantam.cfg.BasicBlock;
+import bantam.codegenjvm.JVMCodeGenerator;
+import bantam.codegenmips.MipsCodeGenerator;
+import bantam.codegenx86.X86CodeGenerator;
+import bantam.lexer.Lexer;
+import bantam.opt.Optimizer;
+import bantam.parser.Parser;
+import bantam.semant.SemanticAnalyzer;
+import bantam.util.ClassTreeNode;
+import bantam.util.CompilationException;
+import bantam.util.NameTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * The <tt>BantamCompiler</tt> class is an embeddable, in-process interface to
+ * the compiler.  It runs lexing, parsing, semantic analysis, optimization and
+ * code generation on in-memory sources and returns a <tt>CompilationResult</tt>
+ * instead of printing diagnostics and exiting, so many programs can be compiled
+ * within one (warmed-up) JVM.
+ * <p/>
+ * A <tt>BantamCompiler</tt> holds no state between compilations, so one object
+ * can be used for any number of compilations.
+ *
+ * @see CompilationResult
+ */
+public class BantamCompiler {
+    /**
+     * Target architecture ("mips", "x86" or "jvm")
+     */
+    private String target;
+    /**
+     * Optimization level (0 means off)
+     */
+    private int optLevel;
+    /**
+     * Boolean indicating whether garbage collection is enabled
+     */
+    private boolean gcEnabled;
+
+    /**
+     * BantamCompiler constructor
+     *
+     * @param target    target architecture ("mips", "x86" or "jvm")
+     * @param optLevel  optimization level (0-4, 0 means off)
+     * @param gcEnabled boolean indicating whether garbage collection is enabled
+     */
+    public BantamCompiler(String target, int optLevel, boolean gcEnabled) {
+        if (!target.equals("mips") && !target.equals("x86") && !target.equals("jvm")) {
+            throw new IllegalArgumentException("Bad target architecture: " + target +
+                    " (must be 'mips', 'x86', or 'jvm')");
+        }
+        if (optLevel < 0 || optLevel > 4) {
+            throw new IllegalArgumentException("Optimization level must be integer from 0-4");
+        }
+        this.target = target;
+        this.optLevel = optLevel;
+        this.gcEnabled = gcEnabled;
+    }
+
+    /**
+     * Compile a single in-memory source
+     *
+     * @param filename name of the source (used in diagnostics)
+     * @param source   program text
+     * @return result of the compilation
+     */
+    public CompilationResult compile(String filename, String source) {
+        return compile(new String[]{filename}, new String[]{source});
+    }
+
+    /**
+     * Compile several in-memory sources as one program
+     *
+     * @param filenames names of the sources (used in diagnostics)
+     * @param sources   program text of each source
+     * @return result of the compilation
+     */
+    public CompilationResult compile(String[] filenames, String[] sources) {
+        Reader[] readers = new Reader[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            readers[i] = new StringReader(sources[i]);
+        }
+
+        Program program = null;
+        ClassTreeNode classTree = null;
+        BasicBlock.resetIds();
+        NameTable.reset();
+        try {
+            // lexing and parsing
+            Parser parser = new Parser(new Lexer(filenames, readers, false));
+            program = (Program) parser.parse().value;
+
+            // semantic analysis
+            classTree = new SemanticAnalyzer(program, false).analyze();
+
+            // optimization
+            if (optLevel > 0) {
+                new Optimizer(classTree, optLevel, false).optimize();
+            }
+
+            // code generation
+            String assembly = generate(classTree);
+            return new CompilationResult(true, new Vector<String>(), program, classTree, assembly);
+        } catch (CompilationException e) {
+            return new CompilationResult(false, diagnostics(e), program, classTree, null);
+        } catch (Exception e) {
+            List<String> diagnostics = new Vector<String>();
+            diagnostics.add("Internal error within compiler: " + e);
+            return new CompilationResult(false, diagnostics, program, classTree, null);
+        }
+    }
+
+    /**
+     * Generate code for the program
+     *
+     * @param classTree root of the class hierarchy tree
+     * @return emitted assembly (null for the JVM target, which writes one file per class)
+     */
+    private String generate(ClassTreeNode classTree) {
+        if (target.equals("jvm")) {
+            new JVMCodeGenerator(classTree, false).generate();
+            return null;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer);
+        if (target.equals("mips")) {
+            new MipsCodeGenerator(classTree, out, gcEnabled, optLevel > 0, false).generate();
+        }
+        else {
+            new X86CodeGenerator(classTree, out, gcEnabled, optLevel > 0, false).generate();
+        }
+        out.flush();
+        return buffer.toString();
+    }
+
+    /**
+     * Get the diagnostics carried by a compilation exception
+     *
+     * @param e the exception that stopped compilation
+     * @return list of diagnostics
+     */
+    private List<String> diagnostics(CompilationException e) {
+        if (e.getErrors().size() > 0 || e.getMessage() == null) {
+            return e.getErrors();
+        }
+        List<String> diagnostics = new Vector<String>();
+        diagnostics.add(e.getMessage());
+        return diagnostics;
+    }
+}
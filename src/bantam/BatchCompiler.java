@@ -0,0 +1,290 @@
+/*
+ * File: BatchCompiler.java
+ * Date: 10/18/26
+ */
+
+package bantam;
+
+import bantam.util.CompilationException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The <tt>BatchCompiler</tt> class compiles many independent programs within
+ * one JVM (<tt>bantamc -batch &lt;manifest&gt; [-j &lt;threads&gt;]</tt>).  The
+ * jobs are listed in a manifest and are compiled concurrently on a pool of
+ * worker threads (one thread per processor by default), each job with its
+ * own <tt>bantam.Main</tt> object.
+ * <p/>
+ * Each line of the manifest is a job holding the same arguments that would be
+ * passed to <tt>bantamc</tt> (flags, input files and usually <tt>-o</tt> with
+ * the output file, separated by whitespace).  Blank lines and lines starting
+ * with <tt>#</tt> are ignored.  Relative file names are relative to the current
+ * directory.  Flags whose output goes to standard output or that need a
+ * terminal (<tt>-sl -sp -ss -so -dl -dp -ds -di -do -dc -dt</tt>) can't be used
+ * in batch mode, since the output of concurrent jobs would be interleaved.
+ * <p/>
+ * For each job (in manifest order) the batch compiler writes a line
+ * <tt>job &lt;n&gt; (line &lt;line&gt;): OK|FAILED &lt;status&gt; &lt;latency in ms&gt; ms
+ * &lt;output file&gt;</tt>, where the output file is <tt>-</tt> if no assembly
+ * file was produced, followed by the job's diagnostics (indented), and finally
+ * a summary line.  The exit status is 0 if every job succeeded and 1 otherwise.
+ */
+public class BatchCompiler {
+    /**
+     * Flags that can't be used in batch mode
+     */
+    private static final String[] UNSUPPORTED_FLAGS = {
+            "-sl", "-sp", "-ss", "-so", "-dl", "-dp", "-ds", "-di", "-do", "-dc", "-dt"};
+
+    /**
+     * Name of the manifest file
+     */
+    private String manifest;
+    /**
+     * Number of worker threads
+     */
+    private int numThreads;
+
+    /**
+     * BatchCompiler constructor
+     *
+     * @param manifest   name of the manifest file
+     * @param numThreads number of worker threads
+     */
+    public BatchCompiler(String manifest, int numThreads) {
+        this.manifest = manifest;
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Create a batch compiler from the commandline arguments
+     * (<tt>-batch &lt;manifest&gt; [-j &lt;threads&gt;]</tt>)
+     *
+     * @param args list of commandline arguments
+     * @return the batch compiler
+     * @throws CompilationException if the arguments are bad
+     */
+    public static BatchCompiler fromArgs(String[] args) {
+        String manifest = null;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("-j") && i + 1 < args.length) {
+                try {
+                    numThreads = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    numThreads = 0;
+                }
+                if (numThreads < 1) {
+                    throw new CompilationException("Usage error: number of threads " +
+                            "must be a positive integer", 1);
+                }
+            }
+            else if (manifest == null && !args[i].startsWith("-")) {
+                manifest = args[i];
+            }
+            else {
+                throw new CompilationException("Usage error: bantamc -batch <manifest> " +
+                        "[-j <threads>]", 1);
+            }
+        }
+        if (manifest == null) {
+            throw new CompilationException("Usage error: must specify a manifest with -batch", 1);
+        }
+        return new BatchCompiler(manifest, numThreads);
+    }
+
+    /**
+     * Compile the jobs of the manifest and report the results
+     *
+     * @param out print stream the results are written to
+     * @return exit status (0 if every job succeeded)
+     */
+    public int run(PrintStream out) {
+        List<Job> jobs;
+        try {
+            jobs = readManifest();
+        } catch (IOException e) {
+            out.println("Error: could not read manifest '" + manifest + "': " + e.getMessage());
+            return 1;
+        }
+
+        long start = System.nanoTime();
+        int failed = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<Job>> results = new Vector<Future<Job>>();
+            for (Job job : jobs) {
+                results.add(pool.submit(job));
+            }
+            // report in manifest order, as soon as each job is done
+            for (Future<Job> result : results) {
+                Job job = result.get();
+                job.report(out);
+                if (job.status != 0) {
+                    failed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            out.println("Error: batch compilation was interrupted");
+            return 1;
+        } catch (ExecutionException e) {
+            // Job.call catches everything the compiler throws
+            throw new RuntimeException("Internal error: batch job failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        out.println("Batch: " + jobs.size() + " job(s), " + failed + " failed, " +
+                String.format(Locale.ROOT, "%.3f", (System.nanoTime() - start) / 1000000.0) + " ms with " +
+                numThreads + " thread(s)");
+        out.flush();
+        return failed == 0 ? 0 : 1;
+    }
+
+    /**
+     * Read the jobs of the manifest
+     *
+     * @return list of jobs
+     * @throws IOException if the manifest can't be read
+     */
+    private List<Job> readManifest() throws IOException {
+        List<Job> jobs = new Vector<Job>();
+        BufferedReader reader = new BufferedReader(new FileReader(manifest));
+        try {
+            String line;
+            int lineNum = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNum++;
+                line = line.trim();
+                if (line.length() > 0 && !line.startsWith("#")) {
+                    jobs.add(new Job(jobs.size() + 1, lineNum, line.split("\\s+")));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return jobs;
+    }
+
+    /**
+     * A job of the manifest, which compiles one program (and holds the result
+     * once it has been compiled)
+     */
+    private static class Job implements Callable<Job> {
+        /**
+         * Number of the job
+         */
+        private int num;
+        /**
+         * Line number of the job in the manifest
+         */
+        private int lineNum;
+        /**
+         * Arguments of the job
+         */
+        private String[] args;
+        /**
+         * Exit status of the compilation
+         */
+        private int status;
+        /**
+         * Latency of the compilation in ms
+         */
+        private double ms;
+        /**
+         * Name of the output file produced (null if none)
+         */
+        private String produced;
+        /**
+         * Diagnostics written by the compilation
+         */
+        private ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+
+        /**
+         * Job constructor
+         *
+         * @param num     number of the job
+         * @param lineNum line number of the job in the manifest
+         * @param args    arguments of the job
+         */
+        Job(int num, int lineNum, String[] args) {
+            this.num = num;
+            this.lineNum = lineNum;
+            this.args = args;
+        }
+
+        /**
+         * Compile the job (run by a worker thread)
+         *
+         * @return this job, holding the result
+         */
+        public Job call() {
+            PrintStream err = new PrintStream(diagnostics, true);
+            long start = System.nanoTime();
+            status = 1;
+            try {
+                if (isSupported(err)) {
+                    Main main = new Main(err);
+                    status = main.run(args);
+                    produced = main.getProducedFile();
+                }
+            } catch (Throwable e) {
+                // e.g., a stack overflow on a deeply nested program
+                e.printStackTrace(err);
+                err.println("Internal error within compiler: stopping compilation");
+            }
+            ms = (System.nanoTime() - start) / 1000000.0;
+            err.flush();
+            return this;
+        }
+
+        /**
+         * Check that the job can be compiled in batch mode
+         * (reports an error if it can't)
+         *
+         * @param err print stream for the diagnostics
+         * @return true if the job can be compiled
+         */
+        private boolean isSupported(PrintStream err) {
+            for (String arg : args) {
+                for (String flag : UNSUPPORTED_FLAGS) {
+                    if (arg.equals(flag)) {
+                        err.println("Usage error: " + arg + " cannot be used in batch mode");
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Write the result of the job
+         *
+         * @param out print stream the result is written to
+         */
+        void report(PrintStream out) {
+            out.println("job " + num + " (line " + lineNum + "): " +
+                    (status == 0 ? "OK" : "FAILED") + " " + status + " " +
+                    String.format(Locale.ROOT, "%.3f", ms) + " ms " + (produced == null ? "-" : produced));
+            if (diagnostics.size() > 0) {
+                for (String s : diagnostics.toString().split("\r?\n")) {
+                    out.println("    " + s);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * File: CompilationResult.java
+ * Date: 10/18/26
+ */
+
+package bantam;
+
+import bantam.ast.Program;
+import bantam.util.ClassTreeNode;
+
+import java.util.List;
+
+/**
+ * The <tt>CompilationResult</tt> class holds the outcome of an in-process
+ * compilation run through <tt>BantamCompiler</tt>: the diagnostics, the AST,
+ * the root of the class hierarchy tree and the emitted assembly.  Phases that
+ * were not reached leave their part of the result <tt>null</tt>.
+ *
+ * @see BantamCompiler
+ */
+public class CompilationResult {
+    /**
+     * Boolean indicating whether every phase completed without errors
+     */
+    private boolean successful;
+    /**
+     * Diagnostics (formatted error messages) produced by the compilation
+     */
+    private List<String> diagnostics;
+    /**
+     * Root of the AST (null if parsing did not complete)
+     */
+    private Program program;
+    /**
+     * Root of the class hierarchy tree (null if semantic analysis did not complete)
+     */
+    private ClassTreeNode classTree;
+    /**
+     * Emitted assembly (null if code generation did not complete)
+     */
+    private String assembly;
+
+    /**
+     * CompilationResult constructor
+     *
+     * @param successful  boolean indicating whether every phase completed without errors
+     * @param diagnostics diagnostics produced by the compilation
+     * @param program     root of the AST (might be null)
+     * @param classTree   root of the class hierarchy tree (might be null)
+     * @param assembly    emitted assembly (might be null)
+     */
+    public CompilationResult(boolean successful, List<String> diagnostics, Program program,
+                             ClassTreeNode classTree, String assembly) {
+        this.successful = successful;
+        this.diagnostics = diagnostics;
+        this.program = program;
+        this.classTree = classTree;
+        this.assembly = assembly;
+    }
+
+    /**
+     * Did every phase complete without errors?
+     *
+     * @return boolean indicating whether the compilation succeeded
+     */
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    /**
+     * Get the diagnostics produced by the compilation
+     *
+     * @return list of formatted error messages (empty if none)
+     */
+    public List<String> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /**
+     * Get the root of the AST
+     *
+     * @return program node (null if parsing did not complete)
+     */
+    public Program getProgram() {
+        return program;
+    }
+
+    /**
+     * Get the root of the class hierarchy tree
+     *
+     * @return class tree node of Object (null if semantic analysis did not complete)
+     */
+    public ClassTreeNode getClassTree() {
+        return classTree;
+    }
+
+    /**
+     * Get the emitted assembly
+     *
+     * @return assembly text (null if code generation did not complete)
+     */
+    public String getAssembly() {
+        return assembly;
+    }
+}
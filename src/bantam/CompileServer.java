@@ -0,0 +1,155 @@
+/*
+ * File: CompileServer.java
+ * Date: 10/18/26
+ */
+
+package bantam;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Vector;
+
+/**
+ * The <tt>CompileServer</tt> class keeps the compiler resident in one JVM and
+ * compiles requests read from an input stream (standard input when run via
+ * <tt>bantamc -server</tt>).  This avoids paying for JVM startup, class loading
+ * and parser table decoding on every compilation.
+ * <p/>
+ * Each request is a single line holding the same arguments that would be passed
+ * to <tt>bantamc</tt> (flags and input files, separated by whitespace).  Blank
+ * lines are ignored and the line <tt>quit</tt> (or end of input) stops the server.
+ * For each request the server writes a response made up of:
+ * <ul>
+ * <li> one <tt>OUT &lt;line&gt;</tt> line for each line the compilation wrote to
+ * standard output (<i>e.g.</i>, the tokens printed with <tt>-sl</tt>),
+ * <li> one <tt>ERR &lt;line&gt;</tt> line for each line the compilation wrote to
+ * standard error (the diagnostics), and
+ * <li> a final <tt>STATUS &lt;exit status&gt; &lt;latency in ms&gt; &lt;output file&gt;</tt>
+ * line, where the output file is <tt>-</tt> if no assembly file was produced.
+ * </ul>
+ * Requests are handled one at a time.
+ */
+public class CompileServer {
+    /**
+     * Reader for the incoming requests
+     */
+    private BufferedReader in;
+    /**
+     * Print stream for the responses
+     */
+    private PrintStream out;
+
+    /**
+     * CompileServer constructor
+     *
+     * @param in  stream the requests are read from
+     * @param out stream the responses are written to
+     */
+    public CompileServer(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in));
+        this.out = out;
+    }
+
+    /**
+     * Serve requests until the input is exhausted or <tt>quit</tt> is read
+     */
+    public void serve() {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.equals("quit")) {
+                    break;
+                }
+                if (line.length() > 0) {
+                    handle(line.split("\\s+"));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error: compile server could not read request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compile a single request and write the response
+     *
+     * @param args arguments of the request
+     */
+    private void handle(String[] args) {
+        // capture everything the compiler prints while handling this request
+        PrintStream savedOut = System.out;
+        PrintStream savedErr = System.err;
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(stdout, true));
+        System.setErr(new PrintStream(stderr, true));
+
+        int status;
+        Main main = new Main(System.err);
+        long start = System.nanoTime();
+        try {
+            status = isSupported(args) ? main.run(args) : 1;
+        } finally {
+            System.setOut(savedOut);
+            System.setErr(savedErr);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // write the response
+        for (String s : lines(stdout)) {
+            out.println("OUT " + s);
+        }
+        for (String s : lines(stderr)) {
+            out.println("ERR " + s);
+        }
+        String produced = main.getProducedFile();
+        out.println("STATUS " + status + " " +
+                String.format(Locale.ROOT, "%.3f", elapsed / 1000000.0) + " " +
+                (produced == null ? "-" : produced));
+        out.flush();
+    }
+
+    /**
+     * Check that a request can be handled by the server
+     * (reports an error on standard error if it can't)
+     *
+     * @param args arguments of the request
+     * @return true if the request can be compiled
+     */
+    private boolean isSupported(String[] args) {
+        for (String arg : args) {
+            // drawing the AST pauses on standard input, which carries the requests
+            if (arg.equals("-dt") || arg.equals("-server")) {
+                System.err.println("Usage error: " + arg + " cannot be used with the compile server");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Split captured output into lines
+     *
+     * @param buffer captured output
+     * @return list of lines
+     */
+    private Vector<String> lines(ByteArrayOutputStream buffer) {
+        Vector<String> lines = new Vector<String>();
+        if (buffer.size() == 0) {
+            return lines;
+        }
+        for (String s : buffer.toString().split("\r?\n", -1)) {
+            lines.add(s);
+        }
+        // drop the empty string following the last newline
+        if (lines.lastElement().length() == 0) {
+            lines.removeElementAt(lines.size() - 1);
+        }
+        return lines;
+    }
+}
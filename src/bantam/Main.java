@@ -28,19 +28,45 @@ package bantam;/* Bantam Java Compiler and Language Toolset.
    the drawer package.
 */
 
+import bantam.ast.Class_;
 import bantam.ast.Program;
+import bantam.cfg.BasicBlock;
 import bantam.codegenjvm.JVMCodeGenerator;
 import bantam.codegenmips.MipsCodeGenerator;
 import bantam.codegenx86.X86CodeGenerator;
 import bantam.interp.Interpreter;
 import java_cup.runtime.Symbol;
+import bantam.lexer.BantamScanner;
+import bantam.lexer.FastLexer;
 import bantam.lexer.Lexer;
+import bantam.lexer.PipelinedScanner;
+import bantam.lexer.TokenBuffer;
 import bantam.opt.Optimizer;
+import bantam.parser.ParallelClassParser;
+import bantam.parser.ParallelParser;
+import bantam.parser.ParseCache;
 import bantam.parser.Parser;
+import bantam.parser.RDParser;
+import bantam.parser.TokenIds;
 import bantam.semant.SemanticAnalyzer;
 import bantam.treedrawer.Drawer;
+import bantam.util.AssemblyEmitter;
 import bantam.util.ClassTreeNode;
+import bantam.util.CompilationException;
+import bantam.util.CompilerStats;
+import bantam.util.ErrorHandler;
+import bantam.util.NameTable;
+import bantam.visitor.NodeCountVisitor;
+import bantam.visitor.ParallelClassVisitor;
+import bantam.visitor.TrimVisitor;
 import bantam.visitor.PrintVisitor;
+import bantam.visitor.Visitor;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
 
 /**
  * bantam.Main class that runs the Bantam compiler
@@ -51,37 +77,37 @@ public class Main {
     /**
      * Array for holding each input file name
      */
-    private static String[] inFiles;
+    private String[] inFiles;
     /**
      * String that holds the output file name - "out.s" by default
      */
-    private static String outFile = "out.s";
+    private String outFile = "out.s";
     /**
      * Boolean flag indicating whether garbage collection is enabled - disabled by default
      */
-    private static boolean gcEnabled = false;
+    private boolean gcEnabled = false;
     /**
      * Boolean flags that indicate whether we should stop after
      * a particular phase.  If turned on bantam.Main prints out an
      * intermediate representation of the phase before exiting
      */
-    private static boolean stopAfterLexing, stopAfterParsing, stopAfterSemant, stopAfterOpt;
+    private boolean stopAfterLexing, stopAfterParsing, stopAfterSemant, stopAfterOpt;
     /**
      * Debugging flags for each phase of the compiler
      */
-    private static boolean debugLexer, debugParser, debugSemant, debugInt, debugOpt, debugCodeGen;
+    private boolean debugLexer, debugParser, debugSemant, debugInt, debugOpt, debugCodeGen;
     /**
      * Optimization level (0 means off)
      */
-    private static int opt = 0;
+    private int opt = 0;
     /**
      * Interpreter mode (false means compiler mode)
      */
-    private static boolean intMode = false;
+    private boolean intMode = false;
     /**
      * Integer indicating target (0=mips, 1=x86, 2=jvm -- mips by default)
      */
-    private static int targetType = 0;
+    private int targetType = TARG_MIPS;
 
     /**
      * Constant for MIPS target
@@ -98,27 +124,91 @@ public class Main {
     /**
      * flag for drawing the AST -- added by DJS
      */
-    private static boolean drawTree = false;
+    private boolean drawTree = false;
+    /**
+     * Boolean flag indicating whether input files are lexed and parsed in
+     * parallel (one task per file) - disabled by default
+     */
+    private boolean parallelParse = false;
+    /**
+     * Name of the parse cache directory (null means the cache is disabled)
+     */
+    private String cacheDir = null;
+    /**
+     * Boolean flag indicating whether the hand-written scanner is used
+     * instead of the JLex generated lexer - disabled by default
+     */
+    private boolean fastLexer = false;
+    /**
+     * Boolean flag indicating whether the hand-written recursive-descent
+     * parser is used instead of the CUP generated parser - disabled by default
+     */
+    private boolean recursiveDescent = false;
+    /**
+     * Boolean flag indicating whether the input files are lexed by a thread
+     * of their own, ahead of the parser - disabled by default
+     */
+    private boolean pipelinedLexing = false;
+    /**
+     * Tokens of the input files (null unless they were lexed into a buffer)
+     */
+    private TokenBuffer tokens = null;
+    /**
+     * Statistics of the current compilation (null unless -stats is set)
+     */
+    private CompilerStats stats = null;
+    /**
+     * Name of the output file produced by the compilation (null if
+     * compilation stopped before code generation)
+     */
+    private String producedFile = null;
+    /**
+     * Print stream for the diagnostics
+     */
+    private PrintStream err;
+
+    /**
+     * bantam.Main constructor
+     * Each compilation uses its own bantam.Main object, so compilations can
+     * run concurrently within the same JVM
+     *
+     * @param err print stream for the diagnostics
+     */
+    public Main(PrintStream err) {
+        this.err = err;
+    }
 
     /**
      * Prints out a usage message to the screen
      * Modified by DJS to include [-dt]
      */
-    private static void showHelp() {
-        System.err.println("Usage: bantamc [-h] [-o <output_file>] [-t <architecture>]");
-        System.err.println("               [-gc] [-int] [-bantam.opt <num>] [-dt] [-dl] [-dp] [-ds]");
-        System.err.println("               [-di] [-do] [-dc] [-sl] [-sp] [-ss] [-so] <input_files>");
-        System.err.println("man bantamc for more details");
-        System.exit(1);
+    private void showHelp() {
+        err.println("Usage: bantamc [-h] [-o <output_file>] [-t <architecture>]");
+        err.println("               [-gc] [-int] [-bantam.opt <num>] [-pp] [-cache <dir>] [-stats]");
+        err.println("               [-fl] [-rd] [-pl] [-dt] [-dl] [-dp] [-ds] [-di] [-do] [-dc]");
+        err.println("               [-sl] [-sp] [-ss] [-so] <input_files>");
+        err.println("       bantamc -server");
+        err.println("       bantamc -batch <manifest> [-j <threads>]");
+        err.println("man bantamc for more details");
+        throw new CompilationException(null, 1);
+    }
+
+    /**
+     * Get the name of the output file produced by the compilation
+     *
+     * @return output file name (null if no output file was produced)
+     */
+    String getProducedFile() {
+        return producedFile;
     }
 
     /**
      * Get target name
-     * Converts targetType (global) into the target name
+     * Converts targetType into the target name
      *
      * @return name of target
      */
-    private static String getTargName() {
+    private String getTargName() {
         if (targetType == TARG_MIPS) {
             return "mips";
         }
@@ -139,21 +229,21 @@ public class Main {
      *
      * @param args list of commandline arguments
      */
-    private static void processFlags(String[] args) {
+    private void processFlags(String[] args) {
         // initialize inFiles to size of args, will probably be smaller, but args length
         // gives upper bound
         inFiles = new String[args.length];
         // cnt represents the number of input files found - initialize to 0
         int cnt = 0;
 
-        // if no arguments then call showHelp (which eventually exits)
+        // if no arguments then call showHelp (which stops compilation)
         if (args.length == 0) {
             showHelp();
         }
 
         // otherwise inspect the arguments
         for (int i = 0; i < args.length; i++) {
-            // if '-h' or help then call showHelp (which eventually exits)
+            // if '-h' or help then call showHelp (which stops compilation)
             if (args[i].equals("-h")) {
                 showHelp();
             }
@@ -202,6 +292,43 @@ public class Main {
                 stopAfterOpt = true;
             }
 
+            // if -pp turn on parallel lexing and parsing
+            else if (args[i].equals("-pp")) {
+                parallelParse = true;
+            }
+
+            // if -fl use the hand-written scanner
+            else if (args[i].equals("-fl")) {
+                fastLexer = true;
+            }
+
+            // if -rd use the recursive-descent parser
+            else if (args[i].equals("-rd")) {
+                recursiveDescent = true;
+            }
+
+            // if -pl lex ahead of the parser on a thread of its own
+            else if (args[i].equals("-pl")) {
+                pipelinedLexing = true;
+            }
+
+            // if -cache is set then user is specifying the parse cache directory
+            else if (args[i].equals("-cache")) {
+                // check if no further arguments
+                if (i == args.length - 1) {
+                    // if not, then print error message and call showHelp() (which stops compilation)
+                    err.println("Usage error: must specify a cache directory with -cache");
+                    showHelp();
+                }
+                i++;
+                cacheDir = args[i];
+            }
+
+            // if -stats turn on per-phase statistics
+            else if (args[i].equals("-stats")) {
+                stats = new CompilerStats();
+            }
+
             // if -int turn on interpreter mode
             else if (args[i].equals("-int")) {
                 intMode = true;
@@ -211,8 +338,8 @@ public class Main {
             else if (args[i].equals("-bantam.opt")) {
                 // check if no further arguments
                 if (i == args.length - 1) {
-                    // if not, then print error message and call showHelp() (which eventually exits)
-                    System.err.println("Usage error: must specify an optimization level with -bantam.opt");
+                    // if not, then print error message and call showHelp() (which stops compilation)
+                    err.println("Usage error: must specify an optimization level with -bantam.opt");
                     showHelp();
                 }
                 i++;
@@ -227,8 +354,8 @@ public class Main {
                 }
 
                 if (badLevel) {
-                    // if not, then print error message and call showHelp() (which eventually exits)
-                    System.err.println("Usage error: optimization level must be integer from 0-4");
+                    // if not, then print error message and call showHelp() (which stops compilation)
+                    err.println("Usage error: optimization level must be integer from 0-4");
                     showHelp();
                 }
             }
@@ -237,8 +364,8 @@ public class Main {
             else if (args[i].equals("-t")) {
                 // check if no further arguments
                 if (i == args.length - 1) {
-                    // if not, then print error message and call showHelp() (which eventually exits)
-                    System.err.println("Usage error: must specify a target architecture with -t");
+                    // if not, then print error message and call showHelp() (which stops compilation)
+                    err.println("Usage error: must specify a target architecture with -t");
                     showHelp();
                 }
                 i++;
@@ -255,9 +382,9 @@ public class Main {
                     targetType = TARG_JVM;
                 }
                 else {
-                    // if not, then print error message and call showHelp() (which eventually exits)
-                    System.err.println("Usage error: bad target architecture: " + args[i]);
-                    System.err.println("             must be 'mips', 'x86', or 'jvm'");
+                    // if not, then print error message and call showHelp() (which stops compilation)
+                    err.println("Usage error: bad target architecture: " + args[i]);
+                    err.println("             must be 'mips', 'x86', or 'jvm'");
                     showHelp();
                 }
             }
@@ -266,8 +393,8 @@ public class Main {
             else if (args[i].equals("-o")) {
                 // check if no further arguments
                 if (i == args.length - 1) {
-                    // if not, then print error message and call showHelp() (which eventually exits)
-                    System.err.println("Usage error: must specify an output file with -o");
+                    // if not, then print error message and call showHelp() (which stops compilation)
+                    err.println("Usage error: must specify an output file with -o");
                     showHelp();
                 }
                 i++;
@@ -279,8 +406,8 @@ public class Main {
         		    !outFile.substring(outFile.length()-2).equals(".s")) {
         		    // if not, then print error message and call showHelp()
         		    // (which eventually exits)
-        		    System.err.println("Usage error: bad output file name: " + outFile);
-        		    System.err.println("             file name must end with '.s'");
+        		    err.println("Usage error: bad output file name: " + outFile);
+        		    err.println("             file name must end with '.s'");
         		    showHelp();
         		}
 		        */
@@ -297,15 +424,15 @@ public class Main {
             else {
                 // if we get to here then we have an illegal argument
                 // (we treat this as a bad input file name)
-                System.err.println("Usage error: bad input file name: " + args[i]);
-                System.err.println("             file names must end with '.btm'");
+                err.println("Usage error: bad input file name: " + args[i]);
+                err.println("             file names must end with '.btm'");
                 showHelp();
             }
         }
 
         // make sure at least one input file was specified
         if (cnt == 0) {
-            System.err.println("Usage error: must specify some input files");
+            err.println("Usage error: must specify some input files");
             showHelp();
         }
 
@@ -318,98 +445,392 @@ public class Main {
 
     /**
      * bantam.Main method, which drives compilation
-     * builds and runs each phase of the compiler
+     * Runs the compile server if -server is the only argument, compiles the
+     * jobs of a manifest if the first argument is -batch, and otherwise
+     * compiles once and exits with the compilation's status
      *
      * @param args list of commandline arguments
      */
     public static void main(String[] args) {
-        // process flags
-        processFlags(args);
+        if (args.length == 1 && args[0].equals("-server")) {
+            // stay resident and compile requests read from standard input
+            new CompileServer(System.in, System.out).serve();
+            System.exit(0);
+        }
+        if (args.length > 0 && args[0].equals("-batch")) {
+            // compile the jobs listed in a manifest on a pool of worker threads
+            try {
+                System.exit(BatchCompiler.fromArgs(args).run(System.out));
+            } catch (CompilationException e) {
+                System.err.println(e.getMessage());
+                System.exit(e.getExitStatus());
+            }
+        }
+        System.exit(compile(args));
+    }
 
+    /**
+     * Compiles a program with a new bantam.Main object, printing the
+     * diagnostics to standard error
+     *
+     * @param args list of commandline arguments
+     * @return exit status (0 if compilation succeeded)
+     */
+    public static int compile(String[] args) {
+        return new Main(System.err).run(args);
+    }
+
+    /**
+     * Compiles a program, which builds and runs each phase of the compiler
+     * Never calls System.exit, so it can be called many times within one JVM
+     * (but only once per bantam.Main object)
+     *
+     * @param args list of commandline arguments
+     * @return exit status (0 if compilation succeeded)
+     */
+    public int run(String[] args) {
         try {
-            // lexing
-            Lexer lexer = new Lexer(inFiles, debugLexer);
-            if (stopAfterLexing) {
-                // if stopAfterLexing==true, then print tokens and exit
-                lexer.printTokens();
-                System.exit(0);
+            // process flags
+            processFlags(args);
+
+            // number basic blocks from 0, as in a fresh JVM, and intern names
+            // in a table of their own
+            BasicBlock.resetIds();
+            NameTable.reset();
+
+            if (stats != null) {
+                // lexing is measured with a separate pass over the tokens, since
+                // the parser pulls tokens from the lexer as it parses (with -fl
+                // the files are lexed once, into a token buffer the parser reads)
+                stats.startPhase("lexing");
+                if (fastLexer) {
+                    tokens = new TokenBuffer(inFiles);
+                    stats.setCount("tokens", countTokens(tokens.newScanner()));
+                }
+                else {
+                    stats.setCount("tokens", countTokens(newLexer(inFiles, false)));
+                }
+                stats.endPhase();
             }
 
-            // parsing
-            Parser parser = new Parser(lexer);
-            Symbol result = null;
-            if (debugParser) {
-                result = parser.debug_parse();
+            Program program;
+            if (!stopAfterLexing) {
+                startPhase("parsing");
+            }
+            if (cacheDir != null && !stopAfterLexing && !debugParser) {
+                // lexing and parsing (only of files missing from the cache)
+                ParseCache cache = new ParseCache(cacheDir);
+                program = cache.parse(inFiles, debugLexer, parallelParse);
+                err.println("Parse cache: " + cache.getHits() + " hit(s), " +
+                        cache.getMisses() + " miss(es)");
+            }
+            else if (parallelParse && fastLexer && !stopAfterLexing && !debugParser) {
+                // lexing (into a token buffer), then parsing (one task per class)
+                if (tokens == null) {
+                    tokens = new TokenBuffer(inFiles);
+                }
+                program = new ParallelClassParser(tokens, recursiveDescent).parse();
+            }
+            else if (parallelParse && !stopAfterLexing && !debugParser) {
+                // lexing and parsing (one task per input file)
+                program = new ParallelParser(inFiles, debugLexer).parse();
             }
             else {
-                result = parser.parse();
+                // lexing
+                BantamScanner lexer = newLexer(inFiles, debugLexer);
+                if (stopAfterLexing) {
+                    // if stopAfterLexing==true, then print tokens and stop
+                    lexer.printTokens();
+                    return 0;
+                }
+
+                // parsing (with -pl, while a thread of its own lexes ahead)
+                if (pipelinedLexing && tokens == null && !debugLexer && !debugParser) {
+                    lexer = new PipelinedScanner(lexer);
+                }
+                try {
+                    if (recursiveDescent && !debugParser) {
+                        program = new RDParser(lexer).parse();
+                    }
+                    else {
+                        Parser parser = new Parser(lexer);
+                        Symbol result = null;
+                        if (debugParser) {
+                            result = parser.debug_parse();
+                        }
+                        else {
+                            result = parser.parse();
+                        }
+                        program = (Program) result.value;
+                    }
+                } finally {
+                    if (lexer instanceof PipelinedScanner) {
+                        ((PipelinedScanner) lexer).close();
+                    }
+                }
+            }
+            // the lists are complete, so their storage can be trimmed
+            new TrimVisitor().trim(program);
+            endPhase();
+            if (stats != null) {
+                stats.setCount("astNodes", new NodeCountVisitor().count(program));
+                stats.setCount("classes", program.getClassList().getSize());
             }
             if (stopAfterParsing) {
-                // if stopAfterParsing==true, then print AST and exit
-                PrintVisitor visitor = new PrintVisitor(/*start at indent 0*/0,
-							/*increment by 4 each indent level*/4);
-                visitor.visit((Program) result.value);
-                System.exit(0);
+                // if stopAfterParsing==true, then print AST and stop
+                printProgram(program);
+                return 0;
             }
             if (drawTree) {
-                // if drawTree==true, then draw AST and exit
+                // if drawTree==true, then draw AST and stop
                 Drawer drawer = new Drawer();
-                drawer.draw("AST",(Program) result.value);
+                drawer.draw("AST", program);
                 System.in.read(); //to pause the program
-                System.exit(0);
+                return 0;
             }
 
             // semantic analysis
+            startPhase("semanticAnalysis");
             SemanticAnalyzer semanticAnalyzer =
-                    new SemanticAnalyzer((Program) result.value, debugSemant);
+                    new SemanticAnalyzer(program, debugSemant);
             ClassTreeNode classTree = semanticAnalyzer.analyze();
+            endPhase();
             if (stopAfterSemant) {
-                // if stopAfterSemant==true, then print AST (with types) and exit
-                PrintVisitor printVisitor = new PrintVisitor(/*start at indent 0*/0,
-							/*increment by 4 each indent level*/4);
-                printVisitor.visit((Program) result.value);
-                System.exit(0);
+                // if stopAfterSemant==true, then print AST (with types) and stop
+                printProgram(program);
+                return 0;
             }
 
-            // if interpreter mode then interpret program and exit
+            // if interpreter mode then interpret program and stop
             if (intMode) {
+                startPhase("interpretation");
                 Interpreter interpreter = new Interpreter(classTree, debugInt);
                 interpreter.interpret();
-                System.exit(0);
+                endPhase();
+                return 0;
             }
 
             // optimization (if specified via -bantam.opt flag)
             if (opt > 0) {
+                startPhase("optimization");
                 Optimizer optimizer = new Optimizer(classTree, opt, debugOpt);
                 optimizer.optimize();
+                endPhase();
+                if (stats != null) {
+                    stats.setCount("basicBlocks", optimizer.getNumBasicBlocks());
+                    stats.setCount("tacInsns", optimizer.getNumInsns());
+                }
                 if (stopAfterOpt) {
                     optimizer.print();
-                    System.exit(0);
+                    return 0;
                 }
             }
 
             // code generation
+            startPhase("codeGeneration");
             if (targetType == TARG_MIPS) {
-                MipsCodeGenerator codeGenerator = new MipsCodeGenerator(classTree, outFile,
-                        gcEnabled, (opt > 0),
-                        debugCodeGen);
-                codeGenerator.generate();
+                AssemblyEmitter emitter = openOutFile();
+                try {
+                    MipsCodeGenerator codeGenerator = new MipsCodeGenerator(classTree, emitter,
+                            gcEnabled, (opt > 0),
+                            debugCodeGen);
+                    codeGenerator.generate();
+                } finally {
+                    // write out the buffered assembly
+                    emitter.close();
+                }
+                producedFile = outFile;
             }
             else if (targetType == TARG_X86) {
-                X86CodeGenerator codeGenerator = new X86CodeGenerator(classTree, outFile,
-                        gcEnabled, (opt > 0),
-                        debugCodeGen);
-                codeGenerator.generate();
+                AssemblyEmitter emitter = openOutFile();
+                try {
+                    X86CodeGenerator codeGenerator = new X86CodeGenerator(classTree, emitter,
+                            gcEnabled, (opt > 0),
+                            debugCodeGen);
+                    codeGenerator.generate();
+                } finally {
+                    // write out the buffered assembly
+                    emitter.close();
+                }
+                producedFile = outFile;
             }
             else if (targetType == TARG_JVM) {
                 JVMCodeGenerator codeGenerator = new JVMCodeGenerator(classTree,
                         debugCodeGen);
                 codeGenerator.generate();
             }
+            endPhase();
+            if (stats != null && producedFile != null) {
+                stats.setCount("assemblyLines", countLines(producedFile));
+            }
+        } catch (CompilationException e) {
+            // compilation was stopped -- report why
+            abortPhase();
+            reportStop(e);
+            return e.getExitStatus();
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Internal error within compiler: stopping compilation");
-            System.exit(1);
+            abortPhase();
+            e.printStackTrace(err);
+            err.println("Internal error within compiler: stopping compilation");
+            return 1;
+        } finally {
+            if (stats != null) {
+                // report the statistics (of the phases run so far) as JSON
+                err.println(stats.toJson());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Starts measuring a phase (if -stats is set)
+     *
+     * @param name name of the phase
+     */
+    private void startPhase(String name) {
+        if (stats != null) {
+            stats.startPhase(name);
+        }
+    }
+
+    /**
+     * Stops measuring the current phase (if -stats is set)
+     */
+    private void endPhase() {
+        if (stats != null) {
+            stats.endPhase();
+        }
+    }
+
+    /**
+     * Stops measuring the current phase because compilation was stopped
+     * (if -stats is set)
+     */
+    private void abortPhase() {
+        if (stats != null) {
+            stats.abortPhase();
+        }
+    }
+
+    /**
+     * Prints the AST (if -pp is set, the classes are printed in parallel,
+     * each into a buffer of its own, and the buffers are printed in order)
+     *
+     * @param program the AST
+     */
+    private void printProgram(Program program) {
+        if (!parallelParse) {
+            new PrintVisitor(/*start at indent 0*/0,
+                    /*increment by 4 each indent level*/4).visit(program);
+            return;
+        }
+        ParallelClassVisitor printer = new ParallelClassVisitor(new ParallelClassVisitor.Factory() {
+            public Visitor newVisitor(Class_ node, ErrorHandler errorHandler) {
+                final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                final PrintStream out = new PrintStream(buffer);
+                return new PrintVisitor(0, 4, out) {
+                    public Object visit(Class_ node) {
+                        super.visit(node);
+                        out.flush();
+                        return buffer.toString();
+                    }
+                };
+            }
+        });
+        for (Object text : printer.visit(program, new ErrorHandler())) {
+            System.out.print(text);
+        }
+    }
+
+    /**
+     * Opens the assembly output file
+     *
+     * @return buffered print stream for the output file
+     */
+    private AssemblyEmitter openOutFile() {
+        try {
+            return new AssemblyEmitter(outFile, false);
+        } catch (IOException e) {
+            // if don't have permission to write to file then report an error and stop
+            throw new CompilationException(
+                    "Error: don't have permission to write to file '" + outFile + "'", 1);
+        }
+    }
+
+    /**
+     * Creates the lexer for the input files (the hand-written scanner if
+     * -fl is set, reading the token buffer if the files were already lexed
+     * into one, the JLex generated lexer otherwise)
+     *
+     * @param filenames list of input files
+     * @param debug     boolean indicating whether lexer debugging is enabled
+     * @return the lexer
+     */
+    private BantamScanner newLexer(String[] filenames, boolean debug) {
+        if (tokens != null) {
+            return tokens.newScanner();
+        }
+        if (fastLexer) {
+            return new FastLexer(filenames, debug);
+        }
+        return new Lexer(filenames, debug);
+    }
+
+    /**
+     * Counts the tokens in the input files
+     *
+     * @param lexer lexer over the input files
+     * @return number of tokens (not counting the EOF token)
+     * @throws Exception if lexing failed
+     */
+    private int countTokens(BantamScanner lexer) throws Exception {
+        int cnt = 0;
+        while (lexer.next_token().sym != TokenIds.EOF) {
+            cnt++;
+        }
+        return cnt;
+    }
+
+    /**
+     * Counts the lines of an output file
+     *
+     * @param filename name of the output file
+     * @return number of lines (-1 if the file couldn't be read)
+     */
+    private static int countLines(String filename) {
+        int cnt = 0;
+        try {
+            BufferedReader reader = new BufferedReader(new FileReader(filename));
+            try {
+                while (reader.readLine() != null) {
+                    cnt++;
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return cnt;
+    }
+
+    /**
+     * Reports why compilation was stopped
+     * Prints the registered errors (if any) or else the exception message (if any)
+     *
+     * @param e the exception that stopped compilation
+     */
+    private void reportStop(CompilationException e) {
+        if (e.getErrors().size() > 0) {
+            for (String error : e.getErrors()) {
+                err.println(error);
+                err.println();
+            }
+            err.println("Stopping compilation due to errors");
+            err.println(e.getErrors().size() + " error(s)");
+        }
+        else if (e.getMessage() != null) {
+            err.println(e.getMessage());
         }
     }
 }
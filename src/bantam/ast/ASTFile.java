@@ -0,0 +1,1296 @@
+/*
+ * File: ASTFile.java
+ * Date: 10/18/26
+ */
+
+package bantam.ast;
+
+import bantam.util.NameTable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Vector;
+import java.util.zip.CRC32;
+
+import static bantam.ast.FlatAST.*;
+
+/**
+ * The <tt>ASTFile</tt> class reads and writes ASTs (typically a
+ * <tt>Program</tt>, or the <tt>ClassList</tt> of a source file) in a compact
+ * binary format, for caching parsed files and shipping pre-parsed
+ * libraries.  A file is laid out as follows (a varint is an unsigned integer
+ * stored 7 bits per byte, low bits first, with the high bit set on all the
+ * bytes but the last):
+ * <ul>
+ * <li>the magic bytes <tt>BAST</tt> and the format version (a varint)</li>
+ * <li>the CRC-32 checksum of the rest of the file but the statements of the
+ * methods (4 bytes, high byte first)</li>
+ * <li>the string table: the number of strings, then each string as its
+ * length and its UTF-8 bytes; the names, types, file names and constants of
+ * the nodes are stored as references to the table (a varint: 0 for null,
+ * the index of the string plus 1 otherwise)</li>
+ * <li>the root node</li>
+ * </ul>
+ * A node is stored as its kind plus 1 (as numbered by <tt>FlatAST</tt>; 0
+ * stands for a missing optional child), the difference between its line
+ * number and that of the node stored before it (zigzag encoded, so small
+ * negative differences take a byte as well), its strings and flags (in the
+ * order of the arguments of its constructor), the type given to it by
+ * semantic analysis if it is an expression, and then its children (for a
+ * list, the number of elements and then the elements).  A method is stored
+ * as its return type, name and formals, then the line number of its
+ * statement list, the length in bytes of the statements and their CRC-32
+ * checksum (4 bytes, high byte first), and then the statements (with the
+ * line numbers of the statements relative to the method), so that its body
+ * can be skipped.
+ * <p/>
+ * <tt>read</tt> maps the file into memory, and decoding builds every node
+ * but the statements of the methods: the statement list of each method is
+ * decoded from the mapping when it is first accessed (e.g., when a pass
+ * visits it), so passes that only look at the classes and their members
+ * don't pay for the bodies.  The strings are interned in the name table of
+ * the current compilation when the file is read, and the checksum of the
+ * file is verified then too, so damage outside of the bodies is reported by
+ * <tt>read</tt>.  The checksum of a body is only verified when the body is
+ * decoded, so reading a file doesn't go over the bytes of every body, and a
+ * damaged body is reported when it is accessed.
+ * <p/>
+ * Nodes are encoded and decoded with explicit stacks rather than recursion,
+ * so ASTs of any depth can be stored (as <tt>TreeWalker</tt> walks them).
+ */
+public class ASTFile {
+    /**
+     * Version of the format (must change whenever the format or the AST
+     * changes)
+     */
+    public static final int VERSION = 3;
+
+    /**
+     * Magic bytes at the start of a file
+     */
+    private static final byte[] MAGIC = {'B', 'A', 'S', 'T'};
+
+    /**
+     * Encode an AST
+     *
+     * @param root root of the AST
+     * @return the encoded AST (the contents of a file)
+     */
+    public static byte[] encode(ASTNode root) {
+        Encoder nodes = new Encoder();
+        nodes.writeNode(root);
+
+        Encoder file = new Encoder();
+        file.writeBytes(MAGIC, 0, MAGIC.length);
+        file.writeVarint(VERSION);
+        int checksumPosition = file.size;
+        file.writeBytes(new byte[4], 0, 4);
+        file.writeVarint(nodes.strings.size());
+        for (String string : nodes.strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            file.writeVarint(bytes.length);
+            file.writeBytes(bytes, 0, bytes.length);
+        }
+        int nodesPosition = file.size;
+        file.writeBytes(nodes.bytes, 0, nodes.size);
+
+        // the bodies have checksums of their own
+        CRC32 crc = new CRC32();
+        int from = checksumPosition + 4;
+        for (int[] body : nodes.bodies) {
+            crc.update(file.bytes, from, nodesPosition + body[0] - from);
+            from = nodesPosition + body[0] + body[1];
+        }
+        crc.update(file.bytes, from, file.size - from);
+        int checksum = (int) crc.getValue();
+        for (int i = 0; i < 4; i++) {
+            file.bytes[checksumPosition + i] = (byte) (checksum >>> (24 - 8 * i));
+        }
+        return Arrays.copyOf(file.bytes, file.size);
+    }
+
+    /**
+     * Write an AST to a file
+     *
+     * @param root root of the AST
+     * @param file the file
+     * @throws IOException if the file can't be written
+     */
+    public static void write(ASTNode root, File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(encode(root));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Read an AST from a file (through a memory mapping, which the method
+     * bodies are decoded from when they are accessed)
+     *
+     * @param file the file
+     * @return root of the AST
+     * @throws IOException if the file can't be read or isn't a valid AST file
+     */
+    public static ASTNode read(File file) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(file.getPath());
+        }
+        ByteBuffer buffer;
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("file '" + file + "' is too large");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } finally {
+            channel.close();
+        }
+        return decode(buffer);
+    }
+
+    /**
+     * Decode an AST (the method bodies are decoded from the buffer when they
+     * are accessed, so its contents must not change)
+     *
+     * @param buffer the encoded AST, from its position to its limit
+     * @return root of the AST
+     * @throws IOException if the buffer doesn't hold a valid AST (including
+     *                     one whose checksum doesn't match; the checksums of
+     *                     the method bodies are verified when they are
+     *                     decoded)
+     */
+    public static ASTNode decode(ByteBuffer buffer) throws IOException {
+        Decoder in = new Decoder(buffer.slice(), null);
+        try {
+            for (byte b : MAGIC) {
+                if (in.buffer.get() != b) {
+                    throw new IOException("not an AST file");
+                }
+            }
+            int version = in.readVarint();
+            if (version != VERSION) {
+                throw new IOException("unsupported AST file version " + version);
+            }
+            int checksum = in.buffer.getInt();
+            int checksummed = in.buffer.position();
+            NameTable names = NameTable.getCurrent();
+            String[] strings = new String[in.readVarint()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[in.readVarint()];
+                in.buffer.get(bytes);
+                strings[i] = names.intern(new String(bytes, StandardCharsets.UTF_8));
+            }
+            in.strings = strings;
+            ASTNode root = in.readNode();
+            if (root == null || in.buffer.hasRemaining()) {
+                throw new IOException("corrupt AST file");
+            }
+
+            // the bodies the decoder skipped have checksums of their own
+            CRC32 crc = new CRC32();
+            for (int[] body : in.bodies) {
+                update(crc, in.buffer, checksummed, body[0]);
+                checksummed = body[0] + body[1];
+            }
+            update(crc, in.buffer, checksummed, in.buffer.limit());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("corrupt AST file (checksum mismatch)");
+            }
+            return root;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("truncated AST file");
+        } catch (RuntimeException e) {
+            throw new IOException("corrupt AST file", e);
+        }
+    }
+
+    /**
+     * Add a range of the bytes of a buffer to a checksum
+     *
+     * @param crc    the checksum
+     * @param buffer the buffer
+     * @param from   position of the first byte
+     * @param to     position after the last byte
+     */
+    private static void update(CRC32 crc, ByteBuffer buffer, int from, int to) {
+        ByteBuffer range = buffer.duplicate();
+        range.limit(to);
+        range.position(from);
+        crc.update(range);
+    }
+
+    /**
+     * Statement list of a method that is decoded when it is first accessed
+     * (any access to its elements decodes it, including adding one)
+     */
+    public static class LazyStmtList extends StmtList {
+        /**
+         * Encoded AST the statements are decoded from (null once decoded)
+         */
+        private ByteBuffer buffer;
+        /**
+         * Strings the references of the statements refer to
+         */
+        private String[] strings;
+        /**
+         * Position of the statements in the buffer
+         */
+        private int position;
+        /**
+         * Length in bytes of the statements
+         */
+        private int length;
+        /**
+         * CRC-32 checksum of the statements
+         */
+        private int checksum;
+        /**
+         * Line number of the method the statements are relative to
+         */
+        private int methodLineNum;
+        /**
+         * Boolean indicating whether the statements have been decoded
+         */
+        private volatile boolean decoded = false;
+
+        /**
+         * LazyStmtList constructor
+         *
+         * @param lineNum       source line number corresponding to this AST node
+         * @param buffer        encoded AST the statements are decoded from
+         * @param strings       strings the references of the statements refer to
+         * @param position      position of the statements in the buffer
+         * @param length        length in bytes of the statements
+         * @param checksum      CRC-32 checksum of the statements
+         * @param methodLineNum line number of the method
+         */
+        LazyStmtList(int lineNum, ByteBuffer buffer, String[] strings, int position,
+                     int length, int checksum, int methodLineNum) {
+            super(lineNum);
+            this.buffer = buffer;
+            this.strings = strings;
+            this.position = position;
+            this.length = length;
+            this.checksum = checksum;
+            this.methodLineNum = methodLineNum;
+        }
+
+        /**
+         * Have the statements been decoded?
+         *
+         * @return true if the statements have been decoded
+         */
+        public boolean isDecoded() {
+            return decoded;
+        }
+
+        /**
+         * Decode the statements (if they haven't been yet), after verifying
+         * their checksum
+         *
+         * @throws IllegalStateException if the statements are corrupt
+         */
+        public void decode() {
+            if (decoded) {
+                return;
+            }
+            synchronized (this) {
+                if (decoded) {
+                    return;
+                }
+                CRC32 crc = new CRC32();
+                update(crc, buffer, position, position + length);
+                if ((int) crc.getValue() != checksum) {
+                    throw new IllegalStateException(
+                            "corrupt method body in AST file (checksum mismatch)");
+                }
+                Decoder in = new Decoder(buffer.duplicate(), strings);
+                in.buffer.position(position);
+                in.buffer.limit(position + length);
+                in.lineNum = methodLineNum;
+                try {
+                    for (int i = in.readVarint(); i > 0; i--) {
+                        super.addElement(in.readNode());
+                    }
+                    if (in.buffer.hasRemaining()) {
+                        throw new IllegalStateException("method body longer than its statements");
+                    }
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("corrupt method body in AST file", e);
+                }
+                super.trimToSize();
+                buffer = null;
+                strings = null;
+                decoded = true;
+            }
+        }
+
+        /**
+         * Add an element to this list node
+         *
+         * @param node element to add
+         * @return the updated list
+         */
+        public ListNode addElement(ASTNode node) {
+            decode();
+            return super.addElement(node);
+        }
+
+        /**
+         * Trim the storage of the elements to the size of the list (the
+         * statements are stored trimmed when they are decoded)
+         */
+        public void trimToSize() {
+            if (decoded) {
+                super.trimToSize();
+            }
+        }
+
+        /**
+         * Returns an iterator for this list
+         *
+         * @return iterator for this list
+         */
+        public Iterator<ASTNode> iterator() {
+            decode();
+            return super.iterator();
+        }
+
+        /**
+         * Get the list size
+         *
+         * @return list size
+         */
+        public int getSize() {
+            decode();
+            return super.getSize();
+        }
+
+        /**
+         * get the index-th element
+         *
+         * @return index-th element
+         */
+        public ASTNode get(int index) {
+            decode();
+            return super.get(index);
+        }
+    }
+
+    /**
+     * Buffer the nodes (or a whole file) are encoded into
+     */
+    private static class Encoder {
+        /**
+         * Encoded bytes (the array may be longer than their number)
+         */
+        private byte[] bytes = new byte[256];
+        /**
+         * Number of encoded bytes
+         */
+        private int size = 0;
+        /**
+         * Strings referred to by the nodes, in order of first reference
+         */
+        private Vector<String> strings = new Vector<String>();
+        /**
+         * Index of each string of the table
+         */
+        private HashMap<String, Integer> stringIndices = new HashMap<String, Integer>();
+        /**
+         * Line number of the last node encoded
+         */
+        private int lineNum = 0;
+        /**
+         * Position and length of the statements of each method encoded
+         */
+        private Vector<int[]> bodies = new Vector<int[]>();
+        /**
+         * Nodes still to encode, the next one last (with a marker at the start
+         * and at the end of the statements of each method)
+         */
+        private Object[] stack = new Object[64];
+        /**
+         * Number of items on the stack
+         */
+        private int depth = 0;
+
+        /**
+         * Encode a node and its children (in pre-order, with an explicit
+         * stack of the nodes still to encode instead of recursion)
+         *
+         * @param root the node (or null)
+         */
+        void writeNode(ASTNode root) {
+            push(root);
+            while (depth > 0) {
+                Object item = stack[--depth];
+                stack[depth] = null;
+                if (item instanceof MethodBody) {
+                    writeMethodBody((MethodBody) item);
+                    continue;
+                }
+                ASTNode node = (ASTNode) item;
+                if (node == null) {
+                    writeVarint(0);
+                    continue;
+                }
+                int kind = kindOf(node);
+                writeVarint(kind + 1);
+                writeVarint(zigzag(node.getLineNum() - lineNum));
+                lineNum = node.getLineNum();
+
+                // the children are pushed last first, so they are encoded in order
+                switch (kind) {
+                    case PROGRAM:
+                        push(((Program) node).getClassList());
+                        continue;
+                    case CLASS:
+                        Class_ class_ = (Class_) node;
+                        writeString(class_.getFilename());
+                        writeString(class_.getName());
+                        writeString(class_.getParent());
+                        push(class_.getMemberList());
+                        continue;
+                    case FIELD:
+                        Field field = (Field) node;
+                        writeString(field.getType());
+                        writeString(field.getName());
+                        push(field.getInit());
+                        continue;
+                    case METHOD:
+                        writeMethod((Method) node);
+                        continue;
+                    case FORMAL:
+                        Formal formal = (Formal) node;
+                        writeString(formal.getType());
+                        writeString(formal.getName());
+                        continue;
+                    case DECL_STMT:
+                        DeclStmt declStmt = (DeclStmt) node;
+                        writeString(declStmt.getType());
+                        writeString(declStmt.getName());
+                        push(declStmt.getInit());
+                        continue;
+                    case EXPR_STMT:
+                        push(((ExprStmt) node).getExpr());
+                        continue;
+                    case IF_STMT:
+                        IfStmt ifStmt = (IfStmt) node;
+                        push(ifStmt.getElseStmt());
+                        push(ifStmt.getThenStmt());
+                        push(ifStmt.getPredExpr());
+                        continue;
+                    case WHILE_STMT:
+                        WhileStmt whileStmt = (WhileStmt) node;
+                        push(whileStmt.getBodyStmt());
+                        push(whileStmt.getPredExpr());
+                        continue;
+                    case FOR_STMT:
+                        ForStmt forStmt = (ForStmt) node;
+                        push(forStmt.getBodyStmt());
+                        push(forStmt.getUpdateExpr());
+                        push(forStmt.getPredExpr());
+                        push(forStmt.getInitExpr());
+                        continue;
+                    case BREAK_STMT:
+                        continue;
+                    case BLOCK_STMT:
+                        push(((BlockStmt) node).getStmtList());
+                        continue;
+                    case RETURN_STMT:
+                        push(((ReturnStmt) node).getExpr());
+                        continue;
+                    case CLASS_LIST:
+                    case MEMBER_LIST:
+                    case FORMAL_LIST:
+                    case STMT_LIST:
+                    case EXPR_LIST:
+                        ListNode list = (ListNode) node;
+                        writeVarint(list.getSize());
+                        pushElements(list);
+                        continue;
+                }
+
+                // expressions: their strings and flags, their type, their children
+                Expr expr = (Expr) node;
+                switch (kind) {
+                    case DISPATCH_EXPR:
+                        writeString(((DispatchExpr) node).getMethodName());
+                        break;
+                    case NEW_EXPR:
+                        writeString(((NewExpr) node).getType());
+                        break;
+                    case NEW_ARRAY_EXPR:
+                        writeString(((NewArrayExpr) node).getType());
+                        break;
+                    case INSTANCEOF_EXPR:
+                        InstanceofExpr instanceofExpr = (InstanceofExpr) node;
+                        writeString(instanceofExpr.getType());
+                        writeVarint(instanceofExpr.getUpCheck() ? 1 : 0);
+                        break;
+                    case CAST_EXPR:
+                        CastExpr castExpr = (CastExpr) node;
+                        writeString(castExpr.getType());
+                        writeVarint(castExpr.getUpCast() ? 1 : 0);
+                        break;
+                    case ASSIGN_EXPR:
+                        AssignExpr assignExpr = (AssignExpr) node;
+                        writeString(assignExpr.getRefName());
+                        writeString(assignExpr.getName());
+                        break;
+                    case ARRAY_ASSIGN_EXPR:
+                        ArrayAssignExpr arrayAssignExpr = (ArrayAssignExpr) node;
+                        writeString(arrayAssignExpr.getRefName());
+                        writeString(arrayAssignExpr.getName());
+                        break;
+                    case INCR_EXPR:
+                    case DECR_EXPR:
+                        writeVarint(((UnaryExpr) node).isPostfix() ? 1 : 0);
+                        break;
+                    case VAR_EXPR:
+                        writeString(((VarExpr) node).getName());
+                        break;
+                    case ARRAY_EXPR:
+                        writeString(((ArrayExpr) node).getName());
+                        break;
+                    case INT_CONST_EXPR:
+                    case BOOLEAN_CONST_EXPR:
+                    case STRING_CONST_EXPR:
+                        writeString(((ConstExpr) node).getConstant());
+                        break;
+                }
+                writeString(expr.getExprType());
+                switch (kind) {
+                    case DISPATCH_EXPR:
+                        DispatchExpr dispatchExpr = (DispatchExpr) node;
+                        push(dispatchExpr.getActualList());
+                        push(dispatchExpr.getRefExpr());
+                        break;
+                    case NEW_ARRAY_EXPR:
+                        push(((NewArrayExpr) node).getSize());
+                        break;
+                    case INSTANCEOF_EXPR:
+                        push(((InstanceofExpr) node).getExpr());
+                        break;
+                    case CAST_EXPR:
+                        push(((CastExpr) node).getExpr());
+                        break;
+                    case ASSIGN_EXPR:
+                        push(((AssignExpr) node).getExpr());
+                        break;
+                    case ARRAY_ASSIGN_EXPR:
+                        ArrayAssignExpr arrayAssignExpr = (ArrayAssignExpr) node;
+                        push(arrayAssignExpr.getExpr());
+                        push(arrayAssignExpr.getIndex());
+                        break;
+                    case NEG_EXPR:
+                    case NOT_EXPR:
+                    case INCR_EXPR:
+                    case DECR_EXPR:
+                        push(((UnaryExpr) node).getExpr());
+                        break;
+                    case VAR_EXPR:
+                        push(((VarExpr) node).getRef());
+                        break;
+                    case ARRAY_EXPR:
+                        ArrayExpr arrayExpr = (ArrayExpr) node;
+                        push(arrayExpr.getIndex());
+                        push(arrayExpr.getRef());
+                        break;
+                    case NEW_EXPR:
+                    case INT_CONST_EXPR:
+                    case BOOLEAN_CONST_EXPR:
+                    case STRING_CONST_EXPR:
+                        break;
+                    default:
+                        BinaryExpr binaryExpr = (BinaryExpr) node;
+                        push(binaryExpr.getRightExpr());
+                        push(binaryExpr.getLeftExpr());
+                }
+            }
+        }
+
+        /**
+         * Encode the strings of a method (after its kind and line number),
+         * and push its formals and then its statements, between the two
+         * halves of its body marker
+         *
+         * @param method the method
+         */
+        private void writeMethod(Method method) {
+            writeString(method.getReturnType());
+            writeString(method.getName());
+            MethodBody body = new MethodBody(method);
+            push(body);
+            pushElements(method.getStmtList());
+            push(body);
+            push(method.getFormalList());
+        }
+
+        /**
+         * Encode the start of the statements of a method (the line number of
+         * its statement list), or, at their end, put the length and the
+         * checksum of the statements before them
+         *
+         * @param body body marker of the method
+         */
+        private void writeMethodBody(MethodBody body) {
+            Method method = body.method;
+            if (body.start < 0) {
+                StmtList stmtList = method.getStmtList();
+                writeVarint(zigzag(stmtList.getLineNum() - method.getLineNum()));
+
+                // the statements are relative to the method, so they can be
+                // decoded on their own
+                lineNum = method.getLineNum();
+                body.start = size;
+                writeVarint(stmtList.getSize());
+                return;
+            }
+            byte[] statements = Arrays.copyOfRange(bytes, body.start, size);
+            size = body.start;
+            CRC32 crc = new CRC32();
+            crc.update(statements, 0, statements.length);
+            writeVarint(statements.length);
+            writeInt((int) crc.getValue());
+            bodies.add(new int[]{size, statements.length});
+            writeBytes(statements, 0, statements.length);
+            lineNum = method.getLineNum();
+        }
+
+        /**
+         * Push the elements of a list, last first
+         *
+         * @param list the list
+         */
+        private void pushElements(ListNode list) {
+            for (int i = list.getSize() - 1; i >= 0; i--) {
+                push(list.get(i));
+            }
+        }
+
+        /**
+         * Push a node (or a method body marker) to encode
+         *
+         * @param item the node (or null)
+         */
+        private void push(Object item) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, 2 * depth);
+            }
+            stack[depth++] = item;
+        }
+
+        /**
+         * Encode a reference to a string (adding it to the table if needed)
+         *
+         * @param string the string (or null)
+         */
+        private void writeString(String string) {
+            if (string == null) {
+                writeVarint(0);
+                return;
+            }
+            Integer index = stringIndices.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.add(string);
+                stringIndices.put(string, index);
+            }
+            writeVarint(index + 1);
+        }
+
+        /**
+         * Encode an unsigned integer as a varint
+         *
+         * @param value the integer
+         */
+        void writeVarint(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7f) != 0) {
+                bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * Append a 4-byte integer (high byte first)
+         *
+         * @param value the integer
+         */
+        void writeInt(int value) {
+            ensureCapacity(4);
+            for (int i = 0; i < 4; i++) {
+                bytes[size++] = (byte) (value >>> (24 - 8 * i));
+            }
+        }
+
+        /**
+         * Append bytes
+         *
+         * @param b   the bytes
+         * @param off position of the first byte
+         * @param len number of bytes
+         */
+        void writeBytes(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            System.arraycopy(b, off, bytes, size, len);
+            size += len;
+        }
+
+        /**
+         * Make room for more bytes
+         *
+         * @param count number of bytes needed
+         */
+        private void ensureCapacity(int count) {
+            if (size + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, size + count));
+            }
+        }
+
+        /**
+         * Zigzag encode a signed integer (0, -1, 1, -2, ... as 0, 1, 2, 3, ...)
+         *
+         * @param value the integer
+         * @return the encoded integer
+         */
+        private static int zigzag(int value) {
+            return (value << 1) ^ (value >> 31);
+        }
+    }
+
+    /**
+     * Marker pushed before and after the statements of a method while it is
+     * encoded
+     */
+    private static class MethodBody {
+        /**
+         * The method
+         */
+        private Method method;
+        /**
+         * Position of the statements in the encoded bytes (-1 until they
+         * are started)
+         */
+        private int start = -1;
+
+        /**
+         * MethodBody constructor
+         *
+         * @param method the method
+         */
+        MethodBody(Method method) {
+            this.method = method;
+        }
+    }
+
+    /**
+     * Node being decoded whose children are being read
+     */
+    private static class Frame {
+        /**
+         * Kind of the node
+         */
+        private int kind;
+        /**
+         * Line number of the node
+         */
+        private int line;
+        /**
+         * Strings of the node, in the order they are stored
+         */
+        private String string1, string2, string3;
+        /**
+         * Flag of the node (up check, up cast or postfix)
+         */
+        private boolean flag;
+        /**
+         * Type of the node, if it is an expression
+         */
+        private String exprType;
+        /**
+         * The node, if it is a list (its elements are added as they are read)
+         */
+        private ListNode list;
+        /**
+         * Children read so far, if the node isn't a list
+         */
+        private ASTNode[] children = new ASTNode[4];
+        /**
+         * Number of children
+         */
+        private int count;
+        /**
+         * Number of children read
+         */
+        private int next;
+    }
+
+    /**
+     * Reader of the nodes of an encoded AST
+     */
+    private static class Decoder {
+        /**
+         * Encoded AST, positioned at the next byte to decode
+         */
+        private ByteBuffer buffer;
+        /**
+         * Strings the references refer to
+         */
+        private String[] strings;
+        /**
+         * Position and length of the statements of each method decoded
+         * (which were skipped)
+         */
+        private Vector<int[]> bodies = new Vector<int[]>();
+        /**
+         * Line number of the last node decoded
+         */
+        private int lineNum = 0;
+        /**
+         * Nodes whose children are being read, innermost last (the frames
+         * past depth are kept for reuse)
+         */
+        private Frame[] frames = new Frame[64];
+        /**
+         * Number of nodes whose children are being read
+         */
+        private int depth = 0;
+        /**
+         * Node completed by the last call to enter
+         */
+        private ASTNode completed;
+
+        /**
+         * Decoder constructor
+         *
+         * @param buffer  encoded AST
+         * @param strings strings the references refer to
+         */
+        Decoder(ByteBuffer buffer, String[] strings) {
+            this.buffer = buffer;
+            this.strings = strings;
+        }
+
+        /**
+         * Decode a node and its children (except the statements of a
+         * method), with an explicit stack of the nodes whose children are
+         * being read instead of recursion
+         *
+         * @return the node (null for a missing optional child)
+         */
+        ASTNode readNode() {
+            int base = depth;
+            while (true) {
+                if (enter()) {
+                    continue;
+                }
+                ASTNode node = completed;
+                completed = null;
+                // give the node to its parent, and finish the parents whose
+                // children are all read
+                while (true) {
+                    if (depth == base) {
+                        return node;
+                    }
+                    Frame frame = frames[depth - 1];
+                    if (frame.list != null) {
+                        frame.list.addElement(node);
+                    }
+                    else {
+                        frame.children[frame.next] = node;
+                    }
+                    frame.next++;
+                    if (frame.next < frame.count) {
+                        break;
+                    }
+                    depth--;
+                    node = finish(frame);
+                }
+            }
+        }
+
+        /**
+         * Decode the kind, line number, strings and flags of a node (and its
+         * type, if it is an expression)
+         *
+         * @return true if the node has children to read (it is then pushed as
+         * a frame), false if it is complete (it is then held in completed)
+         */
+        private boolean enter() {
+            int kind = readVarint() - 1;
+            if (kind == NONE) {
+                completed = null;
+                return false;
+            }
+            int line = lineNum + unzigzag(readVarint());
+            lineNum = line;
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, 2 * depth);
+            }
+            Frame frame = frames[depth];
+            if (frame == null) {
+                frame = frames[depth] = new Frame();
+            }
+            frame.kind = kind;
+            frame.line = line;
+            frame.list = null;
+            frame.next = 0;
+            switch (kind) {
+                case CLASS_LIST:
+                case MEMBER_LIST:
+                case FORMAL_LIST:
+                case STMT_LIST:
+                case EXPR_LIST:
+                    frame.list = newList(kind, line);
+                    frame.count = readVarint();
+                    break;
+                case CLASS:
+                    frame.string1 = readString();
+                    frame.string2 = readString();
+                    frame.string3 = readString();
+                    frame.count = 1;
+                    break;
+                case FIELD:
+                case METHOD:
+                case DECL_STMT:
+                case ASSIGN_EXPR:
+                    frame.string1 = readString();
+                    frame.string2 = readString();
+                    frame.count = 1;
+                    break;
+                case FORMAL:
+                    frame.string1 = readString();
+                    frame.string2 = readString();
+                    frame.count = 0;
+                    break;
+                case ARRAY_ASSIGN_EXPR:
+                    frame.string1 = readString();
+                    frame.string2 = readString();
+                    frame.count = 2;
+                    break;
+                case DISPATCH_EXPR:
+                case ARRAY_EXPR:
+                    frame.string1 = readString();
+                    frame.count = 2;
+                    break;
+                case NEW_ARRAY_EXPR:
+                case VAR_EXPR:
+                    frame.string1 = readString();
+                    frame.count = 1;
+                    break;
+                case NEW_EXPR:
+                case INT_CONST_EXPR:
+                case BOOLEAN_CONST_EXPR:
+                case STRING_CONST_EXPR:
+                    frame.string1 = readString();
+                    frame.count = 0;
+                    break;
+                case INSTANCEOF_EXPR:
+                case CAST_EXPR:
+                    frame.string1 = readString();
+                    frame.flag = readVarint() != 0;
+                    frame.count = 1;
+                    break;
+                case INCR_EXPR:
+                case DECR_EXPR:
+                    frame.flag = readVarint() != 0;
+                    frame.count = 1;
+                    break;
+                case IF_STMT:
+                    frame.count = 3;
+                    break;
+                case FOR_STMT:
+                    frame.count = 4;
+                    break;
+                case BREAK_STMT:
+                    frame.count = 0;
+                    break;
+                case WHILE_STMT:
+                    frame.count = 2;
+                    break;
+                case PROGRAM:
+                case EXPR_STMT:
+                case BLOCK_STMT:
+                case RETURN_STMT:
+                case NEG_EXPR:
+                case NOT_EXPR:
+                    frame.count = 1;
+                    break;
+                default:
+                    if (kind < EQ_EXPR || kind > OR_EXPR) {
+                        throw new IllegalStateException("unknown node kind " + kind);
+                    }
+                    frame.count = 2;
+            }
+            if (kind >= DISPATCH_EXPR) {
+                frame.exprType = readString();
+            }
+            if (frame.count > 0) {
+                depth++;
+                return true;
+            }
+            completed = finish(frame);
+            return false;
+        }
+
+        /**
+         * Create an empty list node
+         *
+         * @param kind kind of the list
+         * @param line line number of the list
+         * @return the list
+         */
+        private static ListNode newList(int kind, int line) {
+            switch (kind) {
+                case CLASS_LIST:
+                    return new ClassList(line);
+                case MEMBER_LIST:
+                    return new MemberList(line);
+                case FORMAL_LIST:
+                    return new FormalList(line);
+                case STMT_LIST:
+                    return new StmtList(line);
+                default:
+                    return new ExprList(line);
+            }
+        }
+
+        /**
+         * Build a node whose children have all been read
+         *
+         * @param frame the node's frame (its strings and children are
+         *              cleared, so it can be reused)
+         * @return the node
+         */
+        private ASTNode finish(Frame frame) {
+            ASTNode result = build(frame);
+            if (result instanceof Expr) {
+                ((Expr) result).setExprType(frame.exprType);
+            }
+            frame.string1 = frame.string2 = frame.string3 = frame.exprType = null;
+            frame.list = null;
+            Arrays.fill(frame.children, null);
+            return result;
+        }
+
+        /**
+         * Build the node of a frame
+         *
+         * @param frame the node's frame
+         * @return the node
+         */
+        private ASTNode build(Frame frame) {
+            int line = frame.line;
+            String string1 = frame.string1;
+            String string2 = frame.string2;
+            ASTNode[] children = frame.children;
+            switch (frame.kind) {
+                case CLASS_LIST:
+                case MEMBER_LIST:
+                case FORMAL_LIST:
+                case STMT_LIST:
+                case EXPR_LIST:
+                    frame.list.trimToSize();
+                    return frame.list;
+                case PROGRAM:
+                    return new Program(line, (ClassList) children[0]);
+                case CLASS:
+                    return new Class_(line, string1, string2, frame.string3,
+                            (MemberList) children[0]);
+                case FIELD:
+                    return new Field(line, string1, string2, (Expr) children[0]);
+                case METHOD:
+                    return readMethod(line, string1, string2, (FormalList) children[0]);
+                case FORMAL:
+                    return new Formal(line, string1, string2);
+                case DECL_STMT:
+                    return new DeclStmt(line, string1, string2, (Expr) children[0]);
+                case EXPR_STMT:
+                    return new ExprStmt(line, (Expr) children[0]);
+                case IF_STMT:
+                    return new IfStmt(line, (Expr) children[0], (Stmt) children[1],
+                            (Stmt) children[2]);
+                case WHILE_STMT:
+                    return new WhileStmt(line, (Expr) children[0], (Stmt) children[1]);
+                case FOR_STMT:
+                    return new ForStmt(line, (Expr) children[0], (Expr) children[1],
+                            (Expr) children[2], (Stmt) children[3]);
+                case BREAK_STMT:
+                    return new BreakStmt(line);
+                case BLOCK_STMT:
+                    return new BlockStmt(line, (StmtList) children[0]);
+                case RETURN_STMT:
+                    return new ReturnStmt(line, (Expr) children[0]);
+                case DISPATCH_EXPR:
+                    return new DispatchExpr(line, (Expr) children[0], string1,
+                            (ExprList) children[1]);
+                case NEW_EXPR:
+                    return new NewExpr(line, string1);
+                case NEW_ARRAY_EXPR:
+                    return new NewArrayExpr(line, string1, (Expr) children[0]);
+                case INSTANCEOF_EXPR:
+                    InstanceofExpr instanceofExpr =
+                            new InstanceofExpr(line, (Expr) children[0], string1);
+                    instanceofExpr.setUpCheck(frame.flag);
+                    return instanceofExpr;
+                case CAST_EXPR:
+                    CastExpr castExpr = new CastExpr(line, string1, (Expr) children[0]);
+                    castExpr.setUpCast(frame.flag);
+                    return castExpr;
+                case ASSIGN_EXPR:
+                    return new AssignExpr(line, string1, string2, (Expr) children[0]);
+                case ARRAY_ASSIGN_EXPR:
+                    return new ArrayAssignExpr(line, string1, string2, (Expr) children[0],
+                            (Expr) children[1]);
+                case NEG_EXPR:
+                    return new UnaryNegExpr(line, (Expr) children[0]);
+                case NOT_EXPR:
+                    return new UnaryNotExpr(line, (Expr) children[0]);
+                case INCR_EXPR:
+                    return new UnaryIncrExpr(line, (Expr) children[0], frame.flag);
+                case DECR_EXPR:
+                    return new UnaryDecrExpr(line, (Expr) children[0], frame.flag);
+                case VAR_EXPR:
+                    return new VarExpr(line, (Expr) children[0], string1);
+                case ARRAY_EXPR:
+                    return new ArrayExpr(line, (Expr) children[0], string1, (Expr) children[1]);
+                case INT_CONST_EXPR:
+                    return new ConstIntExpr(line, string1);
+                case BOOLEAN_CONST_EXPR:
+                    return new ConstBooleanExpr(line, string1);
+                case STRING_CONST_EXPR:
+                    return new ConstStringExpr(line, string1);
+                default:
+                    return readBinaryExpr(frame.kind, line, (Expr) children[0],
+                            (Expr) children[1]);
+            }
+        }
+
+        /**
+         * Build a binary expression
+         *
+         * @param kind  kind of the expression
+         * @param line  line number of the expression
+         * @param left  left operand
+         * @param right right operand
+         * @return the expression
+         */
+        private static Expr readBinaryExpr(int kind, int line, Expr left, Expr right) {
+            switch (kind) {
+                case EQ_EXPR:
+                    return new BinaryCompEqExpr(line, left, right);
+                case NE_EXPR:
+                    return new BinaryCompNeExpr(line, left, right);
+                case LT_EXPR:
+                    return new BinaryCompLtExpr(line, left, right);
+                case LEQ_EXPR:
+                    return new BinaryCompLeqExpr(line, left, right);
+                case GT_EXPR:
+                    return new BinaryCompGtExpr(line, left, right);
+                case GEQ_EXPR:
+                    return new BinaryCompGeqExpr(line, left, right);
+                case PLUS_EXPR:
+                    return new BinaryArithPlusExpr(line, left, right);
+                case MINUS_EXPR:
+                    return new BinaryArithMinusExpr(line, left, right);
+                case TIMES_EXPR:
+                    return new BinaryArithTimesExpr(line, left, right);
+                case DIVIDE_EXPR:
+                    return new BinaryArithDivideExpr(line, left, right);
+                case MODULUS_EXPR:
+                    return new BinaryArithModulusExpr(line, left, right);
+                case AND_EXPR:
+                    return new BinaryLogicAndExpr(line, left, right);
+                case OR_EXPR:
+                    return new BinaryLogicOrExpr(line, left, right);
+                default:
+                    throw new IllegalStateException("unknown node kind " + kind);
+            }
+        }
+
+        /**
+         * Decode the rest of a method (after its formals), leaving its
+         * statements to be decoded when they are accessed
+         *
+         * @param line       line number of the method
+         * @param returnType return type of the method
+         * @param name       name of the method
+         * @param formalList formals of the method
+         * @return the method
+         */
+        private Method readMethod(int line, String returnType, String name,
+                                  FormalList formalList) {
+            int stmtListLine = line + unzigzag(readVarint());
+            int length = readVarint();
+            int checksum = buffer.getInt();
+            int position = buffer.position();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalStateException("method body past the end of the file");
+            }
+            buffer.position(position + length);
+            bodies.add(new int[]{position, length});
+            lineNum = line;
+            return new Method(line, returnType, name, formalList,
+                    new LazyStmtList(stmtListLine, buffer, strings, position, length,
+                            checksum, line));
+        }
+
+        /**
+         * Decode a reference to a string
+         *
+         * @return the string (null for a null reference)
+         */
+        private String readString() {
+            int index = readVarint();
+            return index == 0 ? null : strings[index - 1];
+        }
+
+        /**
+         * Decode a varint
+         *
+         * @return the unsigned integer
+         */
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("varint too long");
+        }
+
+        /**
+         * Zigzag decode a signed integer
+         *
+         * @param value the encoded integer
+         * @return the integer
+         */
+        private static int unzigzag(int value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
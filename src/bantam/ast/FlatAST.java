@@ -0,0 +1,788 @@
+/*
+ * File: FlatAST.java
+ * Date: 10/18/26
+ */
+
+package bantam.ast;
+
+import bantam.util.NameTable;
+import bantam.visitor.TreeWalker;
+import bantam.visitor.Visitor;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The <tt>FlatAST</tt> class holds an AST as a struct of arrays instead of
+ * a graph of <tt>ASTNode</tt> objects: each node is an index into parallel
+ * <tt>int</tt> arrays holding its kind, its line number, the range of its
+ * children, the id of its name and the id of its type (the ids of the
+ * compilation's <tt>NameTable</tt>), plus one more attribute for the few
+ * kinds with a third one.  A node takes about 28 bytes, instead of an object
+ * (often with a list or a string of its own) per node.
+ * <p/>
+ * The nodes are numbered in post-order, so the children of a node are
+ * numbered before it and the root (the program) is the last node.  The
+ * children of every node are stored consecutively in a single array; a
+ * missing optional child (e.g., the initializer of a field) is stored as
+ * <tt>NONE</tt>, so the children of a node of a given kind are always in
+ * the same positions (those of the corresponding <tt>ASTNode</tt>
+ * constructor).  Names, types and constants are stored in the
+ * <tt>names</tt> and <tt>types</tt> arrays as follows:
+ * <ul>
+ * <li>class: name, parent type, and the file name as the attribute</li>
+ * <li>field, formal and declaration: name and type</li>
+ * <li>method: name and return type</li>
+ * <li>dispatch: method name; variable and array expressions: name</li>
+ * <li>assignments: name, and the reference name as the attribute</li>
+ * <li>new, new array, instanceof and cast: type (and, for instanceof and
+ * cast, whether the check or cast is up the class hierarchy as the
+ * attribute)</li>
+ * <li>constants: the constant as the name</li>
+ * <li>increments and decrements: whether the operator is postfix as the
+ * attribute</li>
+ * </ul>
+ * The types given to expressions by semantic analysis are kept as well
+ * (in an array that is only allocated once an expression has a type).
+ * <p/>
+ * A flat AST is built from an AST by <tt>fromAST</tt> and turned back into
+ * one by <tt>toAST</tt> (or <tt>toNode</tt>, for a subtree).  Visitors can
+ * also run on it directly through <tt>accept</tt>, which materializes each
+ * class only while it is visited: that suits visitors that don't hold on to
+ * the nodes (e.g., <tt>PrintVisitor</tt>), whereas the semantic analyzer
+ * and the code generators, which keep references to the classes and
+ * annotate the expressions, should be given the AST returned by
+ * <tt>toAST</tt>.
+ */
+public class FlatAST {
+    /**
+     * Child, name or type of a node that has none
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Node kinds
+     */
+    public static final int PROGRAM = 0, CLASS_LIST = 1, CLASS = 2, MEMBER_LIST = 3,
+            FIELD = 4, METHOD = 5, FORMAL_LIST = 6, FORMAL = 7, STMT_LIST = 8,
+            DECL_STMT = 9, EXPR_STMT = 10, IF_STMT = 11, WHILE_STMT = 12,
+            FOR_STMT = 13, BREAK_STMT = 14, BLOCK_STMT = 15, RETURN_STMT = 16,
+            EXPR_LIST = 17, DISPATCH_EXPR = 18, NEW_EXPR = 19, NEW_ARRAY_EXPR = 20,
+            INSTANCEOF_EXPR = 21, CAST_EXPR = 22, ASSIGN_EXPR = 23,
+            ARRAY_ASSIGN_EXPR = 24, EQ_EXPR = 25, NE_EXPR = 26, LT_EXPR = 27,
+            LEQ_EXPR = 28, GT_EXPR = 29, GEQ_EXPR = 30, PLUS_EXPR = 31,
+            MINUS_EXPR = 32, TIMES_EXPR = 33, DIVIDE_EXPR = 34, MODULUS_EXPR = 35,
+            AND_EXPR = 36, OR_EXPR = 37, NEG_EXPR = 38, NOT_EXPR = 39,
+            INCR_EXPR = 40, DECR_EXPR = 41, VAR_EXPR = 42, ARRAY_EXPR = 43,
+            INT_CONST_EXPR = 44, BOOLEAN_CONST_EXPR = 45, STRING_CONST_EXPR = 46;
+
+    /**
+     * AST node class of each kind
+     */
+    private static final Class<?>[] CLASSES = {Program.class, ClassList.class,
+            Class_.class, MemberList.class, Field.class, Method.class, FormalList.class,
+            Formal.class, StmtList.class, DeclStmt.class, ExprStmt.class,
+            IfStmt.class, WhileStmt.class, ForStmt.class, BreakStmt.class,
+            BlockStmt.class, ReturnStmt.class, ExprList.class, DispatchExpr.class,
+            NewExpr.class, NewArrayExpr.class, InstanceofExpr.class, CastExpr.class,
+            AssignExpr.class, ArrayAssignExpr.class, BinaryCompEqExpr.class,
+            BinaryCompNeExpr.class, BinaryCompLtExpr.class, BinaryCompLeqExpr.class,
+            BinaryCompGtExpr.class, BinaryCompGeqExpr.class,
+            BinaryArithPlusExpr.class, BinaryArithMinusExpr.class,
+            BinaryArithTimesExpr.class, BinaryArithDivideExpr.class,
+            BinaryArithModulusExpr.class, BinaryLogicAndExpr.class,
+            BinaryLogicOrExpr.class, UnaryNegExpr.class, UnaryNotExpr.class,
+            UnaryIncrExpr.class, UnaryDecrExpr.class, VarExpr.class,
+            ArrayExpr.class, ConstIntExpr.class, ConstBooleanExpr.class,
+            ConstStringExpr.class};
+
+    /**
+     * Kind of each AST node class (that of its closest superclass with a
+     * kind, for subclasses of the node classes; NONE for other classes),
+     * computed once per class
+     */
+    private static final ClassValue<Integer> KINDS = new ClassValue<Integer>() {
+        protected Integer computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (int kind = 0; kind < CLASSES.length; kind++) {
+                    if (CLASSES[kind] == c) {
+                        return kind;
+                    }
+                }
+            }
+            return NONE;
+        }
+    };
+
+    /**
+     * Get the kind of an AST node
+     *
+     * @param node the node
+     * @return kind of the node
+     * @throws IllegalArgumentException if the node isn't of a known class
+     */
+    public static int kindOf(ASTNode node) {
+        int kind = KINDS.get(node.getClass());
+        if (kind == NONE) {
+            throw new IllegalArgumentException("unknown AST node class " +
+                    node.getClass().getName());
+        }
+        return kind;
+    }
+
+    /**
+     * Table the name and type ids refer to
+     */
+    private NameTable names;
+    /**
+     * Number of nodes
+     */
+    private int size = 0;
+    /**
+     * Kind of each node
+     */
+    private int[] kinds = new int[1024];
+    /**
+     * Line number of each node
+     */
+    private int[] lineNums = new int[1024];
+    /**
+     * Index (in children) of the first child of each node; the children of
+     * node n are at childStarts[n] to childStarts[n + 1] - 1
+     */
+    private int[] childStarts = new int[1025];
+    /**
+     * Children of the nodes (NONE for a missing optional child)
+     */
+    private int[] children = new int[1024];
+    /**
+     * Number of children stored
+     */
+    private int numChildren = 0;
+    /**
+     * Name id of each node (NONE if it has none)
+     */
+    private int[] nameIds = new int[1024];
+    /**
+     * Type id of each node (NONE if it has none)
+     */
+    private int[] typeIds = new int[1024];
+    /**
+     * Third attribute of each node (a name id or a boolean, see above)
+     */
+    private int[] attributes = new int[1024];
+    /**
+     * Id of the type given to each expression by semantic analysis (null if
+     * no expression has one)
+     */
+    private int[] exprTypeIds = null;
+
+    /**
+     * FlatAST constructor (the nodes are then added by fromAST)
+     *
+     * @param names table the name and type ids refer to
+     */
+    private FlatAST(NameTable names) {
+        this.names = names;
+    }
+
+    /**
+     * Build the flat AST of an AST (the names are interned in the current
+     * thread's name table)
+     *
+     * @param program root of the AST
+     * @return the flat AST
+     */
+    public static FlatAST fromAST(Program program) {
+        final FlatAST ast = new FlatAST(NameTable.getCurrent());
+        // the nodes are added as the walker leaves them, so in post-order and
+        // without recursion (the results of the children are their indices)
+        new TreeWalker().walk(program, new Visitor() {
+            public Object postVisit(ASTNode node, int kind, Object[] results) {
+                return ast.add(node, kind, results);
+            }
+        });
+        return ast;
+    }
+
+    /**
+     * Get the number of nodes
+     *
+     * @return number of nodes
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the root of the AST (the program)
+     *
+     * @return index of the root
+     */
+    public int getRoot() {
+        return size - 1;
+    }
+
+    /**
+     * Get the kind of a node
+     *
+     * @param node index of the node
+     * @return kind of the node
+     */
+    public int getKind(int node) {
+        return kinds[node];
+    }
+
+    /**
+     * Get the line number of a node
+     *
+     * @param node index of the node
+     * @return line number
+     */
+    public int getLineNum(int node) {
+        return lineNums[node];
+    }
+
+    /**
+     * Get the number of children of a node (missing optional children
+     * included)
+     *
+     * @param node index of the node
+     * @return number of children
+     */
+    public int getNumChildren(int node) {
+        return childStarts[node + 1] - childStarts[node];
+    }
+
+    /**
+     * Get a child of a node
+     *
+     * @param node  index of the node
+     * @param index position of the child
+     * @return index of the child (NONE if the optional child is missing)
+     */
+    public int getChild(int node, int index) {
+        return children[childStarts[node] + index];
+    }
+
+    /**
+     * Get the name of a node
+     *
+     * @param node index of the node
+     * @return the name (null if the node has none)
+     */
+    public String getName(int node) {
+        return name(nameIds[node]);
+    }
+
+    /**
+     * Get the type of a node
+     *
+     * @param node index of the node
+     * @return the type (null if the node has none)
+     */
+    public String getType(int node) {
+        return name(typeIds[node]);
+    }
+
+    /**
+     * Get the number of bytes taken by the arrays holding the nodes
+     *
+     * @return number of bytes
+     */
+    public long getNumBytes() {
+        long bytes = 4L * (kinds.length + lineNums.length + childStarts.length +
+                children.length + nameIds.length + typeIds.length + attributes.length);
+        return exprTypeIds == null ? bytes : bytes + 4L * exprTypeIds.length;
+    }
+
+    /**
+     * Trim the arrays to the number of nodes (once the flat AST is complete)
+     */
+    public void trimToSize() {
+        kinds = Arrays.copyOf(kinds, size);
+        lineNums = Arrays.copyOf(lineNums, size);
+        childStarts = Arrays.copyOf(childStarts, size + 1);
+        children = Arrays.copyOf(children, numChildren);
+        nameIds = Arrays.copyOf(nameIds, size);
+        typeIds = Arrays.copyOf(typeIds, size);
+        attributes = Arrays.copyOf(attributes, size);
+        if (exprTypeIds != null) {
+            exprTypeIds = Arrays.copyOf(exprTypeIds, size);
+        }
+    }
+
+    /**
+     * Build the AST (a new graph of AST nodes each time)
+     *
+     * @return root of the AST
+     */
+    public Program toAST() {
+        return (Program) toNode(getRoot());
+    }
+
+    /**
+     * Build the AST of a subtree (without recursion: the nodes of a subtree
+     * are numbered consecutively, so they are built in order, each after its
+     * children)
+     *
+     * @param node index of the root of the subtree (or NONE)
+     * @return root of the AST (null for NONE)
+     */
+    public ASTNode toNode(int node) {
+        if (node == NONE) {
+            return null;
+        }
+        // the first node of the subtree is its leftmost leaf
+        int start = node;
+        while (true) {
+            int first = NONE;
+            for (int i = childStarts[start]; i < childStarts[start + 1]; i++) {
+                if (children[i] != NONE) {
+                    first = children[i];
+                    break;
+                }
+            }
+            if (first == NONE) {
+                break;
+            }
+            start = first;
+        }
+        ASTNode[] built = new ASTNode[node - start + 1];
+        for (int n = start; n <= node; n++) {
+            built[n - start] = build(n, built, start);
+        }
+        return built[node - start];
+    }
+
+    /**
+     * Build a node whose children have been built
+     *
+     * @param node  index of the node
+     * @param built nodes built so far, by index minus start
+     * @param start index of the first node built
+     * @return the node
+     */
+    private ASTNode build(int node, ASTNode[] built, int start) {
+        int line = lineNums[node];
+        String name = name(nameIds[node]);
+        String type = name(typeIds[node]);
+        ASTNode result;
+        switch (kinds[node]) {
+            case PROGRAM:
+                return new Program(line, (ClassList) child(built, start, node, 0));
+            case CLASS_LIST:
+                return addElements(node, new ClassList(line), built, start);
+            case CLASS:
+                return new Class_(line, name(attributes[node]), name, type,
+                        (MemberList) child(built, start, node, 0));
+            case MEMBER_LIST:
+                return addElements(node, new MemberList(line), built, start);
+            case FIELD:
+                return new Field(line, type, name, (Expr) child(built, start, node, 0));
+            case METHOD:
+                return new Method(line, type, name, (FormalList) child(built, start, node, 0),
+                        (StmtList) child(built, start, node, 1));
+            case FORMAL_LIST:
+                return addElements(node, new FormalList(line), built, start);
+            case FORMAL:
+                return new Formal(line, type, name);
+            case STMT_LIST:
+                return addElements(node, new StmtList(line), built, start);
+            case DECL_STMT:
+                return new DeclStmt(line, type, name, (Expr) child(built, start, node, 0));
+            case EXPR_STMT:
+                return new ExprStmt(line, (Expr) child(built, start, node, 0));
+            case IF_STMT:
+                return new IfStmt(line, (Expr) child(built, start, node, 0), (Stmt) child(built, start, node, 1),
+                        (Stmt) child(built, start, node, 2));
+            case WHILE_STMT:
+                return new WhileStmt(line, (Expr) child(built, start, node, 0), (Stmt) child(built, start, node, 1));
+            case FOR_STMT:
+                return new ForStmt(line, (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1),
+                        (Expr) child(built, start, node, 2), (Stmt) child(built, start, node, 3));
+            case BREAK_STMT:
+                return new BreakStmt(line);
+            case BLOCK_STMT:
+                return new BlockStmt(line, (StmtList) child(built, start, node, 0));
+            case RETURN_STMT:
+                return new ReturnStmt(line, (Expr) child(built, start, node, 0));
+            case EXPR_LIST:
+                return addElements(node, new ExprList(line), built, start);
+            case DISPATCH_EXPR:
+                result = new DispatchExpr(line, (Expr) child(built, start, node, 0), name,
+                        (ExprList) child(built, start, node, 1));
+                break;
+            case NEW_EXPR:
+                result = new NewExpr(line, type);
+                break;
+            case NEW_ARRAY_EXPR:
+                result = new NewArrayExpr(line, type, (Expr) child(built, start, node, 0));
+                break;
+            case INSTANCEOF_EXPR:
+                InstanceofExpr instanceofExpr =
+                        new InstanceofExpr(line, (Expr) child(built, start, node, 0), type);
+                instanceofExpr.setUpCheck(attributes[node] != 0);
+                result = instanceofExpr;
+                break;
+            case CAST_EXPR:
+                CastExpr castExpr = new CastExpr(line, type, (Expr) child(built, start, node, 0));
+                castExpr.setUpCast(attributes[node] != 0);
+                result = castExpr;
+                break;
+            case ASSIGN_EXPR:
+                result = new AssignExpr(line, name(attributes[node]), name,
+                        (Expr) child(built, start, node, 0));
+                break;
+            case ARRAY_ASSIGN_EXPR:
+                result = new ArrayAssignExpr(line, name(attributes[node]), name,
+                        (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1));
+                break;
+            case EQ_EXPR:
+                result = new BinaryCompEqExpr(line, (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1));
+                break;
+            case NE_EXPR:
+                result = new BinaryCompNeExpr(line, (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1));
+                break;
+            case LT_EXPR:
+                result = new BinaryCompLtExpr(line, (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1));
+                break;
+            case LEQ_EXPR:
+                result = new BinaryCompLeqExpr(line, (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1));
+                break;
+            case GT_EXPR:
+                result = new BinaryCompGtExpr(line, (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1));
+                break;
+            case GEQ_EXPR:
+                result = new BinaryCompGeqExpr(line, (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1));
+                break;
+            case PLUS_EXPR:
+                result = new BinaryArithPlusExpr(line, (Expr) child(built, start, node, 0),
+                        (Expr) child(built, start, node, 1));
+                break;
+            case MINUS_EXPR:
+                result = new BinaryArithMinusExpr(line, (Expr) child(built, start, node, 0),
+                        (Expr) child(built, start, node, 1));
+                break;
+            case TIMES_EXPR:
+                result = new BinaryArithTimesExpr(line, (Expr) child(built, start, node, 0),
+                        (Expr) child(built, start, node, 1));
+                break;
+            case DIVIDE_EXPR:
+                result = new BinaryArithDivideExpr(line, (Expr) child(built, start, node, 0),
+                        (Expr) child(built, start, node, 1));
+                break;
+            case MODULUS_EXPR:
+                result = new BinaryArithModulusExpr(line, (Expr) child(built, start, node, 0),
+                        (Expr) child(built, start, node, 1));
+                break;
+            case AND_EXPR:
+                result = new BinaryLogicAndExpr(line, (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1));
+                break;
+            case OR_EXPR:
+                result = new BinaryLogicOrExpr(line, (Expr) child(built, start, node, 0), (Expr) child(built, start, node, 1));
+                break;
+            case NEG_EXPR:
+                result = new UnaryNegExpr(line, (Expr) child(built, start, node, 0));
+                break;
+            case NOT_EXPR:
+                result = new UnaryNotExpr(line, (Expr) child(built, start, node, 0));
+                break;
+            case INCR_EXPR:
+                result = new UnaryIncrExpr(line, (Expr) child(built, start, node, 0), attributes[node] != 0);
+                break;
+            case DECR_EXPR:
+                result = new UnaryDecrExpr(line, (Expr) child(built, start, node, 0), attributes[node] != 0);
+                break;
+            case VAR_EXPR:
+                result = new VarExpr(line, (Expr) child(built, start, node, 0), name);
+                break;
+            case ARRAY_EXPR:
+                result = new ArrayExpr(line, (Expr) child(built, start, node, 0), name, (Expr) child(built, start, node, 1));
+                break;
+            case INT_CONST_EXPR:
+                result = new ConstIntExpr(line, name);
+                break;
+            case BOOLEAN_CONST_EXPR:
+                result = new ConstBooleanExpr(line, name);
+                break;
+            case STRING_CONST_EXPR:
+                result = new ConstStringExpr(line, name);
+                break;
+            default:
+                throw new IllegalStateException("unknown node kind " + kinds[node]);
+        }
+        if (exprTypeIds != null) {
+            ((Expr) result).setExprType(name(exprTypeIds[node]));
+        }
+        return result;
+    }
+
+    /**
+     * Run a visitor over the AST, building each class only while it is
+     * visited (the classes are built again on each visit, so the visitor
+     * must not hold on to the nodes or rely on their identity)
+     *
+     * @param v the visitor
+     * @return result of visiting the program
+     */
+    public Object accept(Visitor v) {
+        int program = getRoot();
+        int classList = getChild(program, 0);
+        return new Program(lineNums[program], new FlatClassList(classList)).accept(v);
+    }
+
+    /**
+     * Class list whose classes are built from the flat AST when they are
+     * accessed
+     */
+    private class FlatClassList extends ClassList {
+        /**
+         * Index of the class list node
+         */
+        private int node;
+
+        /**
+         * FlatClassList constructor
+         *
+         * @param node index of the class list node
+         */
+        FlatClassList(int node) {
+            super(lineNums[node]);
+            this.node = node;
+        }
+
+        /**
+         * Add an element (unsupported: the list is read only)
+         *
+         * @param node element to add
+         * @return never returns
+         */
+        public ListNode addElement(ASTNode node) {
+            throw new UnsupportedOperationException("the classes of a flat AST are read only");
+        }
+
+        /**
+         * Get the list size
+         *
+         * @return list size
+         */
+        public int getSize() {
+            return getNumChildren(node);
+        }
+
+        /**
+         * Build the index-th class
+         *
+         * @param index position of the class
+         * @return the class
+         */
+        public ASTNode get(int index) {
+            if (index < 0 || index >= getSize()) {
+                throw new ArrayIndexOutOfBoundsException(index);
+            }
+            return toNode(getChild(node, index));
+        }
+
+        /**
+         * Returns an iterator building the classes in order
+         *
+         * @return iterator for this list
+         */
+        public Iterator<ASTNode> iterator() {
+            return new Iterator<ASTNode>() {
+                private int index = 0;
+
+                public boolean hasNext() {
+                    return index < getSize();
+                }
+
+                public ASTNode next() {
+                    if (index >= getSize()) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(index++);
+                }
+            };
+        }
+    }
+
+    /**
+     * Get a child of a node that has been built
+     *
+     * @param built nodes built so far, by index minus start
+     * @param start index of the first node built
+     * @param node  index of the node
+     * @param index position of the child
+     * @return the child (null if the optional child is missing)
+     */
+    private ASTNode child(ASTNode[] built, int start, int node, int index) {
+        int child = getChild(node, index);
+        return child == NONE ? null : built[child - start];
+    }
+
+    /**
+     * Add the elements of a list node, which have been built, to the list
+     *
+     * @param node  index of the list node
+     * @param list  the list
+     * @param built nodes built so far, by index minus start
+     * @param start index of the first node built
+     * @return the list
+     */
+    private ListNode addElements(int node, ListNode list, ASTNode[] built, int start) {
+        for (int i = childStarts[node]; i < childStarts[node + 1]; i++) {
+            list.addElement(children[i] == NONE ? null : built[children[i] - start]);
+        }
+        return list;
+    }
+
+    /**
+     * Get the name with a given id
+     *
+     * @param id id of the name (or NONE)
+     * @return the name (null for NONE)
+     */
+    private String name(int id) {
+        return id == NONE ? null : names.getName(id);
+    }
+
+    /**
+     * Get the id of a name
+     *
+     * @param name the name (or null)
+     * @return id of the name (NONE for null)
+     */
+    private int id(String name) {
+        return name == null ? NONE : names.getId(name);
+    }
+
+    /**
+     * Add a node to the flat AST, once its children have been added
+     *
+     * @param node    the node
+     * @param kind    kind of the node
+     * @param results indices of its children (null for the missing optional
+     *                children)
+     * @return index of the node
+     */
+    private int add(ASTNode node, int kind, Object[] results) {
+        int name = NONE;
+        int type = NONE;
+        int attribute = NONE;
+        switch (kind) {
+            case CLASS:
+                Class_ class_ = (Class_) node;
+                name = id(class_.getName());
+                type = id(class_.getParent());
+                attribute = id(class_.getFilename());
+                break;
+            case FIELD:
+                Field field = (Field) node;
+                name = id(field.getName());
+                type = id(field.getType());
+                break;
+            case METHOD:
+                Method method = (Method) node;
+                name = id(method.getName());
+                type = id(method.getReturnType());
+                break;
+            case FORMAL:
+                Formal formal = (Formal) node;
+                name = id(formal.getName());
+                type = id(formal.getType());
+                break;
+            case DECL_STMT:
+                DeclStmt declStmt = (DeclStmt) node;
+                name = id(declStmt.getName());
+                type = id(declStmt.getType());
+                break;
+            case DISPATCH_EXPR:
+                name = id(((DispatchExpr) node).getMethodName());
+                break;
+            case NEW_EXPR:
+                type = id(((NewExpr) node).getType());
+                break;
+            case NEW_ARRAY_EXPR:
+                type = id(((NewArrayExpr) node).getType());
+                break;
+            case INSTANCEOF_EXPR:
+                InstanceofExpr instanceofExpr = (InstanceofExpr) node;
+                type = id(instanceofExpr.getType());
+                attribute = instanceofExpr.getUpCheck() ? 1 : 0;
+                break;
+            case CAST_EXPR:
+                CastExpr castExpr = (CastExpr) node;
+                type = id(castExpr.getType());
+                attribute = castExpr.getUpCast() ? 1 : 0;
+                break;
+            case ASSIGN_EXPR:
+                AssignExpr assignExpr = (AssignExpr) node;
+                name = id(assignExpr.getName());
+                attribute = id(assignExpr.getRefName());
+                break;
+            case ARRAY_ASSIGN_EXPR:
+                ArrayAssignExpr arrayAssignExpr = (ArrayAssignExpr) node;
+                name = id(arrayAssignExpr.getName());
+                attribute = id(arrayAssignExpr.getRefName());
+                break;
+            case NEG_EXPR:
+            case NOT_EXPR:
+            case INCR_EXPR:
+            case DECR_EXPR:
+                attribute = ((UnaryExpr) node).isPostfix() ? 1 : 0;
+                break;
+            case VAR_EXPR:
+                name = id(((VarExpr) node).getName());
+                break;
+            case ARRAY_EXPR:
+                name = id(((ArrayExpr) node).getName());
+                break;
+            case INT_CONST_EXPR:
+            case BOOLEAN_CONST_EXPR:
+            case STRING_CONST_EXPR:
+                name = id(((ConstExpr) node).getConstant());
+                break;
+        }
+
+        if (size + 1 == childStarts.length) {
+            int capacity = 2 * kinds.length;
+            kinds = Arrays.copyOf(kinds, capacity);
+            lineNums = Arrays.copyOf(lineNums, capacity);
+            childStarts = Arrays.copyOf(childStarts, capacity + 1);
+            nameIds = Arrays.copyOf(nameIds, capacity);
+            typeIds = Arrays.copyOf(typeIds, capacity);
+            attributes = Arrays.copyOf(attributes, capacity);
+            if (exprTypeIds != null) {
+                exprTypeIds = Arrays.copyOf(exprTypeIds, capacity);
+            }
+        }
+        if (numChildren + results.length > children.length) {
+            children = Arrays.copyOf(children,
+                    Math.max(2 * children.length, numChildren + results.length));
+        }
+        for (Object result : results) {
+            children[numChildren++] = result == null ? NONE : (Integer) result;
+        }
+
+        int index = size++;
+        kinds[index] = kind;
+        lineNums[index] = node.getLineNum();
+        childStarts[index + 1] = numChildren;
+        nameIds[index] = name;
+        typeIds[index] = type;
+        attributes[index] = attribute;
+        if (node instanceof Expr && ((Expr) node).getExprType() != null) {
+            if (exprTypeIds == null) {
+                exprTypeIds = new int[kinds.length];
+                Arrays.fill(exprTypeIds, NONE);
+            }
+            exprTypeIds[index] = id(((Expr) node).getExprType());
+        }
+        else if (exprTypeIds != null) {
+            exprTypeIds[index] = NONE;
+        }
+        return index;
+    }
+}
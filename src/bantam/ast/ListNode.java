@@ -34,22 +34,49 @@ package bantam.ast;
 
 import bantam.visitor.Visitor;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.Vector;
+import java.util.NoSuchElementException;
 
 /**
  * The abstract <tt>ListNode</tt> class represents a generic list of AST
- * nodes.  It contains a line number (<tt>lineNum</tt>) and a list
- * (<tt>listElements</tt>).
+ * nodes.  It contains a line number (<tt>lineNum</tt>) and a list of
+ * elements.
+ * <p/>
+ * Most lists hold few elements (many formal, actual and statement lists
+ * are empty or hold one or two), so the first two elements are held in
+ * fields of the list itself, and only the elements after them in an array
+ * (which doubles in size as it fills up, and can be trimmed to size once
+ * the list is complete).  Empty and small lists thus take no storage besides
+ * the list node, and iterating over an empty list returns a shared iterator.
+ * Lists are not synchronized: a list is built by a single parser, and only
+ * read once it is part of an AST.
  *
  * @see ASTNode
  */
 public abstract class ListNode extends ASTNode
     implements Iterable<ASTNode> {
     /**
-     * List of ASTNode elements
+     * Number of elements
      */
-    private Vector<ASTNode> listElements;
+    private int size = 0;
+
+    /**
+     * First element (null if none)
+     */
+    private ASTNode first;
+
+    /**
+     * Second element (null if none)
+     */
+    private ASTNode second;
+
+    /**
+     * Elements after the first two (null if there are none); the array may
+     * be longer than the number of these elements
+     */
+    private ASTNode[] rest;
 
     /**
      * ListNode constructor
@@ -58,7 +85,6 @@ public abstract class ListNode extends ASTNode
      */
     protected ListNode(int lineNum) {
         super(lineNum);
-        listElements = new Vector<ASTNode>();
     }
 
     /**
@@ -68,17 +94,58 @@ public abstract class ListNode extends ASTNode
      * @return the updated list
      */
     public ListNode addElement(ASTNode node) {
-        listElements.add(node);
+        if (size == 0) {
+            first = node;
+        }
+        else if (size == 1) {
+            second = node;
+        }
+        else {
+            if (rest == null) {
+                rest = new ASTNode[2];
+            }
+            else if (size - 2 == rest.length) {
+                rest = Arrays.copyOf(rest, 2 * rest.length);
+            }
+            rest[size - 2] = node;
+        }
+        size++;
         return this;
     }
 
+    /**
+     * Trim the storage of the elements to the size of the list (called once
+     * the list is complete, e.g., after parsing)
+     */
+    public void trimToSize() {
+        if (rest != null && rest.length > size - 2) {
+            rest = Arrays.copyOf(rest, size - 2);
+        }
+    }
+
     /**
      * Returns an iterator for this list
      *
      * @return iterator for this list
      */
     public Iterator<ASTNode> iterator() {
-        return listElements.iterator();
+        if (size == 0) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<ASTNode>() {
+            private int index = 0;
+
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            public ASTNode next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
     }
 
     /**
@@ -87,7 +154,7 @@ public abstract class ListNode extends ASTNode
      * @return list size
      */
     public int getSize() {
-        return listElements.size();
+        return size;
     }
 
     /**
@@ -98,7 +165,16 @@ public abstract class ListNode extends ASTNode
      *         too large or too small
      */
     public ASTNode get(int index) {
-        return listElements.get(index);
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        if (index == 0) {
+            return first;
+        }
+        if (index == 1) {
+            return second;
+        }
+        return rest[index - 2];
     }
 
     /**
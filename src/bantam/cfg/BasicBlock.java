@@ -29,6 +29,8 @@ package bantam.cfg;
 import java.util.Vector;
 import java.util.Iterator;
 
+import bantam.util.CompilationException;
+
 /** A class representing a basic block, which is an individual
   * node in the control flow graph.  Each basic block is made
   * up of a label (for control transfers targetting this basic
@@ -51,8 +53,13 @@ public class BasicBlock {
       * Empty at first. */
     private Vector<BasicBlock> outEdges = new Vector<BasicBlock>();
 
-    /** Number of total basic blocks */
-    private static int numBB = 0;
+    /** Number of total basic blocks (counted per thread, so that
+      * concurrent compilations number their blocks independently) */
+    private static final ThreadLocal<int[]> numBB = new ThreadLocal<int[]>() {
+	protected int[] initialValue() {
+	    return new int[1];
+	}
+    };
 
     /** Basic block identifier */
     private int id;
@@ -88,7 +95,7 @@ public class BasicBlock {
       * note: predicate considered part of if statement)
       * */
     public BasicBlock(int startLineNum, int loopCnt, int ifCnt) {
-	id = numBB++;
+	id = numBB.get()[0]++;
 	this.startLineNum = startLineNum;
 	this.loopCnt = loopCnt;
 	this.ifCnt = ifCnt;
@@ -108,6 +115,13 @@ public class BasicBlock {
 					       "must be non-negative");
     }
 
+    /** Restart the numbering of basic blocks (of the current thread) at 0
+      * (called at the start of each compilation)
+      * */
+    public static void resetIds() {
+	numBB.get()[0] = 0;
+    }
+
     /** Get the identifier of this basic block
       * @return identifier
       * */
@@ -726,7 +740,7 @@ public class BasicBlock {
 	    catch (Exception e) {
 		System.err.println("Error with control flow graph:");
 		e.printStackTrace();
-		System.exit(1);
+		throw new CompilationException(null, 1);
 	    }
 	}
     }
@@ -26,9 +26,10 @@
 
 package bantam.codegenmips;
 
+import bantam.util.AssemblyEmitter;
 import bantam.util.ClassTreeNode;
+import bantam.util.CompilationException;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 
@@ -72,6 +73,7 @@ public class MipsCodeGenerator {
 
     /**
      * MipsCodeGenerator constructor
+     * (the assembly is buffered, so generate must close the output stream when done)
      *
      * @param root    root of the class hierarchy tree
      * @param outFile filename of the assembly output file
@@ -81,18 +83,42 @@ public class MipsCodeGenerator {
      */
     public MipsCodeGenerator(ClassTreeNode root, String outFile,
                              boolean gc, boolean opt, boolean debug) {
+        this(root, openOutFile(outFile), gc, opt, debug);
+    }
+
+    /**
+     * MipsCodeGenerator constructor
+     * (writes the assembly to an existing print stream, e.g., an in-memory one)
+     *
+     * @param root  root of the class hierarchy tree
+     * @param out   print stream for the output assembly
+     * @param gc    boolean indicating whether garbage collection is enabled
+     * @param opt   boolean indicating whether optimization is enabled
+     * @param debug boolean indicating whether debugging is enabled
+     */
+    public MipsCodeGenerator(ClassTreeNode root, PrintStream out,
+                             boolean gc, boolean opt, boolean debug) {
         this.root = root;
+        this.out = out;
         this.gc = gc;
         this.opt = opt;
         this.debug = debug;
+        assemblySupport = new MipsSupport(out);
+    }
 
+    /**
+     * Open the assembly output file
+     *
+     * @param outFile filename of the assembly output file
+     * @return (buffered) print stream for the output file
+     */
+    private static PrintStream openOutFile(String outFile) {
         try {
-            out = new PrintStream(new FileOutputStream(outFile));
-            assemblySupport = new MipsSupport(out);
+            return new AssemblyEmitter(outFile, false);
         } catch (IOException e) {
-            // if don't have permission to write to file then report an error and exit
-            System.err.println("Error: don't have permission to write to file '" + outFile + "'");
-            System.exit(1);
+            // if don't have permission to write to file then report an error and stop
+            throw new CompilationException(
+                    "Error: don't have permission to write to file '" + outFile + "'", 1);
         }
     }
 
@@ -109,6 +135,7 @@ public class MipsCodeGenerator {
      * 7 - start the text section
      * 8 - generate initialization subroutines
      * 9 - generate user-defined methods
+     * 10 - close the output stream (which writes out the buffered assembly)
      * See the lab manual for the details of each of these steps.
      */
     public void generate() {
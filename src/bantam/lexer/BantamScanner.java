@@ -0,0 +1,30 @@
+/*
+ * File: BantamScanner.java
+ * Date: 10/18/26
+ */
+
+package bantam.lexer;
+
+import java_cup.runtime.Scanner;
+
+/** The <tt>BantamScanner</tt> interface is implemented by the scanners the
+  * parser can pull tokens from: the JLex generated <tt>Lexer</tt> and the
+  * hand-written <tt>FastLexer</tt>.  Besides returning tokens, a scanner
+  * knows where it is, which the parser uses to report syntax errors.
+  * */
+public interface BantamScanner extends Scanner {
+    /** getter method for accessing the current line number
+      * @return current line number
+      * */
+    int getCurrLineNum();
+
+    /** getter method for accessing the current file name
+      * @return current filename string
+      * */
+    String getCurrFilename();
+
+    /** print tokens - used primarily for debugging the bantam.lexer
+      * @throws java.io.IOException if a source file can't be read
+      * */
+    void printTokens() throws java.io.IOException;
+}
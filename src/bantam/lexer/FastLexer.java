@@ -0,0 +1,820 @@
+/*
+ * File: FastLexer.java
+ * Date: 10/18/26
+ */
+
+package bantam.lexer;
+
+import bantam.parser.TokenIds;
+import bantam.util.NameTable;
+import java_cup.runtime.Symbol;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/** The <tt>FastLexer</tt> class is a hand-written scanner that returns the
+  * same tokens as the JLex generated <tt>Lexer</tt> (built from
+  * <tt>lexer.jlex</tt>), including every lexical error, but runs much faster.
+  * Each source file is read into a <tt>char[]</tt> once, and the scanner
+  * dispatches on the first character of each token and then scans the rest
+  * of the token directly over the array, instead of running a table-driven
+  * DFA over a small, repeatedly compacted buffer.  Identifiers and string
+  * constants are interned straight from the array (a string is only created
+  * for the first occurrence of a name), and keywords are recognized through
+  * a perfect hash of the identifier (no map lookup).
+  * <p/>
+  * The rules of <tt>lexer.jlex</tt> are applied with the same longest match
+  * (and earliest rule on ties) semantics as JLex, so for instance a
+  * multiline comment extends to the last <tt>*&#47;</tt> of the file, and a
+  * run of digits and letters that is longer than any integer constant rule
+  * can match is an illegal identifier.
+  * <p/>
+  * Two inputs are handled differently: the JLex lexer loops forever on a
+  * carriage return outside of a comment or string and throws an
+  * <tt>ArrayIndexOutOfBoundsException</tt> on non-ASCII characters, while
+  * this scanner reports both as unmatched lexemes (and treats them as
+  * ordinary characters within comments and strings).
+  * */
+public class FastLexer implements BantamScanner {
+    /** maximum string size allowed (including the quotes) */
+    private static final int MAX_STRING_SIZE = 5000;
+
+    /** character class of identifier characters ([a-zA-Z1-9_]) */
+    private static final byte ID_CHAR = 1;
+    /** character class of illegal identifier characters ([a-zA-Z0-9_]) */
+    private static final byte WORD_CHAR = 2;
+    /** classes of the ASCII characters (a combination of the above) */
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    static {
+	for (int c = 0; c < 128; c++) {
+	    if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ||
+		(c >= '1' && c <= '9') || c == '_')
+		CHAR_CLASS[c] = ID_CHAR | WORD_CHAR;
+	}
+	CHAR_CLASS['0'] = WORD_CHAR;
+    }
+
+    /** token type of an unsupported character error (the types of the tokens
+      * that aren't lexical errors are their token ids) */
+    static final int UNSUPPORTED_CHARACTER = 64;
+    /** token type of an illegal identifier error */
+    static final int ILLEGAL_IDENTIFIER = 65;
+    /** token type of an unterminated multiline comment error */
+    static final int UNTERMINATED_COMMENT = 66;
+    /** token type of an unterminated string constant error */
+    static final int UNTERMINATED_STRING = 67;
+    /** token type of a string constant spanning multiple lines error */
+    static final int MULTILINE_STRING = 68;
+    /** token type of an illegal escape character error */
+    static final int ILLEGAL_ESCAPE = 69;
+    /** token type of a string constant of illegal length error */
+    static final int ILLEGAL_STRING_LENGTH = 70;
+    /** token type of an int const too big error */
+    static final int INT_TOO_BIG = 71;
+    /** number of token types */
+    static final int NUM_TYPES = 72;
+
+    /** token ids of the token types */
+    private static final int[] TYPE_IDS = new int[NUM_TYPES];
+    /** token names of the token types (null if the name depends on the text) */
+    private static final String[] TYPE_NAMES = new String[NUM_TYPES];
+    /** messages of the lexical error types (null for the other types) */
+    private static final String[] MESSAGES = new String[NUM_TYPES];
+
+    static {
+	addToken(TokenIds.EOF, "EOF");
+	addToken(TokenIds.LBRACE, "LBRACE");
+	addToken(TokenIds.RBRACE, "RBRACE");
+	addToken(TokenIds.LPAREN, "LPAREN");
+	addToken(TokenIds.RPAREN, "RPAREN");
+	addToken(TokenIds.LSQBRACE, "LSQBRACE");
+	addToken(TokenIds.RSQBRACE, "RSQBRACE");
+	addToken(TokenIds.TIMES, "TIMES");
+	addToken(TokenIds.MODULUS, "MODULUS");
+	addToken(TokenIds.SEMI, "SEMI");
+	addToken(TokenIds.DECR, "DECR");
+	addToken(TokenIds.MINUS, "MINUS");
+	addToken(TokenIds.INCR, "INCR");
+	addToken(TokenIds.PLUS, "PLUS");
+	addToken(TokenIds.EQ, "EQ");
+	addToken(TokenIds.ASSIGN, "ASSIGN");
+	addToken(TokenIds.LEQ, "LEQ");
+	addToken(TokenIds.LT, "LT");
+	addToken(TokenIds.GEQ, "GEQ");
+	addToken(TokenIds.GT, "GT");
+	addToken(TokenIds.NE, "NE");
+	addToken(TokenIds.DIVIDE, "DIVIDE");
+	addToken(TokenIds.CLASS, "CLASS");
+	addToken(TokenIds.IF, "IF");
+	addToken(TokenIds.NEW, "NEW");
+	addToken(TokenIds.BREAK, "BREAK");
+	addToken(TokenIds.FOR, "FOR");
+	addToken(TokenIds.ELSE, "ELSE");
+	addToken(TokenIds.EXTENDS, "EXTENDS");
+	addToken(TokenIds.RETURN, "RETURN");
+	addToken(TokenIds.INSTANCEOF, "INSTANCEOF");
+	addToken(TokenIds.WHILE, "WHILE");
+	addToken(TokenIds.ID, "ID");
+	addToken(TokenIds.INT_CONST, "INT_CONST");
+	addToken(TokenIds.STRING_CONST, "STRING_CONST");
+	// the name of a boolean constant (TRUE or FALSE) depends on the text
+	addToken(TokenIds.BOOLEAN_CONST, null);
+	addError(UNSUPPORTED_CHARACTER, TokenIds.LEX_ERROR, "Unsupported Character");
+	addError(ILLEGAL_IDENTIFIER, TokenIds.LEX_ERROR, "Illegal Identifier");
+	addError(UNTERMINATED_COMMENT, TokenIds.error, "unterminated multiline comment");
+	addError(UNTERMINATED_STRING, TokenIds.error, "String constant unterminated");
+	addError(MULTILINE_STRING, TokenIds.error, "String constant spanning multiple lines");
+	addError(ILLEGAL_ESCAPE, TokenIds.error,
+		 "String constant contains illegal escape characters");
+	addError(ILLEGAL_STRING_LENGTH, TokenIds.error, "String constant of illegal length");
+	addError(INT_TOO_BIG, TokenIds.LEX_ERROR, null);
+    }
+
+    /** keywords, indexed by their perfect hash (see keywordHash) */
+    private static final String[] KEYWORDS = new String[16];
+    /** token ids of the keywords, indexed by their perfect hash */
+    private static final int[] KEYWORD_IDS = new int[16];
+
+    static {
+	addKeyword("class", TokenIds.CLASS);
+	addKeyword("true", TokenIds.BOOLEAN_CONST);
+	addKeyword("false", TokenIds.BOOLEAN_CONST);
+	addKeyword("for", TokenIds.FOR);
+	addKeyword("instanceof", TokenIds.INSTANCEOF);
+	addKeyword("if", TokenIds.IF);
+	addKeyword("return", TokenIds.RETURN);
+	addKeyword("new", TokenIds.NEW);
+	addKeyword("break", TokenIds.BREAK);
+	addKeyword("else", TokenIds.ELSE);
+	addKeyword("while", TokenIds.WHILE);
+	addKeyword("extends", TokenIds.EXTENDS);
+    }
+
+    /** the ten digit patterns of the "int const too big" rules (in rule
+      * order); each character is a digit or the upper bound of a digit range
+      * whose lower bound is given by the same position in TOO_BIG_LOW
+      * */
+    private static final String[] TOO_BIG_HIGH = {
+	"2147483649", "2147483699", "2147483999", "2147489999", "2147499999",
+	"2147999999", "2149999999", "2199999999", "2999999999"};
+    /** lower bounds of the digits of the "int const too big" patterns */
+    private static final String[] TOO_BIG_LOW = {
+	"2147483648", "2147483650", "2147483700", "2147484000", "2147490000",
+	"2147500000", "2148000000", "2150000000", "2200000000"};
+    /** digit ranges of the second INT_CONST rule (digits no larger than
+      * 2147483647), one optional digit per position
+      * */
+    private static final String INT_HIGH = "2147483647";
+
+    /** boolean indicating whether debugging is enabled */
+    private boolean debug = false;
+    /** array that holds the names of each file we're lexing */
+    private String[] filenames;
+    /** array that holds the reader for each file we're lexing */
+    private Reader[] fileReaders;
+    /** table the identifiers and string constants are interned in
+      * (the table of the compilation the scanner is created in)
+      * */
+    private NameTable names = NameTable.getCurrent();
+    /** current file number used to index filenames and fileReaders */
+    private int fileCnt = 0;
+
+    /** contents of the current file */
+    private char[] buf;
+    /** number of characters in the current file */
+    private int len;
+    /** position of the next character to scan */
+    private int pos = 0;
+    /** position of the '*' of the last comment terminator of the current
+      * file that can close a comment (-1 if none, -2 if not computed yet) */
+    private int lastClose = -2;
+    /** line number of the next character to scan */
+    private int line = 1;
+    /** boolean indicating whether the last character scanned was a carriage return */
+    private boolean lastWasCR = false;
+    /** line number of the start of the last token (what JLex calls yyline) */
+    private int yyline = 1;
+    /** position of the first character of the last token */
+    private int tokenStart = 0;
+
+    /** FastLexer constructor (each file is opened, and memory-mapped, when
+      * the scanner reaches it)
+      * @param filenames list of filename strings
+      * @param debug boolean indicating whether debugging is enabled
+      * */
+    public FastLexer(String[] filenames, boolean debug) {
+	this(filenames, MappedFileReader.openFiles(filenames), debug);
+    }
+
+    /** FastLexer constructor (for sources that are not necessarily stored
+      * in files, e.g., in-memory sources)
+      * @param filenames list of filename strings (used for error reporting)
+      * @param readers list of readers, one for each filename
+      * @param debug boolean indicating whether debugging is enabled
+      * */
+    public FastLexer(String[] filenames, Reader[] readers, boolean debug) {
+	this.debug = debug;
+	this.filenames = filenames;
+
+	// check that there is at least one specified filename
+	if (filenames.length == 0)
+	    throw new RuntimeException("Must specify at least one filename to scan");
+	if (readers.length != filenames.length)
+	    throw new RuntimeException("Must specify one reader for each filename");
+	fileReaders = readers;
+    }
+
+    /** Register a keyword
+      * @param keyword the keyword
+      * @param id token id of the keyword
+      * */
+    private static void addKeyword(String keyword, int id) {
+	int h = keywordHash(keyword.charAt(0), keyword.charAt(keyword.length() - 1),
+			    keyword.length());
+	if (KEYWORDS[h] != null)
+	    throw new RuntimeException("Internal error: keyword hash collision");
+	KEYWORDS[h] = keyword;
+	KEYWORD_IDS[h] = id;
+    }
+
+    /** Register a token type that isn't a lexical error
+      * @param id token id (and type) of the token
+      * @param name token name (null if it depends on the text)
+      * */
+    private static void addToken(int id, String name) {
+	TYPE_IDS[id] = id;
+	TYPE_NAMES[id] = name;
+    }
+
+    /** Register a lexical error type
+      * @param type token type of the error
+      * @param id token id of the error
+      * @param message message of the error (null if it depends on the text)
+      * */
+    private static void addError(int type, int id, String message) {
+	TYPE_IDS[type] = id;
+	TYPE_NAMES[type] = "LEX_ERROR";
+	MESSAGES[type] = message;
+    }
+
+    /** Perfect hash of the keywords (no two keywords have the same hash)
+      * @param first first character of the identifier
+      * @param last last character of the identifier
+      * @param length length of the identifier
+      * @return hash (0-15)
+      * */
+    private static int keywordHash(char first, char last, int length) {
+	return (3 * first + last + length) & 15;
+    }
+
+    /** getter method for accessing the current line number
+      * @return current line number
+      * */
+    public int getCurrLineNum() {
+	return yyline;
+    }
+
+    /** getter method for accessing the current file name
+      * @return current filename string
+      * */
+    public String getCurrFilename() {
+	return filenames[fileCnt];
+    }
+
+    /** print tokens - used primarily for debugging the bantam.lexer
+      * */
+    public void printTokens() throws IOException {
+	int prevFileCnt = -1;
+	try {
+	    while (true) {
+		// no symbol is needed to print a token
+		int type = scan();
+		if (prevFileCnt != fileCnt) {
+		    System.out.println("# " + filenames[fileCnt]);
+		    prevFileCnt = fileCnt;
+		}
+		System.out.println(token(type, buf, tokenStart, pos, yyline, names));
+		if (type == TokenIds.EOF)
+		    break;
+	    }
+	}
+	catch (IOException e) {
+	    System.err.println("Unexpected IO exception while scanning.");
+	    throw e;
+	}
+    }
+
+    /** Return the next token
+      * @return symbol holding the token
+      * @throws IOException if a source file can't be read
+      * */
+    public Symbol next_token() throws IOException {
+	int type = scan();
+	return new Symbol(TYPE_IDS[type], token(type, buf, tokenStart, pos, yyline, names));
+    }
+
+    /** Scan the next token, without creating any object for it: the token
+      * is described by its type, which is returned, and by its text (from
+      * getTokenStart() to getTokenEnd() in getBuffer()) and line number
+      * @return type of the token (its token id unless it's a lexical error)
+      * @throws IOException if a source file can't be read
+      * */
+    int scan() throws IOException {
+	if (buf == null)
+	    load();
+
+	while (true) {
+	    yyline = line;
+	    if (pos >= len) {
+		// start lexing the next file or return EOF after the last one
+		if (fileCnt < fileReaders.length - 1) {
+		    fileCnt++;
+		    load();
+		    line = 1;
+		    continue;
+		}
+		tokenStart = pos;
+		return TokenIds.EOF;
+	    }
+
+	    int start = pos;
+	    tokenStart = start;
+	    char c = buf[pos++];
+	    switch (c) {
+	    case ' ':
+	    case '\t':
+		lastWasCR = false;
+		continue;
+	    case '\n':
+		if (!lastWasCR)
+		    line++;
+		lastWasCR = false;
+		continue;
+	    case '{':
+		return punctuation(TokenIds.LBRACE);
+	    case '}':
+		return punctuation(TokenIds.RBRACE);
+	    case '(':
+		return punctuation(TokenIds.LPAREN);
+	    case ')':
+		return punctuation(TokenIds.RPAREN);
+	    case '[':
+		return punctuation(TokenIds.LSQBRACE);
+	    case ']':
+		return punctuation(TokenIds.RSQBRACE);
+	    case '*':
+		return punctuation(TokenIds.TIMES);
+	    case '%':
+		return punctuation(TokenIds.MODULUS);
+	    case ';':
+		return punctuation(TokenIds.SEMI);
+	    case '-':
+		if (next('-'))
+		    return punctuation(TokenIds.DECR);
+		return punctuation(TokenIds.MINUS);
+	    case '+':
+		if (next('+'))
+		    return punctuation(TokenIds.INCR);
+		return punctuation(TokenIds.PLUS);
+	    case '=':
+		if (next('='))
+		    return punctuation(TokenIds.EQ);
+		return punctuation(TokenIds.ASSIGN);
+	    case '<':
+		if (next('='))
+		    return punctuation(TokenIds.LEQ);
+		return punctuation(TokenIds.LT);
+	    case '>':
+		if (next('='))
+		    return punctuation(TokenIds.GEQ);
+		return punctuation(TokenIds.GT);
+	    case '!':
+		if (next('='))
+		    return punctuation(TokenIds.NE);
+		break;
+	    case '?': case '@': case '#': case '^': case '`':
+	    case '~': case '$': case '\'': case ':':
+		lastWasCR = false;
+		return UNSUPPORTED_CHARACTER;
+	    case '/':
+		if (pos < len && buf[pos] == '/') {
+		    // single line comment (up to the end of the line)
+		    while (pos < len && buf[pos] != '\n')
+			pos++;
+		    lastWasCR = buf[pos - 1] == '\r';
+		    continue;
+		}
+		if (pos < len && buf[pos] == '*') {
+		    if (scanComment(start))
+			continue;
+		    return UNTERMINATED_COMMENT;
+		}
+		return punctuation(TokenIds.DIVIDE);
+	    case '"':
+		return scanString(start);
+	    case '0': case '1': case '2': case '3': case '4':
+	    case '5': case '6': case '7': case '8': case '9':
+		return scanNumber(start);
+	    case '_':
+		return illegalIdentifier();
+	    default:
+		if (c < 128 && CHAR_CLASS[c] != 0)
+		    return scanIdentifier(start);
+		break;
+	    }
+
+	    // no rule matches (the "." rule of lexer.jlex)
+	    throw new RuntimeException("Unmatched lexeme " + c + " at line " + yyline);
+	}
+    }
+
+    /** Read the current file into the buffer
+      * @throws IOException if the file can't be read
+      * */
+    private void load() throws IOException {
+	Reader reader = fileReaders[fileCnt];
+	char[] chars = new char[8192];
+	int n = 0;
+	try {
+	    int cnt;
+	    while ((cnt = reader.read(chars, n, chars.length - n)) != -1) {
+		n += cnt;
+		if (n == chars.length) {
+		    char[] bigger = new char[2 * chars.length];
+		    System.arraycopy(chars, 0, bigger, 0, n);
+		    chars = bigger;
+		}
+	    }
+	}
+	finally {
+	    reader.close();
+	}
+	buf = chars;
+	len = n;
+	pos = 0;
+	lastClose = -2;
+    }
+
+    /** Finish scanning a one or two character token
+      * @param id token id
+      * @return token type (the token id)
+      * */
+    private int punctuation(int id) {
+	lastWasCR = false;
+	return id;
+    }
+
+    /** Get the token id of a token type
+      * @param type token type
+      * @return token id
+      * */
+    static int getId(int type) {
+	return TYPE_IDS[type];
+    }
+
+    /** Does the token of a token type depend on its text? (only the tokens
+      * with an attribute that isn't a constant message, and boolean constants)
+      * @param type token type
+      * @return true if token() reads the text
+      * */
+    static boolean needsText(int type) {
+	return type == TokenIds.ID || type == TokenIds.STRING_CONST ||
+	    type == TokenIds.INT_CONST || type == TokenIds.BOOLEAN_CONST ||
+	    type == INT_TOO_BIG;
+    }
+
+    /** Create the token of a token type, from its text
+      * @param type token type
+      * @param text array holding the text of the token
+      * @param start position of the first character of the token
+      * @param end position after the last character of the token
+      * @param line line number of the token
+      * @param names table the identifiers and string constants are interned in
+      * @return the token
+      * */
+    static Token token(int type, char[] text, int start, int end, int line, NameTable names) {
+	switch (type) {
+	case TokenIds.ID:
+	    return new Token("ID", names.intern(text, start, end - start), line);
+	case TokenIds.STRING_CONST:
+	    return new Token("STRING_CONST", names.intern(text, start + 1, end - start - 2), line);
+	case TokenIds.INT_CONST:
+	    // leading zeros are stripped
+	    int digits = start;
+	    while (digits < end && text[digits] == '0')
+		digits++;
+	    String value = digits == end ? "0" : new String(text, digits, end - digits);
+	    return new Token("INT_CONST", value, line);
+	case TokenIds.BOOLEAN_CONST:
+	    return new Token(text[start] == 't' ? "TRUE" : "FALSE", line);
+	case INT_TOO_BIG:
+	    return new Token("LEX_ERROR", new String(text, start, end - start) +
+			     " int const too big: line " + line, line);
+	default:
+	    if (MESSAGES[type] != null)
+		return new Token("LEX_ERROR", MESSAGES[type], line);
+	    return new Token(TYPE_NAMES[type], line);
+	}
+    }
+
+    /** Get the contents of the file the last token was scanned from
+      * @return array holding the contents (valid until the next file is loaded)
+      * */
+    char[] getBuffer() {
+	return buf;
+    }
+
+    /** Get the position of the first character of the last token
+      * @return position in the buffer
+      * */
+    int getTokenStart() {
+	return tokenStart;
+    }
+
+    /** Get the position after the last character of the last token
+      * @return position in the buffer
+      * */
+    int getTokenEnd() {
+	return pos;
+    }
+
+    /** Get the number of the file the last token was scanned from
+      * @return file number (index of its filename)
+      * */
+    int getFileNum() {
+	return fileCnt;
+    }
+
+    /** Consume the next character if it is the expected one
+      * @param expected expected character
+      * @return true if the character was consumed
+      * */
+    private boolean next(char expected) {
+	if (pos < len && buf[pos] == expected) {
+	    pos++;
+	    return true;
+	}
+	return false;
+    }
+
+    /** Consume characters up to a position, counting lines (a line ends with
+      * a newline, a carriage return, or both)
+      * @param end position of the first character not consumed
+      * */
+    private void consume(int end) {
+	for (int i = pos; i < end; i++) {
+	    char c = buf[i];
+	    if (c == '\n' && !lastWasCR)
+		line++;
+	    if (c == '\r') {
+		line++;
+		lastWasCR = true;
+	    }
+	    else
+		lastWasCR = false;
+	}
+	pos = end;
+    }
+
+    /** Scan a multiline comment, or an unterminated one (the next characters
+      * are "/*")
+      * @param start position of the '/'
+      * @return true if the comment is terminated
+      * */
+    private boolean scanComment(int start) {
+	// a comment extends to the last "*/" of the file that follows at least
+	// one character that isn't a backslash
+	if (lastClose == -2) {
+	    lastClose = -1;
+	    for (int q = len - 2; q >= 1; q--) {
+		if (buf[q] == '*' && buf[q + 1] == '/' && buf[q - 1] != '\\') {
+		    lastClose = q;
+		    break;
+		}
+	    }
+	}
+	if (lastClose >= start + 3) {
+	    pos = start;
+	    consume(lastClose + 2);
+	    return true;
+	}
+
+	// unterminated: "/*" followed by characters other than ( * / )
+	int end = start + 2;
+	while (end < len) {
+	    char c = buf[end];
+	    if (c == '(' || c == '*' || c == '/' || c == ')')
+		break;
+	    end++;
+	}
+	pos = start;
+	consume(end);
+	return false;
+    }
+
+    /** Scan a string constant (or one of the string errors)
+      * @param start position of the opening quote
+      * @return token type
+      * */
+    private int scanString(int start) {
+	// first quote (closing) and first quote not preceded by a backslash
+	int close = -1;
+	int unescaped = len;
+	for (int i = start + 1; i < len; i++) {
+	    if (buf[i] == '"') {
+		if (close < 0)
+		    close = i;
+		if (buf[i - 1] != '\\') {
+		    unescaped = i;
+		    break;
+		}
+	    }
+	}
+
+	pos = start;
+	if (close < 0 || unescaped > close + 1) {
+	    // the quote is followed by characters in which every quote is escaped
+	    consume(unescaped);
+	    return UNTERMINATED_STRING;
+	}
+
+	consume(close + 1);
+	if (spansLines(start + 1, close)) {
+	    return MULTILINE_STRING;
+	}
+	if (unescaped == close + 1) {
+	    return UNTERMINATED_STRING;
+	}
+	if (hasIllegalEscape(start + 1, close)) {
+	    return ILLEGAL_ESCAPE;
+	}
+	if (close + 1 - start > MAX_STRING_SIZE) {
+	    return ILLEGAL_STRING_LENGTH;
+	}
+	return TokenIds.STRING_CONST;
+    }
+
+    /** Does the contents of a string constant contain a single (non-empty)
+      * run of newlines?
+      * @param from position of the first character of the contents
+      * @param to position after the last character of the contents
+      * @return true if the contents spans multiple lines
+      * */
+    private boolean spansLines(int from, int to) {
+	int i = from;
+	while (i < to && buf[i] != '\n')
+	    i++;
+	if (i == to)
+	    return false;
+	while (i < to && buf[i] == '\n')
+	    i++;
+	while (i < to && buf[i] != '\n')
+	    i++;
+	return i == to;
+    }
+
+    /** Does the first escape sequence of a string constant escape a character
+      * other than n, r, t, f, " and \? (i.e., the first run of backslashes has
+      * an odd length and is followed by such a character)
+      * @param from position of the first character of the contents
+      * @param to position after the last character of the contents
+      * @return true if the contents has an illegal escape character
+      * */
+    private boolean hasIllegalEscape(int from, int to) {
+	int i = from;
+	while (i < to && buf[i] != '\\')
+	    i++;
+	int run = 0;
+	while (i < to && buf[i] == '\\') {
+	    run++;
+	    i++;
+	}
+	if (run % 2 == 0 || i == to)
+	    return false;
+	char c = buf[i];
+	return c != 'n' && c != 'r' && c != 't' && c != 'f';
+    }
+
+    /** Scan an identifier or a keyword
+      * @param start position of the first character
+      * @return token type
+      * */
+    private int scanIdentifier(int start) {
+	while (pos < len && buf[pos] < 128 && (CHAR_CLASS[buf[pos]] & ID_CHAR) != 0)
+	    pos++;
+	lastWasCR = false;
+	int n = pos - start;
+	if (n >= 2 && n <= 10) {
+	    int h = keywordHash(buf[start], buf[pos - 1], n);
+	    String keyword = KEYWORDS[h];
+	    if (keyword != null && keyword.length() == n) {
+		int i = 0;
+		while (i < n && keyword.charAt(i) == buf[start + i])
+		    i++;
+		if (i == n)
+		    return KEYWORD_IDS[h];
+	    }
+	}
+	return TokenIds.ID;
+    }
+
+    /** Scan an illegal identifier ([0-9_][a-zA-Z0-9_]*) from the current position
+      * @return token type
+      * */
+    private int illegalIdentifier() {
+	while (pos < len && buf[pos] < 128 && (CHAR_CLASS[buf[pos]] & WORD_CHAR) != 0)
+	    pos++;
+	lastWasCR = false;
+	return ILLEGAL_IDENTIFIER;
+    }
+
+    /** Scan an integer constant (or one of the integer errors)
+      * @param start position of the first digit
+      * @return token type
+      * */
+    private int scanNumber(int start) {
+	// run of digits, its leading zeros, and run of identifier characters
+	int digitsEnd = start;
+	while (digitsEnd < len && buf[digitsEnd] >= '0' && buf[digitsEnd] <= '9')
+	    digitsEnd++;
+	int zeros = start;
+	while (zeros < digitsEnd && buf[zeros] == '0')
+	    zeros++;
+	int wordEnd = digitsEnd;
+	while (wordEnd < len && buf[wordEnd] < 128 && (CHAR_CLASS[buf[wordEnd]] & WORD_CHAR) != 0)
+	    wordEnd++;
+
+	// longest match of the integer rules (the "too big" rules come first,
+	// so they win ties); each rule starts with 0*, which takes the leading zeros
+	int e = digitsEnd - zeros;
+	int tooBigEnd = -1;
+	if (e >= 10) {
+	    if (buf[zeros] >= '3')
+		tooBigEnd = digitsEnd;
+	    else {
+		for (int r = 0; r < TOO_BIG_HIGH.length && tooBigEnd < 0; r++) {
+		    if (inRange(zeros, TOO_BIG_LOW[r], TOO_BIG_HIGH[r]))
+			tooBigEnd = zeros + 10;
+		}
+	    }
+	}
+	// INT_CONST rules: up to 10 digits, the first being 0 or 1 if there are
+	// 10 of them, or up to 10 digits each in the range of its position
+	int intEnd = zeros + (e >= 10 && buf[zeros] != '1' ? 9 : Math.min(e, 10));
+	intEnd = Math.max(intEnd, zeros + boundedPrefix(zeros, digitsEnd));
+
+	if (wordEnd > Math.max(tooBigEnd, intEnd)) {
+	    // longer as an (illegal) identifier
+	    pos = wordEnd;
+	    lastWasCR = false;
+	    return ILLEGAL_IDENTIFIER;
+	}
+	lastWasCR = false;
+	if (tooBigEnd >= intEnd) {
+	    pos = tooBigEnd;
+	    return INT_TOO_BIG;
+	}
+	pos = intEnd;
+	return TokenIds.INT_CONST;
+    }
+
+    /** Do the ten digits at a position lie within a pattern (digit by digit)?
+      * @param at position of the first digit
+      * @param low lower bound of each digit
+      * @param high upper bound of each digit
+      * @return true if each digit is within its bounds
+      * */
+    private boolean inRange(int at, String low, String high) {
+	for (int i = 0; i < 10; i++) {
+	    char c = buf[at + i];
+	    if (c < low.charAt(i) || c > high.charAt(i))
+		return false;
+	}
+	return true;
+    }
+
+    /** Length of the longest prefix of the digits that can be matched by the
+      * second INT_CONST rule, whose positions are optional and each accept
+      * digits up to a bound ("2", then "0-1", "0-4", "0-7", ...); digits are
+      * matched to the earliest position that accepts them
+      * @param from position of the first digit
+      * @param to position after the last digit
+      * @return length of the prefix
+      * */
+    private int boundedPrefix(int from, int to) {
+	int position = 0;
+	int i = from;
+	while (i < to && position < 10) {
+	    char c = buf[i];
+	    while (position < 10 && !(c <= INT_HIGH.charAt(position) &&
+				      (position > 0 || c == '2')))
+		position++;
+	    if (position == 10)
+		break;
+	    position++;
+	    i++;
+	}
+	return i - from;
+    }
+}
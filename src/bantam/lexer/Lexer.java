@@ -33,7 +33,7 @@ import bantam.parser.TokenIds;
 import java_cup.runtime.Symbol;
 
 
-public class Lexer implements java_cup.runtime.Scanner {
+public class Lexer implements BantamScanner {
 	private final int YY_BUFFER_SIZE = 512;
 	private final int YY_F = -1;
 	private final int YY_NO_STATE = -1;
@@ -58,7 +58,11 @@ public class Lexer implements java_cup.runtime.Scanner {
     /** array that holds the reader for each file we're lexing 
       * (used only when multipleFiles is true)
       * */
-    private java.io.BufferedReader[] fileReaders;
+    private java.io.Reader[] fileReaders;
+    /** table the identifiers and string constants are interned in
+      * (the table of the compilation the lexer is created in)
+      * */
+    private bantam.util.NameTable names = bantam.util.NameTable.getCurrent();
     /** current file number used to index filenames and fileReaders
       * (used only when multipleFiles is true)
       * */
@@ -69,6 +73,16 @@ public class Lexer implements java_cup.runtime.Scanner {
       * @param debug boolean indicating whether debugging is enabled
       * */
     public Lexer(String[] filenames, boolean debug) {
+	this(filenames, openFiles(filenames), debug);
+    }
+    /** Lexer constructor - defined in JLex specification file
+      * Needed to handle lexing multiple sources that are not (necessarily)
+      * stored in files, e.g., in-memory sources
+      * @param filenames list of filename strings (used for error reporting)
+      * @param readers list of readers, one for each filename
+      * @param debug boolean indicating whether debugging is enabled
+      * */
+    public Lexer(String[] filenames, java.io.Reader[] readers, boolean debug) {
 	// call private constructor, which does some initialization
 	this();
 	this.debug = debug;
@@ -81,25 +95,35 @@ public class Lexer implements java_cup.runtime.Scanner {
 	// check that there is at least one specified filename
 	if (filenames.length == 0)
 	    throw new RuntimeException("Must specify at least one filename to scan");
-	// must initialize readers for each file (BufferedReader)
-	fileReaders = new java.io.BufferedReader[filenames.length];
-	for (int i = 0; i < filenames.length; i++) {
-	    // try...catch checks if file is found
-	    try {
-		// create the ith file reader
-		fileReaders[i] = new java.io.BufferedReader(new java.io.FileReader(filenames[i]));
-	    }
-	    catch(java.io.FileNotFoundException e) {
-		// if file not found then report an error and exit
-		System.err.println("Error: file '" + filenames[i] + "' not found");
-		System.exit(1);
-	    }
-	}
+	if (readers.length != filenames.length)
+	    throw new RuntimeException("Must specify one reader for each filename");
+	// the readers are only wrapped into a BufferedReader (which JLex
+	// reads through) when the lexer reaches them
+	fileReaders = readers;
 	// set yy_reader (a JLex variable) to the first file reader
-	yy_reader = fileReaders[0];
+	yy_reader = buffered(fileReaders[0]);
 	// set yyline to 1 (as opposed to 0)
 	yyline = 1;
     }
+    /** create a reader for each file (used by the multiple file constructor);
+      * the files are only opened (and memory-mapped) when the lexer reaches
+      * them, so any number of files can be lexed
+      * @param filenames list of filename strings
+      * @return list of readers, one for each filename
+      * */
+    private static java.io.Reader[] openFiles(String[] filenames) {
+	// checks that every file exists (and stops compilation if one doesn't)
+	return MappedFileReader.openFiles(filenames);
+    }
+    /** wrap a reader into a BufferedReader (as JLex reads through one)
+      * @param reader the reader
+      * @return the buffered reader
+      * */
+    private static java.io.BufferedReader buffered(java.io.Reader reader) {
+	if (reader instanceof java.io.BufferedReader)
+	    return (java.io.BufferedReader)reader;
+	return new java.io.BufferedReader(reader);
+    }
     /** holds the current string constant
       * note: we use StringBuffer so that appending does not require constructing a new object 
       * */
@@ -736,8 +760,10 @@ public class Lexer implements java_cup.runtime.Scanner {
     // file (if there are more files to lex) or return EOF (if we're
     // at the file)
     if (multipleFiles && fileCnt < fileReaders.length - 1) {
-	// more files to lex so update yy_reader and yyline and then continue
-	yy_reader = fileReaders[++fileCnt];
+	// more files to lex so close the current file, update yy_reader
+	// and yyline and then continue
+	yy_reader.close();
+	yy_reader = buffered(fileReaders[++fileCnt]);
 	yyline = 1;
 	continue;
     }
@@ -803,7 +829,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 8:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -10:
 						break;
 					case 9:
@@ -919,7 +945,7 @@ public class Lexer implements java_cup.runtime.Scanner {
                 "String constant of illegal length", yyline));
     } else {
         return new Symbol(TokenIds.STRING_CONST, new Token("STRING_CONST",
-        yytext().substring(1,yytext().length()-1), yyline));
+        names.intern(yytext().substring(1,yytext().length()-1)), yyline));
     }
 }
 					case -35:
@@ -1088,7 +1114,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 64:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -65:
 						break;
 					case 65:
@@ -1125,7 +1151,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 71:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -71:
 						break;
 					case 72:
@@ -1144,7 +1170,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 75:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -74:
 						break;
 					case 76:
@@ -1163,7 +1189,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 79:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -77:
 						break;
 					case 80:
@@ -1182,7 +1208,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 83:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -80:
 						break;
 					case 84:
@@ -1201,7 +1227,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 86:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -83:
 						break;
 					case 87:
@@ -1220,7 +1246,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 89:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -86:
 						break;
 					case 90:
@@ -1239,7 +1265,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 92:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -89:
 						break;
 					case 93:
@@ -1258,7 +1284,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 95:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -92:
 						break;
 					case 96:
@@ -1277,7 +1303,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 98:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -95:
 						break;
 					case 99:
@@ -1296,7 +1322,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 101:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -98:
 						break;
 					case 102:
@@ -1315,7 +1341,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 104:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -101:
 						break;
 					case 105:
@@ -1334,7 +1360,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 107:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -104:
 						break;
 					case 108:
@@ -1346,7 +1372,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 109:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -106:
 						break;
 					case 110:
@@ -1358,7 +1384,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 111:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -108:
 						break;
 					case 112:
@@ -1370,7 +1396,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 113:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -110:
 						break;
 					case 114:
@@ -1382,7 +1408,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 115:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -112:
 						break;
 					case 116:
@@ -1394,7 +1420,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 117:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -114:
 						break;
 					case 118:
@@ -1406,7 +1432,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 119:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -116:
 						break;
 					case 120:
@@ -1418,7 +1444,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 121:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -118:
 						break;
 					case 122:
@@ -1430,7 +1456,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 123:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -120:
 						break;
 					case 124:
@@ -1442,7 +1468,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 125:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -122:
 						break;
 					case 126:
@@ -1454,7 +1480,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 127:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -124:
 						break;
 					case 128:
@@ -1466,7 +1492,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 129:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -126:
 						break;
 					case 130:
@@ -1478,7 +1504,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 131:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -128:
 						break;
 					case 132:
@@ -1490,7 +1516,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 133:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -130:
 						break;
 					case 134:
@@ -1502,7 +1528,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 135:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -132:
 						break;
 					case 136:
@@ -1514,7 +1540,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 137:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -134:
 						break;
 					case 138:
@@ -1526,22 +1552,22 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 139:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -136:
 						break;
 					case 140:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -137:
 						break;
 					case 141:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -138:
 						break;
 					case 142:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -139:
 						break;
 					case 143:
@@ -1574,7 +1600,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 147:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -144:
 						break;
 					case 148:
@@ -1586,7 +1612,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 149:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -146:
 						break;
 					case 150:
@@ -1598,7 +1624,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 151:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -148:
 						break;
 					case 152:
@@ -1610,7 +1636,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 153:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -150:
 						break;
 					case 154:
@@ -1622,7 +1648,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 155:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -152:
 						break;
 					case 156:
@@ -1655,7 +1681,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 160:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -157:
 						break;
 					case 161:
@@ -1667,7 +1693,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 162:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -159:
 						break;
 					case 163:
@@ -1686,7 +1712,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 165:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -162:
 						break;
 					case 166:
@@ -1705,7 +1731,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 168:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -165:
 						break;
 					case 169:
@@ -1717,7 +1743,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 170:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -167:
 						break;
 					case 171:
@@ -1729,7 +1755,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 172:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -169:
 						break;
 					case 173:
@@ -1741,7 +1767,7 @@ public class Lexer implements java_cup.runtime.Scanner {
 						break;
 					case 174:
 						{ return new Symbol(TokenIds.ID,
-                                new Token("ID", yytext(),yyline));}
+                                new Token("ID", names.intern(yytext()),yyline));}
 					case -171:
 						break;
 					case 175:
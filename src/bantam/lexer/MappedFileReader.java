@@ -0,0 +1,189 @@
+/*
+ * File: MappedFileReader.java
+ * Date: 10/18/26
+ */
+
+package bantam.lexer;
+
+import bantam.util.CompilationException;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/** The <tt>MappedFileReader</tt> class reads a source file through a memory
+  * mapping.  The file is only opened when it is first read, and its channel
+  * is closed as soon as the file is mapped, so a lexer can be given any
+  * number of input files without running out of file descriptors, and only
+  * the files that are being read take up memory.
+  * <p/>
+  * Characters are decoded with the platform's default charset, as with a
+  * <tt>FileReader</tt>.  ASCII bytes, which source files are normally made of,
+  * are copied directly into the caller's buffer; the rest of the file is
+  * decoded by the charset's decoder from the first non-ASCII byte on.
+  * */
+public class MappedFileReader extends Reader {
+    /** charset used for decoding (the platform's default charset) */
+    private static final Charset CHARSET = Charset.defaultCharset();
+    /** boolean indicating whether the charset encodes ASCII characters as
+      * single bytes of the same value (which allows the ASCII fast path)
+      * */
+    private static final boolean ASCII_COMPATIBLE = isAsciiCompatible(CHARSET);
+
+    /** name of the file */
+    private String filename;
+    /** mapped contents of the file (null until the file is first read) */
+    private ByteBuffer bytes;
+    /** decoded rest of the file once a non-ASCII byte has been read (null before) */
+    private CharBuffer chars;
+    /** boolean indicating whether the reader has been closed */
+    private boolean closed = false;
+
+    /** MappedFileReader constructor (doesn't open the file)
+      * @param filename name of the file
+      * */
+    public MappedFileReader(String filename) {
+	this.filename = filename;
+    }
+
+    /** Create a reader for each file, checking that the files exist
+      * (without opening them)
+      * @param filenames list of filename strings
+      * @return list of readers, one for each filename
+      * @throws CompilationException if a file doesn't exist
+      * */
+    public static Reader[] openFiles(String[] filenames) {
+	Reader[] readers = new Reader[filenames.length];
+	for (int i = 0; i < filenames.length; i++) {
+	    File file = new File(filenames[i]);
+	    if (!file.isFile() || !file.canRead()) {
+		// if file not found then report an error and stop compilation
+		throw new CompilationException(
+			"Error: file '" + filenames[i] + "' not found", 1);
+	    }
+	    readers[i] = new MappedFileReader(filenames[i]);
+	}
+	return readers;
+    }
+
+    /** Read characters into a portion of an array
+      * @param cbuf destination buffer
+      * @param off offset at which to start storing characters
+      * @param len maximum number of characters to read
+      * @return number of characters read, or -1 at the end of the file
+      * @throws IOException if the file can't be read or the reader is closed
+      * */
+    public int read(char[] cbuf, int off, int len) throws IOException {
+	if (off < 0 || len < 0 || len > cbuf.length - off)
+	    throw new IndexOutOfBoundsException();
+	if (bytes == null)
+	    map();
+	if (len == 0)
+	    return 0;
+
+	int n = 0;
+	if (chars == null) {
+	    // fast path: copy ASCII bytes up to the first non-ASCII byte
+	    int limit = Math.min(len, bytes.remaining());
+	    int pos = bytes.position();
+	    if (ASCII_COMPATIBLE) {
+		while (n < limit) {
+		    byte b = bytes.get(pos + n);
+		    if (b < 0)
+			break;
+		    cbuf[off + n] = (char)b;
+		    n++;
+		}
+		bytes.position(pos + n);
+	    }
+	    if (n < limit) {
+		// decode the rest of the file with the charset
+		chars = CHARSET.newDecoder()
+		    .onMalformedInput(CodingErrorAction.REPLACE)
+		    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+		    .decode(bytes);
+	    }
+	    else if (n == 0)
+		return -1;
+	}
+	if (chars != null) {
+	    int m = Math.min(len - n, chars.remaining());
+	    chars.get(cbuf, off + n, m);
+	    n += m;
+	    if (n == 0)
+		return -1;
+	}
+	return n;
+    }
+
+    /** Tell whether the reader can be read without blocking (always true
+      * once the file is mapped)
+      * @return true if the file is mapped
+      * @throws IOException if the reader is closed
+      * */
+    public boolean ready() throws IOException {
+	if (closed)
+	    throw new IOException("Stream closed");
+	return bytes != null;
+    }
+
+    /** Close the reader and release the mapping
+      * */
+    public void close() {
+	closed = true;
+	bytes = null;
+	chars = null;
+    }
+
+    /** Map the file (the channel is closed once the file is mapped)
+      * @throws IOException if the file can't be opened or mapped
+      * */
+    private void map() throws IOException {
+	if (closed)
+	    throw new IOException("Stream closed");
+	FileChannel channel;
+	try {
+	    channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+	}
+	catch(NoSuchFileException e) {
+	    throw new FileNotFoundException(filename);
+	}
+	try {
+	    long size = channel.size();
+	    if (size > Integer.MAX_VALUE)
+		throw new IOException("file '" + filename + "' is too large");
+	    bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+	}
+	finally {
+	    channel.close();
+	}
+    }
+
+    /** Does a charset encode every ASCII character as a single byte of the
+      * same value?
+      * @param charset the charset
+      * @return true if the charset is ASCII compatible
+      * */
+    private static boolean isAsciiCompatible(Charset charset) {
+	char[] ascii = new char[128];
+	for (int c = 0; c < 128; c++)
+	    ascii[c] = (char)c;
+	ByteBuffer encoded = charset.encode(CharBuffer.wrap(ascii));
+	if (encoded.remaining() != 128)
+	    return false;
+	for (int c = 0; c < 128; c++) {
+	    if (encoded.get(c) != c)
+		return false;
+	}
+	return true;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * File: PipelinedScanner.java
+ * Date: 10/18/26
+ */
+
+package bantam.lexer;
+
+import bantam.parser.TokenIds;
+import java_cup.runtime.Symbol;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/** The <tt>PipelinedScanner</tt> class runs a scanner (a <tt>Lexer</tt> or
+  * a <tt>FastLexer</tt>) ahead of the parser on a thread of its own, so that
+  * reading, decoding and scanning the source files overlap with parsing.
+  * The lexer thread puts the tokens into a bounded ring buffer, along with
+  * the line number and file name the scanner was at after returning each
+  * token, and the parser takes them out in order through
+  * <tt>next_token</tt>; the current line number and file name are then
+  * those of the last token taken out, as if the parser pulled the tokens
+  * from the scanner itself.
+  * <p/>
+  * The ring buffer has a single producer and a single consumer, so it needs
+  * no locks: each side only writes its own index (with an ordered store,
+  * after writing or reading the slot) and reads the other side's index again
+  * only once it has caught up with the value it last read.  A side that
+  * finds the buffer full (or empty) spins briefly, then yields, then parks
+  * for short periods, so a single processor still makes progress.
+  * <p/>
+  * The lexer thread is started by the first call to <tt>next_token</tt> and
+  * stops after the EOF token, after an exception (which <tt>next_token</tt>
+  * then throws, once the tokens before it are taken out), or when the
+  * scanner is closed.  Since the parser may stop early (on a syntax error),
+  * the scanner should be closed once parsing is done.
+  * */
+public class PipelinedScanner implements BantamScanner {
+    /** default number of tokens the lexer thread can run ahead */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /** index (in indices) of the number of tokens taken out */
+    private static final int HEAD = 8;
+    /** index (in indices) of the number of tokens put in (the two counts are
+      * 128 bytes apart, so the threads don't write to the same cache line) */
+    private static final int TAIL = 24;
+
+    /** scanner run by the lexer thread */
+    private BantamScanner lexer;
+    /** symbols of the tokens (null for the exception ending the tokens) */
+    private Symbol[] symbols;
+    /** line number of the scanner after returning each token */
+    private int[] lineNums;
+    /** file name of the scanner after returning each token */
+    private String[] filenames;
+    /** capacity of the ring buffer minus one (the capacity is a power of 2) */
+    private int mask;
+    /** counts of the tokens taken out and put in */
+    private AtomicLongArray indices = new AtomicLongArray(32);
+    /** exception that stopped the lexer thread (read once its marker is taken out) */
+    private Throwable failure = null;
+    /** boolean indicating whether the scanner was closed */
+    private volatile boolean closed = false;
+    /** lexer thread (null until the first token is requested) */
+    private Thread thread = null;
+
+    /** number of tokens taken out (consumer side) */
+    private long head = 0;
+    /** number of tokens put in, as last read by the consumer */
+    private long availableTail = 0;
+    /** last symbol taken out (the EOF token is returned again after it) */
+    private Symbol last = null;
+    /** line number of the last token taken out */
+    private int currLineNum;
+    /** file name of the last token taken out */
+    private String currFilename;
+
+    /** PipelinedScanner constructor
+      * @param lexer scanner run ahead of the parser (only used by the
+      * lexer thread from now on)
+      * */
+    public PipelinedScanner(BantamScanner lexer) {
+	this(lexer, DEFAULT_CAPACITY);
+    }
+
+    /** PipelinedScanner constructor
+      * @param lexer scanner run ahead of the parser (only used by the
+      * lexer thread from now on)
+      * @param capacity number of tokens the lexer thread can run ahead
+      * (rounded up to a power of 2)
+      * */
+    public PipelinedScanner(BantamScanner lexer, int capacity) {
+	this.lexer = lexer;
+	int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+	symbols = new Symbol[size];
+	lineNums = new int[size];
+	filenames = new String[size];
+	mask = size - 1;
+	currLineNum = lexer.getCurrLineNum();
+	currFilename = lexer.getCurrFilename();
+    }
+
+    /** Return the next token (EOF again once the EOF token was returned)
+      * @return symbol holding the token
+      * @throws Exception if the scanner failed
+      * */
+    public Symbol next_token() throws Exception {
+	// a new symbol each time, as the parser checks that it doesn't get a
+	// symbol twice
+	if (last != null && last.sym == TokenIds.EOF)
+	    return new Symbol(TokenIds.EOF, last.value);
+	if (thread == null)
+	    start();
+	if (head == availableTail) {
+	    // caught up: wait for the lexer thread
+	    for (int attempts = 0; (availableTail = indices.get(TAIL)) == head; attempts++)
+		pause(attempts);
+	}
+	int slot = (int)head & mask;
+	Symbol symbol = symbols[slot];
+	if (symbol == null)
+	    rethrow(failure);
+	currLineNum = lineNums[slot];
+	currFilename = filenames[slot];
+	symbols[slot] = null;
+	indices.lazySet(HEAD, ++head);
+	last = symbol;
+	return symbol;
+    }
+
+    /** Stop the lexer thread (if it is still running)
+      * */
+    public void close() {
+	closed = true;
+    }
+
+    /** getter method for accessing the current line number
+      * @return line number of the last token returned
+      * */
+    public int getCurrLineNum() {
+	return currLineNum;
+    }
+
+    /** getter method for accessing the current file name
+      * @return file name of the last token returned
+      * */
+    public String getCurrFilename() {
+	return currFilename;
+    }
+
+    /** print tokens - used primarily for debugging the bantam.lexer
+      * (the scanner prints them itself, unless tokens were requested already)
+      * @throws java.io.IOException if a source file can't be read
+      * */
+    public void printTokens() throws java.io.IOException {
+	if (thread != null)
+	    throw new IllegalStateException("tokens were already requested");
+	lexer.printTokens();
+    }
+
+    /** Start the lexer thread
+      * */
+    private void start() {
+	thread = new Thread(new Runnable() {
+		public void run() {
+		    produce();
+		}
+	    }, "lexer");
+	thread.setDaemon(true);
+	thread.start();
+    }
+
+    /** Put the tokens of the scanner into the ring buffer (run by the lexer
+      * thread), until the EOF token or an exception
+      * */
+    private void produce() {
+	long tail = 0;
+	long availableHead = 0;
+	while (true) {
+	    Symbol symbol;
+	    try {
+		symbol = lexer.next_token();
+	    }
+	    catch(Throwable t) {
+		failure = t;
+		symbol = null;
+	    }
+	    if (tail - availableHead == symbols.length) {
+		// full: wait for the parser
+		for (int attempts = 0; tail - (availableHead = indices.get(HEAD)) == symbols.length;
+		     attempts++) {
+		    if (closed)
+			return;
+		    pause(attempts);
+		}
+	    }
+	    int slot = (int)tail & mask;
+	    symbols[slot] = symbol;
+	    if (symbol != null) {
+		lineNums[slot] = lexer.getCurrLineNum();
+		filenames[slot] = lexer.getCurrFilename();
+	    }
+	    indices.lazySet(TAIL, ++tail);
+	    if (symbol == null || symbol.sym == TokenIds.EOF || closed)
+		return;
+	}
+    }
+
+    /** Wait for the other thread (spin, then yield, then park)
+      * @param attempts number of times the caller waited already
+      * */
+    private static void pause(int attempts) {
+	if (attempts < 64)
+	    return;
+	if (attempts < 128)
+	    Thread.yield();
+	else
+	    LockSupport.parkNanos(10000);
+    }
+
+    /** Throw the exception that stopped the lexer thread
+      * @param t the exception
+      * @throws Exception the exception (errors are thrown as is)
+      * */
+    private static void rethrow(Throwable t) throws Exception {
+	if (t instanceof Error)
+	    throw (Error)t;
+	throw (Exception)t;
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * File: TokenBuffer.java
+ * Date: 10/18/26
+ */
+
+package bantam.lexer;
+
+import bantam.parser.TokenIds;
+import bantam.util.NameTable;
+import java_cup.runtime.Symbol;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Hashtable;
+
+/** The <tt>TokenBuffer</tt> class holds the tokens of one or more source
+  * files in compact parallel arrays: the type, start offset and length of
+  * each token (6 bytes per token, as lengths of 255 characters or more are
+  * kept aside), the line numbers of the tokens (run-length encoded, with one
+  * entry for each line holding tokens), plus the contents of the files (one
+  * byte per character unless a file has characters beyond Latin-1).
+  * The files are scanned once (by a <tt>FastLexer</tt>) when the buffer is
+  * created, and the tokens can then be read any number of times through
+  * scanners returned by <tt>newScanner</tt>, e.g., by a <tt>Parser</tt>.  A
+  * scanner only creates the <tt>Symbol</tt> and <tt>Token</tt> of a token
+  * when the token is read, so at most the tokens the parser holds on to are
+  * objects, instead of one <tt>Symbol</tt>, one <tt>Token</tt> and often one
+  * attribute string per token.
+  * <p/>
+  * If scanning stopped on an unmatched lexeme, the scanners throw the same
+  * exception when they reach it, as the lexer would have.
+  * */
+public class TokenBuffer {
+    /** names of the files */
+    private String[] filenames;
+    /** contents of the files (null for files without tokens and for the
+      * files held in latin1Sources) */
+    private char[][] sources;
+    /** contents of the files made of Latin-1 characters only, one byte per
+      * character (null for the other files) */
+    private byte[][] latin1Sources;
+    /** index of the first token of each file */
+    private int[] fileStarts;
+    /** table the identifiers and string constants are interned in */
+    private NameTable names;
+
+    /** token types (see FastLexer.scan) */
+    private byte[] types = new byte[1024];
+    /** start offsets of the tokens within their file */
+    private int[] starts = new int[1024];
+    /** lengths of the tokens (LONG for lengths of 255 or more) */
+    private byte[] lengths = new byte[1024];
+    /** marker of the lengths held in longLengths */
+    private static final int LONG = 255;
+    /** lengths of 255 or more, indexed by token */
+    private Hashtable<Integer, Integer> longLengths = new Hashtable<Integer, Integer>();
+    /** index of the first token of each run of tokens on the same line */
+    private int[] lineStarts = new int[256];
+    /** line number of each run of tokens */
+    private int[] lineNums = new int[256];
+    /** number of runs of tokens on the same line */
+    private int numLines = 0;
+    /** number of tokens (the last one is EOF unless scanning failed) */
+    private int size = 0;
+    /** exception that stopped scanning (null if the end of the last file was reached) */
+    private RuntimeException failure = null;
+
+    /** TokenBuffer constructor (scans the files)
+      * @param filenames list of filename strings
+      * @throws IOException if a file can't be read
+      * */
+    public TokenBuffer(String[] filenames) throws IOException {
+	this(filenames, MappedFileReader.openFiles(filenames));
+    }
+
+    /** TokenBuffer constructor (scans the sources, which are not necessarily
+      * stored in files, e.g., in-memory sources)
+      * @param filenames list of filename strings (used for error reporting)
+      * @param readers list of readers, one for each filename
+      * @throws IOException if a source can't be read
+      * */
+    public TokenBuffer(String[] filenames, Reader[] readers) throws IOException {
+	this.filenames = filenames;
+	FastLexer lexer = new FastLexer(filenames, readers, false);
+	names = NameTable.getCurrent();
+	sources = new char[filenames.length][];
+	fileStarts = new int[filenames.length];
+	int fileNum = -1;
+	try {
+	    while (true) {
+		int type = lexer.scan();
+		// record the files (including those without tokens) up to this one
+		while (fileNum < lexer.getFileNum())
+		    fileStarts[++fileNum] = size;
+		sources[fileNum] = lexer.getBuffer();
+		add(type, lexer.getTokenStart(), lexer.getTokenEnd(), lexer.getCurrLineNum());
+		if (type == TokenIds.EOF)
+		    break;
+	    }
+	}
+	catch(RuntimeException e) {
+	    // an unmatched lexeme: thrown again when a scanner gets there
+	    failure = e;
+	}
+	// files that weren't reached have no tokens
+	while (fileNum < filenames.length - 1)
+	    fileStarts[++fileNum] = size;
+	// only keep the contents up to the end of the last token of each file
+	// (as bytes if they are Latin-1 characters)
+	latin1Sources = new byte[sources.length][];
+	for (int i = 0; i < sources.length; i++) {
+	    int last = (i + 1 < fileStarts.length ? fileStarts[i + 1] : size) - 1;
+	    if (sources[i] != null && last >= 0)
+		compact(i, starts[last] + getLength(last));
+	}
+	types = Arrays.copyOf(types, size);
+	starts = Arrays.copyOf(starts, size);
+	lengths = Arrays.copyOf(lengths, size);
+	lineStarts = Arrays.copyOf(lineStarts, numLines);
+	lineNums = Arrays.copyOf(lineNums, numLines);
+    }
+
+    /** Add a token
+      * @param type token type
+      * @param start position of the first character of the token
+      * @param end position after the last character of the token
+      * @param line line number of the token
+      * */
+    private void add(int type, int start, int end, int line) {
+	if (size == types.length) {
+	    types = Arrays.copyOf(types, 2 * size);
+	    starts = Arrays.copyOf(starts, 2 * size);
+	    lengths = Arrays.copyOf(lengths, 2 * size);
+	}
+	types[size] = (byte)type;
+	starts[size] = start;
+	if (end - start < LONG)
+	    lengths[size] = (byte)(end - start);
+	else {
+	    lengths[size] = (byte)LONG;
+	    longLengths.put(size, end - start);
+	}
+	if (numLines == 0 || lineNums[numLines - 1] != line) {
+	    if (numLines == lineStarts.length) {
+		lineStarts = Arrays.copyOf(lineStarts, 2 * numLines);
+		lineNums = Arrays.copyOf(lineNums, 2 * numLines);
+	    }
+	    lineStarts[numLines] = size;
+	    lineNums[numLines] = line;
+	    numLines++;
+	}
+	size++;
+    }
+
+    /** Trim the contents of a file, storing them as bytes if possible
+      * @param fileNum file number
+      * @param length number of characters to keep
+      * */
+    private void compact(int fileNum, int length) {
+	char[] source = sources[fileNum];
+	for (int i = 0; i < length; i++) {
+	    if (source[i] > 0xFF) {
+		sources[fileNum] = Arrays.copyOf(source, length);
+		return;
+	    }
+	}
+	byte[] bytes = new byte[length];
+	for (int i = 0; i < length; i++)
+	    bytes[i] = (byte)source[i];
+	latin1Sources[fileNum] = bytes;
+	sources[fileNum] = null;
+    }
+
+    /** Get the number of tokens (including the EOF token)
+      * @return number of tokens
+      * */
+    public int getSize() {
+	return size;
+    }
+
+    /** Get the token id of a token
+      * @param index index of the token
+      * @return token id
+      * */
+    public int getId(int index) {
+	return FastLexer.getId(types[index]);
+    }
+
+    /** Get the line number of a token
+      * @param index index of the token
+      * @return line number
+      * */
+    public int getLineNum(int index) {
+	int run = Arrays.binarySearch(lineStarts, index);
+	return lineNums[run >= 0 ? run : -run - 2];
+    }
+
+    /** Get the length of a token
+      * @param index index of the token
+      * @return number of characters of the token
+      * */
+    public int getLength(int index) {
+	int length = lengths[index] & 0xFF;
+	if (length == LONG)
+	    return longLengths.get(index);
+	return length;
+    }
+
+    /** Get the start offset of a token
+      * @param index index of the token
+      * @return position of the first character of the token within its file
+      * */
+    public int getStart(int index) {
+	return starts[index];
+    }
+
+    /** Get the number of the file a token belongs to
+      * @param index index of the token
+      * @return file number (index of its filename)
+      * */
+    public int getFileNum(int index) {
+	int fileNum = Arrays.binarySearch(fileStarts, index);
+	if (fileNum < 0)
+	    return -fileNum - 2;
+	// files without tokens have the same start as the next file
+	while (fileNum < fileStarts.length - 1 && fileStarts[fileNum + 1] == index)
+	    fileNum++;
+	return fileNum;
+    }
+
+    /** Create the token at an index
+      * @param index index of the token
+      * @return the token
+      * */
+    public Token getToken(int index) {
+	return token(index, getFileNum(index), getLineNum(index), names);
+    }
+
+    /** Create the token at an index
+      * @param index index of the token
+      * @param fileNum number of the file of the token
+      * @param line line number of the token
+      * @param names table the identifiers and string constants are interned in
+      * @return the token
+      * */
+    private Token token(int index, int fileNum, int line, NameTable names) {
+	int start = starts[index];
+	int length = getLength(index);
+	if (latin1Sources[fileNum] == null)
+	    return FastLexer.token(types[index], sources[fileNum], start, start + length, line, names);
+	char[] text = null;
+	if (FastLexer.needsText(types[index])) {
+	    byte[] bytes = latin1Sources[fileNum];
+	    text = new char[length];
+	    for (int i = 0; i < length; i++)
+		text[i] = (char)(bytes[start + i] & 0xFF);
+	}
+	return FastLexer.token(types[index], text, 0, length, line, names);
+    }
+
+    /** Get the number of bytes held by the buffer (the token arrays and the
+      * contents of the files)
+      * @return number of bytes (not counting object headers)
+      * */
+    public long getNumBytes() {
+	long bytes = size * (1L + 4 + 1) + 8L * numLines + 4L * fileStarts.length;
+	// a hash table entry takes about 64 bytes
+	bytes += 64L * longLengths.size();
+	for (int i = 0; i < sources.length; i++) {
+	    if (sources[i] != null)
+		bytes += 2L * sources[i].length;
+	    if (latin1Sources[i] != null)
+		bytes += latin1Sources[i].length;
+	}
+	return bytes;
+    }
+
+    /** Create a scanner returning the tokens of the buffer (from the first one)
+      * @return the scanner
+      * */
+    public BantamScanner newScanner() {
+	return new BufferScanner(0, size, names);
+    }
+
+    /** Create a scanner returning a range of the tokens of the buffer,
+      * e.g., the tokens of one class.  The token following the range is
+      * returned as the EOF token (with the position of that token, so the
+      * scanner is where a scanner over all the tokens would be), unless the
+      * range reaches the end of the buffer.
+      * @param start index of the first token
+      * @param end index after the last token
+      * @return the scanner
+      * */
+    public BantamScanner newScanner(int start, int end) {
+	return new BufferScanner(start, end, names);
+    }
+
+    /** Create a scanner returning a range of the tokens of the buffer, whose
+      * names are interned in a given table (e.g., the shared view of the
+      * buffer's table, for scanners read on several threads at once)
+      * @param start index of the first token
+      * @param end index after the last token
+      * @param names table the identifiers and string constants are interned in
+      * @return the scanner
+      * */
+    public BantamScanner newScanner(int start, int end, NameTable names) {
+	return new BufferScanner(start, end, names);
+    }
+
+    /** Get the table the identifiers and string constants are interned in
+      * @return the name table (the current one of the thread that created
+      * the buffer)
+      * */
+    public NameTable getNameTable() {
+	return names;
+    }
+
+    /** Scanner over the tokens of the buffer
+      * */
+    private class BufferScanner implements BantamScanner {
+	/** index of the next token */
+	private int next;
+	/** index after the last token (the token there is returned as EOF) */
+	private int end;
+	/** file number of the last token returned */
+	private int fileNum = 0;
+	/** run of tokens on the same line of the last token returned (-1 if none) */
+	private int run = -1;
+	/** table the identifiers and string constants are interned in */
+	private NameTable names;
+
+	/** BufferScanner constructor
+	  * @param start index of the first token
+	  * @param end index after the last token
+	  * @param names table the identifiers and string constants are interned in
+	  * */
+	BufferScanner(int start, int end, NameTable names) {
+	    this.next = start;
+	    this.end = end;
+	    this.names = names;
+	    // start where a scanner that returned the tokens before start is
+	    if (start > 0) {
+		fileNum = getFileNum(start - 1);
+		int r = Arrays.binarySearch(lineStarts, start - 1);
+		run = r >= 0 ? r : -r - 2;
+	    }
+	}
+
+	/** Return the next token (EOF again once the EOF token was returned)
+	  * @return symbol holding the token
+	  * */
+	public Symbol next_token() {
+	    if (next == size)
+		throw failure;
+	    int index = next;
+	    if (types[index] != TokenIds.EOF && index < end)
+		next++;
+	    // the tokens are read in order, so the file and line runs only move forward
+	    while (fileNum < fileStarts.length - 1 && fileStarts[fileNum + 1] <= index)
+		fileNum++;
+	    while (run < numLines - 1 && lineStarts[run + 1] <= index)
+		run++;
+	    return new Symbol(index < end ? getId(index) : TokenIds.EOF,
+			      token(index, fileNum, lineNums[run], names));
+	}
+
+	/** getter method for accessing the current line number
+	  * @return current line number
+	  * */
+	public int getCurrLineNum() {
+	    return run < 0 ? 1 : lineNums[run];
+	}
+
+	/** getter method for accessing the current file name
+	  * @return current filename string
+	  * */
+	public String getCurrFilename() {
+	    return filenames[fileNum];
+	}
+
+	/** print tokens - used primarily for debugging the bantam.lexer
+	  * */
+	public void printTokens() {
+	    int prevFileNum = -1;
+	    while (true) {
+		Symbol symbol = next_token();
+		if (prevFileNum != fileNum) {
+		    System.out.println("# " + filenames[fileNum]);
+		    prevFileNum = fileNum;
+		}
+		System.out.println((Token)symbol.value);
+		if (symbol.sym == TokenIds.EOF)
+		    break;
+	    }
+	}
+    }
+}
@@ -51,7 +51,7 @@ public class Optimizer {
 
     /** Ordered list of class tree nodes (in depth-first order).
       * Will need to add class tree nodes to this list. */
-    private static Vector<ClassTreeNode> orderedClassList = new Vector<ClassTreeNode>();
+    private Vector<ClassTreeNode> orderedClassList = new Vector<ClassTreeNode>();
 
     /** Optimizer constructor
       * @param root root of the class hierarchy tree
@@ -81,6 +81,57 @@ public class Optimizer {
 	// add code below...
     }
 
+    /** Get the number of basic blocks in the control flow graphs
+      * (only meaningful after the program has been optimized)
+      * @return number of basic blocks
+      * */
+    public int getNumBasicBlocks() {
+	return countCFG(false);
+    }
+
+    /** Get the number of TAC instructions in the control flow graphs
+      * (only meaningful after the program has been optimized)
+      * @return number of TAC instructions
+      * */
+    public int getNumInsns() {
+	return countCFG(true);
+    }
+
+    /** Count the basic blocks or instructions in the control flow graphs
+      * of the initialization subroutines and the (non-builtin) methods
+      * @param insns count instructions (true) or basic blocks (false)
+      * @return the count
+      * */
+    private int countCFG(boolean insns) {
+	int cnt = 0;
+	for (int i = 0; i < orderedClassList.size(); i++) {
+	    // get the next class tree node and its method symbol table
+	    ClassTreeNode ctn = orderedClassList.elementAt(i);
+	    SymbolTable st = ctn.getMethodSymbolTable();
+
+	    // collect the entrance blocks of the init subroutine and the methods
+	    Vector<BasicBlock> entrances = new Vector<BasicBlock>();
+	    entrances.add((BasicBlock)st.lookup(ctn.getName() + "_init"));
+	    if (!ctn.isBuiltIn()) {
+		Iterator iter = ctn.getASTNode().getMemberList().iterator();
+		while (iter.hasNext()) {
+		    Member m = (Member)iter.next();
+		    if (m instanceof Method)
+			entrances.add((BasicBlock)st.lookup(ctn.getName() + "." +
+							    ((Method)m).getName()));
+		}
+	    }
+
+	    // count the blocks (or instructions) of each control flow graph
+	    for (BasicBlock entrance : entrances) {
+		Iterator<BasicBlock> blocks = entrance.getOrderedBlocks();
+		while (blocks.hasNext())
+		    cnt += insns ? blocks.next().getNumInsn() : 1;
+	    }
+	}
+	return cnt;
+    }
+
     /** Print out program
       * */
     public void print() {
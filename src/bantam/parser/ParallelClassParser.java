@@ -0,0 +1,286 @@
+/*
+ * File: ParallelClassParser.java
+ * Date: 10/18/26
+ */
+
+package bantam.parser;
+
+import bantam.ast.ASTNode;
+import bantam.ast.ClassList;
+import bantam.ast.Program;
+import bantam.lexer.BantamScanner;
+import bantam.lexer.TokenBuffer;
+import bantam.util.CompilationException;
+import bantam.util.NameTable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The <tt>ParallelClassParser</tt> class parses the top-level classes of a
+ * <tt>TokenBuffer</tt> in parallel, so that a file holding many classes
+ * isn't parsed by a single task (as with <tt>ParallelParser</tt>, which
+ * parses each file as a whole).
+ * <p/>
+ * A pre-pass over the token ids splits the tokens into slices, each starting
+ * at a <tt>class</tt> token outside of any braces (the first slice starts at
+ * the first token, so stray tokens before the first class are kept).  Each
+ * slice is parsed on its own, by a <tt>Parser</tt> (or an <tt>RDParser</tt>)
+ * reading the slice through <tt>TokenBuffer.newScanner(start, end, names)</tt>,
+ * which returns the token following the slice as the end of the input.  The
+ * scanner is then where a scanner over the whole input would be, so the
+ * classes get the same line numbers and file names, and a syntax error
+ * reaching the end of a slice is reported at the same token, as when the
+ * tokens are parsed in one go.  The resulting classes are merged into a
+ * single <tt>Program</tt> in source order.
+ * <p/>
+ * Since a syntax error in one class does not stop the other classes from
+ * being parsed, an error is reported for each slice that has one.  The
+ * slices are in source order, so the errors are in the order the
+ * <tt>ErrorHandler</tt> of a sequential parse keeps them (by file, then by
+ * line); as with a single <tt>ErrorHandler</tt>, at most 100 are reported.
+ * If scanning failed (on an unmatched lexeme), the failure is thrown by the
+ * last slice, unless an earlier slice has a syntax error.
+ */
+public class ParallelClassParser {
+    /**
+     * Maximum number of errors reported (same as ErrorHandler)
+     */
+    private static final int MAX_ERRORS = 100;
+
+    /**
+     * Number of tokens below which a range of slices is parsed by a single task
+     */
+    private static final int GRAIN = 16384;
+
+    /**
+     * Tokens of the input files
+     */
+    private TokenBuffer tokens;
+    /**
+     * Boolean indicating whether the recursive-descent parser is used
+     */
+    private boolean recursiveDescent;
+    /**
+     * Pool the slices are parsed on
+     */
+    private ForkJoinPool pool;
+    /**
+     * Shared view of the table the tokens' names are interned in (the
+     * slices are scanned on several threads)
+     */
+    private NameTable names;
+
+    /**
+     * ParallelClassParser constructor (uses the common fork-join pool)
+     *
+     * @param tokens           tokens of the input files
+     * @param recursiveDescent boolean indicating whether the recursive-descent
+     *                         parser is used instead of the CUP parser
+     */
+    public ParallelClassParser(TokenBuffer tokens, boolean recursiveDescent) {
+        this(tokens, recursiveDescent, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * ParallelClassParser constructor
+     *
+     * @param tokens           tokens of the input files
+     * @param recursiveDescent boolean indicating whether the recursive-descent
+     *                         parser is used instead of the CUP parser
+     * @param pool             pool the slices are parsed on
+     */
+    public ParallelClassParser(TokenBuffer tokens, boolean recursiveDescent,
+                               ForkJoinPool pool) {
+        this.tokens = tokens;
+        this.recursiveDescent = recursiveDescent;
+        this.pool = pool;
+        this.names = tokens.getNameTable().shared();
+    }
+
+    /**
+     * Parse every class and merge the results
+     *
+     * @return root of the AST
+     * @throws CompilationException if there were syntax errors
+     * @throws Exception            if parsing failed unexpectedly
+     */
+    public Program parse() throws Exception {
+        int[] starts = findSlices(tokens);
+        ClassList[] classLists = new ClassList[starts.length - 1];
+        Exception[] failures = new Exception[starts.length - 1];
+        pool.invoke(new ParseTask(starts, 0, classLists.length, classLists, failures));
+
+        // collect the classes (and errors) in source order
+        ClassList classList = new ClassList(0);
+        List<String> errors = new Vector<String>();
+        for (int i = 0; i < classLists.length; i++) {
+            if (failures[i] instanceof CompilationException) {
+                for (String error : ((CompilationException) failures[i]).getErrors()) {
+                    if (errors.size() < MAX_ERRORS) {
+                        errors.add(error);
+                    }
+                }
+            }
+            else if (failures[i] != null) {
+                if (errors.size() > 0) {
+                    // a sequential parse would have stopped at the syntax errors
+                    break;
+                }
+                throw failures[i];
+            }
+            else if (classLists[i] != null) {
+                for (ASTNode node : classLists[i]) {
+                    classList.addElement(node);
+                }
+            }
+        }
+        if (errors.size() > 0) {
+            throw new CompilationException(errors);
+        }
+
+        return new Program(0, classList);
+    }
+
+    /**
+     * Split the tokens into slices, each starting at a top-level class
+     *
+     * @param tokens tokens of the input files
+     * @return index of the first token of each slice, followed by the index
+     *         after the last slice (the index of the EOF token, or the number
+     *         of tokens if scanning failed)
+     */
+    static int[] findSlices(TokenBuffer tokens) {
+        int size = tokens.getSize();
+        int end = size > 0 && tokens.getId(size - 1) == TokenIds.EOF ? size - 1 : size;
+        int[] starts = new int[16];
+        int numSlices = 1;
+        int depth = 0;
+        for (int i = 0; i < end; i++) {
+            switch (tokens.getId(i)) {
+                case TokenIds.LBRACE:
+                    depth++;
+                    break;
+                case TokenIds.RBRACE:
+                    // an unmatched brace is left to the parser of the slice
+                    if (depth > 0) {
+                        depth--;
+                    }
+                    break;
+                case TokenIds.CLASS:
+                    if (depth == 0 && i > 0) {
+                        if (numSlices + 1 == starts.length) {
+                            starts = Arrays.copyOf(starts, 2 * starts.length);
+                        }
+                        starts[numSlices++] = i;
+                    }
+                    break;
+            }
+        }
+        starts[numSlices] = end;
+        return Arrays.copyOf(starts, numSlices + 1);
+    }
+
+    /**
+     * Parse a slice of the tokens
+     *
+     * @param start index of the first token of the slice
+     * @param end   index after the last token of the slice
+     * @return list of the classes of the slice
+     * @throws Exception if parsing failed
+     */
+    ClassList parseSlice(int start, int end) throws Exception {
+        BantamScanner scanner = tokens.newScanner(start, end, names);
+        Program program;
+        if (recursiveDescent) {
+            program = new RDParser(scanner).parse();
+        }
+        else {
+            program = (Program) new Parser(scanner).parse().value;
+        }
+        return program.getClassList();
+    }
+
+    /**
+     * Task parsing a range of slices (split in halves until the range holds
+     * few enough tokens)
+     */
+    private class ParseTask extends RecursiveAction {
+        /**
+         * Serialization version (tasks are serializable)
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * Index of the first token of each slice (and after the last slice)
+         */
+        private int[] starts;
+        /**
+         * First slice of the range
+         */
+        private int lo;
+        /**
+         * Slice after the range
+         */
+        private int hi;
+        /**
+         * Classes of each slice (filled in by the task; when a range of slices
+         * is parsed as a whole, its classes are those of its first slice)
+         */
+        private ClassList[] classLists;
+        /**
+         * Exception thrown when parsing each slice (filled in by the task)
+         */
+        private Exception[] failures;
+
+        /**
+         * ParseTask constructor
+         *
+         * @param starts     index of the first token of each slice
+         * @param lo         first slice of the range
+         * @param hi         slice after the range
+         * @param classLists classes of each slice
+         * @param failures   exception thrown when parsing each slice
+         */
+        ParseTask(int[] starts, int lo, int hi, ClassList[] classLists, Exception[] failures) {
+            this.starts = starts;
+            this.lo = lo;
+            this.hi = hi;
+            this.classLists = classLists;
+            this.failures = failures;
+        }
+
+        /**
+         * Parse the range of slices
+         */
+        protected void compute() {
+            if (hi - lo > 1 && starts[hi] - starts[lo] > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ParseTask(starts, lo, mid, classLists, failures),
+                        new ParseTask(starts, mid, hi, classLists, failures));
+                return;
+            }
+            // parse the range with a single parser (slices are typically one
+            // small class), and only parse the slices one by one if it fails,
+            // to report the error of every slice
+            try {
+                classLists[lo] = parseSlice(starts[lo], starts[hi]);
+                return;
+            } catch (Exception e) {
+                if (hi - lo == 1) {
+                    failures[lo] = e;
+                    return;
+                }
+            }
+            for (int i = lo; i < hi; i++) {
+                try {
+                    classLists[i] = parseSlice(starts[i], starts[i + 1]);
+                } catch (Exception e) {
+                    failures[i] = e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * File: ParallelParser.java
+ * Date: 10/18/26
+ */
+
+package bantam.parser;
+
+import bantam.ast.ASTNode;
+import bantam.ast.ClassList;
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.util.CompilationException;
+import bantam.util.NameTable;
+
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The <tt>ParallelParser</tt> class lexes and parses each input file
+ * independently on a fork-join pool (each file gets its own <tt>Lexer</tt>
+ * and <tt>Parser</tt>).  The resulting class lists are merged into a single
+ * <tt>Program</tt> in command-line order.
+ * <p/>
+ * Diagnostics are still attributed to the right file and line, since every
+ * file is scanned by a lexer that only knows that file.  Since a syntax error
+ * in one file does not stop the other files from being parsed, errors from
+ * every file are reported, in command-line order and (as with a single
+ * <tt>ErrorHandler</tt>) at most 100 of them.
+ */
+public class ParallelParser {
+    /**
+     * Maximum number of errors reported (same as ErrorHandler)
+     */
+    private static final int MAX_ERRORS = 100;
+
+    /**
+     * Names of the input files
+     */
+    private String[] filenames;
+    /**
+     * Boolean indicating whether lexer debugging is enabled
+     */
+    private boolean debug;
+    /**
+     * Pool the files are parsed on
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * ParallelParser constructor (uses the common fork-join pool)
+     *
+     * @param filenames names of the input files
+     * @param debug     boolean indicating whether lexer debugging is enabled
+     */
+    public ParallelParser(String[] filenames, boolean debug) {
+        this(filenames, debug, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * ParallelParser constructor
+     *
+     * @param filenames names of the input files
+     * @param debug     boolean indicating whether lexer debugging is enabled
+     * @param pool      pool the files are parsed on
+     */
+    public ParallelParser(String[] filenames, boolean debug, ForkJoinPool pool) {
+        this.filenames = filenames;
+        this.debug = debug;
+        this.pool = pool;
+    }
+
+    /**
+     * Lex and parse every input file and merge the results
+     *
+     * @return root of the AST
+     * @throws CompilationException if there were lexical or syntactic errors
+     * @throws Exception            if parsing failed unexpectedly
+     */
+    public Program parse() throws Exception {
+        ClassList classList = new ClassList(0);
+        for (ClassList fileClassList : parseEach()) {
+            for (ASTNode node : fileClassList) {
+                classList.addElement(node);
+            }
+        }
+        return new Program(0, classList);
+    }
+
+    /**
+     * Lex and parse every input file, keeping the classes of each file apart
+     *
+     * @return list of the classes in each file (in command-line order)
+     * @throws CompilationException if there were lexical or syntactic errors
+     * @throws Exception            if parsing failed unexpectedly
+     */
+    public ClassList[] parseEach() throws Exception {
+        // open every file before parsing anything, so a missing file is
+        // reported (without any syntax errors) just like the sequential front end
+        // (the lexers intern into the compilation's table from several
+        // threads, so they get its shared view)
+        final Lexer[] lexers = new Lexer[filenames.length];
+        NameTable names = NameTable.getCurrent();
+        NameTable.setCurrent(names.shared());
+        try {
+            for (int i = 0; i < filenames.length; i++) {
+                lexers[i] = new Lexer(new String[]{filenames[i]}, debug);
+            }
+        } finally {
+            NameTable.setCurrent(names);
+        }
+
+        // parse each file as its own task
+        List<ForkJoinTask<ClassList>> tasks = new Vector<ForkJoinTask<ClassList>>();
+        for (int i = 0; i < lexers.length; i++) {
+            final Lexer lexer = lexers[i];
+            tasks.add(pool.submit(new Callable<ClassList>() {
+                public ClassList call() throws Exception {
+                    return parseFile(lexer);
+                }
+            }));
+        }
+
+        // collect the class lists (and errors) in command-line order
+        ClassList[] classLists = new ClassList[tasks.size()];
+        List<String> errors = new Vector<String>();
+        for (int i = 0; i < classLists.length; i++) {
+            try {
+                classLists[i] = tasks.get(i).get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                if (!(e.getCause() instanceof CompilationException)) {
+                    throw (Exception) e.getCause();
+                }
+                for (String error : ((CompilationException) e.getCause()).getErrors()) {
+                    if (errors.size() < MAX_ERRORS) {
+                        errors.add(error);
+                    }
+                }
+            }
+        }
+        if (errors.size() > 0) {
+            throw new CompilationException(errors);
+        }
+
+        return classLists;
+    }
+
+    /**
+     * Parse a single file, as a task of parseEach
+     *
+     * @param lexer lexer for the file (and only that file)
+     * @return list of the classes in the file
+     * @throws Exception if parsing failed
+     */
+    ClassList parseFile(Lexer lexer) throws Exception {
+        return parse(lexer);
+    }
+
+    /**
+     * Parse a single file
+     *
+     * @param lexer lexer for the file (and only that file)
+     * @return list of the classes in the file
+     * @throws Exception if parsing failed
+     */
+    static ClassList parse(Lexer lexer) throws Exception {
+        Parser parser = new Parser(lexer);
+        return ((Program) parser.parse().value).getClassList();
+    }
+}
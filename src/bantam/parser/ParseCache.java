@@ -0,0 +1,235 @@
+/*
+ * File: ParseCache.java
+ * Date: 10/18/26
+ */
+
+package bantam.parser;
+
+import bantam.ast.ASTFile;
+import bantam.ast.ASTNode;
+import bantam.ast.ClassList;
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.util.CompilationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Hashtable;
+import java.util.Vector;
+
+/**
+ * The <tt>ParseCache</tt> class is an on-disk cache of parsed classes.  For
+ * each input file it stores the file's <tt>Class_</tt> subtrees (as an
+ * <tt>ASTFile</tt>), keyed by a SHA-256 hash of the compiler version, the file
+ * name and the file contents.  Unchanged files are loaded from the cache and
+ * only the changed (or new) files are lexed and parsed.  The entries are
+ * memory-mapped, and the method bodies of a loaded file are only decoded
+ * when a pass visits them.
+ * <p/>
+ * A cache entry that can't be read (<i>e.g.</i>, one written by a compiler
+ * with different AST classes, or one whose checksum doesn't match) is treated
+ * as a miss and rewritten.  The method bodies have checksums of their own,
+ * which are only verified when the bodies are decoded, so a damaged body
+ * fails the pass visiting it (with an <tt>IllegalStateException</tt>) rather
+ * than being parsed again.  Failing to
+ * write an entry is not an error -- the file is just parsed again next time.
+ */
+public class ParseCache {
+    /**
+     * Compiler version the cache entries are keyed by
+     * (must change whenever the AST or the parser changes)
+     */
+    public static final String COMPILER_VERSION = "1.4";
+
+    /**
+     * Directory the cache entries are stored in
+     */
+    private File dir;
+    /**
+     * Number of files loaded from the cache
+     */
+    private int hits = 0;
+    /**
+     * Number of files that had to be parsed
+     */
+    private int misses = 0;
+
+    /**
+     * ParseCache constructor
+     *
+     * @param dirname name of the cache directory (created if it doesn't exist)
+     */
+    public ParseCache(String dirname) {
+        dir = new File(dirname);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new CompilationException("Error: can't create cache directory '" +
+                    dirname + "'", 1);
+        }
+    }
+
+    /**
+     * Get the number of files loaded from the cache
+     *
+     * @return number of cache hits
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of files that had to be parsed
+     *
+     * @return number of cache misses
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Build the AST for the input files, parsing only the files missing
+     * from the cache (and storing them in the cache)
+     *
+     * @param filenames names of the input files
+     * @param debug     boolean indicating whether lexer debugging is enabled
+     * @param parallel  boolean indicating whether missing files are parsed in
+     *                  parallel (see <tt>ParallelParser</tt>)
+     * @return root of the AST
+     * @throws CompilationException if there were lexical or syntactic errors
+     * @throws Exception            if parsing failed unexpectedly
+     */
+    public Program parse(String[] filenames, boolean debug, boolean parallel) throws Exception {
+        // look up every file before parsing anything
+        String[] keys = new String[filenames.length];
+        Hashtable<String, ClassList> classLists = new Hashtable<String, ClassList>();
+        Vector<String> missing = new Vector<String>();
+        for (int i = 0; i < filenames.length; i++) {
+            keys[i] = key(filenames[i]);
+            if (classLists.containsKey(filenames[i]) || missing.contains(filenames[i])) {
+                continue;
+            }
+            ClassList classList = load(keys[i]);
+            if (classList != null) {
+                classLists.put(filenames[i], classList);
+                hits++;
+            }
+            else {
+                missing.add(filenames[i]);
+                misses++;
+            }
+        }
+
+        // parse the missing files (each with its own lexer, since a class ending
+        // at the end of a file can be attributed to the next file) and store
+        // their classes
+        if (missing.size() > 0) {
+            String[] missingFiles = missing.toArray(new String[missing.size()]);
+            ClassList[] parsed;
+            if (parallel) {
+                parsed = new ParallelParser(missingFiles, debug).parseEach();
+            }
+            else {
+                Lexer[] lexers = new Lexer[missingFiles.length];
+                for (int i = 0; i < missingFiles.length; i++) {
+                    lexers[i] = new Lexer(new String[]{missingFiles[i]}, debug);
+                }
+                parsed = new ClassList[missingFiles.length];
+                for (int i = 0; i < missingFiles.length; i++) {
+                    parsed[i] = ParallelParser.parse(lexers[i]);
+                }
+            }
+
+            for (int i = 0; i < missingFiles.length; i++) {
+                classLists.put(missingFiles[i], parsed[i]);
+            }
+            for (int i = 0; i < filenames.length; i++) {
+                if (missing.remove(filenames[i])) {
+                    store(keys[i], classLists.get(filenames[i]));
+                }
+            }
+        }
+
+        // merge the classes in command-line order
+        ClassList classList = new ClassList(0);
+        for (String filename : filenames) {
+            for (ASTNode node : classLists.get(filename)) {
+                classList.addElement(node);
+            }
+        }
+        return new Program(0, classList);
+    }
+
+    /**
+     * Compute the cache key of an input file
+     *
+     * @param filename name of the input file
+     * @return hex SHA-256 hash of the compiler version, file name and file contents
+     */
+    private String key(String filename) {
+        byte[] contents;
+        try {
+            contents = Files.readAllBytes(new File(filename).toPath());
+        } catch (IOException e) {
+            throw new CompilationException("Error: file '" + filename + "' not found", 1);
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Internal error: SHA-256 not available in ParseCache.key");
+        }
+        digest.update((COMPILER_VERSION + "\0" + filename + "\0").getBytes());
+        digest.update(contents);
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Load the classes of a file from the cache
+     *
+     * @param key cache key of the file
+     * @return list of the file's classes (null if not in the cache)
+     */
+    private ClassList load(String key) {
+        File entry = new File(dir, key + ".ast");
+        if (!entry.isFile()) {
+            return null;
+        }
+        try {
+            ASTNode root = ASTFile.read(entry);
+            return root instanceof ClassList ? (ClassList) root : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Store the classes of a file in the cache
+     * (written to a temporary file first, so concurrent compilations never
+     * see a partially written entry)
+     *
+     * @param key       cache key of the file
+     * @param classList list of the file's classes
+     */
+    private void store(String key, ClassList classList) {
+        File tmp = null;
+        try {
+            tmp = File.createTempFile(key, ".tmp", dir);
+            ASTFile.write(classList, tmp);
+            Files.move(tmp.toPath(), new File(dir, key + ".ast").toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import bantam.ast.ClassList;
 import bantam.ast.Class_;
 import bantam.ast.MemberList;
 import bantam.ast.Program;
+import bantam.lexer.BantamScanner;
 import bantam.lexer.Lexer;
 import bantam.lexer.Token;
 import bantam.util.ErrorHandler;
@@ -32,12 +33,16 @@ public class Parser extends java_cup.runtime.lr_parser
      */
     public Parser(java_cup.runtime.Scanner s) {super(s);}
 
+    /**
+     * Parse tables, loaded from the Parser.tables resource.
+     */
+    protected static final short[][][] CUP$Parser$tables =
+            loadFromResource(Parser.class, "Parser.tables");
+
     /**
      * Production table.
      */
-    protected static final short _production_table[][] = unpackFromStrings(new
-            String[]{"\000\007\000\002\003\003\000\002\002\004\000\002\004" +
-            "\003\000\002\004\004\000\002\005\007\000\002\005\011" + "\000\002\006\002"});
+    protected static final short _production_table[][] = CUP$Parser$tables[0];
 
     /**
      * Access to production table.
@@ -47,38 +52,43 @@ public class Parser extends java_cup.runtime.lr_parser
     /**
      * Parse-action table.
      */
-    protected static final short[][] _action_table = unpackFromStrings(new
-            String[]{"\000\020\000\004\005\007\001\002\000\006\002\001\005" +
-            "\007\001\002\000\004\002\021\001\002\000\006\002\uffff" +
-            "\005\uffff\001\002\000\004\051\010\001\002\000\006\006" +
-            "\012\042\011\001\002\000\004\043\ufffb\001\002\000\004" +
-            "\051\013\001\002\000\004\042\014\001\002\000\004\043" +
-            "\ufffb\001\002\000\004\043\016\001\002\000\006\002\ufffc" +
-            "\005\ufffc\001\002\000\004\043\020\001\002\000\006\002" +
-            "\ufffd\005\ufffd\001\002\000\004\002\000\001\002\000\006" +
-            "\002\ufffe\005\ufffe\001\002"});
+    protected static final short[][] _action_table = CUP$Parser$tables[1];
 
     /**
      * Access to parse-action table.
      */
     public short[][] action_table() {return _action_table;}
 
+    /**
+     * Packed parse-action table.
+     */
+    protected static final short[][] _packed_action_table = CUP$Parser$tables[2];
+
+    /**
+     * Access to packed parse-action table.
+     */
+    public short[][] packed_action_table() {return _packed_action_table;}
+
     /**
      * <code>reduce_goto</code> table.
      */
-    protected static final short[][] _reduce_table = unpackFromStrings(new
-            String[]{"\000\020\000\010\003\004\004\003\005\005\001\001\000" +
-            "\004\005\021\001\001\000\002\001\001\000\002\001\001" +
-            "\000\002\001\001\000\002\001\001\000\004\006\016\001" +
-            "\001\000\002\001\001\000\002\001\001\000\004\006\014" +
-            "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
-            "\001\000\002\001\001\000\002\001\001\000\002\001\001" + ""});
+    protected static final short[][] _reduce_table = CUP$Parser$tables[3];
 
     /**
      * Access to <code>reduce_goto</code> table.
      */
     public short[][] reduce_table() {return _reduce_table;}
 
+    /**
+     * Packed <code>reduce_goto</code> table.
+     */
+    protected static final short[][] _packed_reduce_table = CUP$Parser$tables[4];
+
+    /**
+     * Access to packed <code>reduce_goto</code> table.
+     */
+    public short[][] packed_reduce_table() {return _packed_reduce_table;}
+
     /**
      * Instance of action encapsulation class.
      */
@@ -95,7 +105,7 @@ public class Parser extends java_cup.runtime.lr_parser
      * Invoke a user supplied parse action.
      */
     public java_cup.runtime.Symbol do_action(int act_num, java_cup.runtime.lr_parser
-            parser, java.util.Stack stack, int top) throws java.lang.Exception {
+            parser, java_cup.runtime.Symbol[] stack, int top) throws java.lang.Exception {
     /* call code in generated class */
         return action_obj.CUP$Parser$do_action(act_num, parser, stack, top);
     }
@@ -181,12 +191,12 @@ class CUP$Parser$actions
 
     /* returns the current line number from the scanner */
     public int getCurrLineNum() {
-        return ((Lexer) parser.getScanner()).getCurrLineNum();
+        return ((BantamScanner) parser.getScanner()).getCurrLineNum();
     }
 
     /* returns the current file name from the scanner */
     public String getCurrFilename() {
-        return ((Lexer) parser.getScanner()).getCurrFilename();
+        return ((BantamScanner) parser.getScanner()).getCurrFilename();
     }
 
     private final Parser parser;
@@ -203,7 +213,7 @@ class CUP$Parser$actions
      */
     public final java_cup.runtime.Symbol CUP$Parser$do_action(int CUP$Parser$act_num,
                        java_cup.runtime.lr_parser CUP$Parser$parser,
-                       java.util.Stack CUP$Parser$stack, int CUP$Parser$top) throws java.lang.Exception {
+                       java_cup.runtime.Symbol[] CUP$Parser$stack, int CUP$Parser$top) throws java.lang.Exception {
       /* Symbol object for return from actions */
         java_cup.runtime.Symbol CUP$Parser$result;
 
@@ -222,14 +232,10 @@ class CUP$Parser$actions
             case 5: // class ::= CLASS ID EXTENDS ID LBRACE member_list RBRACE
             {
                 Class_ RESULT = null;
-                Token t = (Token) ((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt
-                        (CUP$Parser$top - 6)).value;
-                Token name = (Token) ((java_cup.runtime.Symbol) CUP$Parser$stack
-                        .elementAt(CUP$Parser$top - 5)).value;
-                Token parent = (Token) ((java_cup.runtime.Symbol) CUP$Parser$stack
-                        .elementAt(CUP$Parser$top - 3)).value;
-                MemberList ml = (MemberList) ((java_cup.runtime.Symbol)
-                        CUP$Parser$stack.elementAt(CUP$Parser$top - 1)).value;
+                Token t = (Token) CUP$Parser$stack[CUP$Parser$top - 6].value;
+                Token name = (Token) CUP$Parser$stack[CUP$Parser$top - 5].value;
+                Token parent = (Token) CUP$Parser$stack[CUP$Parser$top - 3].value;
+                MemberList ml = (MemberList) CUP$Parser$stack[CUP$Parser$top - 1].value;
                 RESULT = new Class_(t.getLineNum(), getCurrFilename(), name
                         .getAttribute(), parent.getAttribute(), ml);
                 CUP$Parser$result = new java_cup.runtime.Symbol(3/*class*/, RESULT);
@@ -240,12 +246,9 @@ class CUP$Parser$actions
             case 4: // class ::= CLASS ID LBRACE member_list RBRACE
             {
                 Class_ RESULT = null;
-                Token t = (Token) ((java_cup.runtime.Symbol) CUP$Parser$stack.elementAt
-                        (CUP$Parser$top - 4)).value;
-                Token name = (Token) ((java_cup.runtime.Symbol) CUP$Parser$stack
-                        .elementAt(CUP$Parser$top - 3)).value;
-                MemberList ml = (MemberList) ((java_cup.runtime.Symbol)
-                        CUP$Parser$stack.elementAt(CUP$Parser$top - 1)).value;
+                Token t = (Token) CUP$Parser$stack[CUP$Parser$top - 4].value;
+                Token name = (Token) CUP$Parser$stack[CUP$Parser$top - 3].value;
+                MemberList ml = (MemberList) CUP$Parser$stack[CUP$Parser$top - 1].value;
                 RESULT = new Class_(t.getLineNum(), getCurrFilename(), name
                         .getAttribute(), "Object", ml);
                 CUP$Parser$result = new java_cup.runtime.Symbol(3/*class*/, RESULT);
@@ -256,10 +259,8 @@ class CUP$Parser$actions
             case 3: // class_list ::= class_list class
             {
                 ClassList RESULT = null;
-                ClassList cl = (ClassList) ((java_cup.runtime.Symbol) CUP$Parser$stack
-                        .elementAt(CUP$Parser$top - 1)).value;
-                Class_ c = (Class_) ((java_cup.runtime.Symbol) CUP$Parser$stack
-                        .elementAt(CUP$Parser$top - 0)).value;
+                ClassList cl = (ClassList) CUP$Parser$stack[CUP$Parser$top - 1].value;
+                Class_ c = (Class_) CUP$Parser$stack[CUP$Parser$top - 0].value;
                 RESULT = (ClassList) cl.addElement(c);
                 CUP$Parser$result = new java_cup.runtime.Symbol(2/*class_list*/, RESULT);
             }
@@ -269,8 +270,7 @@ class CUP$Parser$actions
             case 2: // class_list ::= class
             {
                 ClassList RESULT = null;
-                Class_ c = (Class_) ((java_cup.runtime.Symbol) CUP$Parser$stack
-                        .elementAt(CUP$Parser$top - 0)).value;
+                Class_ c = (Class_) CUP$Parser$stack[CUP$Parser$top - 0].value;
                 RESULT = (ClassList) (new ClassList(0)).addElement(c);
                 CUP$Parser$result = new java_cup.runtime.Symbol(2/*class_list*/, RESULT);
             }
@@ -280,8 +280,7 @@ class CUP$Parser$actions
             case 1: // $START ::= program EOF
             {
                 Object RESULT = null;
-                Program start_val = (Program) ((java_cup.runtime.Symbol)
-                        CUP$Parser$stack.elementAt(CUP$Parser$top - 1)).value;
+                Program start_val = (Program) CUP$Parser$stack[CUP$Parser$top - 1].value;
                 RESULT = start_val;
                 CUP$Parser$result = new java_cup.runtime.Symbol(0/*$START*/, RESULT);
             }
@@ -293,8 +292,7 @@ class CUP$Parser$actions
             case 0: // program ::= class_list
             {
                 Program RESULT = null;
-                ClassList cl = (ClassList) ((java_cup.runtime.Symbol) CUP$Parser$stack
-                        .elementAt(CUP$Parser$top - 0)).value;
+                ClassList cl = (ClassList) CUP$Parser$stack[CUP$Parser$top - 0].value;
                 RESULT = new Program(0, cl);
                 CUP$Parser$result = new java_cup.runtime.Symbol(1/*program*/, RESULT);
             }
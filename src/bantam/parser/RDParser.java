@@ -0,0 +1,730 @@
+/*
+ * File: RDParser.java
+ * Date: 10/18/26
+ */
+
+package bantam.parser;
+
+import bantam.ast.*;
+import bantam.lexer.BantamScanner;
+import bantam.lexer.Token;
+import bantam.util.ErrorHandler;
+import java_cup.runtime.Symbol;
+
+/**
+ * The <tt>RDParser</tt> class is a hand-written alternative to the CUP
+ * generated <tt>Parser</tt>.  Declarations and statements are parsed by
+ * recursive descent and expressions by precedence climbing (Pratt parsing),
+ * using the precedence and associativity declared in <tt>parser.cup</tt>
+ * (from lowest to highest):
+ * <pre>
+ *     right  =
+ *     left   ||
+ *     left   &&
+ *     left   == !=
+ *     left   &lt; &lt;= &gt; &gt;= instanceof
+ *     left   + -
+ *     left   * / %
+ *     left   new
+ *     left   !
+ *     left   . ++ --
+ * </pre>
+ * As in the grammar, a prefix operator takes the precedence of its token, so
+ * <tt>-a * b</tt> negates the product while <tt>!a &amp;&amp; b</tt> only
+ * complements <tt>a</tt>.
+ * <p/>
+ * The parser builds the same <tt>bantam.ast</tt> nodes, with the same line
+ * numbers and file names, as the grammar actions: a node gets the line of its
+ * first token (of its left operand for binary and postfix expressions), an
+ * empty list gets the line the scanner is on when the parser looks past it,
+ * and a class gets the file the scanner is in once the closing brace has been
+ * matched.  Since the parser never needs more than four tokens of lookahead,
+ * no <tt>Symbol</tt> is created for nonterminals and no parse stack is kept.
+ * <p/>
+ * Like the CUP parser (whose grammar has no error productions), the parser
+ * stops at the first syntax error, which it reports as
+ * "unexpected input near '<i>lexeme</i>'" by throwing a
+ * <tt>CompilationException</tt>.
+ */
+public class RDParser {
+    /**
+     * Number of tokens of lookahead
+     */
+    private static final int LOOKAHEAD = 4;
+
+    /**
+     * Precedence of the operators that follow an operand (0 for the other
+     * tokens), indexed by token id
+     */
+    private static final int[] PRECEDENCE = new int[TokenIds.STRING_CONST + 1];
+    /**
+     * Precedence of the assignment operator (right associative)
+     */
+    private static final int ASSIGN_PREC = 1;
+    /**
+     * Precedence of the additive operators
+     */
+    private static final int ADD_PREC = 6;
+    /**
+     * Precedence of the logical complement operator
+     */
+    private static final int NOT_PREC = 9;
+    /**
+     * Precedence of dispatch and the increment and decrement operators
+     */
+    private static final int POSTFIX_PREC = 10;
+
+    static {
+        PRECEDENCE[TokenIds.ASSIGN] = ASSIGN_PREC;
+        PRECEDENCE[TokenIds.OR] = 2;
+        PRECEDENCE[TokenIds.AND] = 3;
+        PRECEDENCE[TokenIds.EQ] = PRECEDENCE[TokenIds.NE] = 4;
+        PRECEDENCE[TokenIds.LT] = PRECEDENCE[TokenIds.LEQ] = 5;
+        PRECEDENCE[TokenIds.GT] = PRECEDENCE[TokenIds.GEQ] = 5;
+        PRECEDENCE[TokenIds.INSTANCEOF] = 5;
+        PRECEDENCE[TokenIds.PLUS] = PRECEDENCE[TokenIds.MINUS] = ADD_PREC;
+        PRECEDENCE[TokenIds.TIMES] = PRECEDENCE[TokenIds.DIVIDE] = 7;
+        PRECEDENCE[TokenIds.MODULUS] = 7;
+        PRECEDENCE[TokenIds.DOT] = POSTFIX_PREC;
+        PRECEDENCE[TokenIds.INCR] = PRECEDENCE[TokenIds.DECR] = POSTFIX_PREC;
+    }
+
+    /**
+     * Scanner the tokens are read from
+     */
+    private BantamScanner scanner;
+    /**
+     * Object for error handling
+     */
+    private ErrorHandler errorHandler = new ErrorHandler();
+
+    /**
+     * Ids of the lookahead tokens (a circular buffer starting at <tt>pos</tt>)
+     */
+    private int[] ids = new int[LOOKAHEAD];
+    /**
+     * Lookahead tokens
+     */
+    private Token[] tokens = new Token[LOOKAHEAD];
+    /**
+     * Line number the scanner was on after reading each lookahead token
+     */
+    private int[] lineNums = new int[LOOKAHEAD];
+    /**
+     * File name the scanner was in after reading each lookahead token
+     */
+    private String[] filenames = new String[LOOKAHEAD];
+    /**
+     * Position of the current token in the lookahead buffers
+     */
+    private int pos = 0;
+    /**
+     * Number of tokens in the lookahead buffers
+     */
+    private int count = 0;
+
+    /**
+     * RDParser constructor
+     *
+     * @param scanner scanner the tokens are read from
+     */
+    public RDParser(BantamScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Parse the whole input
+     *
+     * @return root of the AST
+     * @throws bantam.util.CompilationException if there was a syntax error
+     * @throws Exception                        if the scanner failed
+     */
+    public Program parse() throws Exception {
+        fill(1);
+        ClassList classList = new ClassList(0);
+        do {
+            classList.addElement(parseClass());
+        } while (ids[pos] != TokenIds.EOF);
+        return new Program(0, classList);
+    }
+
+    /*
+     * Declarations
+     */
+
+    /**
+     * Parse a class: <tt>class ID [extends ID] { member* }</tt>
+     *
+     * @return the class
+     * @throws Exception if the class can't be parsed
+     */
+    private Class_ parseClass() throws Exception {
+        int lineNum = expect(TokenIds.CLASS).getLineNum();
+        String name = expect(TokenIds.ID).getAttribute();
+        String parent = "Object";
+        if (accept(TokenIds.EXTENDS)) {
+            parent = expect(TokenIds.ID).getAttribute();
+        }
+        expect(TokenIds.LBRACE);
+        MemberList memberList = parseMemberList();
+        expect(TokenIds.RBRACE);
+        return new Class_(lineNum, filenames[pos], name, parent, memberList);
+    }
+
+    /**
+     * Parse the members of a class (up to the closing brace)
+     *
+     * @return list of the members
+     * @throws Exception if a member can't be parsed
+     */
+    private MemberList parseMemberList() throws Exception {
+        if (ids[pos] == TokenIds.RBRACE) {
+            return new MemberList(lineNums[pos]);
+        }
+        MemberList memberList = new MemberList(0);
+        do {
+            memberList.addElement(parseMember());
+        } while (ids[pos] != TokenIds.RBRACE);
+        return memberList;
+    }
+
+    /**
+     * Parse a member: a field <tt>type ID [= expr] ;</tt> or a method
+     * <tt>type ID ( formals ) { stmt* }</tt>
+     *
+     * @return the member
+     * @throws Exception if the member can't be parsed
+     */
+    private Member parseMember() throws Exception {
+        int lineNum = tokens[pos].getLineNum();
+        String type = parseType();
+        String name = expect(TokenIds.ID).getAttribute();
+        if (accept(TokenIds.LPAREN)) {
+            FormalList formalList = parseFormalList();
+            expect(TokenIds.RPAREN);
+            expect(TokenIds.LBRACE);
+            StmtList stmtList = parseStmtList();
+            expect(TokenIds.RBRACE);
+            return new Method(lineNum, type, name, formalList, stmtList);
+        }
+        Expr init = null;
+        if (accept(TokenIds.ASSIGN)) {
+            init = parseExpr(ASSIGN_PREC);
+        }
+        expect(TokenIds.SEMI);
+        return new Field(lineNum, type, name, init);
+    }
+
+    /**
+     * Parse the formal parameters of a method (up to the closing parenthesis)
+     *
+     * @return list of the formals
+     * @throws Exception if a formal can't be parsed
+     */
+    private FormalList parseFormalList() throws Exception {
+        if (ids[pos] == TokenIds.RPAREN) {
+            return new FormalList(lineNums[pos]);
+        }
+        FormalList formalList = new FormalList(0);
+        do {
+            int lineNum = tokens[pos].getLineNum();
+            String type = parseType();
+            String name = expect(TokenIds.ID).getAttribute();
+            formalList.addElement(new Formal(lineNum, type, name));
+        } while (accept(TokenIds.COMMA));
+        return formalList;
+    }
+
+    /**
+     * Parse a type: <tt>ID</tt> or <tt>ID [ ]</tt>
+     *
+     * @return name of the type (ending with "[]" for array types)
+     * @throws Exception if the type can't be parsed
+     */
+    private String parseType() throws Exception {
+        String type = expect(TokenIds.ID).getAttribute();
+        if (accept(TokenIds.LSQBRACE)) {
+            expect(TokenIds.RSQBRACE);
+            return type + "[]";
+        }
+        return type;
+    }
+
+    /*
+     * Statements
+     */
+
+    /**
+     * Parse the statements of a method or block (up to the closing brace)
+     *
+     * @return list of the statements
+     * @throws Exception if a statement can't be parsed
+     */
+    private StmtList parseStmtList() throws Exception {
+        if (ids[pos] == TokenIds.RBRACE) {
+            return new StmtList(lineNums[pos]);
+        }
+        StmtList stmtList = new StmtList(0);
+        do {
+            stmtList.addElement(parseStmt());
+        } while (ids[pos] != TokenIds.RBRACE);
+        return stmtList;
+    }
+
+    /**
+     * Parse a statement
+     *
+     * @return the statement
+     * @throws Exception if the statement can't be parsed
+     */
+    private Stmt parseStmt() throws Exception {
+        int lineNum = tokens[pos].getLineNum();
+        switch (ids[pos]) {
+            case TokenIds.LBRACE: {
+                advance();
+                StmtList stmtList = parseStmtList();
+                expect(TokenIds.RBRACE);
+                return new BlockStmt(lineNum, stmtList);
+            }
+            case TokenIds.IF: {
+                advance();
+                Expr predExpr = parseCondition();
+                Stmt thenStmt = parseStmt();
+                Stmt elseStmt = null;
+                if (accept(TokenIds.ELSE)) {
+                    elseStmt = parseStmt();
+                }
+                return new IfStmt(lineNum, predExpr, thenStmt, elseStmt);
+            }
+            case TokenIds.WHILE: {
+                advance();
+                Expr predExpr = parseCondition();
+                return new WhileStmt(lineNum, predExpr, parseStmt());
+            }
+            case TokenIds.FOR: {
+                advance();
+                expect(TokenIds.LPAREN);
+                Expr initExpr = parseOptionalExpr(TokenIds.SEMI);
+                expect(TokenIds.SEMI);
+                Expr predExpr = parseOptionalExpr(TokenIds.SEMI);
+                expect(TokenIds.SEMI);
+                Expr updateExpr = parseOptionalExpr(TokenIds.RPAREN);
+                expect(TokenIds.RPAREN);
+                return new ForStmt(lineNum, initExpr, predExpr, updateExpr, parseStmt());
+            }
+            case TokenIds.BREAK:
+                advance();
+                expect(TokenIds.SEMI);
+                return new BreakStmt(lineNum);
+            case TokenIds.RETURN: {
+                advance();
+                Expr expr = parseOptionalExpr(TokenIds.SEMI);
+                expect(TokenIds.SEMI);
+                return new ReturnStmt(lineNum, expr);
+            }
+            case TokenIds.ID:
+                // a declaration starts with a type: ID ID or ID [ ]
+                fill(3);
+                if (peek(1) == TokenIds.ID ||
+                        (peek(1) == TokenIds.LSQBRACE && peek(2) == TokenIds.RSQBRACE)) {
+                    String type = parseType();
+                    String name = expect(TokenIds.ID).getAttribute();
+                    expect(TokenIds.ASSIGN);
+                    Expr init = parseExpr(ASSIGN_PREC);
+                    expect(TokenIds.SEMI);
+                    return new DeclStmt(lineNum, type, name, init);
+                }
+                return parseExprStmt();
+            default:
+                return parseExprStmt();
+        }
+    }
+
+    /**
+     * Parse an expression statement: <tt>expr ;</tt>
+     *
+     * @return the statement (on the line of its expression)
+     * @throws Exception if the statement can't be parsed
+     */
+    private Stmt parseExprStmt() throws Exception {
+        Expr expr = parseExpr(ASSIGN_PREC);
+        expect(TokenIds.SEMI);
+        return new ExprStmt(expr.getLineNum(), expr);
+    }
+
+    /**
+     * Parse a parenthesized condition: <tt>( expr )</tt>
+     *
+     * @return the expression
+     * @throws Exception if the condition can't be parsed
+     */
+    private Expr parseCondition() throws Exception {
+        expect(TokenIds.LPAREN);
+        Expr expr = parseExpr(ASSIGN_PREC);
+        expect(TokenIds.RPAREN);
+        return expr;
+    }
+
+    /**
+     * Parse an expression unless the current token ends it
+     *
+     * @param end id of the token following the (missing) expression
+     * @return the expression (null if the current token is <tt>end</tt>)
+     * @throws Exception if the expression can't be parsed
+     */
+    private Expr parseOptionalExpr(int end) throws Exception {
+        if (ids[pos] == end) {
+            return null;
+        }
+        return parseExpr(ASSIGN_PREC);
+    }
+
+    /*
+     * Expressions
+     */
+
+    /**
+     * Parse an expression, stopping at the first operator whose precedence
+     * is below a minimum
+     *
+     * @param minPrec minimum precedence of the operators of the expression
+     * @return the expression
+     * @throws Exception if the expression can't be parsed
+     */
+    private Expr parseExpr(int minPrec) throws Exception {
+        Expr left = parsePrefix();
+        while (true) {
+            int id = ids[pos];
+            int prec = PRECEDENCE[id];
+            if (prec < minPrec || prec == 0) {
+                return left;
+            }
+            int lineNum = left.getLineNum();
+            switch (id) {
+                case TokenIds.ASSIGN:
+                    // only a variable or an array element can be assigned
+                    if (!(left instanceof VarExpr || left instanceof ArrayExpr)) {
+                        throw syntaxError();
+                    }
+                    left = makeAssign(left, parseExprAfter(prec));
+                    break;
+                case TokenIds.DOT: {
+                    advance();
+                    String methodName = expect(TokenIds.ID).getAttribute();
+                    left = new DispatchExpr(lineNum, left, methodName, parseArguments());
+                    break;
+                }
+                case TokenIds.INCR:
+                    advance();
+                    left = new UnaryIncrExpr(lineNum, left, true);
+                    break;
+                case TokenIds.DECR:
+                    advance();
+                    left = new UnaryDecrExpr(lineNum, left, true);
+                    break;
+                case TokenIds.INSTANCEOF:
+                    advance();
+                    left = new InstanceofExpr(lineNum, left, parseType());
+                    break;
+                case TokenIds.OR:
+                    left = new BinaryLogicOrExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.AND:
+                    left = new BinaryLogicAndExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.EQ:
+                    left = new BinaryCompEqExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.NE:
+                    left = new BinaryCompNeExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.LT:
+                    left = new BinaryCompLtExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.LEQ:
+                    left = new BinaryCompLeqExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.GT:
+                    left = new BinaryCompGtExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.GEQ:
+                    left = new BinaryCompGeqExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.PLUS:
+                    left = new BinaryArithPlusExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.MINUS:
+                    left = new BinaryArithMinusExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.TIMES:
+                    left = new BinaryArithTimesExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.DIVIDE:
+                    left = new BinaryArithDivideExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                case TokenIds.MODULUS:
+                    left = new BinaryArithModulusExpr(lineNum, left, parseExprAfter(prec + 1));
+                    break;
+                default:
+                    return left;
+            }
+        }
+    }
+
+    /**
+     * Skip the current (operator) token and parse the expression after it
+     *
+     * @param minPrec minimum precedence of the operators of the expression
+     * @return the expression
+     * @throws Exception if the expression can't be parsed
+     */
+    private Expr parseExprAfter(int minPrec) throws Exception {
+        advance();
+        return parseExpr(minPrec);
+    }
+
+    /**
+     * Parse an expression that doesn't start with an operand: a prefix
+     * operator and its operand, or a primary expression
+     *
+     * @return the expression
+     * @throws Exception if the expression can't be parsed
+     */
+    private Expr parsePrefix() throws Exception {
+        int lineNum = tokens[pos].getLineNum();
+        switch (ids[pos]) {
+            case TokenIds.MINUS:
+                return new UnaryNegExpr(lineNum, parseExprAfter(ADD_PREC + 1));
+            case TokenIds.NOT:
+                return new UnaryNotExpr(lineNum, parseExprAfter(NOT_PREC + 1));
+            case TokenIds.INCR:
+                return new UnaryIncrExpr(lineNum, parseExprAfter(POSTFIX_PREC + 1), false);
+            case TokenIds.DECR:
+                return new UnaryDecrExpr(lineNum, parseExprAfter(POSTFIX_PREC + 1), false);
+            default:
+                return parsePrimary();
+        }
+    }
+
+    /**
+     * Parse a primary expression: a constant, a variable or array element
+     * (possibly of <tt>this</tt> or <tt>super</tt>), a dispatch on the current
+     * object, an allocation, a cast or a parenthesized expression
+     *
+     * @return the expression
+     * @throws Exception if the expression can't be parsed
+     */
+    private Expr parsePrimary() throws Exception {
+        Token token = tokens[pos];
+        int lineNum = token.getLineNum();
+        switch (ids[pos]) {
+            case TokenIds.INT_CONST:
+                advance();
+                return new ConstIntExpr(lineNum, token.getAttribute());
+            case TokenIds.BOOLEAN_CONST:
+                advance();
+                return new ConstBooleanExpr(lineNum, token.getAttribute());
+            case TokenIds.STRING_CONST:
+                advance();
+                return new ConstStringExpr(lineNum, token.getAttribute());
+            case TokenIds.ID: {
+                advance();
+                String name = token.getAttribute();
+                if (ids[pos] == TokenIds.LPAREN) {
+                    return new DispatchExpr(lineNum, null, name, parseArguments());
+                }
+                Expr ref = null;
+                fill(3);
+                if (ids[pos] == TokenIds.DOT && peek(1) == TokenIds.ID &&
+                        peek(2) != TokenIds.LPAREN &&
+                        (name.equals("this") || name.equals("super"))) {
+                    // a field of the current object (a dispatch is left to parseExpr)
+                    ref = new VarExpr(lineNum, null, name);
+                    advance();
+                    name = tokens[pos].getAttribute();
+                    advance();
+                }
+                if (accept(TokenIds.LSQBRACE)) {
+                    Expr index = parseExpr(ASSIGN_PREC);
+                    expect(TokenIds.RSQBRACE);
+                    return new ArrayExpr(lineNum, ref, name, index);
+                }
+                return new VarExpr(lineNum, ref, name);
+            }
+            case TokenIds.NEW: {
+                advance();
+                String type = expect(TokenIds.ID).getAttribute();
+                if (accept(TokenIds.LSQBRACE)) {
+                    Expr size = parseExpr(ASSIGN_PREC);
+                    expect(TokenIds.RSQBRACE);
+                    return new NewArrayExpr(lineNum, type, size);
+                }
+                expect(TokenIds.LPAREN);
+                expect(TokenIds.RPAREN);
+                return new NewExpr(lineNum, type);
+            }
+            case TokenIds.LPAREN: {
+                // a cast starts with a parenthesized type: ( ID ) ( or ( ID [ ]
+                fill(4);
+                if (peek(1) == TokenIds.ID &&
+                        ((peek(2) == TokenIds.RPAREN && peek(3) == TokenIds.LPAREN) ||
+                                (peek(2) == TokenIds.LSQBRACE && peek(3) == TokenIds.RSQBRACE))) {
+                    advance();
+                    String type = parseType();
+                    expect(TokenIds.RPAREN);
+                    return new CastExpr(lineNum, type, parseCondition());
+                }
+                return parseCondition();
+            }
+            default:
+                throw syntaxError();
+        }
+    }
+
+    /**
+     * Parse the arguments of a dispatch: <tt>( [expr {, expr}] )</tt>
+     *
+     * @return list of the arguments
+     * @throws Exception if an argument can't be parsed
+     */
+    private ExprList parseArguments() throws Exception {
+        expect(TokenIds.LPAREN);
+        ExprList exprList;
+        if (ids[pos] == TokenIds.RPAREN) {
+            exprList = new ExprList(lineNums[pos]);
+        }
+        else {
+            exprList = new ExprList(0);
+            do {
+                exprList.addElement(parseExpr(ASSIGN_PREC));
+            } while (accept(TokenIds.COMMA));
+        }
+        expect(TokenIds.RPAREN);
+        return exprList;
+    }
+
+    /**
+     * Make an assignment
+     *
+     * @param target lefthand side of the assignment (a <tt>VarExpr</tt> or an
+     *               <tt>ArrayExpr</tt>)
+     * @param expr   righthand side of the assignment
+     * @return the assignment
+     */
+    private static Expr makeAssign(Expr target, Expr expr) {
+        if (target instanceof VarExpr) {
+            VarExpr var = (VarExpr) target;
+            return new AssignExpr(var.getLineNum(), refName(var.getRef()), var.getName(), expr);
+        }
+        ArrayExpr array = (ArrayExpr) target;
+        return new ArrayAssignExpr(array.getLineNum(), refName(array.getRef()),
+                array.getName(), array.getIndex(), expr);
+    }
+
+    /**
+     * Get the name of the object a variable is referenced through
+     *
+     * @param ref reference of the variable (null or <tt>this</tt> or
+     *            <tt>super</tt>)
+     * @return name of the reference (null if none)
+     */
+    private static String refName(Expr ref) {
+        return ref == null ? null : ((VarExpr) ref).getName();
+    }
+
+    /*
+     * Tokens
+     */
+
+    /**
+     * Read tokens until the lookahead buffers hold a given number of tokens
+     * (or end with EOF)
+     *
+     * @param n number of tokens
+     * @throws Exception if the scanner failed
+     */
+    private void fill(int n) throws Exception {
+        while (count < n) {
+            int last = (pos + count + LOOKAHEAD - 1) % LOOKAHEAD;
+            if (count > 0 && ids[last] == TokenIds.EOF) {
+                return;
+            }
+            int next = (pos + count) % LOOKAHEAD;
+            Symbol symbol = scanner.next_token();
+            ids[next] = symbol.sym;
+            tokens[next] = (Token) symbol.value;
+            lineNums[next] = scanner.getCurrLineNum();
+            filenames[next] = scanner.getCurrFilename();
+            count++;
+        }
+    }
+
+    /**
+     * Get the id of a lookahead token (which must have been read by fill)
+     *
+     * @param k position of the token after the current token
+     * @return the id (EOF past the end of the input)
+     */
+    private int peek(int k) {
+        return k < count ? ids[(pos + k) % LOOKAHEAD] : TokenIds.EOF;
+    }
+
+    /**
+     * Move to the next token (reading it, like the CUP parser does after
+     * shifting a token)
+     *
+     * @throws Exception if the scanner failed
+     */
+    private void advance() throws Exception {
+        if (ids[pos] == TokenIds.EOF) {
+            return;
+        }
+        pos = (pos + 1) % LOOKAHEAD;
+        count--;
+        fill(1);
+    }
+
+    /**
+     * Move past the current token if it has a given id
+     *
+     * @param id token id
+     * @return true if the current token had that id
+     * @throws Exception if the scanner failed
+     */
+    private boolean accept(int id) throws Exception {
+        if (ids[pos] != id) {
+            return false;
+        }
+        advance();
+        return true;
+    }
+
+    /**
+     * Move past the current token, which must have a given id
+     *
+     * @param id token id
+     * @return the token
+     * @throws Exception if the current token has another id
+     */
+    private Token expect(int id) throws Exception {
+        if (ids[pos] != id) {
+            throw syntaxError();
+        }
+        Token token = tokens[pos];
+        advance();
+        return token;
+    }
+
+    /**
+     * Report a syntax error at the current token and stop parsing
+     *
+     * @return never returns (declared so callers can throw the result)
+     * @throws bantam.util.CompilationException always
+     */
+    private RuntimeException syntaxError() {
+        errorHandler.register(errorHandler.PARSE_ERROR, filenames[pos], lineNums[pos],
+                "unexpected input near '" + tokens[pos].getLexeme() + "'");
+        errorHandler.checkErrors();
+        throw new IllegalStateException("syntax error not reported");
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * File: AssemblyEmitter.java
+ * Date: 10/18/26
+ */
+
+package bantam.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/** The <tt>AssemblyEmitter</tt> class is the print stream the code generators
+  * write assembly to.  Instead of passing every <tt>print</tt> to the operating
+  * system, it copies the text into a large byte buffer (ASCII text, which is
+  * what assembly is made of, is copied without going through a charset
+  * encoder) and writes the buffer through a <tt>FileChannel</tt> when it is
+  * full, when the stream is flushed and when it is closed.  The bytes written
+  * are the same as those of a <tt>PrintStream</tt> over a
+  * <tt>FileOutputStream</tt>, so the output is identical.
+  * <p/>
+  * Optionally the buffers are written by a background writer thread, so that
+  * code generation continues while a full buffer is being written: the
+  * emitter then uses two buffers, filling one while the other is written.
+  * <p/>
+  * The output is only complete once the emitter is closed.  As with any
+  * <tt>PrintStream</tt>, I/O errors are not thrown but are reported by
+  * <tt>checkError</tt>.
+  * */
+public class AssemblyEmitter extends PrintStream {
+    /** Default size of the buffer(s) in bytes */
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    /** Buffered output the emitter writes to */
+    private ChannelOutput output;
+
+    /** AssemblyEmitter constructor (opens an output file)
+      * @param filename name of the output file (created or truncated)
+      * @param background boolean indicating whether a background thread writes the buffers
+      * @throws IOException if the file can't be opened
+      * */
+    public AssemblyEmitter(String filename, boolean background) throws IOException {
+	this(FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+			      StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+	     DEFAULT_BUFFER_SIZE, background);
+    }
+
+    /** AssemblyEmitter constructor
+      * @param channel channel the output is written to (closed with the emitter)
+      * @param bufferSize size of the buffer(s) in bytes
+      * @param background boolean indicating whether a background thread writes the buffers
+      * */
+    public AssemblyEmitter(WritableByteChannel channel, int bufferSize, boolean background) {
+	this(new ChannelOutput(channel, bufferSize, background));
+    }
+
+    /** AssemblyEmitter constructor
+      * @param output buffered output the emitter writes to
+      * */
+    private AssemblyEmitter(ChannelOutput output) {
+	super(output, false);
+	this.output = output;
+    }
+
+    /** Print a string
+      * @param s string to print ("null" if null)
+      * */
+    public void print(String s) {
+	if (s == null)
+	    s = "null";
+	try {
+	    output.write(s);
+	}
+	catch(IOException e) {
+	    setError();
+	}
+    }
+
+    /** Print a string followed by a line separator
+      * @param s string to print ("null" if null)
+      * */
+    public void println(String s) {
+	print(s);
+	println();
+    }
+
+    /** Print a line separator
+      * */
+    public void println() {
+	print(System.lineSeparator());
+    }
+
+    /** Print a character
+      * @param c character to print
+      * */
+    public void print(char c) {
+	if (c < 0x80) {
+	    write(c);
+	}
+	else {
+	    print(String.valueOf(c));
+	}
+    }
+
+    /** Print an object followed by a line separator
+      * @param x object to print
+      * */
+    public void println(Object x) {
+	println(String.valueOf(x));
+    }
+
+    /** Write a byte
+      * @param b byte to write
+      * */
+    public void write(int b) {
+	try {
+	    output.write(b);
+	}
+	catch(IOException e) {
+	    setError();
+	}
+    }
+
+    /** Write bytes
+      * @param b array of bytes
+      * @param off offset of the first byte to write
+      * @param len number of bytes to write
+      * */
+    public void write(byte[] b, int off, int len) {
+	try {
+	    output.write(b, off, len);
+	}
+	catch(IOException e) {
+	    setError();
+	}
+    }
+
+    /** Write the buffered output (in the background if a writer thread is used)
+      * */
+    public void flush() {
+	try {
+	    output.flush();
+	}
+	catch(IOException e) {
+	    setError();
+	}
+    }
+
+    /** Write the buffered output, wait until everything has been written
+      * and close the channel
+      * */
+    public void close() {
+	try {
+	    output.close();
+	}
+	catch(IOException e) {
+	    setError();
+	}
+    }
+
+    /** Get the number of bytes emitted so far
+      * @return number of bytes
+      * */
+    public long getNumBytes() {
+	return output.numBytes;
+    }
+
+    /** Buffered output stream over a channel (optionally written by a
+      * background thread)
+      * */
+    private static class ChannelOutput extends OutputStream {
+	/** Channel the output is written to */
+	private WritableByteChannel channel;
+	/** Buffer being filled */
+	private byte[] buf;
+	/** Number of bytes in the buffer */
+	private int count = 0;
+	/** Number of bytes emitted so far */
+	private long numBytes = 0;
+	/** Boolean indicating whether the channel has been closed */
+	private boolean closed = false;
+	/** Background writer thread (null if buffers are written by the emitting thread) */
+	private Thread writer;
+	/** Filled buffers waiting to be written by the writer thread */
+	private BlockingQueue<ByteBuffer> full;
+	/** Written buffers that can be filled again */
+	private BlockingQueue<byte[]> free;
+	/** First error of the writer thread (null if none) */
+	private volatile IOException writerError = null;
+
+	/** ChannelOutput constructor
+	  * @param channel channel the output is written to
+	  * @param bufferSize size of the buffer(s) in bytes
+	  * @param background boolean indicating whether a background thread writes the buffers
+	  * */
+	ChannelOutput(WritableByteChannel channel, int bufferSize, boolean background) {
+	    this.channel = channel;
+	    buf = new byte[bufferSize];
+	    if (background) {
+		full = new ArrayBlockingQueue<ByteBuffer>(2);
+		free = new ArrayBlockingQueue<byte[]>(2);
+		free.add(new byte[bufferSize]);
+		writer = new Thread(new Runnable() {
+			public void run() {
+			    writeBuffers();
+			}
+		    }, "assembly-writer");
+		writer.setDaemon(true);
+		writer.start();
+	    }
+	}
+
+	/** Copy a string into the buffer
+	  * @param s the string
+	  * @throws IOException if the output couldn't be written
+	  * */
+	void write(String s) throws IOException {
+	    int len = s.length();
+	    if (count + len > buf.length && count > 0)
+		drain();
+	    if (len > buf.length) {
+		byte[] bytes = s.getBytes();
+		write(bytes, 0, bytes.length);
+		return;
+	    }
+	    for (int i = 0; i < len; i++) {
+		char c = s.charAt(i);
+		if (c >= 0x80) {
+		    // not ASCII: encode like PrintStream does (the bytes copied so far stay)
+		    byte[] bytes = s.substring(i).getBytes();
+		    count += i;
+		    numBytes += i;
+		    write(bytes, 0, bytes.length);
+		    return;
+		}
+		buf[count + i] = (byte)c;
+	    }
+	    count += len;
+	    numBytes += len;
+	}
+
+	/** Write a byte into the buffer
+	  * @param b the byte
+	  * @throws IOException if the output couldn't be written
+	  * */
+	public void write(int b) throws IOException {
+	    if (count == buf.length)
+		drain();
+	    buf[count++] = (byte)b;
+	    numBytes++;
+	}
+
+	/** Write bytes into the buffer
+	  * @param b array of bytes
+	  * @param off offset of the first byte to write
+	  * @param len number of bytes to write
+	  * @throws IOException if the output couldn't be written
+	  * */
+	public void write(byte[] b, int off, int len) throws IOException {
+	    while (len > 0) {
+		if (count == buf.length)
+		    drain();
+		int n = Math.min(len, buf.length - count);
+		System.arraycopy(b, off, buf, count, n);
+		count += n;
+		numBytes += n;
+		off += n;
+		len -= n;
+	    }
+	}
+
+	/** Write the buffered bytes
+	  * @throws IOException if the output couldn't be written
+	  * */
+	public void flush() throws IOException {
+	    if (count > 0)
+		drain();
+	}
+
+	/** Write the buffered bytes, stop the writer thread and close the channel
+	  * @throws IOException if the output couldn't be written
+	  * */
+	public void close() throws IOException {
+	    if (closed)
+		return;
+	    try {
+		flush();
+		if (writer != null) {
+		    // an empty buffer tells the writer thread to stop
+		    put(ByteBuffer.allocate(0));
+		    try {
+			writer.join();
+		    }
+		    catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while writing the output");
+		    }
+		    checkWriter();
+		}
+	    }
+	    finally {
+		closed = true;
+		channel.close();
+	    }
+	}
+
+	/** Write the buffer (or hand it over to the writer thread) and start
+	  * filling an empty one
+	  * @throws IOException if the output couldn't be written
+	  * */
+	private void drain() throws IOException {
+	    if (closed)
+		throw new IOException("stream closed");
+	    if (writer == null) {
+		ByteBuffer bb = ByteBuffer.wrap(buf, 0, count);
+		while (bb.hasRemaining())
+		    channel.write(bb);
+	    }
+	    else {
+		checkWriter();
+		put(ByteBuffer.wrap(buf, 0, count));
+		try {
+		    buf = free.take();
+		}
+		catch(InterruptedException e) {
+		    Thread.currentThread().interrupt();
+		    throw new IOException("interrupted while writing the output");
+		}
+	    }
+	    count = 0;
+	}
+
+	/** Hand a buffer over to the writer thread
+	  * @param bb the buffer
+	  * @throws IOException if interrupted
+	  * */
+	private void put(ByteBuffer bb) throws IOException {
+	    try {
+		full.put(bb);
+	    }
+	    catch(InterruptedException e) {
+		Thread.currentThread().interrupt();
+		throw new IOException("interrupted while writing the output");
+	    }
+	}
+
+	/** Throw the writer thread's error (if any)
+	  * @throws IOException the error
+	  * */
+	private void checkWriter() throws IOException {
+	    if (writerError != null)
+		throw writerError;
+	}
+
+	/** Body of the writer thread: write the filled buffers until an empty
+	  * one is received
+	  * */
+	private void writeBuffers() {
+	    try {
+		while (true) {
+		    ByteBuffer bb = full.take();
+		    if (!bb.hasRemaining())
+			return;
+		    try {
+			while (writerError == null && bb.hasRemaining())
+			    channel.write(bb);
+		    }
+		    catch(IOException e) {
+			writerError = e;
+		    }
+		    free.put(bb.array());
+		}
+	    }
+	    catch(InterruptedException e) {
+		writerError = new IOException("assembly writer interrupted");
+	    }
+	}
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * File: CompilationException.java
+ * Date: 10/18/26
+ */
+
+package bantam.util;
+
+import java.util.List;
+import java.util.Vector;
+
+/** The <tt>CompilationException</tt> class is thrown when compilation must
+  * stop early (because of registered errors, a usage error, or a missing
+  * input/output file).  It replaces the calls to <tt>System.exit</tt> that
+  * used to be scattered through the compiler so that the compiler can be
+  * run many times within one JVM.  The driver (<tt>bantam.Main</tt>) is
+  * responsible for reporting the exception and choosing the exit status.
+  * */
+public class CompilationException extends RuntimeException {
+    /** Serialization version (exceptions are serializable) */
+    private static final long serialVersionUID = 1L;
+    /** The exit status the driver should terminate with */
+    private int exitStatus;
+    /** The formatted error messages (empty if not caused by registered errors) */
+    private List<String> errors;
+
+    /** CompilationException constructor (no error messages)
+      * @param message message to report (might be null if already reported)
+      * @param exitStatus exit status the driver should terminate with
+      * */
+    public CompilationException(String message, int exitStatus) {
+	super(message);
+	this.exitStatus = exitStatus;
+	this.errors = new Vector<String>();
+    }
+
+    /** CompilationException constructor (for registered errors)
+      * @param errors list of formatted error messages
+      * */
+    public CompilationException(List<String> errors) {
+	super(errors.size() + " error(s)");
+	this.exitStatus = 1;
+	this.errors = errors;
+    }
+
+    /** Get the exit status the driver should terminate with
+      * @return exit status
+      * */
+    public int getExitStatus() {
+	return exitStatus;
+    }
+
+    /** Get the formatted error messages
+      * @return list of error messages (empty if not caused by registered errors)
+      * */
+    public List<String> getErrors() {
+	return errors;
+    }
+}
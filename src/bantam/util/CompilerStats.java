@@ -0,0 +1,163 @@
+/*
+ * File: CompilerStats.java
+ * Date: 10/18/26
+ */
+
+package bantam.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Vector;
+
+/** The <tt>CompilerStats</tt> class records statistics for a compilation
+  * (enabled with <tt>-stats</tt>): the wall time, CPU time and bytes allocated
+  * by each phase, and counts such as the number of tokens or AST nodes.
+  * The statistics are reported as a single line of JSON, e.g.:
+  * <pre>
+  * {"phases":[{"name":"lexing","completed":true,"wallNs":1200,"cpuNs":1100,
+  *   "allocatedBytes":5000}],"counts":{"tokens":42}}
+  * </pre>
+  * CPU time and allocation are measured (via <tt>ThreadMXBean</tt>) for the
+  * thread running the compilation only, and are -1 if the JVM can't measure
+  * them.  A phase that was stopped (by errors or an exception) is reported
+  * with <tt>"completed":false</tt>.
+  * */
+public class CompilerStats {
+    /** Bean used to measure the CPU time and allocation of the current thread */
+    private ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    /** List of the phases started so far (in order) */
+    private Vector<Phase> phases = new Vector<Phase>();
+    /** The phase currently running (null if none) */
+    private Phase current = null;
+    /** Names of the recorded counts (in order) */
+    private Vector<String> countNames = new Vector<String>();
+    /** Values of the recorded counts */
+    private Vector<Long> countValues = new Vector<Long>();
+
+    /** Start measuring a phase (ends the current phase, if any)
+      * @param name name of the phase
+      * */
+    public void startPhase(String name) {
+	endPhase();
+	current = new Phase(name);
+	current.wallNs = -System.nanoTime();
+	current.cpuNs = cpuTime();
+	current.allocatedBytes = allocatedBytes();
+    }
+
+    /** Stop measuring the current phase (does nothing if none is running)
+      * */
+    public void endPhase() {
+	stopPhase(true);
+    }
+
+    /** Stop measuring the current phase because compilation was stopped
+      * (does nothing if none is running)
+      * */
+    public void abortPhase() {
+	stopPhase(false);
+    }
+
+    /** Record a count (replaces an earlier count with the same name)
+      * @param name name of the count
+      * @param value value of the count
+      * */
+    public void setCount(String name, long value) {
+	int index = countNames.indexOf(name);
+	if (index >= 0) {
+	    countValues.set(index, value);
+	}
+	else {
+	    countNames.add(name);
+	    countValues.add(value);
+	}
+    }
+
+    /** Get the statistics as JSON
+      * @return single line JSON object holding the phases and the counts
+      * */
+    public String toJson() {
+	StringBuilder json = new StringBuilder("{\"phases\":[");
+	for (int i = 0; i < phases.size(); i++) {
+	    Phase phase = phases.elementAt(i);
+	    if (i > 0) json.append(",");
+	    json.append("{\"name\":\"").append(phase.name).append("\"")
+		.append(",\"completed\":").append(phase.completed)
+		.append(",\"wallNs\":").append(phase.wallNs)
+		.append(",\"cpuNs\":").append(phase.cpuNs)
+		.append(",\"allocatedBytes\":").append(phase.allocatedBytes)
+		.append("}");
+	}
+	json.append("],\"counts\":{");
+	for (int i = 0; i < countNames.size(); i++) {
+	    if (i > 0) json.append(",");
+	    json.append("\"").append(countNames.elementAt(i)).append("\":")
+		.append(countValues.elementAt(i));
+	}
+	return json.append("}}").toString();
+    }
+
+    /** Stop measuring the current phase - auxiliary method used by endPhase
+      * and abortPhase
+      * @param completed boolean indicating whether the phase completed
+      * */
+    private void stopPhase(boolean completed) {
+	if (current == null) return;
+	current.wallNs += System.nanoTime();
+	current.cpuNs = difference(current.cpuNs, cpuTime());
+	current.allocatedBytes = difference(current.allocatedBytes, allocatedBytes());
+	current.completed = completed;
+	phases.add(current);
+	current = null;
+    }
+
+    /** Get the CPU time used by the current thread
+      * @return CPU time in nanoseconds (-1 if not supported)
+      * */
+    private long cpuTime() {
+	if (!threadBean.isCurrentThreadCpuTimeSupported()) return -1;
+	return threadBean.getCurrentThreadCpuTime();
+    }
+
+    /** Get the number of bytes allocated by the current thread
+      * @return allocated bytes (-1 if not supported)
+      * */
+    private long allocatedBytes() {
+	if (!(threadBean instanceof com.sun.management.ThreadMXBean)) return -1;
+	com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)threadBean;
+	if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled())
+	    return -1;
+	return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** Get the difference between two measurements
+      * @param start measurement at the start of the phase (-1 if not supported)
+      * @param end measurement at the end of the phase (-1 if not supported)
+      * @return difference (-1 if not supported)
+      * */
+    private long difference(long start, long end) {
+	if (start < 0 || end < 0) return -1;
+	return end - start;
+    }
+
+    /** A class for storing the measurements of a phase */
+    private class Phase {
+	/** Name of the phase */
+	private String name;
+	/** Boolean indicating whether the phase completed */
+	private boolean completed;
+	/** Wall time in nanoseconds */
+	private long wallNs;
+	/** CPU time in nanoseconds (-1 if not supported) */
+	private long cpuNs;
+	/** Bytes allocated (-1 if not supported) */
+	private long allocatedBytes;
+
+	/** Phase constructor
+	  * @param name name of the phase
+	  * */
+	public Phase(String name) {
+	    this.name = name;
+	}
+    }
+}
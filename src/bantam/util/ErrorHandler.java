@@ -29,6 +29,13 @@ package bantam.util;
 import java.util.*;
 
 /** The <tt>ErrorHandler</tt> class performs error handling.
+  * <p/>
+  * An error handler is thread safe, so tasks running in parallel can report
+  * into the same one.  The errors are kept in the order of the first error
+  * of each file, though, which then depends on how the tasks interleave; to
+  * report the errors in a deterministic order, each task can report into
+  * its own handler, and the handlers of the tasks can be added in a fixed
+  * order with <tt>registerAll</tt> (as <tt>ParallelClassVisitor</tt> does).
   * */
 public class ErrorHandler {
     /** Lexical error constant - use to indicate the type of error */
@@ -46,7 +53,7 @@ public class ErrorHandler {
     /** Register an error - auxiliarly method used by the other (public) register methods
       * @param error the error object
       * */
-    private void register(Error error) {
+    private synchronized void register(Error error) {
 	// insert a new error into the error list
 	insert(error);
 	// update numErrors, if 100 then call checkErrors (which will halt)
@@ -76,18 +83,31 @@ public class ErrorHandler {
 	register((new Error(type, null, -1, errorMessage)));
     }
 
-    /** Check the errors - halts if there are any registered errors
+    /** Register the errors of another error handler (in its order)
+      * @param errorHandler the other error handler
       * */
-    public void checkErrors() {
-	// if errors have been registered then print them and exit
-	if (numErrors > 0) {
-	    printErrors();
-	    System.err.println("Stopping compilation due to errors");
-	    System.err.println(numErrors + " error(s)");
-	    System.exit(1);
+    public void registerAll(ErrorHandler errorHandler) {
+	// copy the other list first, so the two handlers are never locked together
+	Vector<Error> errors;
+	synchronized (errorHandler) {
+	    errors = new Vector<Error>(errorHandler.errorList);
+	}
+	synchronized (this) {
+	    for (Error error : errors)
+		register(error);
 	}
     }
 
+    /** Check the errors - halts if there are any registered errors
+      * by throwing a <tt>CompilationException</tt> holding the error messages
+      * (the driver prints them and stops compilation)
+      * */
+    public synchronized void checkErrors() {
+	// if errors have been registered then stop compilation
+	if (numErrors > 0)
+	    throw new CompilationException(getErrorMessages());
+    }
+
     /** Insert an error onto the error list
       * @param e error object to insert
       * */
@@ -121,22 +141,24 @@ public class ErrorHandler {
 	errorList.add(i, e);
     }
 
-    /** Print the error messages
+    /** Get the error messages (formatted and in order)
+      * @return list of error messages
       * */
-    private void printErrors() {
+    public synchronized Vector<String> getErrorMessages() {
+	Vector<String> messages = new Vector<String>();
 	// traverse the error list
 	for (int i = 0; i < errorList.size(); i++) {
 	    // get the next error
 	    Error e = errorList.elementAt(i);
 
-	    // print error message
+	    // format error message
 	    if (e.getFilename() == null)
-		System.err.println("Error: " + getTypeString(e.getType()) + e.getMessage());
+		messages.add("Error: " + getTypeString(e.getType()) + e.getMessage());
 	    else
-		System.err.println(e.getFilename() + ":" + e.getLineNum() + ":" + 
-				   getTypeString(e.getType()) + e.getMessage());
-	    System.err.println();
+		messages.add(e.getFilename() + ":" + e.getLineNum() + ":" + 
+			     getTypeString(e.getType()) + e.getMessage());
 	}
+	return messages;
     }
 
     /** Get the type string (lex, parse, semantic, none)
@@ -0,0 +1,288 @@
+/*
+ * File: NameTable.java
+ * Date: 10/18/26
+ */
+
+package bantam.util;
+
+/** The <tt>NameTable</tt> class interns the identifiers and string constants
+  * of a compilation: the lexers map every occurrence of a name to one
+  * canonical <tt>String</tt>, and give each name a dense integer id (0, 1,
+  * 2, ...).  Since the AST, the symbol tables and the class map all hold the
+  * canonical instances, lookups compare names by identity (which
+  * <tt>String.equals</tt> checks first) and reuse the hash code the instance
+  * caches, instead of hashing and comparing the characters of many equal
+  * copies.  A table starts out holding the names the compiler spells out as
+  * literals (the built-in classes and their methods, <tt>"main"</tt>,
+  * <tt>"this"</tt>, ...), so their canonical instances are the literals.
+  * <p/>
+  * Each thread has a current table, which is replaced by a fresh one at the
+  * start of each compilation (so concurrent compilations intern into their
+  * own tables).  A table is not thread safe: the phases running tasks on
+  * several threads (e.g., lexing files in parallel) intern through the
+  * synchronized view returned by <tt>shared</tt>.
+  * */
+public class NameTable {
+    /** Table of the compilation running on each thread */
+    private static final ThreadLocal<NameTable> current = new ThreadLocal<NameTable>() {
+	protected NameTable initialValue() {
+	    return new NameTable();
+	}
+    };
+
+    /** Names the compiler spells out as literals (interned by each new table) */
+    private static final String[] PREDEFINED = {
+	"Object", "String", "TextIO", "Sys", "Main", "main",
+	"int", "boolean", "void", "this", "super", "null", "length",
+	"clone", "equals", "toString", "concat", "substring",
+	"readStdin", "readFile", "writeStdout", "writeStderr", "writeFile",
+	"getString", "getInt", "putString", "putInt",
+	"exit", "time", "random", "readFD", "writeFD"
+    };
+
+    /** Canonical names, indexed by id */
+    private String[] names;
+    /** Hash codes of the names, indexed by id */
+    private int[] hashes;
+    /** Open addressing hash table of ids (id + 1, 0 for an empty slot) */
+    private int[] slots;
+    /** Number of names */
+    private int size = 0;
+
+    /** NameTable constructor (the table holds the predefined names)
+      * */
+    public NameTable() {
+	names = new String[256];
+	hashes = new int[256];
+	slots = new int[512];
+	for (String name : PREDEFINED)
+	    intern(name);
+    }
+
+    /** Constructor of a view (which holds no names of its own)
+      * @param view unused, tells this constructor apart
+      * */
+    private NameTable(boolean view) {
+    }
+
+    /** Get the table of the compilation running on the current thread
+      * @return the name table
+      * */
+    public static NameTable getCurrent() {
+	return current.get();
+    }
+
+    /** Start a new table for the current thread
+      * (called at the start of each compilation)
+      * */
+    public static void reset() {
+	current.set(new NameTable());
+    }
+
+    /** Make a table the current one of the current thread (e.g., for a task
+      * of a compilation running on a worker thread)
+      * @param table the name table
+      * */
+    public static void setCurrent(NameTable table) {
+	current.set(table);
+    }
+
+    /** Get a view of this table that can be used by several threads at
+      * once (the view synchronizes on this table).  Names interned through
+      * the view are in this table, so the threads of a phase can intern
+      * through the view, and the compilation goes on with this table
+      * once the phase is over.
+      * @return the synchronized view
+      * */
+    public NameTable shared() {
+	return new SharedView(this);
+    }
+
+    /** Get the canonical instance of a name
+      * @param name the name
+      * @return canonical instance (equal to name)
+      * */
+    public String intern(String name) {
+	int h = name.hashCode();
+	int mask = slots.length - 1;
+	for (int i = spread(h) & mask; ; i = (i + 1) & mask) {
+	    int id = slots[i] - 1;
+	    if (id < 0) {
+		id = add(name, h, i);
+		return names[id];
+	    }
+	    if (hashes[id] == h && names[id].equals(name))
+		return names[id];
+	}
+    }
+
+    /** Get the canonical instance of a name held in a character array
+      * (no string is created if the name is already in the table)
+      * @param buf array holding the name
+      * @param off offset of the name
+      * @param len length of the name
+      * @return canonical instance
+      * */
+    public String intern(char[] buf, int off, int len) {
+	int h = 0;
+	for (int i = 0; i < len; i++)
+	    h = 31 * h + buf[off + i];
+	int mask = slots.length - 1;
+	for (int i = spread(h) & mask; ; i = (i + 1) & mask) {
+	    int id = slots[i] - 1;
+	    if (id < 0) {
+		id = add(new String(buf, off, len), h, i);
+		return names[id];
+	    }
+	    if (hashes[id] == h && regionEquals(names[id], buf, off, len))
+		return names[id];
+	}
+    }
+
+    /** Get the id of a name (the name is interned if it isn't yet)
+      * @param name the name
+      * @return id of the name
+      * */
+    public int getId(String name) {
+	int h = name.hashCode();
+	int mask = slots.length - 1;
+	for (int i = spread(h) & mask; ; i = (i + 1) & mask) {
+	    int id = slots[i] - 1;
+	    if (id < 0)
+		return add(name, h, i);
+	    if (hashes[id] == h && names[id].equals(name))
+		return id;
+	}
+    }
+
+    /** Get the name with a given id
+      * @param id id of the name
+      * @return canonical instance of the name
+      * @throws IndexOutOfBoundsException if there is no such id
+      * */
+    public String getName(int id) {
+	if (id < 0 || id >= size)
+	    throw new IndexOutOfBoundsException("no name with id " + id);
+	return names[id];
+    }
+
+    /** Get the number of names in the table
+      * @return number of names (ids range from 0 to size - 1)
+      * */
+    public int getSize() {
+	return size;
+    }
+
+    /** Add a name to the table
+      * @param name canonical instance of the name
+      * @param h hash code of the name
+      * @param slot empty slot of the hash table for the name
+      * @return id of the name
+      * */
+    private int add(String name, int h, int slot) {
+	if (size == names.length) {
+	    String[] newNames = new String[2 * size];
+	    System.arraycopy(names, 0, newNames, 0, size);
+	    names = newNames;
+	    int[] newHashes = new int[2 * size];
+	    System.arraycopy(hashes, 0, newHashes, 0, size);
+	    hashes = newHashes;
+	}
+	int id = size++;
+	names[id] = name;
+	hashes[id] = h;
+	slots[slot] = id + 1;
+	// keep the hash table at most half full
+	if (2 * size > slots.length)
+	    rehash();
+	return id;
+    }
+
+    /** Double the size of the hash table
+      * */
+    private void rehash() {
+	slots = new int[2 * slots.length];
+	int mask = slots.length - 1;
+	for (int id = 0; id < size; id++) {
+	    int i = spread(hashes[id]) & mask;
+	    while (slots[i] != 0)
+		i = (i + 1) & mask;
+	    slots[i] = id + 1;
+	}
+    }
+
+    /** Mix the high bits of a hash code into the low bits (which select
+      * the slot), as names often differ in their last characters only
+      * @param h hash code
+      * @return spread hash code
+      * */
+    private static int spread(int h) {
+	return h ^ (h >>> 16);
+    }
+
+    /** Does a string hold the characters of an array region?
+      * @param s the string
+      * @param buf the array
+      * @param off offset of the region
+      * @param len length of the region
+      * @return true if the string has the same characters
+      * */
+    private static boolean regionEquals(String s, char[] buf, int off, int len) {
+	if (s.length() != len)
+	    return false;
+	for (int i = 0; i < len; i++) {
+	    if (s.charAt(i) != buf[off + i])
+		return false;
+	}
+	return true;
+    }
+
+    /** Synchronized view of a table (see shared)
+      * */
+    private static class SharedView extends NameTable {
+	/** the table */
+	private final NameTable table;
+
+	/** SharedView constructor
+	  * @param table the table
+	  * */
+	SharedView(NameTable table) {
+	    super(true);
+	    this.table = table;
+	}
+
+	public NameTable shared() {
+	    return this;
+	}
+
+	public String intern(String name) {
+	    synchronized (table) {
+		return table.intern(name);
+	    }
+	}
+
+	public String intern(char[] buf, int off, int len) {
+	    synchronized (table) {
+		return table.intern(buf, off, len);
+	    }
+	}
+
+	public int getId(String name) {
+	    synchronized (table) {
+		return table.getId(name);
+	    }
+	}
+
+	public String getName(int id) {
+	    synchronized (table) {
+		return table.getName(id);
+	    }
+	}
+
+	public int getSize() {
+	    synchronized (table) {
+		return table.getSize();
+	    }
+	}
+    }
+}
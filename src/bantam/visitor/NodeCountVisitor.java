@@ -0,0 +1,42 @@
+/*
+ * File: NodeCountVisitor.java
+ * Date: 10/18/26
+ */
+
+package bantam.visitor;
+
+import bantam.ast.*;
+
+/**
+ * Visitor class for counting the nodes of the AST (list nodes included)
+ */
+public class NodeCountVisitor extends Visitor {
+    /**
+     * Number of nodes visited so far
+     */
+    private int count = 0;
+
+    /**
+     * Count the nodes of an AST
+     *
+     * @param node root of the AST
+     * @return number of nodes in the AST
+     */
+    public int count(ASTNode node) {
+        count = 0;
+        new TreeWalker().walk(node, this);
+        return count;
+    }
+
+    /**
+     * Count AST node
+     *
+     * @param node AST node
+     * @param kind kind of the node
+     * @return true (the children are counted too)
+     */
+    public boolean preVisit(ASTNode node, int kind) {
+        count++;
+        return true;
+    }
+}
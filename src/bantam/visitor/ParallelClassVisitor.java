@@ -0,0 +1,220 @@
+/*
+ * File: ParallelClassVisitor.java
+ * Date: 10/18/26
+ */
+
+package bantam.visitor;
+
+import bantam.ast.ClassList;
+import bantam.ast.Class_;
+import bantam.ast.Program;
+import bantam.util.CompilationException;
+import bantam.util.ErrorHandler;
+import bantam.util.NameTable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The <tt>ParallelClassVisitor</tt> class visits the classes of a program
+ * in parallel on a fork-join pool, for the passes that handle each class on
+ * its own once the class hierarchy is built (e.g., type checking the members
+ * of each class, generating the code of the methods of each class, or
+ * printing the AST).
+ * <p/>
+ * Each class is visited by a visitor of its own, which a factory creates on
+ * the worker thread visiting the class, so the state of a visitor (e.g., its
+ * scopes or its output buffer) is confined to one thread; whatever the
+ * visitors share (e.g., the class hierarchy) should only be read.  The
+ * shared view of the name table of the calling thread is the current one of
+ * the worker during the visit, as the table of the compilation.  Each
+ * visitor also reports into an <tt>ErrorHandler</tt> of its own.
+ * <p/>
+ * Once every class is visited, the results of the visits (the values the
+ * classes' <tt>accept</tt> returned) are returned in class order, and the
+ * errors of the classes are added to the caller's error handler in class
+ * order, so neither depends on how the visits were scheduled.  A visit
+ * halted by its error handler (after 100 errors) has a null result; if a
+ * visit failed otherwise, the first such failure (in class order) is thrown
+ * once the errors are added.
+ */
+public class ParallelClassVisitor {
+    /**
+     * Factory of the visitors of the classes
+     */
+    public interface Factory {
+        /**
+         * Create the visitor of a class (on the worker thread visiting it)
+         *
+         * @param node         the class
+         * @param errorHandler error handler of the visit
+         * @return the visitor
+         */
+        Visitor newVisitor(Class_ node, ErrorHandler errorHandler);
+    }
+
+    /**
+     * Factory of the visitors of the classes
+     */
+    private Factory factory;
+    /**
+     * Pool the classes are visited on
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * ParallelClassVisitor constructor (uses the common fork-join pool)
+     *
+     * @param factory factory of the visitors of the classes
+     */
+    public ParallelClassVisitor(Factory factory) {
+        this(factory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * ParallelClassVisitor constructor
+     *
+     * @param factory factory of the visitors of the classes
+     * @param pool    pool the classes are visited on
+     */
+    public ParallelClassVisitor(Factory factory, ForkJoinPool pool) {
+        this.factory = factory;
+        this.pool = pool;
+    }
+
+    /**
+     * Visit the classes of a program
+     *
+     * @param program      the program
+     * @param errorHandler error handler the errors of the classes are added to
+     * @return result of the visit of each class (in class order)
+     * @throws CompilationException if the error handler halted on adding the
+     *                              errors of the classes
+     */
+    public Object[] visit(Program program, ErrorHandler errorHandler) {
+        return visit(program.getClassList(), errorHandler);
+    }
+
+    /**
+     * Visit a list of classes
+     *
+     * @param classList    the classes
+     * @param errorHandler error handler the errors of the classes are added to
+     * @return result of the visit of each class (in class order)
+     * @throws CompilationException if the error handler halted on adding the
+     *                              errors of the classes
+     */
+    public Object[] visit(ClassList classList, ErrorHandler errorHandler) {
+        int size = classList.getSize();
+        Object[] results = new Object[size];
+        ErrorHandler[] errorHandlers = new ErrorHandler[size];
+        Throwable[] failures = new Throwable[size];
+        if (size > 0) {
+            pool.invoke(new VisitTask(classList, NameTable.getCurrent().shared(), 0, size,
+                    results, errorHandlers, failures));
+        }
+
+        // merge the errors (and find the first failure) in class order
+        Throwable failure = null;
+        for (int i = 0; i < size; i++) {
+            errorHandler.registerAll(errorHandlers[i]);
+            if (failure == null) {
+                failure = failures[i];
+            }
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+        return results;
+    }
+
+    /**
+     * Task visiting a range of classes (split in halves down to single
+     * classes, as visiting a class is typically far more work than a task)
+     */
+    private class VisitTask extends RecursiveAction {
+        /**
+         * Serialization version (tasks are serializable)
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The classes
+         */
+        private ClassList classList;
+        /**
+         * Shared view of the name table of the compilation
+         */
+        private NameTable names;
+        /**
+         * First class of the range
+         */
+        private int lo;
+        /**
+         * Class after the range
+         */
+        private int hi;
+        /**
+         * Result of the visit of each class (filled in by the task)
+         */
+        private Object[] results;
+        /**
+         * Error handler of the visit of each class (filled in by the task)
+         */
+        private ErrorHandler[] errorHandlers;
+        /**
+         * Exception thrown by the visit of each class, other than the halting
+         * of its error handler (filled in by the task)
+         */
+        private Throwable[] failures;
+
+        /**
+         * VisitTask constructor
+         *
+         * @param classList     the classes
+         * @param names         shared view of the name table of the compilation
+         * @param lo            first class of the range
+         * @param hi            class after the range
+         * @param results       result of the visit of each class
+         * @param errorHandlers error handler of the visit of each class
+         * @param failures      exception thrown by the visit of each class
+         */
+        VisitTask(ClassList classList, NameTable names, int lo, int hi, Object[] results,
+                  ErrorHandler[] errorHandlers, Throwable[] failures) {
+            this.classList = classList;
+            this.names = names;
+            this.lo = lo;
+            this.hi = hi;
+            this.results = results;
+            this.errorHandlers = errorHandlers;
+            this.failures = failures;
+        }
+
+        /**
+         * Visit the range of classes
+         */
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new VisitTask(classList, names, lo, mid, results, errorHandlers, failures),
+                        new VisitTask(classList, names, mid, hi, results, errorHandlers, failures));
+                return;
+            }
+            errorHandlers[lo] = new ErrorHandler();
+            NameTable previous = NameTable.getCurrent();
+            NameTable.setCurrent(names);
+            try {
+                Class_ node = (Class_) classList.get(lo);
+                results[lo] = node.accept(factory.newVisitor(node, errorHandlers[lo]));
+            } catch (CompilationException e) {
+                // the error handler halted: its errors are merged with the others
+            } catch (Throwable t) {
+                failures[lo] = t;
+            } finally {
+                NameTable.setCurrent(previous);
+            }
+        }
+    }
+}
@@ -28,12 +28,16 @@ package bantam.visitor;
 
 import bantam.ast.*;
 
-import java.util.Iterator;
+import java.io.PrintStream;
+
+import static bantam.ast.FlatAST.*;
 
 /**
- * Visitor class for printing the AST
+ * Visitor class for printing the AST, or any subtree of it (with a
+ * <tt>TreeWalker</tt>, so expressions and statements can be nested
+ * arbitrarily deep)
  */
-public class PrintVisitor extends Visitor {
+public class PrintVisitor extends WalkingVisitor {
     /**
      * Current indentation
      */
@@ -42,114 +46,339 @@ public class PrintVisitor extends Visitor {
      * Indentation size
      */
     private int indentSize;
+    /**
+     * Stream the AST is printed to
+     */
+    private PrintStream out;
 
     /**
-     * PrintVisitor constructor
+     * PrintVisitor constructor (prints to the standard output)
      *
      * @param indent     starting indentation
      * @param indentSize indentation size
      */
     public PrintVisitor(int indent, int indentSize) {
-        this.indent = indent;
-        this.indentSize = indentSize;
-    }
-
-    /**
-     * Print indentation
-     */
-    private void indent() {
-        for (int i = 0; i < indent; i++) System.out.print(" ");
+        this(indent, indentSize, System.out);
     }
 
     /**
-     * Print AST node
+     * PrintVisitor constructor
      *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
+     * @param indent     starting indentation
+     * @param indentSize indentation size
+     * @param out        stream the AST is printed to
      */
-    public Object visit(Class_ node) {
-        indent();
-        System.out.println("// Source file: " + node.getFilename());
-        indent();
-        System.out.println("// Source line: " + node.getLineNum());
-        indent();
-        System.out.println("class " + node.getName() + " extends " +
-                node.getParent() + " {");
-        indent += indentSize;
-        node.getMemberList().accept(this);
-        indent -= indentSize;
-        indent();
-        System.out.println("}");
-        return null;
+    public PrintVisitor(int indent, int indentSize, PrintStream out) {
+        this.indent = indent;
+        this.indentSize = indentSize;
+        this.out = out;
     }
 
     /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
+     * Print indentation
      */
-    public Object visit(Field node) {
-        indent();
-        System.out.println("// Source line: " + node.getLineNum());
-        indent();
-        if (node.getInit() == null) {
-            System.out.println(node.getType() + " " + node.getName() + ";");
-        }
-        else {
-            System.out.print(node.getType() + " " + node.getName() + " = ");
-            node.getInit().accept(this);
-            System.out.println(";");
+    private void indent() {
+        for (int i = 0; i < indent; i++) out.print(" ");
+    }
+
+    /**
+     * Print the part of a node before its children
+     *
+     * @param node AST node
+     * @param kind kind of the node
+     * @return true (the children are printed)
+     */
+    public boolean preVisit(ASTNode node, int kind) {
+        switch (kind) {
+            case CLASS:
+                Class_ class_ = (Class_) node;
+                indent();
+                out.println("// Source file: " + class_.getFilename());
+                indent();
+                out.println("// Source line: " + class_.getLineNum());
+                indent();
+                out.println("class " + class_.getName() + " extends " +
+                        class_.getParent() + " {");
+                indent += indentSize;
+                break;
+            case FIELD:
+                Field field = (Field) node;
+                indent();
+                out.println("// Source line: " + field.getLineNum());
+                indent();
+                if (field.getInit() == null) {
+                    out.println(field.getType() + " " + field.getName() + ";");
+                }
+                else {
+                    out.print(field.getType() + " " + field.getName() + " = ");
+                }
+                break;
+            case METHOD:
+                Method method = (Method) node;
+                indent();
+                out.println("// Source line: " + method.getLineNum());
+                indent();
+                out.print(method.getReturnType() + " " + method.getName() + "(");
+                break;
+            case FORMAL:
+                Formal formal = (Formal) node;
+                out.print("/*line:" + formal.getLineNum() + "*/" + formal.getType() +
+                        " " + formal.getName());
+                break;
+            case DECL_STMT:
+                DeclStmt declStmt = (DeclStmt) node;
+                printStmtMeta((Stmt) node);
+                indent();
+                // note: init can't be null as it can with fields
+                out.print(declStmt.getType() + " " + declStmt.getName() + " = ");
+                break;
+            case EXPR_STMT:
+                printStmtMeta((Stmt) node);
+                indent();
+                break;
+            case IF_STMT:
+                printStmtMeta((Stmt) node);
+                indent();
+                out.print("if (");
+                break;
+            case WHILE_STMT:
+                printStmtMeta((Stmt) node);
+                indent();
+                out.print("while (");
+                break;
+            case FOR_STMT:
+                printStmtMeta((Stmt) node);
+                indent();
+                out.print("for (");
+                break;
+            case BREAK_STMT:
+                printStmtMeta((Stmt) node);
+                indent();
+                out.println("break;");
+                break;
+            case BLOCK_STMT:
+                printStmtMeta((Stmt) node);
+                indent();
+                out.println("{");
+                indent += indentSize;
+                break;
+            case RETURN_STMT:
+                indent();
+                out.println("// Source line: " + node.getLineNum());
+                indent();
+                if (((ReturnStmt) node).getExpr() == null) {
+                    out.println("return;");
+                }
+                else {
+                    out.print("return ");
+                }
+                break;
+            case NEW_EXPR:
+                out.print("(");
+                printExprMeta((Expr) node);
+                out.print("new " + ((NewExpr) node).getType() + "())");
+                break;
+            case NEW_ARRAY_EXPR:
+                out.print("(");
+                printExprMeta((Expr) node);
+                out.print("new " + ((NewArrayExpr) node).getType() + "[");
+                break;
+            case CAST_EXPR:
+                out.print("(");
+                printExprMeta((Expr) node);
+                out.print("(" + ((CastExpr) node).getType() + ")(");
+                break;
+            case ASSIGN_EXPR:
+                AssignExpr assignExpr = (AssignExpr) node;
+                out.print("(");
+                printExprMeta(assignExpr);
+                if (assignExpr.getRefName() != null) {
+                    out.print(assignExpr.getRefName() + ".");
+                }
+                out.print(assignExpr.getName() + " = ");
+                break;
+            case ARRAY_ASSIGN_EXPR:
+                ArrayAssignExpr arrayAssignExpr = (ArrayAssignExpr) node;
+                out.print("(");
+                printExprMeta(arrayAssignExpr);
+                if (arrayAssignExpr.getRefName() != null) {
+                    out.print(arrayAssignExpr.getRefName() + ".");
+                }
+                out.print(arrayAssignExpr.getName() + "[");
+                break;
+            case NEG_EXPR:
+            case NOT_EXPR:
+            case INCR_EXPR:
+            case DECR_EXPR:
+                UnaryExpr unaryExpr = (UnaryExpr) node;
+                out.print("(");
+                printExprMeta(unaryExpr);
+                if (!unaryExpr.isPostfix()) {
+                    out.print(unaryExpr.getOpName());
+                }
+                out.print("(");
+                break;
+            case INT_CONST_EXPR:
+            case BOOLEAN_CONST_EXPR:
+            case STRING_CONST_EXPR:
+                printConstExpr((ConstExpr) node);
+                break;
+            case DISPATCH_EXPR:
+            case INSTANCEOF_EXPR:
+            case VAR_EXPR:
+            case ARRAY_EXPR:
+                out.print("(");
+                printExprMeta((Expr) node);
+                break;
+            default:
+                if (node instanceof BinaryExpr) {
+                    out.print("(");
+                    printExprMeta((Expr) node);
+                }
         }
-        return null;
+        return true;
     }
 
     /**
-     * Print AST node
+     * Print the part of a node between two of its children
      *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
+     * @param node  AST node
+     * @param kind  kind of the node
+     * @param index position of the next child
      */
-    public Object visit(Method node) {
-        indent();
-        System.out.println("// Source line: " + node.getLineNum());
-        indent();
-        System.out.print(node.getReturnType() + " " + node.getName() + "(");
-        node.getFormalList().accept(this);
-        System.out.println(") {");
-        indent += indentSize;
-        node.getStmtList().accept(this);
-        indent -= indentSize;
-        indent();
-        System.out.println("}");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(FormalList node) {
-        Iterator iter = node.iterator();
-        for (int i = 0; iter.hasNext(); i++) {
-            ((Formal) iter.next()).accept(this);
-            if (i < node.getSize() - 1) {
-                System.out.print(", ");
-            }
+    public void inVisit(ASTNode node, int kind, int index) {
+        switch (kind) {
+            case METHOD:
+                out.println(") {");
+                indent += indentSize;
+                break;
+            case IF_STMT:
+                if (index == 1) {
+                    out.println(")");
+                    indent += indentSize;
+                }
+                else if (((IfStmt) node).getElseStmt() != null) {
+                    indent -= indentSize;
+                    indent();
+                    out.println("else");
+                    indent += indentSize;
+                }
+                break;
+            case WHILE_STMT:
+                out.println(")");
+                indent += indentSize;
+                break;
+            case FOR_STMT:
+                if (index < 3) {
+                    out.print("; ");
+                }
+                else {
+                    out.println(")");
+                    indent += indentSize;
+                }
+                break;
+            case FORMAL_LIST:
+            case EXPR_LIST:
+                out.print(", ");
+                break;
+            case DISPATCH_EXPR:
+                DispatchExpr dispatchExpr = (DispatchExpr) node;
+                if (dispatchExpr.getRefExpr() != null) {
+                    out.print(".");
+                }
+                out.print(dispatchExpr.getMethodName() + "(");
+                break;
+            case ARRAY_ASSIGN_EXPR:
+                out.print("] = ");
+                break;
+            case ARRAY_EXPR:
+                ArrayExpr arrayExpr = (ArrayExpr) node;
+                if (arrayExpr.getRef() != null) {
+                    out.print(".");
+                }
+                out.print(arrayExpr.getName() + "[");
+                break;
+            default:
+                if (node instanceof BinaryExpr) {
+                    out.print(" " + ((BinaryExpr) node).getOpName() + " ");
+                }
         }
-        return null;
     }
 
     /**
-     * Print AST node
+     * Print the part of a node after its children
      *
-     * @param node AST node
+     * @param node    AST node
+     * @param kind    kind of the node
+     * @param results results of the children (unused)
      * @return null (returns value to satisfy compiler)
      */
-    public Object visit(Formal node) {
-        System.out.print("/*line:" + node.getLineNum() + "*/" + node.getType() + " " + node.getName());
+    public Object postVisit(ASTNode node, int kind, Object[] results) {
+        switch (kind) {
+            case CLASS:
+            case METHOD:
+            case BLOCK_STMT:
+                indent -= indentSize;
+                indent();
+                out.println("}");
+                break;
+            case FIELD:
+                if (((Field) node).getInit() != null) {
+                    out.println(";");
+                }
+                break;
+            case DECL_STMT:
+            case EXPR_STMT:
+                out.println(";");
+                break;
+            case IF_STMT:
+            case WHILE_STMT:
+            case FOR_STMT:
+                indent -= indentSize;
+                break;
+            case RETURN_STMT:
+                if (((ReturnStmt) node).getExpr() != null) {
+                    out.println(";");
+                }
+                break;
+            case DISPATCH_EXPR:
+            case CAST_EXPR:
+                out.print("))");
+                break;
+            case NEW_ARRAY_EXPR:
+            case ARRAY_EXPR:
+                out.print("])");
+                break;
+            case INSTANCEOF_EXPR:
+                out.print(" instanceof " + ((InstanceofExpr) node).getType() + ")");
+                break;
+            case NEG_EXPR:
+            case NOT_EXPR:
+            case INCR_EXPR:
+            case DECR_EXPR:
+                UnaryExpr unaryExpr = (UnaryExpr) node;
+                out.print(")");
+                if (unaryExpr.isPostfix()) {
+                    out.print(unaryExpr.getOpName());
+                }
+                out.print(")");
+                break;
+            case VAR_EXPR:
+                VarExpr varExpr = (VarExpr) node;
+                if (varExpr.getRef() != null) {
+                    out.print(".");
+                }
+                out.print(varExpr.getName() + ")");
+                break;
+            case ASSIGN_EXPR:
+            case ARRAY_ASSIGN_EXPR:
+                out.print(")");
+                break;
+            default:
+                if (node instanceof BinaryExpr) {
+                    out.print(")");
+                }
+        }
         return null;
     }
 
@@ -160,177 +389,7 @@ public class PrintVisitor extends Visitor {
      */
     private void printStmtMeta(Stmt node) {
         indent();
-        System.out.println("// Source line: " + node.getLineNum());
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(DeclStmt node) {
-        printStmtMeta(node);
-        indent();
-        // note: init can't be null as it can with fields
-        System.out.print(node.getType() + " " + node.getName() + " = ");
-        node.getInit().accept(this);
-        System.out.println(";");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(ExprStmt node) {
-        printStmtMeta(node);
-        indent();
-        node.getExpr().accept(this);
-        System.out.println(";");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(IfStmt node) {
-        printStmtMeta(node);
-        indent();
-        System.out.print("if (");
-        node.getPredExpr().accept(this);
-        System.out.println(")");
-        indent += indentSize;
-        node.getThenStmt().accept(this);
-        if (node.getElseStmt() != null) {
-            indent -= indentSize;
-            indent();
-            System.out.println("else");
-            indent += indentSize;
-            node.getElseStmt().accept(this);
-        }
-        indent -= indentSize;
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(WhileStmt node) {
-        printStmtMeta(node);
-        indent();
-        System.out.print("while (");
-        node.getPredExpr().accept(this);
-        System.out.println(")");
-        indent += indentSize;
-        node.getBodyStmt().accept(this);
-        indent -= indentSize;
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(ForStmt node) {
-        printStmtMeta(node);
-        indent();
-        System.out.print("for (");
-        if (node.getInitExpr() != null) {
-            node.getInitExpr().accept(this);
-        }
-        System.out.print("; ");
-        if (node.getPredExpr() != null) {
-            node.getPredExpr().accept(this);
-        }
-        System.out.print("; ");
-        if (node.getUpdateExpr() != null) {
-            node.getUpdateExpr().accept(this);
-        }
-        System.out.println(")");
-        indent += indentSize;
-        node.getBodyStmt().accept(this);
-        indent -= indentSize;
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BreakStmt node) {
-        printStmtMeta(node);
-        indent();
-        System.out.println("break;");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BlockStmt node) {
-        printStmtMeta(node);
-        indent();
-        System.out.println("{");
-        indent += indentSize;
-        node.getStmtList().accept(this);
-        indent -= indentSize;
-        indent();
-        System.out.println("}");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(ReturnStmt node) {
-        indent();
-        System.out.println("// Source line: " + node.getLineNum());
-        indent();
-        if (node.getExpr() == null) {
-            System.out.println("return;");
-        }
-        else {
-            System.out.print("return ");
-            node.getExpr().accept(this);
-            System.out.println(";");
-        }
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(ExprList node) {
-        Iterator iter = node.iterator();
-        for (int i = 0; iter.hasNext(); i++) {
-            ((ASTNode) iter.next()).accept(this);
-            if (i < node.getSize() - 1) {
-                System.out.print(", ");
-            }
-        }
-        return null;
+        out.println("// Source line: " + node.getLineNum());
     }
 
     /**
@@ -340,384 +399,13 @@ public class PrintVisitor extends Visitor {
      */
     private void printExprMeta(Expr node) {
         if (node.getExprType() == null) {
-            System.out.print("/*line:" + node.getLineNum() + "*/");
+            out.print("/*line:" + node.getLineNum() + "*/");
         }
         else {
-            System.out.print("/*line:" + node.getLineNum() + ",type:" + node.getExprType() + "*/");
+            out.print("/*line:" + node.getLineNum() + ",type:" + node.getExprType() + "*/");
         }
     }
 
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(DispatchExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        if(node.getRefExpr() != null) {
-            node.getRefExpr().accept(this);
-            System.out.print(".");
-        }
-        System.out.print(node.getMethodName() + "(");
-        node.getActualList().accept(this);
-        System.out.print("))");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(NewExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        System.out.print("new " + node.getType() + "())");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(NewArrayExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        System.out.print("new " + node.getType() + "[");
-        node.getSize().accept(this);
-        System.out.print("])");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(InstanceofExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        node.getExpr().accept(this);
-        System.out.print(" instanceof " + node.getType() + ")");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(CastExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        System.out.print("(" + node.getType() + ")(");
-        node.getExpr().accept(this);
-        System.out.print("))");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(AssignExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        if (node.getRefName() != null) {
-            System.out.print(node.getRefName() + ".");
-        }
-        System.out.print(node.getName() + " = ");
-        node.getExpr().accept(this);
-        System.out.print(")");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(ArrayAssignExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        if (node.getRefName() != null) {
-            System.out.print(node.getRefName() + ".");
-        }
-        System.out.print(node.getName() + "[");
-        node.getIndex().accept(this);
-        System.out.print("] = ");
-        node.getExpr().accept(this);
-        System.out.print(")");
-        return null;
-    }
-
-    /**
-     * Print a binary expression node
-     *
-     * @param node binary expression node
-     */
-    public void printBinaryExpr(BinaryExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        node.getLeftExpr().accept(this);
-        System.out.print(" " + node.getOpName() + " ");
-        node.getRightExpr().accept(this);
-        System.out.print(")");
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryCompEqExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryCompNeExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryCompLtExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryCompLeqExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryCompGtExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryCompGeqExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryArithPlusExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryArithMinusExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryArithTimesExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryArithDivideExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryArithModulusExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryLogicAndExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(BinaryLogicOrExpr node) {
-        printBinaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print a unary expression node
-     *
-     * @param node unary expression node
-     */
-    public void printUnaryExpr(UnaryExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        if (!node.isPostfix()) {
-            System.out.print(node.getOpName());
-        }
-        System.out.print("(");
-        node.getExpr().accept(this);
-        System.out.print(")");
-        if (node.isPostfix()) {
-            System.out.print(node.getOpName());
-        }
-        System.out.print(")");
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(UnaryNegExpr node) {
-        printUnaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(UnaryNotExpr node) {
-        printUnaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(UnaryIncrExpr node) {
-        printUnaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(UnaryDecrExpr node) {
-        printUnaryExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(VarExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        if (node.getRef() != null) {
-            node.getRef().accept(this);
-            System.out.print(".");
-        }
-        System.out.print(node.getName() + ")");
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(ArrayExpr node) {
-        System.out.print("(");
-        printExprMeta(node);
-        if (node.getRef() != null) {
-            node.getRef().accept(this);
-            System.out.print(".");
-        }
-        System.out.print(node.getName() + "[");
-        node.getIndex().accept(this);
-        System.out.print("])");
-        return null;
-    }
-
     /**
      * Print constant expression node
      *
@@ -725,65 +413,32 @@ public class PrintVisitor extends Visitor {
      */
     public void printConstExpr(ConstExpr node) {
         String constant = node.getConstant();
-        System.out.print("(");
+        out.print("(");
         printExprMeta(node);
         if (node instanceof ConstStringExpr) {
-            System.out.print("\"");
+            out.print("\"");
             for (int i = 0; i < constant.length(); i++) {
                 if (constant.charAt(i) == '\n') {
-                    System.out.print("\\n");
+                    out.print("\\n");
                 }
                 else if (constant.charAt(i) == '\t') {
-                    System.out.print("\\t");
+                    out.print("\\t");
                 }
                 else if (constant.charAt(i) == '\r') {
-                    System.out.print("\\r");
+                    out.print("\\r");
                 }
                 else if (constant.charAt(i) == '\f') {
-                    System.out.print("\\f");
+                    out.print("\\f");
                 }
                 else {
-                    System.out.print(constant.charAt(i));
+                    out.print(constant.charAt(i));
                 }
             }
-            System.out.print("\"");
+            out.print("\"");
         }
         else {
-            System.out.print(constant);
+            out.print(constant);
         }
-        System.out.print(")");
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(ConstIntExpr node) {
-        printConstExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(ConstBooleanExpr node) {
-        printConstExpr(node);
-        return null;
-    }
-
-    /**
-     * Print AST node
-     *
-     * @param node AST node
-     * @return null (returns value to satisfy compiler)
-     */
-    public Object visit(ConstStringExpr node) {
-        printConstExpr(node);
-        return null;
+        out.print(")");
     }
 }
@@ -0,0 +1,325 @@
+/*
+ * File: TreeWalker.java
+ * Date: 10/18/26
+ */
+
+package bantam.visitor;
+
+import bantam.ast.*;
+
+import java.util.Arrays;
+
+import static bantam.ast.FlatAST.*;
+
+/**
+ * The <tt>TreeWalker</tt> class traverses an AST with an explicit stack
+ * instead of recursion, so it handles ASTs of any depth (e.g., a chain of
+ * a hundred thousand additions) without tuning the thread stack size.
+ * <p/>
+ * Visitors opt into it by overriding the callbacks of <tt>Visitor</tt>
+ * instead of the <tt>visit</tt> methods:
+ * <ul>
+ * <li><tt>preVisit</tt> is called when a node is entered, before its
+ * children</li>
+ * <li><tt>inVisit</tt> is called between two children of a node (before
+ * the second, third, ... child, whether or not the child is present)</li>
+ * <li><tt>postVisit</tt> is called when a node is left, with the results of
+ * the <tt>postVisit</tt> calls of its children, and its result is given to
+ * the parent of the node in turn</li>
+ * </ul>
+ * Each callback is given the kind of the node (as numbered by
+ * <tt>FlatAST</tt>), which the walker looks up once per node, so that a
+ * visitor can switch on it rather than dispatch twice per node through
+ * <tt>accept</tt>.  The children of a node are walked in the order of the
+ * arguments of its constructor (as in <tt>FlatAST</tt>); a missing optional
+ * child (e.g., the initializer of a field) is skipped, and its result is
+ * null.
+ * <p/>
+ * A walker can be reused, but it only runs one walk at a time.
+ */
+public class TreeWalker {
+    /**
+     * Results of the children of the nodes whose children all returned null,
+     * by number of children (reused, as most visitors return nothing; they
+     * belong to the walker, since visitors on other threads run walkers of
+     * their own, and are cleared after each use in case a visitor wrote into
+     * them)
+     */
+    private final Object[][] nullResults = new Object[16][];
+
+    /**
+     * TreeWalker constructor
+     */
+    public TreeWalker() {
+        for (int i = 0; i < nullResults.length; i++) {
+            nullResults[i] = new Object[i];
+        }
+    }
+
+    /**
+     * Nodes on the path from the root to the current node
+     */
+    private ASTNode[] nodes = new ASTNode[64];
+    /**
+     * Kind of each node on the path
+     */
+    private int[] kinds = new int[64];
+    /**
+     * Position in slots of the children of each node on the path
+     */
+    private int[] firstSlots = new int[64];
+    /**
+     * Number of children of each node on the path (-1 until it is entered)
+     */
+    private int[] numChildren = new int[64];
+    /**
+     * Index of the next child to walk of each node on the path
+     */
+    private int[] nextChildren = new int[64];
+    /**
+     * Number of non-null results when each node on the path was entered
+     */
+    private int[] numNonNullResultsBefore = new int[64];
+    /**
+     * Number of nodes on the path
+     */
+    private int depth = 0;
+    /**
+     * Children of the nodes on the path, in order (each child is replaced by
+     * its result once it is done)
+     */
+    private Object[] slots = new Object[256];
+    /**
+     * Number of slots in use
+     */
+    private int numSlots = 0;
+    /**
+     * Number of non-null results in the slots
+     */
+    private int numNonNullResults = 0;
+
+    /**
+     * Walk an AST
+     *
+     * @param root root of the AST
+     * @param v    visitor whose callbacks are called
+     * @return result of the postVisit call of the root
+     */
+    public Object walk(ASTNode root, Visitor v) {
+        depth = 0;
+        numSlots = 0;
+        numNonNullResults = 0;
+        try {
+            push(root);
+            while (true) {
+                int top = depth - 1;
+                ASTNode node = nodes[top];
+                int kind = kinds[top];
+                int count = numChildren[top];
+                if (count < 0) {
+                    firstSlots[top] = numSlots;
+                    count = v.preVisit(node, kind) ? addChildren(node, kind) : 0;
+                    numChildren[top] = count;
+                }
+                int index = nextChildren[top];
+                if (index < count) {
+                    if (index > 0) {
+                        v.inVisit(node, kind, index);
+                    }
+                    nextChildren[top] = index + 1;
+                    ASTNode child = (ASTNode) slots[firstSlots[top] + index];
+                    if (child != null) {
+                        push(child);
+                    }
+                    continue;
+                }
+
+                // all the children are done: leave the node
+                int first = firstSlots[top];
+                Object[] results;
+                if (numNonNullResults == numNonNullResultsBefore[top] &&
+                        count < nullResults.length) {
+                    results = nullResults[count];
+                }
+                else {
+                    results = Arrays.copyOfRange(slots, first, first + count);
+                    Arrays.fill(slots, first, first + count, null);
+                    numNonNullResults = numNonNullResultsBefore[top];
+                }
+                numSlots = first;
+                nodes[top] = null;
+                depth = top;
+                Object result = v.postVisit(node, kind, results);
+                if (count < nullResults.length && results == nullResults[count]) {
+                    Arrays.fill(results, null);
+                }
+                if (top == 0) {
+                    return result;
+                }
+                // the result replaces the node among the children of its parent
+                if (result != null) {
+                    slots[firstSlots[top - 1] + nextChildren[top - 1] - 1] = result;
+                    numNonNullResults++;
+                }
+                else {
+                    slots[firstSlots[top - 1] + nextChildren[top - 1] - 1] = null;
+                }
+            }
+        } finally {
+            Arrays.fill(nodes, 0, depth, null);
+            Arrays.fill(slots, 0, numSlots, null);
+            for (Object[] results : nullResults) {
+                Arrays.fill(results, null);
+            }
+            depth = 0;
+            numSlots = 0;
+        }
+    }
+
+    /**
+     * Add the children of a node to the slots (including the missing
+     * optional ones, as nulls)
+     *
+     * @param node the node
+     * @param kind kind of the node
+     * @return number of children
+     */
+    private int addChildren(ASTNode node, int kind) {
+        switch (kind) {
+            case PROGRAM:
+                return addChild(((Program) node).getClassList());
+            case CLASS:
+                return addChild(((Class_) node).getMemberList());
+            case FIELD:
+                return addChild(((Field) node).getInit());
+            case METHOD:
+                Method method = (Method) node;
+                return addChildren(method.getFormalList(), method.getStmtList());
+            case DECL_STMT:
+                return addChild(((DeclStmt) node).getInit());
+            case EXPR_STMT:
+                return addChild(((ExprStmt) node).getExpr());
+            case IF_STMT:
+                IfStmt ifStmt = (IfStmt) node;
+                addChildren(ifStmt.getPredExpr(), ifStmt.getThenStmt());
+                return 2 + addChild(ifStmt.getElseStmt());
+            case WHILE_STMT:
+                WhileStmt whileStmt = (WhileStmt) node;
+                return addChildren(whileStmt.getPredExpr(), whileStmt.getBodyStmt());
+            case FOR_STMT:
+                ForStmt forStmt = (ForStmt) node;
+                addChildren(forStmt.getInitExpr(), forStmt.getPredExpr());
+                return 2 + addChildren(forStmt.getUpdateExpr(), forStmt.getBodyStmt());
+            case BLOCK_STMT:
+                return addChild(((BlockStmt) node).getStmtList());
+            case RETURN_STMT:
+                return addChild(((ReturnStmt) node).getExpr());
+            case DISPATCH_EXPR:
+                DispatchExpr dispatchExpr = (DispatchExpr) node;
+                return addChildren(dispatchExpr.getRefExpr(), dispatchExpr.getActualList());
+            case NEW_ARRAY_EXPR:
+                return addChild(((NewArrayExpr) node).getSize());
+            case INSTANCEOF_EXPR:
+                return addChild(((InstanceofExpr) node).getExpr());
+            case CAST_EXPR:
+                return addChild(((CastExpr) node).getExpr());
+            case ASSIGN_EXPR:
+                return addChild(((AssignExpr) node).getExpr());
+            case ARRAY_ASSIGN_EXPR:
+                ArrayAssignExpr arrayAssignExpr = (ArrayAssignExpr) node;
+                return addChildren(arrayAssignExpr.getIndex(), arrayAssignExpr.getExpr());
+            case NEG_EXPR:
+            case NOT_EXPR:
+            case INCR_EXPR:
+            case DECR_EXPR:
+                return addChild(((UnaryExpr) node).getExpr());
+            case VAR_EXPR:
+                return addChild(((VarExpr) node).getRef());
+            case ARRAY_EXPR:
+                ArrayExpr arrayExpr = (ArrayExpr) node;
+                return addChildren(arrayExpr.getRef(), arrayExpr.getIndex());
+            case FORMAL:
+            case BREAK_STMT:
+            case NEW_EXPR:
+            case INT_CONST_EXPR:
+            case BOOLEAN_CONST_EXPR:
+            case STRING_CONST_EXPR:
+                return 0;
+            case CLASS_LIST:
+            case MEMBER_LIST:
+            case FORMAL_LIST:
+            case STMT_LIST:
+            case EXPR_LIST:
+                ListNode list = (ListNode) node;
+                int size = list.getSize();
+                ensureSlots(size);
+                for (int i = 0; i < size; i++) {
+                    slots[numSlots++] = list.get(i);
+                }
+                return size;
+            default:
+                BinaryExpr binaryExpr = (BinaryExpr) node;
+                return addChildren(binaryExpr.getLeftExpr(), binaryExpr.getRightExpr());
+        }
+    }
+
+    /**
+     * Add a child to the slots
+     *
+     * @param child the child (or null)
+     * @return 1 (number of children added)
+     */
+    private int addChild(ASTNode child) {
+        ensureSlots(1);
+        slots[numSlots++] = child;
+        return 1;
+    }
+
+    /**
+     * Add two children to the slots
+     *
+     * @param child1 the first child (or null)
+     * @param child2 the second child (or null)
+     * @return 2 (number of children added)
+     */
+    private int addChildren(ASTNode child1, ASTNode child2) {
+        ensureSlots(2);
+        slots[numSlots++] = child1;
+        slots[numSlots++] = child2;
+        return 2;
+    }
+
+    /**
+     * Make room for more slots
+     *
+     * @param count number of slots needed
+     */
+    private void ensureSlots(int count) {
+        if (numSlots + count > slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(2 * slots.length, numSlots + count));
+        }
+    }
+
+    /**
+     * Push a node onto the path
+     *
+     * @param node the node
+     */
+    private void push(ASTNode node) {
+        if (depth == nodes.length) {
+            int capacity = 2 * depth;
+            nodes = Arrays.copyOf(nodes, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            firstSlots = Arrays.copyOf(firstSlots, capacity);
+            numChildren = Arrays.copyOf(numChildren, capacity);
+            nextChildren = Arrays.copyOf(nextChildren, capacity);
+            numNonNullResultsBefore = Arrays.copyOf(numNonNullResultsBefore, capacity);
+        }
+        nodes[depth] = node;
+        kinds[depth] = kindOf(node);
+        numChildren[depth] = -1;
+        nextChildren[depth] = 0;
+        numNonNullResultsBefore[depth] = numNonNullResults;
+        depth++;
+    }
+}
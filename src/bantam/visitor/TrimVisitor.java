@@ -0,0 +1,43 @@
+/*
+ * File: TrimVisitor.java
+ * Date: 10/18/26
+ */
+
+package bantam.visitor;
+
+import bantam.ast.*;
+
+/**
+ * Visitor class for trimming the storage of the list nodes of the AST to
+ * their size (once parsing is done)
+ */
+public class TrimVisitor extends Visitor {
+    /**
+     * Trim the list nodes of an AST
+     *
+     * @param node root of the AST
+     */
+    public void trim(ASTNode node) {
+        new TreeWalker().walk(node, this);
+    }
+
+    /**
+     * Trim list node (the other nodes are left as they are)
+     *
+     * @param node AST node
+     * @param kind kind of the node
+     * @return true (the lists within the node are trimmed too), except for
+     * the method bodies of an AST file that haven't been decoded (they are
+     * trimmed when they are decoded)
+     */
+    public boolean preVisit(ASTNode node, int kind) {
+        if (node instanceof ASTFile.LazyStmtList &&
+                !((ASTFile.LazyStmtList) node).isDecoded()) {
+            return false;
+        }
+        if (node instanceof ListNode) {
+            ((ListNode) node).trimToSize();
+        }
+        return true;
+    }
+}
@@ -31,7 +31,9 @@ import bantam.ast.*;
 import java.util.Iterator;
 
 /**
- * Abstract bantam.visitor class for traversing the AST
+ * Abstract bantam.visitor class for traversing the AST (recursively, through
+ * the visit methods, or with an explicit stack, through the callbacks a
+ * <tt>TreeWalker</tt> calls)
  */
 public abstract class Visitor {
     /**
@@ -699,4 +701,40 @@ public abstract class Visitor {
     public Object visit(ConstStringExpr node) {
         return null;
     }
+
+    /**
+     * Enter a node walked by a <tt>TreeWalker</tt> (before its children)
+     *
+     * @param node the node
+     * @param kind kind of the node (as numbered by <tt>FlatAST</tt>)
+     * @return whether the children of the node should be walked
+     */
+    public boolean preVisit(ASTNode node, int kind) {
+        return true;
+    }
+
+    /**
+     * Continue a node walked by a <tt>TreeWalker</tt> (between two of its
+     * children)
+     *
+     * @param node  the node
+     * @param kind  kind of the node (as numbered by <tt>FlatAST</tt>)
+     * @param index position of the next child (1 or more)
+     */
+    public void inVisit(ASTNode node, int kind, int index) {
+    }
+
+    /**
+     * Leave a node walked by a <tt>TreeWalker</tt> (after its children)
+     *
+     * @param node    the node
+     * @param kind    kind of the node (as numbered by <tt>FlatAST</tt>)
+     * @param results results of the children, by position (null for the
+     *                missing optional children; none if preVisit skipped
+     *                the children)
+     * @return result of the walk of the node
+     */
+    public Object postVisit(ASTNode node, int kind, Object[] results) {
+        return null;
+    }
 }
@@ -0,0 +1,496 @@
+/*
+ * File: WalkingVisitor.java
+ * Date: 10/18/26
+ */
+
+package bantam.visitor;
+
+import bantam.ast.*;
+
+/**
+ * Base class for visitors implemented with the callbacks of a
+ * <tt>TreeWalker</tt> (<tt>preVisit</tt>, <tt>inVisit</tt> and
+ * <tt>postVisit</tt>): visiting any node, whether the program or any subtree
+ * of it, walks the subtree rooted at the node with a <tt>TreeWalker</tt>.
+ */
+public abstract class WalkingVisitor extends Visitor {
+    /**
+     * Walk the subtree rooted at a node
+     *
+     * @param node AST node
+     * @return result of the postVisit call of the node
+     */
+    protected Object walk(ASTNode node) {
+        return new TreeWalker().walk(node, this);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(Program node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ClassList node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(Class_ node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(MemberList node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(Field node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(Method node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(FormalList node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(Formal node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(StmtList node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(DeclStmt node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ExprStmt node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(IfStmt node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(WhileStmt node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ForStmt node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BreakStmt node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BlockStmt node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ReturnStmt node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ExprList node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(DispatchExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(NewExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(NewArrayExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(InstanceofExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(CastExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(AssignExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ArrayAssignExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryCompEqExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryCompNeExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryCompLtExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryCompLeqExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryCompGtExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryCompGeqExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryArithPlusExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryArithMinusExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryArithTimesExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryArithDivideExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryArithModulusExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryLogicAndExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(BinaryLogicOrExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(UnaryNegExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(UnaryNotExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(UnaryIncrExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(UnaryDecrExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(VarExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ArrayExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ConstIntExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ConstBooleanExpr node) {
+        return walk(node);
+    }
+
+    /**
+     * Walk AST node
+     *
+     * @param node AST node
+     * @return result of walking the node
+     */
+    public Object visit(ConstStringExpr node) {
+        return walk(node);
+    }
+}
@@ -0,0 +1,51 @@
+package bantam;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/*
+ * File: BantamCompilerTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests the in-process compiler interface.
+ */
+public class BantamCompilerTest
+{
+    /**
+     * Tests that syntax errors are returned as diagnostics (attributed to the
+     * in-memory source's name) instead of terminating the JVM.
+     */
+    @Test
+    public void syntaxErrorIsReported() {
+        BantamCompiler compiler = new BantamCompiler("mips", 0, false);
+        CompilationResult result = compiler.compile("Bad.btm", "class Main {\n int\n}\n");
+        assertFalse(result.isSuccessful());
+        assertEquals(1, result.getDiagnostics().size());
+        assertEquals("Bad.btm:2:syntactic error: unexpected input near 'int'",
+                result.getDiagnostics().get(0));
+        assertNull(result.getProgram());
+        assertNull(result.getAssembly());
+    }
+
+    /**
+     * Tests that a compiler object can be reused and that the AST is kept
+     * even if a later phase fails.
+     */
+    @Test
+    public void compilerIsReusable() {
+        BantamCompiler compiler = new BantamCompiler("x86", 0, false);
+        for (int i = 0; i < 3; i++) {
+            CompilationResult result = compiler.compile(
+                    new String[]{"A.btm", "B.btm"},
+                    new String[]{"class A { }", "class Main extends A { }"});
+            assertNotNull(result.getProgram());
+            assertEquals(2, result.getProgram().getClassList().getSize());
+        }
+    }
+}
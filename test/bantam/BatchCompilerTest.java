@@ -0,0 +1,77 @@
+package bantam;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * File: BatchCompilerTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests batch compilation of the jobs of a manifest.
+ */
+public class BatchCompilerTest
+{
+    /**
+     * Tests that concurrent jobs are reported in manifest order, each with
+     * its own diagnostics.
+     */
+    @Test
+    public void jobsAreReportedInOrderWithTheirDiagnostics() throws Exception {
+        File dir = Files.createTempDirectory("bantam").toFile();
+        StringBuilder manifest = new StringBuilder("# jobs\n");
+        for (int i = 1; i <= 8; i++) {
+            String file = write(dir, "Bad" + i + ".btm", "class Main {\n" +
+                    repeat("\n", i) + "int\n}\n");
+            manifest.append(file).append(" -o ").append(file).append(".s\n");
+        }
+        manifest.append("\n-sl ").append(new File(dir, "Bad1.btm").getPath()).append("\n");
+        String manifestFile = write(dir, "jobs.txt", manifest.toString());
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int status = new BatchCompiler(manifestFile, 4).run(new PrintStream(buffer, true));
+        assertEquals(1, status);
+
+        String[] lines = buffer.toString().split("\n");
+        int pos = 0;
+        for (int i = 1; i <= 8; i++) {
+            assertTrue(lines[pos], lines[pos].startsWith("job " + i + " (line " + (i + 1) +
+                    "): FAILED 1 "));
+            pos++;
+            assertEquals("    " + new File(dir, "Bad" + i + ".btm").getPath() + ":" +
+                    (i + 2) + ":syntactic error: unexpected input near 'int'", lines[pos]);
+            while (lines[pos].startsWith("    ")) {
+                pos++;
+            }
+        }
+        assertTrue(lines[pos], lines[pos].startsWith("job 9 (line 11): FAILED 1 "));
+        assertEquals("    Usage error: -sl cannot be used in batch mode", lines[pos + 1]);
+        assertTrue(lines[pos + 2], lines[pos + 2].startsWith("Batch: 9 job(s), 9 failed, "));
+    }
+
+    private String repeat(String s, int n) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            result.append(s);
+        }
+        return result.toString();
+    }
+
+    private String write(File dir, String name, String contents) throws IOException {
+        File file = new File(dir, name);
+        FileWriter writer = new FileWriter(file);
+        writer.write(contents);
+        writer.close();
+        return file.getPath();
+    }
+}
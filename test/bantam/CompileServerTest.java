@@ -0,0 +1,117 @@
+package bantam;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * File: CompileServerTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests the responses of the compile server.
+ */
+public class CompileServerTest
+{
+    /**
+     * Tests that each request gets the lines its compilation printed, framed
+     * as OUT and ERR lines and followed by its status, that the flags the
+     * server can't handle are rejected, and that the standard streams are
+     * restored.
+     */
+    @Test
+    public void requestsAreAnsweredInOrder() throws Exception {
+        File dir = Files.createTempDirectory("bantam").toFile();
+        String good = write(dir, "Good.btm", "class Main { }\n");
+        String bad = write(dir, "Bad.btm", "class Main {\n int\n}\n");
+        String requests = "-sl " + good + "\n" +
+                "\n" +
+                "  " + bad + " -o " + bad + ".s\n" +
+                "-dt " + good + "\n" +
+                "-server\n" +
+                "quit\n" +
+                "-sl " + good + "\n";
+
+        PrintStream savedOut = System.out;
+        PrintStream savedErr = System.err;
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(stdout, true);
+        PrintStream err = new PrintStream(stderr, true);
+        ByteArrayOutputStream responses = new ByteArrayOutputStream();
+        System.setOut(out);
+        System.setErr(err);
+        try {
+            new CompileServer(new ByteArrayInputStream(requests.getBytes()),
+                    new PrintStream(responses, true)).serve();
+            assertSame(out, System.out);
+            assertSame(err, System.err);
+        } finally {
+            System.setOut(savedOut);
+            System.setErr(savedErr);
+        }
+        // the compilations only wrote to the responses
+        assertEquals(0, stdout.size());
+        assertEquals(0, stderr.size());
+
+        String[] lines = responses.toString().split("\n");
+        int pos = 0;
+        // the tokens of Good.btm
+        String[] tokens = {"<CLASS, >", "<ID, Main>", "<LBRACE, >", "<RBRACE, >"};
+        assertEquals("OUT # " + good, lines[pos++]);
+        for (String token : tokens) {
+            assertEquals("OUT # line 1", lines[pos++]);
+            assertEquals("OUT " + token, lines[pos++]);
+        }
+        assertEquals("OUT # line 2", lines[pos++]);
+        assertEquals("OUT <EOF, >", lines[pos++]);
+        assertStatus(lines[pos++], 0);
+
+        // the diagnostics of Bad.btm (whose blank line is kept)
+        assertEquals("ERR " + bad + ":2:syntactic error: unexpected input near 'int'", lines[pos++]);
+        assertEquals("ERR ", lines[pos++]);
+        assertEquals("ERR Stopping compilation due to errors", lines[pos++]);
+        assertEquals("ERR 1 error(s)", lines[pos++]);
+        assertStatus(lines[pos++], 1);
+        assertFalse(new File(bad + ".s").exists());
+
+        // the rejected flags
+        assertEquals("ERR Usage error: -dt cannot be used with the compile server", lines[pos++]);
+        assertStatus(lines[pos++], 1);
+        assertEquals("ERR Usage error: -server cannot be used with the compile server", lines[pos++]);
+        assertStatus(lines[pos++], 1);
+
+        // nothing after quit
+        assertEquals(lines.length, pos);
+    }
+
+    /**
+     * Check a status line (without an output file)
+     *
+     * @param line   the line
+     * @param status expected exit status
+     */
+    private static void assertStatus(String line, int status) {
+        assertTrue(line, line.matches("STATUS " + status + " [0-9]+\\.[0-9]{3} -"));
+    }
+
+    private String write(File dir, String name, String contents) throws IOException {
+        File file = new File(dir, name);
+        FileWriter writer = new FileWriter(file);
+        writer.write(contents);
+        writer.close();
+        return file.getPath();
+    }
+}
@@ -0,0 +1,195 @@
+package bantam.ast;
+
+import bantam.util.NameTable;
+import bantam.visitor.NodeCountVisitor;
+import bantam.visitor.TrimVisitor;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static bantam.ast.ASTFixtures.parse;
+import static bantam.ast.ASTFixtures.print;
+import static bantam.ast.ASTFixtures.program;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/*
+ * File: ASTFileTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that an AST read back from an AST file is the AST that was written,
+ * and that method bodies are only decoded when they are accessed.
+ */
+public class ASTFileTest
+{
+    /**
+     * Tests that the AST read back prints the same, with the expression
+     * types and flags of semantic analysis, and that each method body is
+     * decoded when it is visited.
+     */
+    @Test
+    public void astsSurviveTheRoundTrip() throws Exception {
+        Program program = program();
+        Class_ main = (Class_) program.getClassList().get(0);
+        Method method = (Method) main.getMemberList().get(2);
+        ((ExprStmt) method.getStmtList().get(3)).getExpr().setExprType("int");
+        ExprStmt cast = (ExprStmt) method.getStmtList().get(11);
+        ((CastExpr) ((AssignExpr) cast.getExpr()).getExpr()).setUpCast(true);
+
+        byte[] bytes = ASTFile.encode(program);
+        Program decoded = (Program) ASTFile.decode(ByteBuffer.wrap(bytes));
+        Class_ decodedMain = (Class_) decoded.getClassList().get(0);
+        assertEquals("Main.btm", decodedMain.getFilename());
+        MemberList members = decodedMain.getMemberList();
+        assertEquals(5, members.getSize());
+        for (ASTNode member : members) {
+            if (member instanceof Method) {
+                assertFalse(isDecoded((Method) member));
+            }
+        }
+        // trimming the AST leaves the bodies alone
+        new TrimVisitor().trim(decoded);
+        assertFalse(isDecoded((Method) members.get(2)));
+        assertEquals(4, ((Method) members.get(2)).getLineNum());
+        assertEquals(20, ((Method) members.get(3)).getLineNum());
+
+        // visiting the second method decodes only its body
+        Method f = (Method) members.get(3);
+        ReturnStmt returnStmt = (ReturnStmt) f.getStmtList().get(0);
+        assertTrue(isDecoded(f));
+        assertFalse(isDecoded((Method) members.get(2)));
+        assertEquals(20, returnStmt.getLineNum());
+        assertEquals("y", ((VarExpr) returnStmt.getExpr()).getName());
+
+        assertEquals(print(program), print(decoded));
+        assertTrue(isDecoded((Method) members.get(2)));
+        assertEquals(new NodeCountVisitor().count(program),
+                new NodeCountVisitor().count(decoded));
+        method = (Method) members.get(2);
+        assertEquals("int", ((ExprStmt) method.getStmtList().get(3)).getExpr().getExprType());
+        assertNull(((ExprStmt) method.getStmtList().get(2)).getExpr().getExprType());
+        cast = (ExprStmt) method.getStmtList().get(11);
+        assertTrue(((CastExpr) ((AssignExpr) cast.getExpr()).getExpr()).getUpCast());
+
+        // a decoded AST encodes the same
+        assertTrue(Arrays.equals(bytes, ASTFile.encode(decoded)));
+    }
+
+    /**
+     * Tests that chains of additions deeper than the thread stack could
+     * recurse through survive the round trip, in a field and in a method
+     * body.
+     */
+    @Test
+    public void deepExpressionChainsSurviveTheRoundTrip() throws Exception {
+        StringBuilder chain = new StringBuilder("0");
+        for (int i = 0; i < 100000; i++) {
+            chain.append(" + x");
+        }
+        Program program = parse("class A { int x = " + chain + ";\n" +
+                "void m() { x = " + chain + "; } }");
+        Program decoded = (Program) ASTFile.decode(ByteBuffer.wrap(ASTFile.encode(program)));
+        // program, class list, class, member list, field, 2 nodes per addition,
+        // method, formal list, statement list, statement, assignment
+        assertEquals(5 + 2 * (2 * 100000 + 1) + 5, new NodeCountVisitor().count(decoded));
+        assertEquals(print(program), print(decoded));
+    }
+
+    /**
+     * Tests reading an AST file through a memory mapping, with the strings
+     * interned in the current name table.
+     */
+    @Test
+    public void filesAreMapped() throws Exception {
+        ClassList classList = program().getClassList();
+        File file = File.createTempFile("bantam", ".ast");
+        try {
+            ASTFile.write(classList, file);
+            ClassList read = (ClassList) ASTFile.read(file);
+            assertEquals(print(new Program(0, classList)), print(new Program(0, read)));
+            assertSame(NameTable.getCurrent().intern(new String("Other")),
+                    ((Class_) read.get(1)).getName());
+            assertEquals(ASTFile.encode(classList).length, file.length());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Tests that invalid files are rejected.
+     */
+    @Test
+    public void invalidFilesAreRejected() throws Exception {
+        byte[] bytes = ASTFile.encode(program());
+        assertRejected(Arrays.copyOf(bytes, bytes.length - 1));
+        assertRejected(Arrays.copyOf(bytes, bytes.length + 1));
+        byte[] notAnAST = bytes.clone();
+        notAnAST[0] = 'X';
+        assertRejected(notAnAST);
+        byte[] newerVersion = bytes.clone();
+        newerVersion[4] = ASTFile.VERSION + 1;
+        assertRejected(newerVersion);
+    }
+
+    /**
+     * Tests that a file with any byte damaged is rejected: when it is
+     * decoded, or, for the bytes of a method body, when the body is
+     * accessed.
+     */
+    @Test
+    public void damagedFilesAreRejected() throws Exception {
+        byte[] bytes = ASTFile.encode(program());
+        int damagedBodies = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            byte[] damaged = bytes.clone();
+            damaged[i] ^= 0x01;
+            Program program;
+            try {
+                program = (Program) ASTFile.decode(ByteBuffer.wrap(damaged));
+            } catch (IOException e) {
+                continue;
+            }
+            damagedBodies++;
+            try {
+                print(program);
+                fail("the damaged body was accepted");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        }
+        assertTrue(damagedBodies > 0);
+    }
+
+    /**
+     * Check that the decoding of an AST file fails
+     *
+     * @param bytes contents of the file
+     */
+    private static void assertRejected(byte[] bytes) {
+        try {
+            ASTFile.decode(ByteBuffer.wrap(bytes));
+            fail("the file was accepted");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Has the body of a method been decoded?
+     *
+     * @param method the method
+     * @return true if its statements have been decoded
+     */
+    private static boolean isDecoded(Method method) {
+        return ((ASTFile.LazyStmtList) method.getStmtList()).isDecoded();
+    }
+}
@@ -0,0 +1,106 @@
+package bantam.ast;
+
+import bantam.lexer.FastLexer;
+import bantam.parser.RDParser;
+import bantam.visitor.PrintVisitor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+
+/*
+ * File: ASTFixtures.java
+ * Date: 10/18/26
+ */
+
+/**
+ * ASTs shared by the tests of the AST representations, and helpers to parse
+ * and print them.
+ */
+class ASTFixtures
+{
+    /**
+     * Source using the kinds of nodes the lexer supports (the others are
+     * added by program())
+     */
+    static final String SOURCE =
+            "class Main extends Object {\n" +
+            "    int x = 1;\n" +
+            "    String s;\n" +
+            "    void main() {\n" +
+            "        int[] a = new int[10];\n" +
+            "        Main m = new Main();\n" +
+            "        a[0] = -x * 2 + 3 / 4 - 5 % 6;\n" +
+            "        x = a[1];\n" +
+            "        if (x < 1) { x++; } else --x;\n" +
+            "        while (x >= 4) { break; }\n" +
+            "        for (x = 0; x == 1; x--) { ++x; }\n" +
+            "        for (;;) { }\n" +
+            "        if (m instanceof Object) x = 5;\n" +
+            "        boolean b = true;\n" +
+            "        s = \"hi\";\n" +
+            "        m = (Main) (m);\n" +
+            "        f(x);\n" +
+            "        return;\n" +
+            "    }\n" +
+            "    int f(int y) { return y; }\n" +
+            "}\n" +
+            "class Other extends Main { }\n";
+
+    /**
+     * Build a program using every kind of node: SOURCE, plus a method g
+     * (added last to Main) using the nodes the lexer doesn't support yet
+     *
+     * @return the AST
+     */
+    static Program program() throws Exception {
+        Program program = parse(SOURCE);
+        // void g(int p, int q) { this.x = !(p != q) && p < q || this.a[p] > 0;
+        //                        this.a[0] = this.f(p, q); }
+        FormalList formals = new FormalList(30);
+        formals.addElement(new Formal(30, "int", "p"));
+        formals.addElement(new Formal(30, "int", "q"));
+        Expr not = new UnaryNotExpr(31, new BinaryCompNeExpr(31, new VarExpr(31, null, "p"),
+                new VarExpr(31, null, "q")));
+        Expr and = new BinaryLogicAndExpr(31, not, new BinaryCompLtExpr(31,
+                new VarExpr(31, null, "p"), new VarExpr(31, null, "q")));
+        Expr or = new BinaryLogicOrExpr(31, and, new BinaryCompGtExpr(31,
+                new ArrayExpr(31, new VarExpr(31, null, "this"), "a", new VarExpr(31, null, "p")),
+                new ConstIntExpr(31, "0")));
+        ExprList actuals = new ExprList(32);
+        actuals.addElement(new VarExpr(32, null, "p"));
+        actuals.addElement(new VarExpr(32, null, "q"));
+        StmtList stmts = new StmtList(31);
+        stmts.addElement(new ExprStmt(31, new AssignExpr(31, "this", "x", or)));
+        stmts.addElement(new ExprStmt(32, new ArrayAssignExpr(32, "this", "a",
+                new ConstIntExpr(32, "0"),
+                new DispatchExpr(32, new VarExpr(32, null, "this"), "f", actuals))));
+        Class_ main = (Class_) program.getClassList().get(0);
+        main.getMemberList().addElement(new Method(30, "void", "g", formals, stmts));
+        return program;
+    }
+
+    /**
+     * Parse a source
+     *
+     * @param source the source (of file Main.btm)
+     * @return the AST
+     */
+    static Program parse(String source) throws Exception {
+        return new RDParser(new FastLexer(new String[]{"Main.btm"},
+                new Reader[]{new StringReader(source)}, false)).parse();
+    }
+
+    /**
+     * Print an AST with the PrintVisitor
+     *
+     * @param program the AST
+     * @return the printed text
+     */
+    static String print(Program program) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        program.accept(new PrintVisitor(0, 2, new PrintStream(out, true)));
+        return out.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package bantam.ast;
+
+import bantam.visitor.NodeCountVisitor;
+import bantam.visitor.PrintVisitor;
+import bantam.visitor.Visitor;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static bantam.ast.ASTFixtures.parse;
+import static bantam.ast.ASTFixtures.print;
+import static bantam.ast.ASTFixtures.program;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * File: FlatASTTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that a flat AST holds the same tree as the AST it was built from.
+ */
+public class FlatASTTest
+{
+    /**
+     * Tests that the AST rebuilt from the flat AST prints the same, and that
+     * the expression annotations of semantic analysis are kept.
+     */
+    @Test
+    public void astsSurviveTheRoundTrip() throws Exception {
+        Program program = program();
+        Class_ main = (Class_) program.getClassList().get(0);
+        Method method = (Method) main.getMemberList().get(2);
+        ExprStmt assignment = (ExprStmt) method.getStmtList().get(3);
+        assignment.getExpr().setExprType("int");
+        ExprStmt cast = (ExprStmt) method.getStmtList().get(11);
+        ((CastExpr) ((AssignExpr) cast.getExpr()).getExpr()).setUpCast(true);
+
+        FlatAST flat = FlatAST.fromAST(program);
+        Program rebuilt = flat.toAST();
+        assertEquals(print(program), print(rebuilt));
+        assertEquals(new NodeCountVisitor().count(program), flat.getSize());
+        assertEquals(flat.getSize(), new NodeCountVisitor().count(rebuilt));
+        assertEquals("Main.btm", ((Class_) rebuilt.getClassList().get(1)).getFilename());
+
+        method = (Method) ((Class_) rebuilt.getClassList().get(0)).getMemberList().get(2);
+        assertEquals("int", ((ExprStmt) method.getStmtList().get(3)).getExpr().getExprType());
+        assertNull(((ExprStmt) method.getStmtList().get(2)).getExpr().getExprType());
+        cast = (ExprStmt) method.getStmtList().get(11);
+        assertTrue(((CastExpr) ((AssignExpr) cast.getExpr()).getExpr()).getUpCast());
+
+        // the arrays can be trimmed once the flat AST is complete
+        flat.trimToSize();
+        assertEquals(print(program), print(flat.toAST()));
+    }
+
+    /**
+     * Tests that visitors can run on the flat AST directly.
+     */
+    @Test
+    public void visitorsRunOnTheFlatAST() throws Exception {
+        Program program = program();
+        FlatAST flat = FlatAST.fromAST(program);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        flat.accept(new PrintVisitor(0, 2, new PrintStream(out, true)));
+        assertEquals(print(program), out.toString());
+        final int[] numMethods = {0};
+        flat.accept(new Visitor() {
+            public Object visit(Method node) {
+                numMethods[0]++;
+                return super.visit(node);
+            }
+        });
+        assertEquals(3, numMethods[0]);
+    }
+
+    /**
+     * Tests the layout: nodes in post-order, consecutive children, missing
+     * children and names.
+     */
+    @Test
+    public void nodesAreStoredInPostOrder() throws Exception {
+        FlatAST flat = FlatAST.fromAST(parse("class A { int x; }"));
+        // formal list, ..., field, member list, class, class list, program
+        assertEquals(5, flat.getSize());
+        int program = flat.getRoot();
+        assertEquals(FlatAST.PROGRAM, flat.getKind(program));
+        int classList = flat.getChild(program, 0);
+        assertEquals(FlatAST.CLASS_LIST, flat.getKind(classList));
+        int class_ = flat.getChild(classList, 0);
+        assertEquals("A", flat.getName(class_));
+        assertEquals("Object", flat.getType(class_));
+        int memberList = flat.getChild(class_, 0);
+        assertEquals(1, flat.getNumChildren(memberList));
+        int field = flat.getChild(memberList, 0);
+        assertEquals(0, field);
+        assertEquals(FlatAST.FIELD, flat.getKind(field));
+        assertEquals("x", flat.getName(field));
+        assertEquals("int", flat.getType(field));
+        assertEquals(1, flat.getNumChildren(field));
+        assertEquals(FlatAST.NONE, flat.getChild(field, 0));
+        assertEquals(1, flat.getLineNum(field));
+    }
+
+    /**
+     * Tests that a chain of additions deeper than the thread stack could
+     * recurse through survives the round trip.
+     */
+    @Test
+    public void deepExpressionChainsSurviveTheRoundTrip() throws Exception {
+        StringBuilder source = new StringBuilder("class A { int x = 0");
+        for (int i = 0; i < 100000; i++) {
+            source.append(" + x");
+        }
+        Program program = parse(source.append("; }").toString());
+        FlatAST flat = FlatAST.fromAST(program);
+        // program, class list, class, member list, field, 2 nodes per addition
+        assertEquals(5 + 2 * 100000 + 1, flat.getSize());
+        assertEquals(flat.getSize(), new NodeCountVisitor().count(flat.toAST()));
+        assertEquals(print(program), print(flat.toAST()));
+    }
+}
@@ -0,0 +1,140 @@
+package bantam.lexer;
+
+import bantam.parser.TokenIds;
+import java_cup.runtime.Symbol;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * File: FastLexerTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that the hand-written scanner returns the same tokens as the JLex
+ * generated lexer.
+ */
+public class FastLexerTest
+{
+    /**
+     * Characters of the random sources (no carriage returns or non-ASCII
+     * characters, on which the JLex lexer fails)
+     */
+    private static final String ALPHABET =
+            "aAbcfnlrstxz_0123456789 \t\n\n\"\"\\\\//**()[]{}!=<>+-%;?:.,";
+
+    /**
+     * Tests the lexical edge cases: comments, strings, integer constants,
+     * identifiers, keywords and errors.
+     */
+    @Test
+    public void edgeCasesMatchTheJLexLexer() throws Exception {
+        String[] sources = {
+                "class Main extends Object { int x = 42; }",
+                "classes class0 if1 new_ true false truer instanceof while else\n" +
+                        "extends return break for Class IF",
+                "a/b /* comment */ c // line\n d /* one */ e /* two */ f",
+                "x /* unterminated\n y", "/* ( ", "/**/ /*/ /\\*/ x",
+                "\"abc\" \"a\\nb\" \"a\\qb\" \"a\\\\qb\" \"a\\\"b\" \"tail\\\"",
+                "\"spans\nlines\" \"two\n\nnewlines\" \"more\nthan\nthree\" x",
+                "\"unterminated\n", "\"", "\"\\\"\" \"\\\\\" \"\"",
+                "0 007 2147483647 2147483648 02147483648 21474836470 3000000000 " +
+                        "9999999999999 123abc 0x1 _a 1_",
+                "2147483650 2147490000 2200000000 1999999999 2099999999 21474836479",
+                "a-- ++b c==d e<=f g>=h i!=j !k",
+                "? @ # ^ ` ~ $ ' :", "a.b", "x\n\n\ny",
+                ""};
+        for (String source : sources) {
+            assertSameTokens(new String[]{source});
+        }
+        assertSameTokens(new String[]{"class A {}\n\n", "x \"s\ny\"", "\n\n 7 /* c */"});
+        assertSameTokens(new String[]{"\"" + repeat("s", 4998) + "\" \"" +
+                repeat("s", 4999) + "\""});
+    }
+
+    /**
+     * Tests random sources (a few files each) against the JLex lexer.
+     */
+    @Test
+    public void randomSourcesMatchTheJLexLexer() throws Exception {
+        Random random = new Random(461);
+        for (int i = 0; i < 2000; i++) {
+            String[] sources = new String[1 + random.nextInt(3)];
+            for (int j = 0; j < sources.length; j++) {
+                StringBuilder source = new StringBuilder();
+                int length = random.nextInt(60);
+                for (int k = 0; k < length; k++) {
+                    source.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+                sources[j] = source.toString();
+            }
+            assertSameTokens(sources);
+        }
+    }
+
+    /**
+     * Asserts that both scanners return the same tokens (id, name,
+     * attribute and line), file names and line numbers, and fail with the
+     * same message, on the given sources.
+     *
+     * @param sources contents of the source files
+     */
+    private void assertSameTokens(String[] sources) throws Exception {
+        String[] filenames = new String[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            filenames[i] = "File" + i + ".btm";
+        }
+        String expected = scan(new Lexer(filenames, readers(sources), false));
+        String actual = scan(new FastLexer(filenames, readers(sources), false));
+        assertEquals(join(sources), expected, actual);
+    }
+
+    private String scan(BantamScanner scanner) throws Exception {
+        StringBuilder tokens = new StringBuilder();
+        try {
+            for (int i = 0; i < 10000; i++) {
+                Symbol symbol = scanner.next_token();
+                Token token = (Token) symbol.value;
+                tokens.append(symbol.sym).append(' ').append(token.getName()).append(' ')
+                        .append(token.getAttribute()).append(' ').append(token.getLineNum())
+                        .append(' ').append(scanner.getCurrFilename()).append(':')
+                        .append(scanner.getCurrLineNum()).append('\n');
+                if (symbol.sym == TokenIds.EOF) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            tokens.append(e.getMessage());
+        }
+        return tokens.toString();
+    }
+
+    private Reader[] readers(String[] sources) {
+        Reader[] readers = new Reader[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            readers[i] = new StringReader(sources[i]);
+        }
+        return readers;
+    }
+
+    private String join(String[] sources) {
+        StringBuilder result = new StringBuilder();
+        for (String source : sources) {
+            result.append('[').append(source).append(']');
+        }
+        return result.toString();
+    }
+
+    private String repeat(String s, int n) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            result.append(s);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package bantam.lexer;
+
+import bantam.parser.TokenIds;
+import bantam.util.CompilationException;
+import java_cup.runtime.Symbol;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/*
+ * File: MappedFileReaderTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests the memory-mapped input of the lexers.
+ */
+public class MappedFileReaderTest
+{
+    /**
+     * Tests that ASCII and non-ASCII files, read in chunks of various sizes,
+     * are decoded as a FileReader decodes them.
+     */
+    @Test
+    public void decodesLikeFileReader() throws Exception {
+        File dir = Files.createTempDirectory("bantam").toFile();
+        String[] contents = {"", "class Main {\n    int x = 1;\n}\n",
+                "\"caf\u00e9\" x \u20ac\n// \ud83d\ude00 tail", "\u00e9"};
+        for (String text : contents) {
+            File file = new File(dir, "Input.btm");
+            FileOutputStream out = new FileOutputStream(file);
+            out.write(text.getBytes());
+            out.close();
+            for (int chunk : new int[]{1, 3, 4096}) {
+                assertEquals(read(new FileReader(file), chunk),
+                        read(new MappedFileReader(file.getPath()), chunk));
+            }
+        }
+    }
+
+    /**
+     * Tests that the lexer only opens a file when it reaches it, and that
+     * it lexes many files.
+     */
+    @Test
+    public void filesAreOpenedWhenTheLexerReachesThem() throws Exception {
+        File dir = Files.createTempDirectory("bantam").toFile();
+        String[] filenames = new String[2000];
+        for (int i = 0; i < filenames.length; i++) {
+            filenames[i] = write(dir, "C" + i + ".btm", "class C {\n}\n");
+        }
+        Lexer lexer = new Lexer(filenames, false);
+        write(dir, "C1999.btm", "x y\n z");
+
+        int cnt = 0;
+        Symbol symbol;
+        while ((symbol = lexer.next_token()).sym != TokenIds.EOF) {
+            cnt++;
+        }
+        assertEquals(1999 * 4 + 3, cnt);
+        assertEquals(filenames[1999], lexer.getCurrFilename());
+        assertEquals(2, ((Token) symbol.value).getLineNum());
+    }
+
+    /**
+     * Tests that a missing file is still reported when the lexer is created.
+     */
+    @Test
+    public void missingFilesAreReportedUpFront() {
+        try {
+            new Lexer(new String[]{"NoSuchFile.btm"}, false);
+            fail("missing file not reported");
+        } catch (CompilationException e) {
+            assertEquals("Error: file 'NoSuchFile.btm' not found", e.getMessage());
+        }
+    }
+
+    private String read(Reader reader, int chunk) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buf = new char[chunk];
+        int n;
+        while ((n = reader.read(buf, 0, chunk)) != -1) {
+            text.append(buf, 0, n);
+        }
+        reader.close();
+        return text.toString();
+    }
+
+    private String write(File dir, String name, String contents) throws IOException {
+        File file = new File(dir, name);
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(contents.getBytes());
+        out.close();
+        return file.getPath();
+    }
+}
@@ -0,0 +1,186 @@
+package bantam.lexer;
+
+import bantam.ast.Class_;
+import bantam.ast.Program;
+import bantam.parser.Parser;
+import bantam.parser.TokenIds;
+import java_cup.runtime.Symbol;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * File: PipelinedScannerTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that a pipelined scanner returns the tokens, positions and failures
+ * of the scanner it runs ahead of the parser.
+ */
+public class PipelinedScannerTest
+{
+    /**
+     * Characters of the random sources
+     */
+    private static final String ALPHABET =
+            "aAbcfnlrstxz_0123456789 \t\n\n\"\"\\//**(){}=<>+-%;?:.\u20ac";
+
+    /**
+     * Tests random sources with both scanners and buffers of a few sizes
+     * (down to the smallest, so the lexer thread often waits for the parser).
+     */
+    @Test
+    public void randomSourcesMatchTheScanner() throws Exception {
+        Random random = new Random(20);
+        for (int i = 0; i < 500; i++) {
+            String[] sources = new String[1 + random.nextInt(3)];
+            for (int j = 0; j < sources.length; j++) {
+                StringBuilder source = new StringBuilder();
+                int length = random.nextInt(i < 450 ? 60 : 20000);
+                for (int k = 0; k < length; k++) {
+                    source.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+                sources[j] = source.toString();
+            }
+            int capacity = new int[]{2, 16, 4096}[random.nextInt(3)];
+            assertEquals(scan(new Lexer(filenames(sources), readers(sources), false)),
+                    scan(new PipelinedScanner(
+                            new Lexer(filenames(sources), readers(sources), false), capacity)));
+            assertEquals(scan(new FastLexer(filenames(sources), readers(sources), false)),
+                    scan(new PipelinedScanner(
+                            new FastLexer(filenames(sources), readers(sources), false), capacity)));
+        }
+    }
+
+    /**
+     * Tests that the position before the first token is the scanner's, and
+     * that the EOF token (or the failure) is returned again once reached.
+     */
+    @Test
+    public void endOfInputIsReturnedAgain() throws Exception {
+        String[] sources = {"class A {}"};
+        BantamScanner lexer = new FastLexer(filenames(sources), readers(sources), false);
+        PipelinedScanner scanner = new PipelinedScanner(lexer, 2);
+        assertEquals(lexer.getCurrFilename(), scanner.getCurrFilename());
+        assertEquals(lexer.getCurrLineNum(), scanner.getCurrLineNum());
+        for (int i = 0; i < 4; i++) {
+            scanner.next_token();
+        }
+        Symbol eof = scanner.next_token();
+        assertEquals(TokenIds.EOF, eof.sym);
+        Symbol again = scanner.next_token();
+        assertEquals(TokenIds.EOF, again.sym);
+        assertEquals(eof.value, again.value);
+        assertTrue(again != eof);
+
+        sources = new String[]{"x . y"};
+        scanner = new PipelinedScanner(new Lexer(filenames(sources), readers(sources), false));
+        assertEquals(TokenIds.ID, scanner.next_token().sym);
+        for (int i = 0; i < 2; i++) {
+            try {
+                scanner.next_token();
+                throw new AssertionError("no failure");
+            } catch (RuntimeException e) {
+                assertEquals("Unmatched lexeme . at line 1", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Tests that the parser accepts the tokens (it checks that it never gets
+     * the same symbol twice, e.g., the EOF token).
+     */
+    @Test
+    public void parserReadsThePipelinedTokens() throws Exception {
+        String[] sources = {"class A {}\nclass B extends A {}", "", "class C {\n}"};
+        for (int capacity : new int[]{2, 4096}) {
+            PipelinedScanner scanner = new PipelinedScanner(
+                    new Lexer(filenames(sources), readers(sources), false), capacity);
+            Program program = (Program) new Parser(scanner).parse().value;
+            scanner.close();
+            assertEquals(3, program.getClassList().getSize());
+            assertEquals("File2.btm", ((Class_) program.getClassList().get(2)).getFilename());
+        }
+    }
+
+    /**
+     * Tests that closing the scanner stops a lexer thread waiting for the
+     * parser.
+     */
+    @Test
+    public void closingStopsTheLexerThread() throws Exception {
+        String[] sources = {"x y z x y z x y z x y z"};
+        PipelinedScanner scanner = new PipelinedScanner(
+                new FastLexer(filenames(sources), readers(sources), false), 2);
+        scanner.next_token();
+        assertTrue(countLexerThreads() > 0);
+        scanner.close();
+        // the scanners of the other tests were closed or reached the end
+        for (int i = 0; i < 500 && countLexerThreads() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, countLexerThreads());
+    }
+
+    /**
+     * Scan the sources
+     *
+     * @param scanner the scanner
+     * @return the tokens with the position after each of them (followed by
+     * the message of the failure, if any)
+     */
+    private String scan(BantamScanner scanner) throws Exception {
+        StringBuilder tokens = new StringBuilder();
+        try {
+            while (true) {
+                Symbol symbol = scanner.next_token();
+                Token token = (Token) symbol.value;
+                tokens.append(symbol.sym).append(' ').append(token.getName()).append(' ')
+                        .append(token.getAttribute()).append(' ').append(token.getLineNum())
+                        .append(' ').append(scanner.getCurrFilename()).append(':')
+                        .append(scanner.getCurrLineNum()).append('\n');
+                if (symbol.sym == TokenIds.EOF) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            tokens.append(e.getMessage());
+        }
+        if (scanner instanceof PipelinedScanner) {
+            ((PipelinedScanner) scanner).close();
+        }
+        return tokens.toString();
+    }
+
+    private int countLexerThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("lexer")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private String[] filenames(String[] sources) {
+        String[] filenames = new String[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            filenames[i] = "File" + i + ".btm";
+        }
+        return filenames;
+    }
+
+    private Reader[] readers(String[] sources) {
+        Reader[] readers = new Reader[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            readers[i] = new StringReader(sources[i]);
+        }
+        return readers;
+    }
+}
@@ -0,0 +1,152 @@
+package bantam.lexer;
+
+import bantam.parser.TokenIds;
+import java_cup.runtime.Symbol;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * File: TokenBufferTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that reading a token buffer returns the tokens the hand-written
+ * scanner returns.
+ */
+public class TokenBufferTest
+{
+    /**
+     * Characters of the random sources
+     */
+    private static final String ALPHABET =
+            "aAbcfnlrstxz_0123456789 \t\n\n\r\"\"\\\\//**()[]{}!=<>+-%;?:.,\u00e9\u20ac";
+
+    /**
+     * Tests long tokens, non-Latin-1 characters, empty files and errors.
+     */
+    @Test
+    public void edgeCasesMatchTheScanner() throws Exception {
+        String[] sources = {
+                "class Main extends Object { int x = 42; }",
+                "\"" + repeat("s", 300) + "\" " + repeat("x", 700) + " y",
+                "\"caf\u00e9\" \"\u20ac\" x", "x \u20ac y", "\"unterminated\n",
+                "x /* unterminated\n y", "a\n\n\nb\n\nc d\n", ""};
+        for (String source : sources) {
+            assertSameTokens(new String[]{source});
+        }
+        assertSameTokens(new String[]{"", "class A {}\n\n", "", "x \"\u20ac\ny\"", ""});
+        assertSameTokens(new String[]{"x ? y", "z"});
+    }
+
+    /**
+     * Tests random sources (a few files each).
+     */
+    @Test
+    public void randomSourcesMatchTheScanner() throws Exception {
+        Random random = new Random(14);
+        for (int i = 0; i < 2000; i++) {
+            String[] sources = new String[1 + random.nextInt(3)];
+            for (int j = 0; j < sources.length; j++) {
+                StringBuilder source = new StringBuilder();
+                int length = random.nextInt(60);
+                for (int k = 0; k < length; k++) {
+                    source.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+                sources[j] = source.toString();
+            }
+            assertSameTokens(sources);
+        }
+    }
+
+    /**
+     * Tests the random access methods and the size of the buffer.
+     */
+    @Test
+    public void tokensCanBeReadByIndex() throws Exception {
+        String[] filenames = {"A.btm", "B.btm", "C.btm"};
+        TokenBuffer buffer = new TokenBuffer(filenames,
+                readers(new String[]{"class A\n{ }", "", "x\n\n" + repeat("y", 300)}));
+        assertEquals(7, buffer.getSize());
+        assertEquals(TokenIds.CLASS, buffer.getId(0));
+        assertEquals(TokenIds.ID, buffer.getId(5));
+        assertEquals(TokenIds.EOF, buffer.getId(6));
+        assertEquals(2, buffer.getLineNum(2));
+        assertEquals(3, buffer.getLineNum(5));
+        assertEquals(0, buffer.getFileNum(3));
+        assertEquals(2, buffer.getFileNum(4));
+        assertEquals(300, buffer.getLength(5));
+        assertEquals(3, buffer.getStart(5));
+        assertEquals("y", buffer.getToken(5).getAttribute().substring(0, 1));
+        // 6 bytes per token, 8 per line run, 4 per file, the long length
+        // and one byte per character of the sources
+        assertEquals(7 * 6 + 4 * 8 + 3 * 4 + 64 + 11 + 303, buffer.getNumBytes());
+    }
+
+    /**
+     * Asserts that the scanner and two scanners over a token buffer return
+     * the same tokens, file names and line numbers, and fail with the same
+     * message, on the given sources.
+     *
+     * @param sources contents of the source files
+     */
+    private void assertSameTokens(String[] sources) throws Exception {
+        String[] filenames = new String[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            filenames[i] = "File" + i + ".btm";
+        }
+        String expected = scan(new FastLexer(filenames, readers(sources), false));
+        TokenBuffer buffer = new TokenBuffer(filenames, readers(sources));
+        assertEquals(join(sources), expected, scan(buffer.newScanner()));
+        assertEquals(join(sources), expected, scan(buffer.newScanner()));
+    }
+
+    private String scan(BantamScanner scanner) throws Exception {
+        StringBuilder tokens = new StringBuilder();
+        try {
+            for (int i = 0; i < 10000; i++) {
+                Symbol symbol = scanner.next_token();
+                Token token = (Token) symbol.value;
+                tokens.append(symbol.sym).append(' ').append(token.getName()).append(' ')
+                        .append(token.getAttribute()).append(' ').append(token.getLineNum())
+                        .append(' ').append(scanner.getCurrFilename()).append(':')
+                        .append(scanner.getCurrLineNum()).append('\n');
+                if (symbol.sym == TokenIds.EOF) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            tokens.append(e.getMessage());
+        }
+        return tokens.toString();
+    }
+
+    private Reader[] readers(String[] sources) {
+        Reader[] readers = new Reader[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            readers[i] = new StringReader(sources[i]);
+        }
+        return readers;
+    }
+
+    private String join(String[] sources) {
+        StringBuilder result = new StringBuilder();
+        for (String source : sources) {
+            result.append('[').append(source).append(']');
+        }
+        return result.toString();
+    }
+
+    private String repeat(String s, int n) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            result.append(s);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,266 @@
+package bantam.parser;
+
+import java_cup.runtime.Scanner;
+import java_cup.runtime.Symbol;
+import java_cup.runtime.lr_parser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * File: LRParserTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that the parse stack of <tt>lr_parser</tt> grows past its initial
+ * capacity and is popped across long right-hand sides.  The Bantam
+ * <tt>Parser</tt> only nests a few symbols deep (its lists are left
+ * recursive), so the parser of a small grammar with a right-recursive
+ * production and a long production is used:
+ * <pre>
+ * $START ::= S EOF
+ * S      ::= A S | B | C C ... C (LONG times)
+ * </pre>
+ */
+public class LRParserTest
+{
+    /**
+     * Number of symbols on the right-hand side of the long production (more
+     * than the initial capacity of the stack)
+     */
+    private static final int LONG = 300;
+
+    /**
+     * Tests right-recursive input nesting deeper than the initial capacity
+     * of the stack.
+     */
+    @Test
+    public void stackGrowsWithTheNesting() throws Exception {
+        for (int n : new int[]{0, 1, 126, 127, 128, 129, 1000}) {
+            TestParser parser = new TestParser(input(n, false));
+            assertEquals(n, parser.parse().value);
+            parser.assertPopped();
+            if (n > 128) {
+                assertTrue(parser.getCapacity() > 128);
+            }
+        }
+    }
+
+    /**
+     * Tests a production whose right-hand side is longer than the initial
+     * capacity of the stack, on its own and nested.
+     */
+    @Test
+    public void longRightHandSidesArePopped() throws Exception {
+        for (int n : new int[]{0, 1, 500}) {
+            TestParser parser = new TestParser(input(n, true));
+            assertEquals(n + LONG, parser.parse().value);
+            parser.assertPopped();
+            assertTrue(parser.getCapacity() > LONG);
+        }
+    }
+
+    /**
+     * Tests that a parser can be reused after a deep parse, starting from an
+     * empty stack.
+     */
+    @Test
+    public void parsersAreReused() throws Exception {
+        TestParser parser = new TestParser(input(1000, true));
+        assertEquals(1000 + LONG, parser.parse().value);
+        parser.setScanner(new ArrayScanner(input(3, false)));
+        assertEquals(3, parser.parse().value);
+        parser.assertPopped();
+    }
+
+    /**
+     * Build the input A^n B (or A^n C^LONG)
+     *
+     * @param n       number of A's
+     * @param longEnd boolean indicating whether the input ends with C^LONG
+     * @return ids of the terminals of the input
+     */
+    private static int[] input(int n, boolean longEnd) {
+        int[] input = new int[n + (longEnd ? LONG : 1)];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = i < n ? TestParser.A : longEnd ? TestParser.C : TestParser.B;
+        }
+        return input;
+    }
+
+    /**
+     * Scanner returning the symbols of an array of terminal ids (then EOF)
+     */
+    private static class ArrayScanner implements Scanner {
+        /**
+         * Ids of the terminals
+         */
+        private int[] ids;
+        /**
+         * Index of the next terminal
+         */
+        private int next = 0;
+
+        /**
+         * ArrayScanner constructor
+         *
+         * @param ids ids of the terminals
+         */
+        ArrayScanner(int[] ids) {
+            this.ids = ids;
+        }
+
+        /**
+         * Return the next terminal
+         *
+         * @return the symbol of the terminal (a fresh EOF symbol once the
+         * terminals are all returned)
+         */
+        public Symbol next_token() {
+            return new Symbol(next < ids.length ? ids[next++] : TestParser.EOF);
+        }
+    }
+
+    /**
+     * Parser of the test grammar, whose value is the number of A's and C's
+     * of the input
+     */
+    private static class TestParser extends lr_parser {
+        /**
+         * Terminal ids
+         */
+        static final int EOF = 0, ERROR = 1, A = 2, B = 3, C = 4;
+        /**
+         * Non-terminal ids
+         */
+        static final int START = 0, S = 1;
+        /**
+         * States (C_STATE + i is the state after i + 1 C's)
+         */
+        static final int START_STATE = 0, A_STATE = 1, B_STATE = 2, S_STATE = 3,
+                AS_STATE = 4, EOF_STATE = 5, C_STATE = 6;
+
+        /**
+         * Productions: $START ::= S EOF, S ::= A S, S ::= B, S ::= C^LONG
+         */
+        static final short[][] PRODUCTIONS = {
+                {START, 2}, {S, 2}, {S, 1}, {S, LONG}
+        };
+        /**
+         * Action table
+         */
+        static final short[][] ACTIONS = new short[C_STATE + LONG][];
+        /**
+         * Reduce-goto table
+         */
+        static final short[][] REDUCES = new short[C_STATE + LONG][];
+
+        static {
+            // shifts are the state plus 1, reduces minus the production minus 1
+            short[] startOfS = {A, A_STATE + 1, B, B_STATE + 1, C, C_STATE + 1, -1, 0};
+            ACTIONS[START_STATE] = startOfS;
+            ACTIONS[A_STATE] = startOfS;
+            ACTIONS[B_STATE] = new short[]{EOF, -3, -1, 0};
+            ACTIONS[S_STATE] = new short[]{EOF, EOF_STATE + 1, -1, 0};
+            ACTIONS[AS_STATE] = new short[]{EOF, -2, -1, 0};
+            ACTIONS[EOF_STATE] = new short[]{-1, -1};
+            for (int i = 0; i < LONG - 1; i++) {
+                ACTIONS[C_STATE + i] = new short[]{C, (short) (C_STATE + i + 2), -1, 0};
+            }
+            ACTIONS[C_STATE + LONG - 1] = new short[]{EOF, -4, -1, 0};
+
+            for (int state = 0; state < REDUCES.length; state++) {
+                REDUCES[state] = new short[]{-1, -1};
+            }
+            REDUCES[START_STATE] = new short[]{S, S_STATE, -1, -1};
+            REDUCES[A_STATE] = new short[]{S, AS_STATE, -1, -1};
+        }
+
+        /**
+         * TestParser constructor
+         *
+         * @param input ids of the terminals of the input
+         */
+        TestParser(int[] input) {
+            super(new ArrayScanner(input));
+        }
+
+        public short[][] production_table() {
+            return PRODUCTIONS;
+        }
+
+        public short[][] action_table() {
+            return ACTIONS;
+        }
+
+        public short[][] reduce_table() {
+            return REDUCES;
+        }
+
+        public int start_state() {
+            return START_STATE;
+        }
+
+        public int start_production() {
+            return 0;
+        }
+
+        public int EOF_sym() {
+            return EOF;
+        }
+
+        public int error_sym() {
+            return ERROR;
+        }
+
+        protected void init_actions() {
+        }
+
+        /**
+         * Perform the action of a production (the symbols of its right-hand
+         * side are the top of the stack)
+         */
+        public Symbol do_action(int act_num, lr_parser parser, Symbol[] stack, int top) {
+            switch (act_num) {
+                case 0:
+                    done_parsing();
+                    return new Symbol(START, stack[top - 1].value);
+                case 1:
+                    return new Symbol(S, 1 + (Integer) stack[top].value);
+                case 2:
+                    return new Symbol(S, 0);
+                default:
+                    for (int i = 0; i < LONG; i++) {
+                        assertEquals(C, stack[top - i].sym);
+                    }
+                    assertEquals(LONG == top ? START_STATE : A_STATE,
+                            stack[top - LONG].parse_state);
+                    return new Symbol(S, LONG);
+            }
+        }
+
+        /**
+         * Get the capacity of the stack
+         *
+         * @return number of symbols the stack holds before it grows
+         */
+        int getCapacity() {
+            return sym_stack.length;
+        }
+
+        /**
+         * Check that the stack only holds the start symbol and the accepted
+         * one, and that the popped symbols were dropped
+         */
+        void assertPopped() {
+            assertEquals(1, tos);
+            assertEquals(START_STATE, state_stack[0]);
+            for (int i = tos + 1; i < sym_stack.length; i++) {
+                assertNull(sym_stack[i]);
+            }
+        }
+    }
+}
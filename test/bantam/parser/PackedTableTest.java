@@ -0,0 +1,224 @@
+package bantam.parser;
+
+import java_cup.runtime.packed_table;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * File: PackedTableTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that the parse tables compressed by row displacement hold the
+ * entries of the rows they were packed from, for the Bantam parser and for
+ * CUP's own parser.
+ */
+public class PackedTableTest
+{
+    /**
+     * Tests the action tables: every entry of the packed tables is the one
+     * a search of the row finds, including the default entries (errors).
+     */
+    @Test
+    public void actionTablesMatchTheirRows() throws Exception {
+        Parser parser = new Parser();
+        assertMatches(parser.action_table(), packed_table.decode(parser.packed_action_table()));
+        assertEmitted(parser.action_table(), parser.packed_action_table());
+        assertMatches(parser.action_table(), new packed_table(parser.action_table()));
+
+        java_cup.parser cupParser = new java_cup.parser();
+        assertMatches(cupParser.action_table(), new packed_table(cupParser.action_table()));
+
+        // the rows hold shifts and reduces, and default to errors
+        assertEntryKinds(parser.action_table());
+        assertEntryKinds(cupParser.action_table());
+    }
+
+    /**
+     * Tests the reduce-goto tables (whose rows default to -1).
+     */
+    @Test
+    public void reduceTablesMatchTheirRows() throws Exception {
+        Parser parser = new Parser();
+        assertMatches(parser.reduce_table(), packed_table.decode(parser.packed_reduce_table()));
+        assertEmitted(parser.reduce_table(), parser.packed_reduce_table());
+        assertMatches(parser.reduce_table(), new packed_table(parser.reduce_table()));
+
+        java_cup.parser cupParser = new java_cup.parser();
+        assertMatches(cupParser.reduce_table(), new packed_table(cupParser.reduce_table()));
+    }
+
+    /**
+     * Tests rows that only fit once they are interleaved with the rows
+     * placed before them, and rows that default to a reduce, are empty or
+     * have no default.
+     */
+    @Test
+    public void overlappingRowsKeepTheirEntries() throws Exception {
+        short[][] rows = {
+                // symbols 0, 2, 4, 6 (placed first, being the densest)
+                {0, 1, 2, 2, 4, 3, 6, 4, -1, 0},
+                // symbols 1, 3, 5: fits between the entries of the first row,
+                // at the same base
+                {1, 5, 3, 6, 5, 7, -1, -9},
+                // symbol 0 only, no default
+                {0, 8},
+                // empty
+                {-1, -3},
+                // symbols 0 and 1: only fits past the other rows
+                {0, 9, 1, 10, -1, 0},
+        };
+        packed_table table = new packed_table(rows);
+        assertMatches(rows, table);
+        short[] bases = table.encode()[0];
+        // the second row is laid over the first one
+        assertEquals(bases[0], bases[1]);
+        assertTrue(overlaps(rows, bases) > 0);
+        assertMatches(rows, packed_table.decode(table.encode()));
+    }
+
+    /**
+     * Tests that the rows of the generated parsers overlap once displaced,
+     * so the checks of the packed tables are what tell the rows apart.
+     */
+    @Test
+    public void generatedRowsOverlap() throws Exception {
+        Parser parser = new Parser();
+        assertTrue(overlaps(parser.action_table(), parser.packed_action_table()[0]) > 0);
+        java_cup.parser cupParser = new java_cup.parser();
+        short[][] rows = cupParser.action_table();
+        assertTrue(overlaps(rows, new packed_table(rows).encode()[0]) > 0);
+    }
+
+    /**
+     * Check that every entry of a packed table (for every state, and every
+     * symbol of the rows plus one) is the one a linear search of the row of
+     * the state finds
+     *
+     * @param rows  rows of the table (index, value pairs ending with a default
+     *              entry tagged -1)
+     * @param table the packed table
+     */
+    private static void assertMatches(short[][] rows, packed_table table) {
+        int numSymbols = 0;
+        for (short[] row : rows) {
+            for (int i = 0; i < row.length; i += 2) {
+                numSymbols = Math.max(numSymbols, row[i] + 1);
+            }
+        }
+        for (int state = 0; state < rows.length; state++) {
+            for (int sym = 0; sym <= numSymbols; sym++) {
+                assertEquals("state " + state + ", symbol " + sym,
+                        search(rows[state], sym), table.get(state, sym));
+            }
+        }
+    }
+
+    /**
+     * Check that the packed table emitted with a generated parser is the one
+     * packing its rows builds
+     *
+     * @param rows    rows of the table
+     * @param emitted packed table emitted with the parser
+     */
+    private static void assertEmitted(short[][] rows, short[][] emitted) {
+        short[][] packed = new packed_table(rows).encode();
+        assertEquals(packed.length, emitted.length);
+        for (int i = 0; i < packed.length; i++) {
+            assertArrayEquals(packed[i], emitted[i]);
+        }
+    }
+
+    /**
+     * Check that the rows of an action table hold shifts and reduces, and
+     * that each row defaults to an error (the generated parsers list the
+     * reduces of a state for each of their lookaheads)
+     *
+     * @param rows rows of the table
+     */
+    private static void assertEntryKinds(short[][] rows) {
+        int shifts = 0;
+        int reduces = 0;
+        for (short[] row : rows) {
+            for (int i = 0; i + 1 < row.length && row[i] != -1; i += 2) {
+                if (row[i + 1] > 0) {
+                    shifts++;
+                }
+                else if (row[i + 1] < 0) {
+                    reduces++;
+                }
+            }
+            assertEquals(0, search(row, -1));
+        }
+        assertTrue(shifts > 0);
+        assertTrue(reduces > 0);
+    }
+
+    /**
+     * Search a row for the entry of a symbol (as lr_parser did before the
+     * tables were packed)
+     *
+     * @param row the row
+     * @param sym the symbol (-1 for the default entry)
+     * @return the entry of the symbol, the default of the row if it has no
+     * entry for it, or -1 if the row has no default
+     */
+    private static int search(short[] row, int sym) {
+        for (int i = 0; i + 1 < row.length; i += 2) {
+            if (row[i] == sym || row[i] == -1) {
+                return row[i + 1];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Count the pairs of rows whose spans (from their first to their last
+     * entry) overlap once displaced
+     *
+     * @param rows  rows of the table
+     * @param bases base of each row in the packed table
+     * @return number of overlapping pairs
+     */
+    private static int overlaps(short[][] rows, short[] bases) {
+        int count = 0;
+        for (int s = 0; s < rows.length; s++) {
+            for (int t = s + 1; t < rows.length; t++) {
+                if (rows[s][0] != -1 && rows[t][0] != -1 &&
+                        bases[s] + first(rows[s]) <= bases[t] + last(rows[t]) &&
+                        bases[t] + first(rows[t]) <= bases[s] + last(rows[s])) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the first symbol of a row (which has explicit entries)
+     *
+     * @param row the row
+     * @return the symbol of its first entry
+     */
+    private static int first(short[] row) {
+        return row[0];
+    }
+
+    /**
+     * Get the last symbol of a row (which has explicit entries)
+     *
+     * @param row the row
+     * @return the symbol of its last entry before the default
+     */
+    private static int last(short[] row) {
+        int i = 0;
+        while (i + 2 < row.length && row[i + 2] != -1) {
+            i += 2;
+        }
+        return row[i];
+    }
+}
@@ -0,0 +1,248 @@
+package bantam.parser;
+
+import bantam.ast.ASTNode;
+import bantam.ast.Class_;
+import bantam.ast.Program;
+import bantam.lexer.TokenBuffer;
+import bantam.util.CompilationException;
+import bantam.visitor.NodeCountVisitor;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/*
+ * File: ParallelClassParserTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that parsing the classes of a token buffer in parallel builds the
+ * same program as parsing the tokens in one go, and that the syntax errors
+ * of the classes are reported in source order.
+ */
+public class ParallelClassParserTest
+{
+    /**
+     * Pool with several workers (so slices are parsed concurrently even on a
+     * single processor)
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /**
+     * Tests that the slices start at the classes outside of any braces.
+     */
+    @Test
+    public void slicesStartAtTopLevelClasses() throws Exception {
+        assertArrayEquals(new int[]{0, 0},
+                ParallelClassParser.findSlices(newTokens("")));
+        assertArrayEquals(new int[]{0, 4},
+                ParallelClassParser.findSlices(newTokens("class A {}")));
+        assertArrayEquals(new int[]{0, 4, 8, 12},
+                ParallelClassParser.findSlices(newTokens("class A {} class B {}", "class C {}")));
+        // classes within braces, tokens before the first class, stray braces
+        assertArrayEquals(new int[]{0, 10},
+                ParallelClassParser.findSlices(newTokens("class A { { class B {} } }")));
+        assertArrayEquals(new int[]{0, 2, 7},
+                ParallelClassParser.findSlices(newTokens("x } class A { }  }")));
+        assertArrayEquals(new int[]{0, 6},
+                ParallelClassParser.findSlices(newTokens("class A {", "class B {")));
+    }
+
+    /**
+     * Tests random programs made of classes (the only ones the CUP parser
+     * accepts), with both parsers.
+     */
+    @Test
+    public void classesMatchASequentialParse() throws Exception {
+        Random random = new Random(19);
+        for (int i = 0; i < 200; i++) {
+            String[] sources = new String[1 + random.nextInt(3)];
+            for (int j = 0; j < sources.length; j++) {
+                StringBuilder source = new StringBuilder();
+                int numClasses = random.nextInt(i < 150 ? 6 : 2000);
+                for (int k = 0; k < numClasses; k++) {
+                    source.append(newlines(random)).append("class").append(newlines(random))
+                            .append(" C").append(name(j * 2000 + k));
+                    if (random.nextBoolean()) {
+                        source.append(" extends").append(newlines(random)).append(" P");
+                    }
+                    source.append(newlines(random)).append(" {").append(newlines(random))
+                            .append("}");
+                }
+                sources[j] = source.toString();
+            }
+            if (String.join("", sources).indexOf("class") < 0) {
+                continue;
+            }
+            for (boolean recursiveDescent : new boolean[]{false, true}) {
+                TokenBuffer tokens = newTokens(sources);
+                Program expected = recursiveDescent ?
+                        new RDParser(tokens.newScanner()).parse() :
+                        (Program) new Parser(tokens.newScanner()).parse().value;
+                Program actual =
+                        new ParallelClassParser(tokens, recursiveDescent, POOL).parse();
+                assertEquals(describe(expected), describe(actual));
+            }
+        }
+    }
+
+    /**
+     * Tests classes with members, which only the recursive-descent parser
+     * accepts.
+     */
+    @Test
+    public void membersMatchASequentialParse() throws Exception {
+        String[] sources = {
+                "class A { int x = 1; void m() { if (x < 2) { x = 3; } } }\n" +
+                        "class B extends A { A a = new A(); }",
+                "class C { void n(int y) { while (true) { y++; } return; } }"};
+        TokenBuffer tokens = newTokens(sources);
+        Program expected = new RDParser(tokens.newScanner()).parse();
+        assertEquals(describe(expected),
+                describe(new ParallelClassParser(tokens, true, POOL).parse()));
+        assertEquals(36, new NodeCountVisitor().count(expected));
+    }
+
+    /**
+     * Tests that an error is reported for each class with a syntax error, in
+     * source order, the first one as a sequential parse reports it.
+     */
+    @Test
+    public void syntaxErrorsAreReportedInSourceOrder() throws Exception {
+        String[] sources = {"class A {}\nclass B extends {}\nclass C {}\n",
+                "class D {}\nclass E {} F\nclass\nG x {}", "class H {"};
+        TokenBuffer tokens = newTokens(sources);
+        String expected = "[file0.btm:2:syntactic error: unexpected input near 'LBRACE', " +
+                "file1.btm:2:syntactic error: unexpected input near 'F', " +
+                "file1.btm:4:syntactic error: unexpected input near 'x', " +
+                "file2.btm:1:syntactic error: unexpected input near 'EOF']";
+        for (boolean recursiveDescent : new boolean[]{false, true}) {
+            assertEquals(expected, errors(new ParallelClassParser(tokens, recursiveDescent, POOL)));
+        }
+        assertEquals("[file0.btm:2:syntactic error: unexpected input near 'LBRACE']",
+                errors(new Parser(tokens.newScanner())));
+    }
+
+    /**
+     * Tests that a scanning failure is reported as a sequential parse
+     * reports it, unless a class before it has a syntax error.
+     */
+    @Test
+    public void scanningFailuresMatchASequentialParse() throws Exception {
+        String[][] programs = {{"class A {}", "class B { \u20ac }"},
+                {"class A {} class B {} \u20ac"}, {"\u20ac class A {}"}};
+        for (String[] sources : programs) {
+            TokenBuffer tokens = newTokens(sources);
+            assertEquals(Arrays.toString(sources), errors(new Parser(tokens.newScanner())),
+                    errors(new ParallelClassParser(tokens, false, POOL)));
+        }
+        TokenBuffer tokens = newTokens("class A { } }", "class B {}", "class C { \u20ac }");
+        assertEquals("[file0.btm:1:syntactic error: unexpected input near 'RBRACE']",
+                errors(new ParallelClassParser(tokens, false, POOL)));
+    }
+
+    /**
+     * Build the token buffer of sources
+     *
+     * @param sources contents of the input files
+     * @return the token buffer
+     */
+    private static TokenBuffer newTokens(String... sources) throws Exception {
+        String[] filenames = new String[sources.length];
+        Reader[] readers = new Reader[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            filenames[i] = "file" + i + ".btm";
+            readers[i] = new StringReader(sources[i]);
+        }
+        return new TokenBuffer(filenames, readers);
+    }
+
+    /**
+     * Get a class name made of letters (identifiers hold no digits)
+     *
+     * @param n number of the class
+     * @return the name
+     */
+    private static String name(int n) {
+        StringBuilder name = new StringBuilder();
+        do {
+            name.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return name.toString();
+    }
+
+    /**
+     * Get a few newlines (possibly none)
+     *
+     * @param random the random generator
+     * @return the newlines
+     */
+    private static String newlines(Random random) {
+        return random.nextInt(3) == 0 ? "\n\n".substring(random.nextInt(2)) : "";
+    }
+
+    /**
+     * Get the errors a parse reports (or the message of its failure)
+     *
+     * @param parser the parser
+     * @return error messages (empty if the input was parsed)
+     */
+    private static String errors(ParallelClassParser parser) {
+        try {
+            parser.parse();
+            return "[]";
+        } catch (CompilationException e) {
+            return e.getErrors().toString();
+        } catch (Exception e) {
+            return e.toString();
+        }
+    }
+
+    /**
+     * Get the errors a parse reports (or the message of its failure)
+     *
+     * @param parser the parser
+     * @return error messages (empty if the input was parsed)
+     */
+    private static String errors(Parser parser) {
+        try {
+            parser.parse();
+            return "[]";
+        } catch (CompilationException e) {
+            return e.getErrors().toString();
+        } catch (Exception e) {
+            return e.toString();
+        }
+    }
+
+    /**
+     * Describe a program: one line per class with its position, its name, its
+     * parent, its members and the number of nodes of the class
+     *
+     * @param program the program
+     * @return the description
+     */
+    private static String describe(Program program) {
+        StringBuilder out = new StringBuilder();
+        out.append(program.getLineNum()).append(' ')
+                .append(program.getClassList().getLineNum()).append('\n');
+        for (ASTNode node : program.getClassList()) {
+            Class_ class_ = (Class_) node;
+            out.append(class_.getFilename()).append(':').append(class_.getLineNum())
+                    .append(' ').append(class_.getName()).append(' ')
+                    .append(class_.getParent()).append(' ')
+                    .append(class_.getMemberList().getLineNum()).append(' ')
+                    .append(class_.getMemberList().getSize()).append(' ')
+                    .append(new NodeCountVisitor().count(class_)).append('\n');
+        }
+        return out.toString();
+    }
+}
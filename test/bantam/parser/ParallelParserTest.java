@@ -0,0 +1,174 @@
+package bantam.parser;
+
+import bantam.ast.ASTNode;
+import bantam.ast.ClassList;
+import bantam.ast.Class_;
+import bantam.ast.Program;
+import bantam.lexer.Lexer;
+import bantam.util.CompilationException;
+import bantam.util.NameTable;
+import bantam.visitor.PrintVisitor;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/*
+ * File: ParallelParserTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that parsing files in parallel builds the program (or reports the
+ * errors) of parsing the files one after the other, in file order.
+ */
+public class ParallelParserTest
+{
+    /**
+     * Pool with several workers (so files are parsed concurrently even on a
+     * single processor)
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /**
+     * Tests that the classes of the files are merged in file order, with the
+     * file names and line numbers of a sequential parse, and that their
+     * names are those of the current name table.
+     */
+    @Test
+    public void classesAreMergedInFileOrder() throws Exception {
+        String[] files = write(24, false);
+        NameTable.reset();
+        Program program = new ParallelParser(files, false, POOL).parse();
+
+        ClassList expected = new ClassList(0);
+        for (String file : files) {
+            for (ASTNode node : ParallelParser.parse(new Lexer(new String[]{file}, false))) {
+                expected.addElement(node);
+            }
+        }
+        assertEquals(print(new Program(0, expected)), print(program));
+        assertEquals(2 * files.length, program.getClassList().getSize());
+        for (ASTNode node : program.getClassList()) {
+            String name = ((Class_) node).getName();
+            assertSame(NameTable.getCurrent().intern(new String(name)), name);
+        }
+    }
+
+    /**
+     * Tests that the syntax errors of every file are reported, in file
+     * order.
+     */
+    @Test
+    public void errorsAreReportedInFileOrder() throws Exception {
+        String[] files = write(24, true);
+        List<String> expected = new Vector<String>();
+        for (String file : files) {
+            try {
+                ParallelParser.parse(new Lexer(new String[]{file}, false));
+            } catch (CompilationException e) {
+                expected.addAll(e.getErrors());
+            }
+        }
+        assertEquals(8, expected.size());
+        try {
+            new ParallelParser(files, false, POOL).parse();
+            fail("the syntax errors weren't reported");
+        } catch (CompilationException e) {
+            assertEquals(expected, e.getErrors());
+        }
+    }
+
+    /**
+     * Tests that an error thrown by a task (rather than an exception) is
+     * rethrown as is.
+     */
+    @Test
+    public void errorsOfTasksAreRethrown() throws Exception {
+        String[] files = write(4, false);
+        final String failing = files[2];
+        final StackOverflowError error = new StackOverflowError();
+        try {
+            new ParallelParser(files, false, POOL) {
+                ClassList parseFile(Lexer lexer) throws Exception {
+                    if (lexer.getCurrFilename().equals(failing)) {
+                        throw error;
+                    }
+                    return super.parseFile(lexer);
+                }
+            }.parse();
+            fail("the error wasn't rethrown");
+        } catch (StackOverflowError e) {
+            // (the pool may rethrow a copy of an error thrown by another
+            // thread, caused by the error)
+            assertTrue(e == error || e.getCause() == error);
+        }
+    }
+
+    /**
+     * Write source files, each holding two classes (the only ones the CUP
+     * parser accepts)
+     *
+     * @param count  number of files
+     * @param errors boolean indicating whether every third file has a
+     *               syntax error
+     * @return names of the files
+     */
+    private static String[] write(int count, boolean errors) throws IOException {
+        File dir = Files.createTempDirectory("bantam").toFile();
+        String[] files = new String[count];
+        for (int i = 0; i < count; i++) {
+            // (the names of the classes are letters, as ids can't hold digits)
+            String suffix = String.valueOf((char) ('a' + i));
+            String source = "class A" + suffix + " { }\n" +
+                    repeat("\n", i % 5) +
+                    "class B" + suffix + " extends A" + suffix + " { " +
+                    (errors && i % 3 == 0 ? "int " : "") + "}\n";
+            File file = new File(dir, "F" + i + ".btm");
+            FileWriter writer = new FileWriter(file);
+            writer.write(source);
+            writer.close();
+            files[i] = file.getPath();
+        }
+        return files;
+    }
+
+    /**
+     * Print a program with the PrintVisitor
+     *
+     * @param program the program
+     * @return the printed text
+     */
+    private static String print(Program program) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        program.accept(new PrintVisitor(0, 2, new PrintStream(out, true)));
+        return out.toString();
+    }
+
+    /**
+     * Repeat a string
+     *
+     * @param s the string
+     * @param n number of times it is repeated
+     * @return the repeated string
+     */
+    private static String repeat(String s, int n) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            result.append(s);
+        }
+        return result.toString();
+    }
+}
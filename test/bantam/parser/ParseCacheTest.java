@@ -0,0 +1,84 @@
+package bantam.parser;
+
+import bantam.ast.Class_;
+import bantam.ast.Program;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * File: ParseCacheTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests the on-disk parse cache.
+ */
+public class ParseCacheTest
+{
+    /**
+     * Tests that unchanged files are loaded from the cache, changed files are
+     * parsed again, and the classes keep command-line order either way.
+     */
+    @Test
+    public void onlyChangedFilesAreParsed() throws Exception {
+        File dir = Files.createTempDirectory("bantam").toFile();
+        String a = write(dir, "A.btm", "class A { }");
+        String b = write(dir, "B.btm", "class B extends A { }");
+        String cacheDir = new File(dir, "cache").getPath();
+
+        ParseCache cache = new ParseCache(cacheDir);
+        cache.parse(new String[]{a, b}, false, false);
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        write(dir, "B.btm", "class C extends A { }");
+        cache = new ParseCache(cacheDir);
+        Program program = cache.parse(new String[]{a, b}, false, false);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals("A", ((Class_) program.getClassList().get(0)).getName());
+        assertEquals("C", ((Class_) program.getClassList().get(1)).getName());
+    }
+
+    /**
+     * Tests that a damaged cache entry is treated as a miss and rewritten.
+     */
+    @Test
+    public void damagedEntriesAreParsedAgain() throws Exception {
+        File dir = Files.createTempDirectory("bantam").toFile();
+        String a = write(dir, "A.btm", "class A { }");
+        String cacheDir = new File(dir, "cache").getPath();
+        new ParseCache(cacheDir).parse(new String[]{a}, false, false);
+
+        File[] entries = new File(cacheDir).listFiles();
+        assertEquals(1, entries.length);
+        byte[] bytes = Files.readAllBytes(entries[0].toPath());
+        // the last byte is that of the (empty) member list
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(entries[0].toPath(), bytes);
+
+        ParseCache cache = new ParseCache(cacheDir);
+        Program program = cache.parse(new String[]{a}, false, false);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals("A", ((Class_) program.getClassList().get(0)).getName());
+
+        cache = new ParseCache(cacheDir);
+        cache.parse(new String[]{a}, false, false);
+        assertEquals(1, cache.getHits());
+    }
+
+    private String write(File dir, String name, String contents) throws IOException {
+        File file = new File(dir, name);
+        FileWriter writer = new FileWriter(file);
+        writer.write(contents);
+        writer.close();
+        return file.getPath();
+    }
+}
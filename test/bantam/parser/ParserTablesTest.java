@@ -0,0 +1,336 @@
+package bantam.parser;
+
+import java_cup.emit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Vector;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/*
+ * File: ParserTablesTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests the parse tables resources written by CUP (with -binarytables) and
+ * loaded by <tt>lr_parser.loadFromResource</tt>: the round trip of the
+ * tables, the rejection of damaged resources, and the lookup of the
+ * resource as a file next to the parser class or through its class loader.
+ */
+public class ParserTablesTest
+{
+    /**
+     * Directory of the classes and resources of a test
+     */
+    private File dir;
+
+    /**
+     * Create the directory of the test
+     */
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("bantam").toFile();
+    }
+
+    /**
+     * Delete the directory of the test
+     */
+    @After
+    public void tearDown() throws Exception {
+        delete(dir);
+    }
+
+    /**
+     * Tests that writing the tables of the Bantam parser writes its
+     * Parser.tables resource.
+     */
+    @Test
+    public void parserTablesAreWhatEmitWrites() throws Exception {
+        Parser parser = new Parser();
+        byte[] bytes = write(new short[][][]{parser.production_table(),
+                parser.action_table(), parser.packed_action_table(),
+                parser.reduce_table(), parser.packed_reduce_table()});
+        assertArrayEquals(read(Parser.class.getResourceAsStream("Parser.tables")), bytes);
+    }
+
+    /**
+     * Tests that the tables loaded are the ones written, including null,
+     * empty and negative rows.
+     */
+    @Test
+    public void tablesSurviveTheRoundTrip() throws Exception {
+        short[][][] tables = {
+                {{0, 2, -1, 0}, null, {}, {-32768, 32767, -1, -2}},
+                {},
+                {{7}}
+        };
+        Class<?> anchor = loadAnchor(dir, false);
+        writeResource("T.tables", write(tables));
+        assertTrue(Arrays.deepEquals(tables, Tables.load(anchor, "T.tables")));
+    }
+
+    /**
+     * Tests that resources that aren't tables, or that are missing,
+     * truncated or corrupt, are rejected with an error naming them.
+     */
+    @Test
+    public void damagedResourcesAreRejected() throws Exception {
+        Class<?> anchor = loadAnchor(dir, false);
+        byte[] bytes = write(new short[][][]{{{1, 2, 3}, null}, {{4, 5}}});
+        assertRejected(anchor, "Missing.tables", "Can't read");
+
+        byte[] notTables = bytes.clone();
+        notTables[0] = 'X';
+        writeResource("T.tables", notTables);
+        assertRejected(anchor, "T.tables", "not a parse tables resource");
+
+        // cut anywhere: in the header, or in the payload
+        for (int length = 0; length < bytes.length; length++) {
+            writeResource("T.tables", Arrays.copyOf(bytes, length));
+            assertRejected(anchor, "T.tables", "Can't read");
+        }
+
+        // counts that don't match the bytes of the payload: the payload is
+        // the number of tables (at 8), the number of rows of the first
+        // table (at 12), the length of its first row (at 16) and its
+        // entries, ...
+        for (int count : new int[]{11, 15, 19}) {
+            for (int delta : new int[]{-1, 1}) {
+                byte[] corrupt = bytes.clone();
+                corrupt[count] += delta;
+                writeResource("T.tables", corrupt);
+                assertRejected(anchor, "T.tables", "Corrupt parse tables");
+            }
+        }
+        byte[] longer = Arrays.copyOf(bytes, bytes.length + 2);
+        longer[7] += 2;
+        writeResource("T.tables", longer);
+        assertRejected(anchor, "T.tables", "Corrupt parse tables");
+        byte[] negative = bytes.clone();
+        negative[4] = (byte) 0x80;
+        writeResource("T.tables", negative);
+        assertRejected(anchor, "T.tables", "Corrupt parse tables");
+    }
+
+    /**
+     * Tests that the resource of a class loaded from a directory is opened
+     * as a file, and that the resource of a class loaded from a jar is
+     * opened through the class loader.
+     */
+    @Test
+    public void resourcesAreFilesOrLoadedThroughTheClassLoader() throws Exception {
+        byte[] bytes = write(new short[][][]{{{1, 2}}});
+        Class<?> fromDir = loadAnchor(dir, false);
+        writeResource("T.tables", bytes);
+        InputStream in = Tables.open(fromDir, "T.tables");
+        assertTrue(in instanceof FileInputStream);
+        assertArrayEquals(bytes, read(in));
+
+        File jarDir = new File(dir, "jar");
+        Class<?> fromJar = loadAnchor(jarDir, true);
+        in = Tables.open(fromJar, "T.tables");
+        assertFalse(in instanceof FileInputStream);
+        assertArrayEquals(bytes, read(in));
+        assertTrue(Arrays.deepEquals(new short[][][]{{{1, 2}}}, Tables.load(fromJar, "T.tables")));
+        try {
+            Tables.open(fromJar, "Missing.tables");
+            fail("a missing resource was opened");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Class the resources are looked up relative to (loaded from the
+     * directory or the jar of a test)
+     */
+    public static class Anchor
+    {
+    }
+
+    /**
+     * Access to the methods lr_parser provides to the generated parsers
+     */
+    private static class Tables extends Parser
+    {
+        /**
+         * Load parse tables from a resource
+         *
+         * @param cls  class the resource is relative to
+         * @param name name of the resource
+         * @return the tables
+         */
+        static short[][][] load(Class<?> cls, String name) {
+            return loadFromResource(cls, name);
+        }
+
+        /**
+         * Open a resource
+         *
+         * @param cls  class the resource is relative to
+         * @param name name of the resource
+         * @return the contents of the resource
+         * @throws IOException if the resource can't be opened
+         */
+        static InputStream open(Class<?> cls, String name) throws IOException {
+            return open_resource(cls, name);
+        }
+    }
+
+    /**
+     * Check that loading tables from a resource fails
+     *
+     * @param cls     class the resource is relative to
+     * @param name    name of the resource
+     * @param message part of the message of the error
+     */
+    private static void assertRejected(Class<?> cls, String name, String message) {
+        try {
+            Tables.load(cls, name);
+            fail("\"" + name + "\" was loaded");
+        } catch (Error e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+            assertTrue(e.getMessage(), e.getMessage().contains("\"" + name + "\""));
+        }
+    }
+
+    /**
+     * Write tables the way CUP writes them with -binarytables
+     *
+     * @param tables the tables
+     * @return the contents of the resource
+     */
+    @SuppressWarnings("unchecked")
+    private static byte[] write(short[][][] tables) throws Exception {
+        // CUP collects the tables while it emits the parser
+        Field field = emit.class.getDeclaredField("table_list");
+        field.setAccessible(true);
+        Vector<Object> tableList = (Vector<Object>) field.get(null);
+        tableList.clear();
+        try {
+            tableList.addAll(Arrays.asList((Object[]) tables));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(out);
+            emit.tables(data);
+            data.flush();
+            return out.toByteArray();
+        } finally {
+            tableList.clear();
+        }
+    }
+
+    /**
+     * Write a resource next to the Anchor class of the directory of the test
+     *
+     * @param name  name of the resource
+     * @param bytes contents of the resource
+     */
+    private void writeResource(String name, byte[] bytes) throws IOException {
+        Files.write(new File(packageDir(dir), name).toPath(), bytes);
+    }
+
+    /**
+     * Load the Anchor class from a directory, or from a jar in the directory
+     * (holding the resource T.tables of the directory)
+     *
+     * @param classDir the directory
+     * @param jar      boolean indicating whether the class is loaded from a jar
+     * @return the class (loaded by a class loader of its own)
+     */
+    private Class<?> loadAnchor(File classDir, boolean jar) throws Exception {
+        String entry = Anchor.class.getName().replace('.', '/') + ".class";
+        byte[] bytes = read(ParserTablesTest.class.getResourceAsStream("/" + entry));
+        URL url;
+        if (jar) {
+            classDir.mkdirs();
+            File file = new File(classDir, "anchor.jar");
+            JarOutputStream out = new JarOutputStream(new FileOutputStream(file));
+            try {
+                out.putNextEntry(new JarEntry(entry));
+                out.write(bytes);
+                out.putNextEntry(new JarEntry("bantam/parser/T.tables"));
+                out.write(Files.readAllBytes(new File(packageDir(dir), "T.tables").toPath()));
+            } finally {
+                out.close();
+            }
+            url = file.toURI().toURL();
+        }
+        else {
+            Files.write(new File(packageDir(classDir), entry.substring(entry.lastIndexOf('/') + 1)).toPath(),
+                    bytes);
+            url = classDir.toURI().toURL();
+        }
+        // no parent, so the class isn't found on the class path first
+        Class<?> cls = new URLClassLoader(new URL[]{url}, null).loadClass(Anchor.class.getName());
+        assertEquals(url, cls.getProtectionDomain().getCodeSource().getLocation());
+        return cls;
+    }
+
+    /**
+     * Get the directory of the package of the Anchor class in a directory
+     * (created if it doesn't exist)
+     *
+     * @param classDir the directory
+     * @return the package directory
+     */
+    private static File packageDir(File classDir) {
+        File packageDir = new File(classDir, "bantam" + File.separator + "parser");
+        packageDir.mkdirs();
+        return packageDir;
+    }
+
+    /**
+     * Read a stream to its end (and close it)
+     *
+     * @param in the stream
+     * @return the bytes read
+     */
+    private static byte[] read(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            for (int n; (n = in.read(buf)) > 0; ) {
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Delete a file or a directory and its contents
+     *
+     * @param file the file
+     */
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
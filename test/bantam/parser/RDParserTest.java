@@ -0,0 +1,541 @@
+package bantam.parser;
+
+import bantam.ast.*;
+import bantam.lexer.BantamScanner;
+import bantam.lexer.FastLexer;
+import bantam.lexer.Token;
+import bantam.util.CompilationException;
+import java_cup.runtime.Symbol;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/*
+ * File: RDParserTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that the recursive-descent parser builds the same ASTs and reports
+ * the same syntax errors as the CUP generated parser, and that it parses
+ * the statements and expressions the CUP parser doesn't support yet as the
+ * grammar specifies.
+ */
+public class RDParserTest
+{
+    /**
+     * Tests programs made of classes, the only ones the CUP parser accepts.
+     */
+    @Test
+    public void classesMatchTheCupParser() throws Exception {
+        String[][] programs = {
+                {"class A {}"},
+                {"class A extends B { }\nclass B\n{\n\n}\n"},
+                {"/* c */ class\nA\nextends\nObject\n{\n}\n// end"},
+                {"class A {}\n\n", "\nclass B extends A {\n}", "class C { }"},
+                {"", "class A {}", "", "class B {}\n", ""},
+                {"class A {", "}", "class B", "{}"}};
+        for (String[] sources : programs) {
+            assertEquals(Arrays.toString(sources),
+                    describe((Program) new Parser(newLexer(sources)).parse().value),
+                    describe(new RDParser(newLexer(sources)).parse()));
+        }
+    }
+
+    /**
+     * Tests that the syntax errors are reported at the same token, with the
+     * same message, as the CUP parser does.
+     */
+    @Test
+    public void syntaxErrorsMatchTheCupParser() throws Exception {
+        String[][] programs = {
+                {""}, {"class"}, {"class A"}, {"class A extends {}"},
+                {"class A {} }"}, {"class A {}\nclass {}"}, {"class A {} B"},
+                {"class A {}", "\n\nextends"}, {"class A { ? }"}, {"class A {\n", "\n"}};
+        for (String[] sources : programs) {
+            assertEquals(Arrays.toString(sources),
+                    errors(new Parser(newLexer(sources))),
+                    errors(new RDParser(newLexer(sources))));
+        }
+    }
+
+    /**
+     * Tests that operators are grouped by the precedence and associativity
+     * declared in the grammar.
+     */
+    @Test
+    public void expressionsFollowThePrecedenceDeclarations() throws Exception {
+        String[][] cases = {
+                {"a + b * c", "(a + (b * c))"},
+                {"a * b + c", "((a * b) + c)"},
+                {"a - b - c", "((a - b) - c)"},
+                {"a / b % c * d", "(((a / b) % c) * d)"},
+                {"a = b = c + 1", "(a = (b = (c + 1)))"},
+                {"a || b && c || d", "((a || (b && c)) || d)"},
+                {"a == b != c", "((a == b) != c)"},
+                {"a < b == c >= d", "((a < b) == (c >= d))"},
+                {"a + 1 < b && c", "(((a + 1) < b) && c)"},
+                {"x instanceof A == y instanceof B[]",
+                        "((x instanceof A) == (y instanceof B[]))"},
+                {"-a * b + c", "((-(a * b)) + c)"},
+                {"-a + b", "((-a) + b)"},
+                {"!a && !b.c()", "((!a) && (!b.c()))"},
+                {"a++ + --b", "((a++) + (--b))"},
+                {"-a++", "(-(a++))"},
+                {"(a + b) * c", "((a + b) * c)"},
+                {"((a))", "a"},
+                {"(A)(b).c(d, e + 1)", "((A) b).c(d, (e + 1))"},
+                {"(int[])(x)", "((int[]) x)"},
+                {"f() + g(1).h()", "(f() + g(1).h())"},
+                {"new A().b().c", null},
+                {"new A()", "new A()"},
+                {"new int[n * 2]", "new int[(n * 2)]"},
+                {"this.x = super.y + z", "(this.x = (super.y + z))"},
+                {"a[i + 1] = b[j] = this.c[0]", "(a[(i + 1)] = (b[j] = this.c[0]))"},
+                {"++this.x", "(++this.x)"},
+                {"this.f()", "this.f()"},
+                {"super.f(this)", "super.f(this)"},
+                {"x = \"s\" + true + 1", "(x = ((\"s\" + true) + 1))"},
+                {"a + b = c", null},
+                {"f() = c", null},
+                {"a.b", null},
+                {"a +", null},
+                {"(a", null}};
+        for (String[] c : cases) {
+            String source = "class A { int f = " + c[0] + "; }";
+            if (c[1] == null) {
+                try {
+                    new RDParser(new TestScanner(source)).parse();
+                    fail("expected a syntax error: " + c[0]);
+                } catch (CompilationException e) {
+                }
+            }
+            else {
+                assertEquals(c[0], c[1], show(fieldInit(source)));
+            }
+        }
+    }
+
+    /**
+     * Tests the members and statements, and the line numbers of the nodes.
+     */
+    @Test
+    public void membersAndStatements() throws Exception {
+        String source = "class Main extends Base {\n" +
+                "  int x;\n" +
+                "  String[] names = new String[3];\n" +
+                "  void main() {\n" +
+                "    int i = 0;\n" +
+                "    A[] as = null;\n" +
+                "    while (i < 10)\n" +
+                "      i = i + 1;\n" +
+                "    for (;;) { break; }\n" +
+                "    for (i = 0; i < 3;\n" +
+                "         i++) {}\n" +
+                "    if (x == 1) return; else if (x == 2) { return; }\n" +
+                "    if (names[0] != null) f(1, 2);\n" +
+                "    {\n" +
+                "    }\n" +
+                "  }\n" +
+                "  int f(int a, B[] b) {\n" +
+                "    return\n" +
+                "      a + b.size();\n" +
+                "  }\n" +
+                "}\n";
+        Program program = new RDParser(new TestScanner(source)).parse();
+        assertEquals("Program:0\n" +
+                        " ClassList:0\n" +
+                        "  Class_:1 [?, Main, Base]\n" +
+                        "   MemberList:0\n" +
+                        "    Field:2 [x, int]\n" +
+                        "    Field:3 [names, String[]]\n" +
+                        "     NewArrayExpr:3 [String]\n" +
+                        "      ConstIntExpr:3 [3]\n" +
+                        "    Method:4 [main, void]\n" +
+                        "     FormalList:4\n" +
+                        "     StmtList:0\n" +
+                        "      DeclStmt:5 [i, int]\n" +
+                        "       ConstIntExpr:5 [0]\n" +
+                        "      DeclStmt:6 [as, A[]]\n" +
+                        "       VarExpr:6 [null]\n" +
+                        "      WhileStmt:7\n" +
+                        "       ExprStmt:8\n" +
+                        "        AssignExpr:8 [i]\n" +
+                        "         BinaryArithPlusExpr:8\n" +
+                        "          VarExpr:8 [i]\n" +
+                        "          ConstIntExpr:8 [1]\n" +
+                        "       BinaryCompLtExpr:7\n" +
+                        "        VarExpr:7 [i]\n" +
+                        "        ConstIntExpr:7 [10]\n" +
+                        "      ForStmt:9\n" +
+                        "       BlockStmt:9\n" +
+                        "        StmtList:0\n" +
+                        "         BreakStmt:9\n" +
+                        "      ForStmt:10\n" +
+                        "       BlockStmt:11\n" +
+                        "        StmtList:11\n" +
+                        "       AssignExpr:10 [i]\n" +
+                        "        ConstIntExpr:10 [0]\n" +
+                        "       BinaryCompLtExpr:10\n" +
+                        "        VarExpr:10 [i]\n" +
+                        "        ConstIntExpr:10 [3]\n" +
+                        "       UnaryIncrExpr:11 [true]\n" +
+                        "        VarExpr:11 [i]\n" +
+                        "      IfStmt:12\n" +
+                        "       IfStmt:12\n" +
+                        "        BinaryCompEqExpr:12\n" +
+                        "         VarExpr:12 [x]\n" +
+                        "         ConstIntExpr:12 [2]\n" +
+                        "        BlockStmt:12\n" +
+                        "         StmtList:0\n" +
+                        "          ReturnStmt:12\n" +
+                        "       BinaryCompEqExpr:12\n" +
+                        "        VarExpr:12 [x]\n" +
+                        "        ConstIntExpr:12 [1]\n" +
+                        "       ReturnStmt:12\n" +
+                        "      IfStmt:13\n" +
+                        "       BinaryCompNeExpr:13\n" +
+                        "        ArrayExpr:13 [names]\n" +
+                        "         ConstIntExpr:13 [0]\n" +
+                        "        VarExpr:13 [null]\n" +
+                        "       ExprStmt:13\n" +
+                        "        DispatchExpr:13 [f]\n" +
+                        "         ExprList:0\n" +
+                        "          ConstIntExpr:13 [1]\n" +
+                        "          ConstIntExpr:13 [2]\n" +
+                        "      BlockStmt:14\n" +
+                        "       StmtList:15\n" +
+                        "    Method:17 [f, int]\n" +
+                        "     FormalList:0\n" +
+                        "      Formal:17 [a, int]\n" +
+                        "      Formal:17 [b, B[]]\n" +
+                        "     StmtList:0\n" +
+                        "      ReturnStmt:18\n" +
+                        "       BinaryArithPlusExpr:19\n" +
+                        "        VarExpr:19 [a]\n" +
+                        "        DispatchExpr:19 [size]\n" +
+                        "         ExprList:19\n" +
+                        "         VarExpr:19 [b]\n",
+                describe(program));
+    }
+
+    /**
+     * Tests the syntax errors in members and statements.
+     */
+    @Test
+    public void syntaxErrorsAreReportedAtTheUnexpectedToken() throws Exception {
+        String[][] cases = {
+                {"class A { int x }", "?:1:syntactic error: unexpected input near '}'"},
+                {"class A { int f() { int x; } }", "?:1:syntactic error: unexpected input near ';'"},
+                {"class A { int f() {\n a + b = c;\n} }", "?:2:syntactic error: unexpected input near '='"},
+                {"class A { void f() {\n return 1\n}\n}", "?:3:syntactic error: unexpected input near '}'"},
+                {"class A { void f() { if x { } } }", "?:1:syntactic error: unexpected input near 'x'"},
+                {"class A { void f(int a,) { } }", "?:1:syntactic error: unexpected input near ')'"},
+                {"class A { void f() { for (;) {} } }", "?:1:syntactic error: unexpected input near ')'"},
+                {"class A { void f() {", "?:1:syntactic error: unexpected input near 'EOF'"}};
+        for (String[] c : cases) {
+            assertEquals(c[0], "[" + c[1] + "]", errors(new RDParser(new TestScanner(c[0]))));
+        }
+    }
+
+    /**
+     * Create a lexer over sources
+     *
+     * @param sources contents of the source files
+     * @return the lexer
+     */
+    private static BantamScanner newLexer(String[] sources) {
+        String[] filenames = new String[sources.length];
+        Reader[] readers = new Reader[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            filenames[i] = "file" + i + ".btm";
+            readers[i] = new StringReader(sources[i]);
+        }
+        return new FastLexer(filenames, readers, false);
+    }
+
+    /**
+     * Get the syntax errors the CUP parser reports
+     *
+     * @param parser the parser
+     * @return error messages (empty if the input was parsed)
+     */
+    private static String errors(Parser parser) throws Exception {
+        try {
+            parser.parse();
+            return "[]";
+        } catch (CompilationException e) {
+            return e.getErrors().toString();
+        }
+    }
+
+    /**
+     * Get the syntax errors the recursive-descent parser reports
+     *
+     * @param parser the parser
+     * @return error messages (empty if the input was parsed)
+     */
+    private static String errors(RDParser parser) throws Exception {
+        try {
+            parser.parse();
+            return "[]";
+        } catch (CompilationException e) {
+            return e.getErrors().toString();
+        }
+    }
+
+    /**
+     * Parse a class with a single field and get the initializer of the field
+     *
+     * @param source source of the class
+     * @return the initialization expression
+     */
+    private static Expr fieldInit(String source) throws Exception {
+        Program program = new RDParser(new TestScanner(source)).parse();
+        Class_ class_ = (Class_) program.getClassList().get(0);
+        return ((Field) class_.getMemberList().get(0)).getInit();
+    }
+
+    /**
+     * Show an expression with its operators fully parenthesized
+     *
+     * @param expr the expression
+     * @return the string
+     */
+    private static String show(Expr expr) {
+        if (expr instanceof BinaryExpr) {
+            BinaryExpr binary = (BinaryExpr) expr;
+            return "(" + show(binary.getLeftExpr()) + " " + binary.getOpName() + " " +
+                    show(binary.getRightExpr()) + ")";
+        }
+        if (expr instanceof UnaryExpr) {
+            UnaryExpr unary = (UnaryExpr) expr;
+            return unary.isPostfix() ? "(" + show(unary.getExpr()) + unary.getOpName() + ")" :
+                    "(" + unary.getOpName() + show(unary.getExpr()) + ")";
+        }
+        if (expr instanceof ConstExpr) {
+            return expr instanceof ConstStringExpr ? "\"" + ((ConstExpr) expr).getConstant() + "\"" :
+                    ((ConstExpr) expr).getConstant();
+        }
+        if (expr instanceof VarExpr) {
+            VarExpr var = (VarExpr) expr;
+            return (var.getRef() == null ? "" : show(var.getRef()) + ".") + var.getName();
+        }
+        if (expr instanceof ArrayExpr) {
+            ArrayExpr array = (ArrayExpr) expr;
+            return (array.getRef() == null ? "" : show(array.getRef()) + ".") + array.getName() +
+                    "[" + show(array.getIndex()) + "]";
+        }
+        if (expr instanceof AssignExpr) {
+            AssignExpr assign = (AssignExpr) expr;
+            return "(" + (assign.getRefName() == null ? "" : assign.getRefName() + ".") +
+                    assign.getName() + " = " + show(assign.getExpr()) + ")";
+        }
+        if (expr instanceof ArrayAssignExpr) {
+            ArrayAssignExpr assign = (ArrayAssignExpr) expr;
+            return "(" + (assign.getRefName() == null ? "" : assign.getRefName() + ".") +
+                    assign.getName() + "[" + show(assign.getIndex()) + "] = " +
+                    show(assign.getExpr()) + ")";
+        }
+        if (expr instanceof DispatchExpr) {
+            DispatchExpr dispatch = (DispatchExpr) expr;
+            List<String> args = new Vector<String>();
+            for (ASTNode arg : dispatch.getActualList()) {
+                args.add(show((Expr) arg));
+            }
+            return (dispatch.getRefExpr() == null ? "" : show(dispatch.getRefExpr()) + ".") +
+                    dispatch.getMethodName() + "(" + String.join(", ", args) + ")";
+        }
+        if (expr instanceof NewExpr) {
+            return "new " + ((NewExpr) expr).getType() + "()";
+        }
+        if (expr instanceof NewArrayExpr) {
+            NewArrayExpr newArray = (NewArrayExpr) expr;
+            return "new " + newArray.getType() + "[" + show(newArray.getSize()) + "]";
+        }
+        if (expr instanceof InstanceofExpr) {
+            InstanceofExpr instanceOf = (InstanceofExpr) expr;
+            return "(" + show(instanceOf.getExpr()) + " instanceof " + instanceOf.getType() + ")";
+        }
+        CastExpr cast = (CastExpr) expr;
+        return "((" + cast.getType() + ") " + show(cast.getExpr()) + ")";
+    }
+
+    /**
+     * Describe an AST: one line per node with its class, line number and
+     * attributes (the values of its getters returning strings or booleans),
+     * followed by its children in the alphabetical order of their getters
+     * (and then its elements for lists)
+     *
+     * @param node root of the AST
+     * @return the description
+     */
+    private static String describe(ASTNode node) throws Exception {
+        StringBuilder out = new StringBuilder();
+        describe(node, "", out);
+        return out.toString();
+    }
+
+    /**
+     * Describe an AST
+     *
+     * @param node   root of the AST (or null)
+     * @param indent indentation of the root
+     * @param out    builder the description is appended to
+     */
+    private static void describe(ASTNode node, String indent, StringBuilder out)
+            throws Exception {
+        if (node == null) {
+            return;
+        }
+        out.append(indent).append(node.getClass().getSimpleName()).append(":")
+                .append(node.getLineNum());
+        // getters in a fixed order
+        Method[] getters = node.getClass().getMethods();
+        Arrays.sort(getters, (a, b) -> a.getName().compareTo(b.getName()));
+        List<String> attributes = new Vector<String>();
+        List<ASTNode> children = new Vector<ASTNode>();
+        for (Method getter : getters) {
+            if (getter.getParameterCount() != 0 || getter.getDeclaringClass() == Object.class ||
+                    getter.getName().equals("getLineNum") ||
+                    getter.getName().equals("getExprType") ||
+                    !(getter.getName().startsWith("get") || getter.getName().startsWith("is")) ||
+                    getter.getName().startsWith("getOp")) {
+                continue;
+            }
+            Object value = getter.invoke(node);
+            if (value instanceof ASTNode) {
+                children.add((ASTNode) value);
+            }
+            else if (value instanceof String || value instanceof Boolean) {
+                attributes.add(value.toString());
+            }
+        }
+        if (attributes.size() > 0) {
+            out.append(" ").append(attributes);
+        }
+        out.append("\n");
+        if (node instanceof ListNode) {
+            for (ASTNode element : (ListNode) node) {
+                children.add(element);
+            }
+        }
+        for (ASTNode child : children) {
+            describe(child, indent + " ", out);
+        }
+    }
+
+    /**
+     * Scanner over a single source, returning every token of the language
+     * (the lexers don't support all of them yet), in file "?"
+     */
+    private static class TestScanner implements BantamScanner
+    {
+        /**
+         * Token ids of the keywords and punctuation
+         */
+        private static final Map<String, Integer> IDS = new HashMap<String, Integer>();
+
+        static {
+            String[] names = {"class", "extends", "if", "else", "while", "for", "break",
+                    "new", "return", "instanceof", "+", "-", "*", "/", "%", "!", "&&", "||",
+                    "==", "!=", "<", "<=", ">", ">=", "=", "++", "--", "(", ")", "{", "}",
+                    "[", "]", ";", ",", "."};
+            int[] ids = {TokenIds.CLASS, TokenIds.EXTENDS, TokenIds.IF, TokenIds.ELSE,
+                    TokenIds.WHILE, TokenIds.FOR, TokenIds.BREAK, TokenIds.NEW,
+                    TokenIds.RETURN, TokenIds.INSTANCEOF, TokenIds.PLUS, TokenIds.MINUS,
+                    TokenIds.TIMES, TokenIds.DIVIDE, TokenIds.MODULUS, TokenIds.NOT,
+                    TokenIds.AND, TokenIds.OR, TokenIds.EQ, TokenIds.NE, TokenIds.LT,
+                    TokenIds.LEQ, TokenIds.GT, TokenIds.GEQ, TokenIds.ASSIGN, TokenIds.INCR,
+                    TokenIds.DECR, TokenIds.LPAREN, TokenIds.RPAREN, TokenIds.LBRACE,
+                    TokenIds.RBRACE, TokenIds.LSQBRACE, TokenIds.RSQBRACE, TokenIds.SEMI,
+                    TokenIds.COMMA, TokenIds.DOT};
+            for (int i = 0; i < names.length; i++) {
+                IDS.put(names[i], ids[i]);
+            }
+        }
+
+        /**
+         * Source being scanned
+         */
+        private String source;
+        /**
+         * Position of the next character
+         */
+        private int pos = 0;
+        /**
+         * Line number of the last token
+         */
+        private int line = 1;
+
+        /**
+         * TestScanner constructor
+         *
+         * @param source the source (strings can't contain spaces or escapes)
+         */
+        TestScanner(String source) {
+            this.source = source;
+        }
+
+        public Symbol next_token() {
+            while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+                if (source.charAt(pos++) == '\n') {
+                    line++;
+                }
+            }
+            if (pos == source.length()) {
+                return new Symbol(TokenIds.EOF, new Token("EOF", line));
+            }
+            int start = pos;
+            char c = source.charAt(pos++);
+            if (Character.isLetterOrDigit(c)) {
+                while (pos < source.length() && Character.isLetterOrDigit(source.charAt(pos))) {
+                    pos++;
+                }
+                String text = source.substring(start, pos);
+                if (IDS.containsKey(text)) {
+                    return new Symbol(IDS.get(text), new Token(text.toUpperCase(), line));
+                }
+                if (text.equals("true") || text.equals("false")) {
+                    return new Symbol(TokenIds.BOOLEAN_CONST, new Token(text.toUpperCase(), text, line));
+                }
+                if (Character.isDigit(c)) {
+                    return new Symbol(TokenIds.INT_CONST, new Token("INT_CONST", text, line));
+                }
+                return new Symbol(TokenIds.ID, new Token("ID", text, line));
+            }
+            if (c == '"') {
+                pos = source.indexOf('"', pos) + 1;
+                return new Symbol(TokenIds.STRING_CONST,
+                        new Token("STRING_CONST", source.substring(start + 1, pos - 1), line));
+            }
+            if (pos < source.length() && IDS.containsKey(source.substring(start, pos + 1))) {
+                pos++;
+            }
+            String text = source.substring(start, pos);
+            return new Symbol(IDS.containsKey(text) ? IDS.get(text) : TokenIds.LEX_ERROR,
+                    new Token(text, line));
+        }
+
+        public int getCurrLineNum() {
+            return line;
+        }
+
+        public String getCurrFilename() {
+            return "?";
+        }
+
+        public void printTokens() {
+        }
+    }
+}
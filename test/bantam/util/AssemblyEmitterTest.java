@@ -0,0 +1,61 @@
+package bantam.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+
+/*
+ * File: AssemblyEmitterTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests the buffered assembly emitter.
+ */
+public class AssemblyEmitterTest
+{
+    /**
+     * Tests that the emitter (with small buffers, written by the emitting
+     * thread or by a writer thread) writes exactly the bytes a plain
+     * PrintStream writes.
+     */
+    @Test
+    public void outputIsIdenticalToPrintStream() {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        PrintStream plain = new PrintStream(expected);
+        emit(plain);
+        plain.close();
+
+        for (boolean background : new boolean[]{false, true}) {
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            AssemblyEmitter emitter = new AssemblyEmitter(Channels.newChannel(actual), 16,
+                    background);
+            emit(emitter);
+            emitter.close();
+            assertFalse(emitter.checkError());
+            assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        }
+    }
+
+    private void emit(PrintStream out) {
+        for (int i = 0; i < 100; i++) {
+            out.println("\tli $t0," + i);
+            out.print("label_" + i + ":");
+            out.println();
+            out.print('"');
+            out.print(i);
+            out.println('x');
+            out.printf("\t.word\t%d%n", i * 4);
+            out.flush();
+        }
+        out.println("a string that is longer than the buffer of the emitter");
+        out.println("non-ASCII \u00e9\u4e2d text");
+        out.print((String) null);
+        out.write(10);
+    }
+}
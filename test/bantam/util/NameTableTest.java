@@ -0,0 +1,124 @@
+package bantam.util;
+
+import bantam.lexer.FastLexer;
+import bantam.lexer.Lexer;
+import bantam.lexer.Token;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/*
+ * File: NameTableTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests the interning of names.
+ */
+public class NameTableTest
+{
+    /**
+     * Tests that equal names (as strings or character arrays) map to one
+     * canonical instance with a dense id, across table growth.
+     */
+    @Test
+    public void equalNamesShareOneInstanceAndId() {
+        NameTable names = new NameTable();
+        int predefined = names.getSize();
+        String[] canonical = new String[5000];
+        for (int i = 0; i < canonical.length; i++) {
+            canonical[i] = names.intern(new String("name" + i));
+            assertEquals(predefined + i, names.getId("name" + i));
+        }
+        assertEquals(predefined + canonical.length, names.getSize());
+        for (int i = 0; i < canonical.length; i++) {
+            char[] buf = ("(name" + i + ")").toCharArray();
+            assertSame(canonical[i], names.intern(buf, 1, buf.length - 2));
+            assertSame(canonical[i], names.intern(new String("name" + i)));
+            assertSame(canonical[i], names.getName(predefined + i));
+        }
+        assertEquals(predefined + canonical.length, names.getSize());
+
+        // the names the compiler spells out are their literals, the others
+        // are not the JVM's interned strings
+        assertSame("Object", names.intern(new String("Object")));
+        assertSame("main", names.intern(new String("main")));
+        String name = new String("notPredefined");
+        assertSame(name, names.intern(name));
+        assertNotSame("notPredefined", names.intern(new String("notPredefined")));
+    }
+
+    /**
+     * Tests that threads interning through the shared view of a table at
+     * once get the same canonical instances and ids, held by the table.
+     */
+    @Test
+    public void sharedViewInternsIntoTheTable() throws Exception {
+        final NameTable names = new NameTable();
+        final NameTable shared = names.shared();
+        assertSame(shared, shared.shared());
+        final int count = 2000;
+        final String[][] canonical = new String[4][count];
+        Thread[] threads = new Thread[canonical.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < count; i++) {
+                        // the threads intern the names in different orders
+                        int n = thread % 2 == 0 ? i : count - 1 - i;
+                        char[] buf = ("name" + n).toCharArray();
+                        canonical[thread][n] = thread < 2 ? shared.intern(new String(buf)) :
+                                shared.intern(buf, 0, buf.length);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int predefined = new NameTable().getSize();
+        assertEquals(predefined + count, names.getSize());
+        assertEquals(names.getSize(), shared.getSize());
+        for (int i = 0; i < count; i++) {
+            String name = names.intern("name" + i);
+            for (String[] c : canonical) {
+                assertSame(name, c[i]);
+            }
+            assertSame(name, shared.getName(names.getId(name)));
+            assertEquals(names.getId(name), shared.getId(new String(name)));
+        }
+    }
+
+    /**
+     * Tests that both lexers return the canonical instances of identifiers
+     * and string constants.
+     */
+    @Test
+    public void lexersReturnCanonicalNames() throws Exception {
+        NameTable.reset();
+        String source = "x \"s\" x y \"s\"";
+        Reader[] readers = {new StringReader(source)};
+        Reader[] fastReaders = {new StringReader(source)};
+        Lexer lexer = new Lexer(new String[]{"A.btm"}, readers, false);
+        FastLexer fastLexer = new FastLexer(new String[]{"A.btm"}, fastReaders, false);
+        String[] expected = {"x", "s", "x", "y", "s"};
+        for (String name : expected) {
+            String attribute = ((Token) lexer.next_token().value).getAttribute();
+            assertSame(NameTable.getCurrent().intern(name), attribute);
+            assertSame(attribute, ((Token) fastLexer.next_token().value).getAttribute());
+        }
+
+        // a new compilation starts a new table
+        NameTable table = NameTable.getCurrent();
+        NameTable.reset();
+        assertNotSame(table, NameTable.getCurrent());
+        assertEquals(new NameTable().getSize(), NameTable.getCurrent().getSize());
+    }
+}
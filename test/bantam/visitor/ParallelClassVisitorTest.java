@@ -0,0 +1,244 @@
+package bantam.visitor;
+
+import bantam.ast.*;
+import bantam.lexer.FastLexer;
+import bantam.parser.RDParser;
+import bantam.util.CompilationException;
+import bantam.util.ErrorHandler;
+import bantam.util.NameTable;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/*
+ * File: ParallelClassVisitorTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that the classes visited in parallel give their results and errors
+ * in class order.
+ */
+public class ParallelClassVisitorTest
+{
+    /**
+     * Number of classes of the programs
+     */
+    private static final int NUM_CLASSES = 50;
+
+    /**
+     * Pool with more workers than the classes of a small program
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /**
+     * Tests that the results are in class order.
+     */
+    @Test
+    public void resultsAreInClassOrder() throws Exception {
+        Program program = parse(source());
+        Object[] results = new ParallelClassVisitor(new ParallelClassVisitor.Factory() {
+            public Visitor newVisitor(Class_ node, ErrorHandler errorHandler) {
+                return new Visitor() {
+                    public Object visit(Class_ node) {
+                        return node.getName() + node.getMemberList().getSize();
+                    }
+                };
+            }
+        }, POOL).visit(program, new ErrorHandler());
+        assertEquals(NUM_CLASSES, results.length);
+        for (int i = 0; i < NUM_CLASSES; i++) {
+            assertEquals(className(i) + (i % 3), results[i]);
+        }
+        assertEquals(0, new ParallelClassVisitor(null, POOL)
+                .visit(new ClassList(1), new ErrorHandler()).length);
+    }
+
+    /**
+     * Tests that the errors of the classes are merged in class order.
+     */
+    @Test
+    public void errorsAreMergedInClassOrder() throws Exception {
+        Program program = parse(source());
+        ErrorHandler errorHandler = new ErrorHandler();
+        new ParallelClassVisitor(new ParallelClassVisitor.Factory() {
+            public Visitor newVisitor(final Class_ class_, final ErrorHandler errorHandler) {
+                return new Visitor() {
+                    public Object visit(Field node) {
+                        errorHandler.register(errorHandler.SEMANT_ERROR, class_.getFilename(),
+                                node.getLineNum(), class_.getName() + "." + node.getName());
+                        return null;
+                    }
+                };
+            }
+        }, POOL).visit(program, errorHandler);
+
+        List<String> messages = errorHandler.getErrorMessages();
+        int k = 0;
+        int lineNum = 1;
+        for (int i = 0; i < NUM_CLASSES; i++) {
+            for (int j = 0; j < i % 3; j++) {
+                String message = messages.get(k++);
+                assertTrue(message, message.startsWith("A.btm:" + (lineNum + 1 + j) + ":"));
+                assertTrue(message, message.endsWith(" " + className(i) + ".x" + (char) ('a' + j)));
+            }
+            lineNum += 2 + i % 3;
+        }
+        assertEquals(k, messages.size());
+        try {
+            errorHandler.checkErrors();
+            fail("no errors");
+        } catch (CompilationException e) {
+            assertEquals(k, e.getErrors().size());
+        }
+    }
+
+    /**
+     * Tests that the first failure in class order is thrown, once the errors
+     * of every class are merged.
+     */
+    @Test
+    public void failuresAreThrownInClassOrder() throws Exception {
+        Program program = parse(source());
+        ErrorHandler errorHandler = new ErrorHandler();
+        try {
+            new ParallelClassVisitor(new ParallelClassVisitor.Factory() {
+                public Visitor newVisitor(final Class_ class_, final ErrorHandler errorHandler) {
+                    return new Visitor() {
+                        public Object visit(Class_ node) {
+                            errorHandler.register(errorHandler.SEMANT_ERROR, node.getName());
+                            if (node.getMemberList().getSize() == 2) {
+                                throw new IllegalStateException(node.getName());
+                            }
+                            return null;
+                        }
+                    };
+                }
+            }, POOL).visit(program, errorHandler);
+            fail("no failure");
+        } catch (IllegalStateException e) {
+            assertEquals(className(2), e.getMessage());
+        }
+        assertEquals(NUM_CLASSES, errorHandler.getErrorMessages().size());
+    }
+
+    /**
+     * Tests that the visitors intern into the name table of the caller
+     * (through its shared view), and that the workers' own tables are
+     * restored.
+     */
+    @Test
+    public void nameTableIsPropagated() throws Exception {
+        Program program = parse(source());
+        final NameTable names = new NameTable();
+        NameTable previous = NameTable.getCurrent();
+        NameTable.setCurrent(names);
+        try {
+            Object[] results = new ParallelClassVisitor(new ParallelClassVisitor.Factory() {
+                public Visitor newVisitor(Class_ node, ErrorHandler errorHandler) {
+                    return new Visitor() {
+                        public Object visit(Class_ node) {
+                            return NameTable.getCurrent().intern(new String("visited " + node.getName()));
+                        }
+                    };
+                }
+            }, POOL).visit(program, new ErrorHandler());
+            for (int i = 0; i < results.length; i++) {
+                String name = ((Class_) program.getClassList().get(i)).getName();
+                assertSame(names.intern(new String("visited " + name)), results[i]);
+            }
+            assertSame(names, NameTable.getCurrent());
+        } finally {
+            NameTable.setCurrent(previous);
+        }
+    }
+
+    /**
+     * Tests that printing the classes in parallel prints the same as
+     * printing the program.
+     */
+    @Test
+    public void parallelPrintingMatchesSequentialPrinting() throws Exception {
+        Program program = parse(source());
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        new PrintVisitor(0, 4, new PrintStream(sequential, true)).visit(program);
+
+        Object[] texts = new ParallelClassVisitor(new ParallelClassVisitor.Factory() {
+            public Visitor newVisitor(Class_ node, ErrorHandler errorHandler) {
+                final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                return new PrintVisitor(0, 4, new PrintStream(buffer, true)) {
+                    public Object visit(Class_ node) {
+                        super.visit(node);
+                        return buffer.toString();
+                    }
+                };
+            }
+        }, POOL).visit(program, new ErrorHandler());
+        StringBuilder parallel = new StringBuilder();
+        for (Object text : texts) {
+            parallel.append(text);
+        }
+        assertEquals(sequential.toString(), parallel.toString());
+        assertArrayEquals(texts, new ParallelClassVisitor(new ParallelClassVisitor.Factory() {
+            public Visitor newVisitor(Class_ node, ErrorHandler errorHandler) {
+                final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                return new PrintVisitor(0, 4, new PrintStream(buffer, true)) {
+                    public Object visit(Class_ node) {
+                        super.visit(node);
+                        return buffer.toString();
+                    }
+                };
+            }
+        }).visit(program, new ErrorHandler()));
+    }
+
+    /**
+     * Build a source of NUM_CLASSES classes, the i-th holding i % 3 fields
+     * (xa, xb)
+     *
+     * @return the source
+     */
+    private static String source() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < NUM_CLASSES; i++) {
+            source.append("class ").append(className(i)).append(" {\n");
+            for (int j = 0; j < i % 3; j++) {
+                source.append("    int x").append((char) ('a' + j)).append(" = ").append(i).append(";\n");
+            }
+            source.append("}\n");
+        }
+        return source.toString();
+    }
+
+    /**
+     * Name of the i-th class (identifiers can't hold digits)
+     *
+     * @param i index of the class
+     * @return the name
+     */
+    private static String className(int i) {
+        return "C" + (char) ('a' + i / 26) + (char) ('a' + i % 26);
+    }
+
+    /**
+     * Parse a source
+     *
+     * @param source the source (of file A.btm)
+     * @return the AST
+     */
+    private static Program parse(String source) throws Exception {
+        return new RDParser(new FastLexer(new String[]{"A.btm"},
+                new Reader[]{new StringReader(source)}, false)).parse();
+    }
+}
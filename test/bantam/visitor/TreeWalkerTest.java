@@ -0,0 +1,234 @@
+package bantam.visitor;
+
+import bantam.ast.*;
+import bantam.lexer.FastLexer;
+import bantam.parser.RDParser;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * File: TreeWalkerTest.java
+ * Date: 10/18/26
+ */
+
+/**
+ * Tests that a tree walker calls the callbacks of a visitor in the order of
+ * a recursive traversal, and that it walks ASTs too deep to recurse on.
+ */
+public class TreeWalkerTest
+{
+    /**
+     * Depth of the deep ASTs (far more than the default stack allows)
+     */
+    private static final int DEPTH = 200000;
+
+    /**
+     * Tests the order of the callbacks and the results given to postVisit,
+     * with missing optional children.
+     */
+    @Test
+    public void callbacksFollowTheChildren() throws Exception {
+        Program program = parse("class A { int x; void m(int p) {\n" +
+                "if (p < x) x = p; for (; p > 0; ) { } } }");
+        final StringBuilder trace = new StringBuilder();
+        Object result = new TreeWalker().walk(program, new Visitor() {
+            public boolean preVisit(ASTNode node, int kind) {
+                trace.append('<').append(kind);
+                // the formals are skipped
+                return kind != FlatAST.FORMAL_LIST;
+            }
+
+            public void inVisit(ASTNode node, int kind, int index) {
+                trace.append(' ').append(index);
+            }
+
+            public Object postVisit(ASTNode node, int kind, Object[] results) {
+                StringBuilder children = new StringBuilder();
+                for (Object childResult : results) {
+                    children.append(childResult == null ? "-" : childResult);
+                }
+                trace.append('>');
+                return kind + "(" + children + ")";
+            }
+        });
+        assertEquals("0(1(2(3(4(-)5(6()8(11(27(42(-)42(-))10(23(42(-)))-)" +
+                "13(-29(42(-)44())-15(8()))))))))", result);
+        assertEquals("<0<1<2<3<4> 1<5<6> 1<8<11<27<42> 1<42>> 1<10<23<42>>> 2> 1" +
+                "<13 1<29<42> 1<44>> 2 3<15<8>>>>>>>>>", trace.toString());
+    }
+
+    /**
+     * Tests a chain of additions as deep as the parser builds it (it parses
+     * binary expressions in a loop).
+     */
+    @Test
+    public void deepExpressionChainsAreWalked() throws Exception {
+        StringBuilder source = new StringBuilder("class A { int x = 0");
+        for (int i = 0; i < DEPTH; i++) {
+            source.append(" + x");
+        }
+        Program program = parse(source.append("; }").toString());
+        // program, class list, class, member list, field, 2 nodes per addition
+        assertEquals(5 + 2 * DEPTH + 1, new NodeCountVisitor().count(program));
+
+        String text = print(program, 2);
+        assertTrue(text.startsWith("// Source file: A.btm\n// Source line: 1\n" +
+                "class A extends Object {\n  // Source line: 1\n  int x = " +
+                repeat("(/*line:1*/", DEPTH + 1) + "0) + (/*line:1*/x)) + "));
+        assertTrue(text.endsWith(" + (/*line:1*/x));\n}\n"));
+        // an addition, its right operand and the constant in parentheses
+        assertEquals(2 * DEPTH + 1, count(text, '('));
+    }
+
+    /**
+     * Tests deeply nested blocks and unary expressions, built directly.
+     */
+    @Test
+    public void deepStatementNestingIsWalked() throws Exception {
+        Program program = parse("class A { void m() { } }");
+        Method method = (Method) ((Class_) program.getClassList().get(0))
+                .getMemberList().get(0);
+        Stmt stmt = new ExprStmt(2, new ConstIntExpr(2, "1"));
+        Expr expr = new VarExpr(2, null, "y");
+        for (int i = 0; i < DEPTH; i++) {
+            StmtList stmts = new StmtList(2);
+            stmts.addElement(stmt);
+            stmt = new BlockStmt(2, stmts);
+            expr = new UnaryNegExpr(2, expr);
+        }
+        method.getStmtList().addElement(stmt);
+        method.getStmtList().addElement(new ReturnStmt(3, expr));
+        new TrimVisitor().trim(program);
+        assertEquals(11 + 3 * DEPTH, new NodeCountVisitor().count(program));
+
+        // (not indented, as the blocks would take quadratic space)
+        String text = print(program, 0);
+        assertEquals(DEPTH, count(text, '{') - 2);
+        assertTrue(text.contains("return (/*line:2*/-((/*line:2*/-("));
+        assertTrue(text.endsWith("(/*line:2*/y)" + repeat("))", DEPTH) + ";\n}\n}\n"));
+    }
+
+    /**
+     * Tests that a walker can be reused, including after a callback failed.
+     */
+    @Test
+    public void walkersCanBeReused() throws Exception {
+        Program program = parse("class A { } class B { }");
+        TreeWalker walker = new TreeWalker();
+        try {
+            walker.walk(program, new Visitor() {
+                public boolean preVisit(ASTNode node, int kind) {
+                    if (kind == FlatAST.CLASS) {
+                        throw new IllegalStateException("class");
+                    }
+                    return true;
+                }
+            });
+            throw new AssertionError("no failure");
+        } catch (IllegalStateException e) {
+            assertEquals("class", e.getMessage());
+        }
+        assertNull(walker.walk(program, new NodeCountVisitor()));
+        assertEquals(6, new NodeCountVisitor().count(program));
+    }
+
+    /**
+     * Tests that a visitor writing into the results it is given doesn't
+     * change the results given for the other nodes.
+     */
+    @Test
+    public void resultsWrittenByVisitorsDontLeak() throws Exception {
+        Program program = parse("class A { int x = 1 + 2; int y = 3 * 4; } class B { }");
+        final int[] numNodes = {0};
+        Visitor v = new Visitor() {
+            public Object postVisit(ASTNode node, int kind, Object[] results) {
+                for (int i = 0; i < results.length; i++) {
+                    assertNull(results[i]);
+                    results[i] = "junk";
+                }
+                numNodes[0]++;
+                return null;
+            }
+        };
+        new TreeWalker().walk(program, v);
+        new TreeWalker().walk(program, v);
+        assertEquals(2 * new NodeCountVisitor().count(program), numNodes[0]);
+    }
+
+    /**
+     * Tests that the PrintVisitor prints subtrees (a member list, a field, a
+     * statement and an expression) as well as whole programs.
+     */
+    @Test
+    public void subtreesArePrinted() throws Exception {
+        Field field = new Field(1, "int", "x", new ConstIntExpr(1, "3"));
+        MemberList members = new MemberList(1);
+        members.addElement(field);
+        String fieldText = "// Source line: 1\nint x = (/*line:1*/3);\n";
+        assertEquals(fieldText, print(members, 4));
+        assertEquals(fieldText, print(field, 4));
+
+        Expr sum = new BinaryArithPlusExpr(2, new VarExpr(2, null, "x"),
+                new ConstIntExpr(2, "1"));
+        String sumText = "(/*line:2*/(/*line:2*/x) + (/*line:2*/1))";
+        assertEquals(sumText, print(sum, 4));
+        assertEquals("// Source line: 2\nreturn " + sumText + ";\n",
+                print(new ReturnStmt(2, sum), 4));
+    }
+
+    /**
+     * Parse a source
+     *
+     * @param source the source (of file A.btm)
+     * @return the AST
+     */
+    private static Program parse(String source) throws Exception {
+        return new RDParser(new FastLexer(new String[]{"A.btm"},
+                new Reader[]{new StringReader(source)}, false)).parse();
+    }
+
+    /**
+     * Print an AST (or a subtree) with the PrintVisitor
+     *
+     * @param node       root of the AST
+     * @param indentSize indentation size
+     * @return the printed text
+     */
+    private static String print(ASTNode node, int indentSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(out, true));
+        try {
+            node.accept(new PrintVisitor(0, indentSize));
+        } finally {
+            System.setOut(stdout);
+        }
+        return out.toString();
+    }
+
+    private static int count(String text, char c) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String repeat(String text, int n) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            repeated.append(text);
+        }
+        return repeated.toString();
+    }
+}